@@ -0,0 +1,138 @@
+package io.github.tcdl.msb.adapters.amqp;
+
+import com.rabbitmq.client.Channel;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link AdaptivePrefetchController} adjusts prefetch count (AMQP QoS) of a consumer channel at runtime.
+ *
+ * The controller measures the time from delivery of every message till its acknowledgement. The shortest time seen
+ * recently approximates the pure handling time, the rest is the time messages wait for a free handler thread.
+ * Multiplied by the throughput (Little's law) the waiting time gives the number of messages queued in the consumer
+ * executor. The prefetch count is increased while messages don't queue up and the consumer makes use of
+ * its prefetch window, and is decreased once more than a half of the window waits in the queue.
+ * The value always stays within the configured bounds.
+ *
+ * The limit is set with global = true, so that the change applies to the consumer of the channel immediately.
+ */
+class AdaptivePrefetchController {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AdaptivePrefetchController.class);
+
+    private final Channel channel;
+    private final int minPrefetchCount;
+    private final int maxPrefetchCount;
+    private final long adjustmentIntervalMs;
+
+    private final LongAdder settledCount = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicLong minLatencyNanos = new AtomicLong(Long.MAX_VALUE);
+
+    private volatile int prefetchCount;
+    private long baselineLatencyNanos = Long.MAX_VALUE;
+    private long lastAdjustmentNanos;
+    private ScheduledFuture<?> adjustmentTask;
+
+    /**
+     * @param initialPrefetchCount prefetch count to start with. It's brought within the bounds if needed.
+     */
+    AdaptivePrefetchController(Channel channel, int minPrefetchCount, int maxPrefetchCount, int initialPrefetchCount,
+            long adjustmentIntervalMs) {
+        Validate.notNull(channel, "the 'channel' must not be null");
+        Validate.isTrue(minPrefetchCount > 0, "the 'minPrefetchCount' must be positive");
+        Validate.isTrue(maxPrefetchCount >= minPrefetchCount, "the 'maxPrefetchCount' must not be less than 'minPrefetchCount'");
+        Validate.isTrue(adjustmentIntervalMs > 0, "the 'adjustmentIntervalMs' must be positive");
+
+        this.channel = channel;
+        this.minPrefetchCount = minPrefetchCount;
+        this.maxPrefetchCount = maxPrefetchCount;
+        this.adjustmentIntervalMs = adjustmentIntervalMs;
+        this.prefetchCount = Math.max(minPrefetchCount, Math.min(maxPrefetchCount, initialPrefetchCount));
+    }
+
+    /**
+     * Sets the initial prefetch count and starts periodic adjustments.
+     */
+    synchronized void start(ScheduledExecutorService scheduler) throws IOException {
+        channel.basicQos(prefetchCount, true);
+        lastAdjustmentNanos = System.nanoTime();
+        adjustmentTask = scheduler.scheduleWithFixedDelay(this::adjust, adjustmentIntervalMs, adjustmentIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    synchronized void stop() {
+        if (adjustmentTask != null) {
+            adjustmentTask.cancel(false);
+            adjustmentTask = null;
+        }
+    }
+
+    /**
+     * Records that the message delivered at the given time (as per {@link System#nanoTime()}) is settled.
+     */
+    void settled(long deliveredAtNanos) {
+        settled(deliveredAtNanos, System.nanoTime());
+    }
+
+    void settled(long deliveredAtNanos, long settledAtNanos) {
+        long latency = settledAtNanos - deliveredAtNanos;
+        settledCount.increment();
+        totalLatencyNanos.add(latency);
+        minLatencyNanos.accumulateAndGet(latency, Math::min);
+    }
+
+    int getPrefetchCount() {
+        return prefetchCount;
+    }
+
+    private void adjust() {
+        try {
+            adjust(System.nanoTime());
+        } catch (Exception e) {
+            LOG.error("Failed to adjust prefetch count", e);
+        }
+    }
+
+    synchronized void adjust(long nowNanos) throws IOException {
+        long elapsedNanos = nowNanos - lastAdjustmentNanos;
+        lastAdjustmentNanos = nowNanos;
+        long count = settledCount.sumThenReset();
+        long totalLatency = totalLatencyNanos.sumThenReset();
+        long minLatency = minLatencyNanos.getAndSet(Long.MAX_VALUE);
+        if (count == 0 || elapsedNanos <= 0) {
+            return;
+        }
+
+        // let the baseline drift up slowly so that it follows handlers that become slower
+        long driftedBaseline = baselineLatencyNanos == Long.MAX_VALUE ? Long.MAX_VALUE : baselineLatencyNanos + baselineLatencyNanos / 8;
+        baselineLatencyNanos = Math.min(minLatency, driftedBaseline);
+
+        double throughput = (double) count / elapsedNanos;
+        double averageLatency = (double) totalLatency / count;
+        double inProgress = throughput * averageLatency;
+        double queued = throughput * (averageLatency - baselineLatencyNanos);
+
+        int step = Math.max(1, prefetchCount / 4);
+        int newPrefetchCount = prefetchCount;
+        if (queued > prefetchCount / 2.0) {
+            newPrefetchCount = Math.max(minPrefetchCount, prefetchCount - step);
+        } else if (queued < Math.max(1.0, prefetchCount / 10.0) && inProgress >= prefetchCount / 2.0) {
+            newPrefetchCount = Math.min(maxPrefetchCount, prefetchCount + step);
+        }
+
+        if (newPrefetchCount != prefetchCount) {
+            LOG.debug("Changing prefetch count from {} to {} (in progress: {}, queued: {})",
+                    prefetchCount, newPrefetchCount, String.format("%.1f", inProgress), String.format("%.1f", queued));
+            channel.basicQos(newPrefetchCount, true);
+            prefetchCount = newPrefetchCount;
+        }
+    }
+}
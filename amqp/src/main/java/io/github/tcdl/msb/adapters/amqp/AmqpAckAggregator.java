@@ -0,0 +1,192 @@
+package io.github.tcdl.msb.adapters.amqp;
+
+import com.rabbitmq.client.Channel;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AmqpAckAggregator} coalesces acknowledgements of messages delivered on a single channel.
+ *
+ * Delivery tags of a channel are consecutive, so instead of acknowledging every message separately the aggregator
+ * waits until all messages up to some tag are settled and then acknowledges them with a single
+ * {@code basic.ack(tag, multiple = true)}. Acknowledgements are sent once the configured number of them is pending
+ * or, at the latest, by a periodic flush. Rejects are never coalesced and are sent immediately.
+ *
+ * Messages that are confirmed while an earlier message is still being processed can't be covered by a multiple ack.
+ * If such a gap is not closed between two periodic flushes, they are acknowledged individually, so that a slow
+ * message doesn't hold back the prefetch window.
+ */
+class AmqpAckAggregator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AmqpAckAggregator.class);
+
+    private final Channel channel;
+    private final int batchSize;
+    private final ScheduledFuture<?> flushTask;
+    private boolean closed;
+
+    /**
+     * All messages with tags up to and including this one are settled. -1 until the first delivery.
+     */
+    private long settledUpTo = -1;
+    private long settledUpToAtLastFlush = -1;
+
+    /**
+     * Bit i refers to the message with tag settledUpTo + 1 + i.
+     */
+    private BitSet settledAhead = new BitSet();
+    private BitSet unsentAhead = new BitSet();
+
+    /**
+     * Number of confirmed messages with tags up to settledUpTo whose acknowledgement is not sent yet
+     * and the highest tag among them. A multiple ack is always sent for the tag of an unacknowledged message,
+     * because brokers refuse acks of unknown delivery tags.
+     */
+    private int unsentUpTo;
+    private long lastUnsentUpTo;
+    private int unsentTotal;
+
+    /**
+     * @param batchSize number of pending acknowledgements that triggers sending them
+     * @param flushIntervalMs interval of periodic sending of pending acknowledgements
+     * @param scheduler scheduler to run periodic flushes on
+     */
+    AmqpAckAggregator(Channel channel, int batchSize, long flushIntervalMs, ScheduledExecutorService scheduler) {
+        Validate.notNull(channel, "the 'channel' must not be null");
+        Validate.isTrue(batchSize > 0, "the 'batchSize' must be positive");
+        Validate.isTrue(flushIntervalMs > 0, "the 'flushIntervalMs' must be positive");
+        Validate.notNull(scheduler, "the 'scheduler' must not be null");
+
+        this.channel = channel;
+        this.batchSize = batchSize;
+        this.flushTask = scheduler.scheduleWithFixedDelay(this::flushPeriodically, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registers the message delivered on the channel. Must be called for every delivery before it is settled.
+     */
+    synchronized void delivered(long deliveryTag) {
+        if (settledUpTo < 0) {
+            settledUpTo = deliveryTag - 1;
+            settledUpToAtLastFlush = settledUpTo;
+        }
+    }
+
+    /**
+     * Schedules acknowledgement of the message.
+     */
+    synchronized void ack(long deliveryTag) throws IOException {
+        if (closed) {
+            channel.basicAck(deliveryTag, false);
+            return;
+        }
+        if (settledUpTo < 0) {
+            LOG.warn("Acknowledging message with unregistered delivery tag {} individually", deliveryTag);
+            channel.basicAck(deliveryTag, false);
+            return;
+        }
+        int index = indexOf(deliveryTag);
+        if (index < 0 || settledAhead.get(index)) {
+            LOG.warn("Ignoring acknowledgement of already settled message with delivery tag {}", deliveryTag);
+            return;
+        }
+        settledAhead.set(index);
+        unsentAhead.set(index);
+        unsentTotal++;
+        advance();
+
+        if (unsentUpTo >= batchSize) {
+            sendMultipleAck();
+        }
+    }
+
+    /**
+     * Rejects the message immediately.
+     */
+    synchronized void reject(long deliveryTag, boolean requeue) throws IOException {
+        channel.basicReject(deliveryTag, requeue);
+        int index = indexOf(deliveryTag);
+        if (index >= 0) {
+            settledAhead.set(index);
+            advance();
+        }
+    }
+
+    /**
+     * Sends all pending acknowledgements.
+     */
+    synchronized void flush() throws IOException {
+        sendMultipleAck();
+        sendIndividualAcks();
+    }
+
+    /**
+     * Stops periodic flushes and sends all pending acknowledgements. Messages that are acknowledged afterwards
+     * (for example those that were still being processed when the consumer was cancelled) are acknowledged individually.
+     */
+    synchronized void close() throws IOException {
+        flushTask.cancel(false);
+        closed = true;
+        flush();
+    }
+
+    private synchronized void flushPeriodically() {
+        try {
+            sendMultipleAck();
+            if (settledUpTo == settledUpToAtLastFlush) {
+                sendIndividualAcks();
+            }
+            settledUpToAtLastFlush = settledUpTo;
+        } catch (Exception e) {
+            LOG.error("Failed to send acknowledgements", e);
+        }
+    }
+
+    private void sendMultipleAck() throws IOException {
+        if (unsentUpTo > 0) {
+            channel.basicAck(lastUnsentUpTo, true);
+            unsentTotal -= unsentUpTo;
+            unsentUpTo = 0;
+        }
+    }
+
+    private void sendIndividualAcks() throws IOException {
+        for (int i = unsentAhead.nextSetBit(0); i >= 0; i = unsentAhead.nextSetBit(i + 1)) {
+            channel.basicAck(settledUpTo + 1 + i, false);
+            unsentAhead.clear(i);
+            unsentTotal--;
+        }
+    }
+
+    private void advance() {
+        int shift = settledAhead.nextClearBit(0);
+        if (shift > 0) {
+            int lastUnsent = unsentAhead.previousSetBit(shift - 1);
+            if (lastUnsent >= 0) {
+                unsentUpTo += unsentAhead.get(0, shift).cardinality();
+                lastUnsentUpTo = settledUpTo + 1 + lastUnsent;
+            }
+            settledAhead = settledAhead.get(shift, Math.max(shift, settledAhead.length()));
+            unsentAhead = unsentAhead.get(shift, Math.max(shift, unsentAhead.length()));
+            settledUpTo += shift;
+        }
+    }
+
+    private int indexOf(long deliveryTag) {
+        if (settledUpTo < 0 || deliveryTag <= settledUpTo) {
+            return -1;
+        }
+        return (int) (deliveryTag - settledUpTo - 1);
+    }
+
+    synchronized int getPendingCount() {
+        return unsentTotal;
+    }
+}
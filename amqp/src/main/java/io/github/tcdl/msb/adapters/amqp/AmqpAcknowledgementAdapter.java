@@ -4,31 +4,71 @@ import com.rabbitmq.client.Channel;
 import io.github.tcdl.msb.acknowledge.AcknowledgementAdapter;
 
 /**
- * AMQP acknowledgement implementation.
+ * AMQP acknowledgement implementation. Acknowledgements are either sent right away or coalesced by {@link AmqpAckAggregator}.
+ * If the prefetch count of the channel is adaptive, settlement of the message is reported to {@link AdaptivePrefetchController}.
  */
 public class AmqpAcknowledgementAdapter implements AcknowledgementAdapter {
     final Channel channel;
     final String identifier;
     final long deliveryTag;
+    final AmqpAckAggregator ackAggregator;
+    final AdaptivePrefetchController prefetchController;
+    private final long deliveredAtNanos;
 
     public AmqpAcknowledgementAdapter(Channel channel, String identifier, long deliveryTag) {
+        this(channel, identifier, deliveryTag, null);
+    }
+
+    AmqpAcknowledgementAdapter(Channel channel, String identifier, long deliveryTag, AmqpAckAggregator ackAggregator) {
+        this(channel, identifier, deliveryTag, ackAggregator, null);
+    }
+
+    /**
+     * Is expected to be created upon delivery of the message, the creation time is used as the delivery time.
+     */
+    AmqpAcknowledgementAdapter(Channel channel, String identifier, long deliveryTag, AmqpAckAggregator ackAggregator,
+            AdaptivePrefetchController prefetchController) {
         this.channel = channel;
         this.identifier = identifier;
         this.deliveryTag = deliveryTag;
+        this.ackAggregator = ackAggregator;
+        this.prefetchController = prefetchController;
+        this.deliveredAtNanos = prefetchController != null ? System.nanoTime() : 0;
     }
 
     @Override
     public void confirm() throws Exception {
-        channel.basicAck(deliveryTag, false);
+        if (ackAggregator != null) {
+            ackAggregator.ack(deliveryTag);
+        } else {
+            channel.basicAck(deliveryTag, false);
+        }
+        settled();
     }
 
     @Override
     public void reject() throws Exception {
-        channel.basicReject(deliveryTag, false);
+        if (ackAggregator != null) {
+            ackAggregator.reject(deliveryTag, false);
+        } else {
+            channel.basicReject(deliveryTag, false);
+        }
+        settled();
     }
 
     @Override
     public void retry() throws Exception {
-        channel.basicReject(deliveryTag, true);
+        if (ackAggregator != null) {
+            ackAggregator.reject(deliveryTag, true);
+        } else {
+            channel.basicReject(deliveryTag, true);
+        }
+        settled();
+    }
+
+    private void settled() {
+        if (prefetchController != null) {
+            prefetchController.settled(deliveredAtNanos);
+        }
     }
 }
@@ -7,6 +7,7 @@ import com.rabbitmq.client.RecoveryListener;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
 import io.github.tcdl.msb.adapters.AdapterFactory;
+import io.github.tcdl.msb.adapters.ConsumerAdapter;
 import io.github.tcdl.msb.api.AmqpRequestOptions;
 import io.github.tcdl.msb.api.AmqpResponderOptions;
 import io.github.tcdl.msb.api.ExchangeType;
@@ -18,12 +19,20 @@ import io.github.tcdl.msb.api.exception.ConfigurationException;
 import io.github.tcdl.msb.config.MsbConfig;
 import io.github.tcdl.msb.config.amqp.AmqpBrokerConfig;
 import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 /**
  * AmqpAdapterFactory is an implementation of {@link AdapterFactory}
@@ -35,6 +44,11 @@ public class AmqpAdapterFactory implements AdapterFactory {
 
     private volatile AmqpBrokerConfig amqpBrokerConfig;
     private volatile AmqpConnectionManager connectionManager;
+    private volatile AmqpProducerChannelPool producerChannelPool;
+    private volatile ExecutorService consumerWorkPool;
+    private volatile ScheduledExecutorService consumerScheduler;
+    private volatile AmqpDirectReplyChannel directReplyChannel;
+    private final AmqpTopologyCache topologyCache = new AmqpTopologyCache();
 
     /**
      * @throws ChannelException if an error is encountered during connecting to broker
@@ -45,8 +59,33 @@ public class AmqpAdapterFactory implements AdapterFactory {
         amqpBrokerConfig = createAmqpBrokerConfig(msbConfig);
         LOG.debug("MSB AMQP Broker configuration {}", amqpBrokerConfig);
         ConnectionFactory connectionFactory = createConnectionFactory(amqpBrokerConfig);
-        Connection connection = createConnection(connectionFactory);
-        connectionManager = createConnectionManager(connection);
+        consumerWorkPool = createConsumerWorkPool(amqpBrokerConfig);
+        if (consumerWorkPool != null) {
+            connectionFactory.setSharedExecutor(consumerWorkPool);
+        }
+
+        List<Connection> openedConnections = new ArrayList<>();
+        try {
+            List<Connection> consumeConnections = createConnections(connectionFactory, amqpBrokerConfig.getConsumeConnections(), openedConnections);
+            List<Connection> publishConnections = amqpBrokerConfig.getPublishConnections() > 0
+                    ? createConnections(connectionFactory, amqpBrokerConfig.getPublishConnections(), openedConnections)
+                    : consumeConnections;
+            connectionManager = createConnectionManager(publishConnections, consumeConnections);
+        } catch (RuntimeException e) {
+            // the factory is not usable, so nobody else is going to release what has been opened so far
+            closeConnections(openedConnections);
+            if (consumerWorkPool != null) {
+                consumerWorkPool.shutdown();
+                consumerWorkPool = null;
+            }
+            throw e;
+        }
+        connectionManager.addChannelShutdownListener(topologyCache::channelShutdown);
+        producerChannelPool = createProducerChannelPool(amqpBrokerConfig, connectionManager);
+        directReplyChannel = new AmqpDirectReplyChannel(connectionManager, amqpBrokerConfig);
+        if (amqpBrokerConfig.getAckBatchSize() > 1 || amqpBrokerConfig.isAdaptivePrefetch()) {
+            consumerScheduler = createConsumerScheduler();
+        }
     }
 
     //TODO extract config loading from this class and then rewrite unit test for this class completely
@@ -65,11 +104,19 @@ public class AmqpAdapterFactory implements AdapterFactory {
         return brokerConfig;
     }
     
+    /**
+     * Topics that are direct reply addresses get adapters that publish to the default exchange
+     * with the address as routing key.
+     */
     @Override
     public AmqpProducerAdapter createProducerAdapter(String topic, RequestOptions requestOptions) {
         Validate.notNull(topic, "topic is mandatory");
         Validate.notNull(requestOptions, "requestOptions are mandatory");
 
+        if (AmqpDirectReplyChannel.isDirectReplyAddress(topic)) {
+            return AmqpProducerAdapter.forDirectReply(topic, amqpBrokerConfig, producerChannelPool);
+        }
+
         Class<? extends RequestOptions> requestOptionsClass = requestOptions.getClass();
         ExchangeType exchangeType;
 
@@ -81,21 +128,45 @@ public class AmqpAdapterFactory implements AdapterFactory {
             throw new AdapterCreationException("Illegal for this AdapterFactory RequestOptions subclass");
         }
 
-        return new AmqpProducerAdapter(topic, exchangeType, amqpBrokerConfig, connectionManager);
+        return new AmqpProducerAdapter(topic, exchangeType, amqpBrokerConfig, producerChannelPool, directReplyChannel, topologyCache);
     }
 
+    /**
+     * Responses are published through the producer channel pool shared by all adapters. Since adapters
+     * of response topics are not tracked in the topology cache, dropping them leaves nothing behind.
+     */
     @Override
-    public AmqpConsumerAdapter createConsumerAdapter(String topic, boolean isResponseTopic) {
+    public AmqpProducerAdapter createResponseProducerAdapter(String topic) {
+        Validate.notNull(topic, "topic is mandatory");
+
+        if (AmqpDirectReplyChannel.isDirectReplyAddress(topic)) {
+            return AmqpProducerAdapter.forDirectReply(topic, amqpBrokerConfig, producerChannelPool);
+        }
+        return AmqpProducerAdapter.forResponses(topic, amqpBrokerConfig.getDefaultExchangeType(), amqpBrokerConfig, producerChannelPool);
+    }
+
+    @Override
+    public ConsumerAdapter createConsumerAdapter(String topic, boolean isResponseTopic) {
+        if (AmqpDirectReplyChannel.DIRECT_REPLY_TO.equals(topic)) {
+            return new AmqpDirectReplyConsumerAdapter(directReplyChannel);
+        }
         return new AmqpConsumerAdapter(topic, amqpBrokerConfig.getDefaultExchangeType(),
                 ResponderOptions.DEFAULTS.getBindingKeys(),
-                amqpBrokerConfig, connectionManager, isResponseTopic);
+                amqpBrokerConfig, connectionManager, isResponseTopic, consumerScheduler, amqpBrokerConfig.getConsumerCount(), topologyCache);
     }
 
+    /**
+     * The direct reply topic gets an adapter that consumes replies on the direct reply channel.
+     */
     @Override
-    public AmqpConsumerAdapter createConsumerAdapter(String topic, ResponderOptions responderOptions, boolean isResponseTopic) {
+    public ConsumerAdapter createConsumerAdapter(String topic, ResponderOptions responderOptions, boolean isResponseTopic) {
         Validate.notEmpty(topic, "topic is mandatory");
         Validate.notNull(responderOptions, "responderOptions are mandatory");
 
+        if (AmqpDirectReplyChannel.DIRECT_REPLY_TO.equals(topic)) {
+            return new AmqpDirectReplyConsumerAdapter(directReplyChannel);
+        }
+
         Class<? extends ResponderOptions> responderOptionsClass = responderOptions.getClass();
         ExchangeType exchangeType;
 
@@ -107,7 +178,9 @@ public class AmqpAdapterFactory implements AdapterFactory {
             throw new AdapterCreationException("Illegal for this AdapterFactory ResponderOptions subclass");
         }
 
-        return new AmqpConsumerAdapter(topic, exchangeType, responderOptions.getBindingKeys(), amqpBrokerConfig, connectionManager, isResponseTopic);
+        int consumerCount = responderOptions.getConsumerCount() != null ? responderOptions.getConsumerCount() : amqpBrokerConfig.getConsumerCount();
+        return new AmqpConsumerAdapter(topic, exchangeType, responderOptions.getBindingKeys(), amqpBrokerConfig, connectionManager, isResponseTopic,
+                consumerScheduler, consumerCount, topologyCache);
     }
 
     protected ConnectionFactory createConnectionFactory(AmqpBrokerConfig adapterConfig) {
@@ -149,8 +222,57 @@ public class AmqpAdapterFactory implements AdapterFactory {
         return new ConnectionFactory();
     }
     
-    protected AmqpConnectionManager createConnectionManager(Connection connection) {
-        return new AmqpConnectionManager(connection);
+    protected AmqpConnectionManager createConnectionManager(List<Connection> publishConnections, List<Connection> consumeConnections) {
+        return new AmqpConnectionManager(publishConnections, consumeConnections);
+    }
+
+    /**
+     * @return thread pool shared by all connections to dispatch deliveries or null if each connection should use its own pool
+     */
+    protected ExecutorService createConsumerWorkPool(AmqpBrokerConfig brokerConfig) {
+        if (brokerConfig.getConsumerThreadPoolSize() <= 0) {
+            return null;
+        }
+        BasicThreadFactory threadFactory = new BasicThreadFactory.Builder()
+                .namingPattern("msb-amqp-consumer-%d")
+                .build();
+        return Executors.newFixedThreadPool(brokerConfig.getConsumerThreadPoolSize(), threadFactory);
+    }
+
+    protected ScheduledExecutorService createConsumerScheduler() {
+        BasicThreadFactory threadFactory = new BasicThreadFactory.Builder()
+                .namingPattern("msb-amqp-consumer-scheduler-%d")
+                .daemon(true)
+                .build();
+        return Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    /**
+     * @param openedConnections connections are added to this list as soon as they are opened
+     */
+    private List<Connection> createConnections(ConnectionFactory connectionFactory, int count, List<Connection> openedConnections) {
+        List<Connection> connections = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Connection connection = createConnection(connectionFactory);
+            openedConnections.add(connection);
+            connections.add(connection);
+        }
+        return connections;
+    }
+
+    private void closeConnections(List<Connection> connections) {
+        for (Connection connection : connections) {
+            try {
+                connection.close();
+            } catch (IOException | RuntimeException e) {
+                LOG.error("Error while closing AMQP connection", e);
+            }
+        }
+    }
+
+    protected AmqpProducerChannelPool createProducerChannelPool(AmqpBrokerConfig brokerConfig, AmqpConnectionManager connectionManager) {
+        return new AmqpProducerChannelPool(connectionManager, brokerConfig.getProducerChannelPoolSize(), brokerConfig.getProducerChannelSelection(),
+                brokerConfig.isPublisherConfirms() ? brokerConfig.getMaxUnconfirmedMessages() : 0);
     }
 
     /**
@@ -167,6 +289,8 @@ public class AmqpAdapterFactory implements AdapterFactory {
                     @Override
                     public void handleRecovery(Recoverable recoverable) {
                         LOG.info("AMQP connection recovered.");
+                        // exchanges may have been deleted while the connection was down
+                        topologyCache.clear();
                     }
                     @Override
                     public void handleRecoveryStarted(Recoverable recoverable) {
@@ -181,6 +305,48 @@ public class AmqpAdapterFactory implements AdapterFactory {
         }
     }
 
+    /**
+     * Declares exchanges of the given topics with the default exchange type. Declarations are pipelined: all but the last
+     * one are sent without waiting for the broker, and the last one is awaited, which confirms all of them since
+     * the broker handles the methods of a channel in order. The declarations run on a dedicated channel, so a rejected one
+     * doesn't close a channel that producers publish on. Adapters created afterwards don't declare the exchanges again.
+     *
+     * @throws ChannelException if some of the exchanges can't be declared
+     */
+    @Override
+    public void warmUp(Collection<String> topics) {
+        ExchangeType exchangeType = amqpBrokerConfig.getDefaultExchangeType();
+        List<String> exchanges = topics.stream()
+                .filter(topic -> !isDirectReplyTopic(topic) && !topologyCache.isExchangeDeclared(topic, exchangeType))
+                .distinct()
+                .collect(Collectors.toList());
+        if (exchanges.isEmpty()) {
+            return;
+        }
+
+        producerChannelPool.runOnDedicatedChannel(channel -> {
+            for (int i = 0; i < exchanges.size() - 1; i++) {
+                channel.exchangeDeclareNoWait(exchanges.get(i), exchangeType.value(), false /* durable */, true /* auto-delete */, null);
+            }
+            channel.exchangeDeclare(exchanges.get(exchanges.size() - 1), exchangeType.value(), false /* durable */, true /* auto-delete */, null);
+        });
+        exchanges.forEach(exchange -> topologyCache.exchangeDeclared(exchange, exchangeType));
+        LOG.debug("Declared exchanges {}", exchanges);
+    }
+
+    /**
+     * @return "amq.rabbitmq.reply-to" pseudo-queue of RabbitMQ "direct reply-to"
+     */
+    @Override
+    public Optional<String> getDirectReplyTopic() {
+        return Optional.of(AmqpDirectReplyChannel.DIRECT_REPLY_TO);
+    }
+
+    @Override
+    public boolean isDirectReplyTopic(String topic) {
+        return AmqpDirectReplyChannel.isDirectReplyAddress(topic);
+    }
+
     @Override
     public boolean isUseMsbThreadingModel() {
         return true;
@@ -193,6 +359,12 @@ public class AmqpAdapterFactory implements AdapterFactory {
         } catch (IOException e) {
             LOG.error("Error while closing AMQP connection", e);
         }
+        if (consumerWorkPool != null) {
+            consumerWorkPool.shutdown();
+        }
+        if (consumerScheduler != null) {
+            consumerScheduler.shutdown();
+        }
     }
 
     AmqpBrokerConfig getAmqpBrokerConfig() {
@@ -203,4 +375,8 @@ public class AmqpAdapterFactory implements AdapterFactory {
         return connectionManager;
     }
 
+    AmqpProducerChannelPool getProducerChannelPool() {
+        return producerChannelPool;
+    }
+
 }
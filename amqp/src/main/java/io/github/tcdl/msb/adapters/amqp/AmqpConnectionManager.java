@@ -1,34 +1,176 @@
 package io.github.tcdl.msb.adapters.amqp;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.rabbitmq.client.Channel;
 import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.ShutdownListener;
 
 /**
- * To work with AMQP broker (for example RabbitMQ) we use single connection.
- * The responsibility of this singleton class is to manage the lifecycle of that connection.
+ * To work with AMQP broker (for example RabbitMQ) we use a set of connections.
+ * The responsibility of this singleton class is to manage the lifecycle of these connections.
+ *
+ * Publishing and consuming use separate connections, so that broker flow control applied to a connection
+ * that publishes heavily does not stall consumers. New channels are opened on the connection of the required kind
+ * that has the fewest open channels. A channel stops being counted once it's closed by the application or
+ * by the broker; channels shut down along with their connection are recovered with it, so they are still counted.
  */
 public class AmqpConnectionManager {
     private static Logger LOG = LoggerFactory.getLogger(AmqpConnectionManager.class);
 
-    private Connection connection;
+    private final List<Connection> publishConnections;
+    private final List<Connection> consumeConnections;
+    private final Map<Connection, Integer> channelCounts = new IdentityHashMap<>();
+    private final List<ShutdownListener> channelShutdownListeners = new CopyOnWriteArrayList<>();
 
+    /**
+     * Creates manager that uses single connection both for publishing and consuming.
+     */
     public AmqpConnectionManager(Connection connection) {
-        this.connection = connection;
+        this(Collections.singletonList(connection), Collections.singletonList(connection));
     }
 
+    /**
+     * @param publishConnections connections to open producer channels on
+     * @param consumeConnections connections to open consumer channels on. May share connections with publishConnections.
+     */
+    public AmqpConnectionManager(List<Connection> publishConnections, List<Connection> consumeConnections) {
+        Validate.notEmpty(publishConnections, "At least one publish connection is required");
+        Validate.notEmpty(consumeConnections, "At least one consume connection is required");
+        this.publishConnections = new ArrayList<>(publishConnections);
+        this.consumeConnections = new ArrayList<>(consumeConnections);
+    }
+
+    /**
+     * @return connection to be used for consuming
+     * @deprecated use {@link #obtainPublishConnection()} or {@link #obtainConsumeConnection()}
+     */
+    @Deprecated
     public Connection obtainConnection() {
-        return connection;
+        return consumeConnections.get(0);
+    }
+
+    /**
+     * @return least loaded connection for a new producer channel
+     * @deprecated use {@link #createPublishChannel()}, channels opened on the returned connection are not counted
+     */
+    @Deprecated
+    public Connection obtainPublishConnection() {
+        return obtainLeastLoaded(publishConnections, false);
+    }
+
+    /**
+     * @return least loaded connection for a new consumer channel
+     * @deprecated use {@link #createConsumeChannel()}, channels opened on the returned connection are not counted
+     */
+    @Deprecated
+    public Connection obtainConsumeConnection() {
+        return obtainLeastLoaded(consumeConnections, false);
+    }
+
+    /**
+     * Opens a channel for publishing on the least loaded publish connection.
+     */
+    public Channel createPublishChannel() throws IOException {
+        return createChannel(publishConnections);
+    }
+
+    /**
+     * Opens a channel for consuming on the least loaded consume connection.
+     */
+    public Channel createConsumeChannel() throws IOException {
+        return createChannel(consumeConnections);
+    }
+
+    /**
+     * Adds listener that is notified when any channel opened by this manager afterwards shuts down.
+     */
+    public void addChannelShutdownListener(ShutdownListener listener) {
+        Validate.notNull(listener, "the 'listener' must not be null");
+        channelShutdownListeners.add(listener);
+    }
+
+    private Channel createChannel(List<Connection> connections) throws IOException {
+        Connection connection = obtainLeastLoaded(connections, true);
+        Channel channel;
+        try {
+            channel = connection.createChannel();
+        } catch (IOException | RuntimeException e) {
+            channelClosed(connection);
+            throw e;
+        }
+        if (channel == null) {
+            channelClosed(connection);
+            throw new IOException("No channel number is available on the connection");
+        }
+        channel.addShutdownListener(cause -> {
+            // hard errors shut the connection down and recovery reopens its channels
+            if (!cause.isHardError()) {
+                channelClosed(connection);
+            }
+            channelShutdownListeners.forEach(listener -> listener.shutdownCompleted(cause));
+        });
+        return channel;
+    }
+
+    private synchronized Connection obtainLeastLoaded(List<Connection> connections, boolean count) {
+        Connection result = null;
+        int minCount = Integer.MAX_VALUE;
+        for (Connection connection : connections) {
+            int channelCount = channelCounts.getOrDefault(connection, 0);
+            if (channelCount < minCount) {
+                result = connection;
+                minCount = channelCount;
+            }
+        }
+        if (count) {
+            channelCounts.put(result, minCount + 1);
+        }
+        return result;
+    }
+
+    private synchronized void channelClosed(Connection connection) {
+        channelCounts.computeIfPresent(connection, (key, channelCount) -> channelCount > 1 ? channelCount - 1 : null);
+    }
+
+    /**
+     * @return number of open channels opened by this manager on the connection
+     */
+    synchronized int getChannelCount(Connection connection) {
+        return channelCounts.getOrDefault(connection, 0);
     }
 
     public void close() throws IOException {
-        if (connection.isOpen()) {
-            LOG.info("Closing AMQP connection...");
-            connection.close();
-            LOG.info("AMQP connection closed.");
+        Set<Connection> connections = Collections.newSetFromMap(new IdentityHashMap<>());
+        connections.addAll(publishConnections);
+        connections.addAll(consumeConnections);
+
+        IOException failure = null;
+        for (Connection connection : connections) {
+            if (connection.isOpen()) {
+                LOG.info("Closing AMQP connection...");
+                try {
+                    connection.close();
+                    LOG.info("AMQP connection closed.");
+                } catch (IOException e) {
+                    LOG.error("Error while closing AMQP connection", e);
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
         }
     }    
 }
@@ -9,34 +9,89 @@ import io.github.tcdl.msb.support.Utils;
 import org.apache.commons.lang3.Validate;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
 
 
+/**
+ * {@link AmqpConsumerAdapter} consumes messages from a queue bound to the exchange of the topic.
+ *
+ * The queue may be consumed by several consumers, each on its own channel. Deliveries of a channel are dispatched
+ * one by one, so additional consumers let messages be decoded in parallel. Prefetch count, acknowledgement
+ * coalescing and adaptive prefetch apply to each consumer separately.
+ */
 public class AmqpConsumerAdapter implements ConsumerAdapter {
 
     private Channel channel;
     private final String exchangeName;
     private final Set<String> bindingKeys;
-    private String consumerTag;
     private AmqpBrokerConfig adapterConfig;
     private boolean isResponseTopic = false;
     private Optional<String> currentQueueName = Optional.empty();
+    private final AmqpConnectionManager connectionManager;
+    private final ScheduledExecutorService scheduler;
+    private final int consumerCount;
+    private final List<Channel> consumerChannels = new ArrayList<>();
+    private volatile List<ChannelConsumer> consumers = Collections.emptyList();
+    private final AmqpTopologyCache topologyCache;
 
     public AmqpConsumerAdapter(String exchangeName, ExchangeType exchangeType, Set<String> bindingKeys, AmqpBrokerConfig amqpBrokerConfig,
                                AmqpConnectionManager connectionManager, boolean isResponseTopic) {
+        this(exchangeName, exchangeType, bindingKeys, amqpBrokerConfig, connectionManager, isResponseTopic, null);
+    }
+
+    /**
+     * @param scheduler scheduler for periodic consumer tasks: sending of coalesced acknowledgements and adjustment
+     *                  of adaptive prefetch count. Both features are enabled only if the scheduler is provided.
+     */
+    public AmqpConsumerAdapter(String exchangeName, ExchangeType exchangeType, Set<String> bindingKeys, AmqpBrokerConfig amqpBrokerConfig,
+                               AmqpConnectionManager connectionManager, boolean isResponseTopic, ScheduledExecutorService scheduler) {
+        this(exchangeName, exchangeType, bindingKeys, amqpBrokerConfig, connectionManager, isResponseTopic, scheduler, 1);
+    }
+
+    /**
+     * @param consumerCount number of consumers that receive messages from the queue in parallel
+     */
+    public AmqpConsumerAdapter(String exchangeName, ExchangeType exchangeType, Set<String> bindingKeys, AmqpBrokerConfig amqpBrokerConfig,
+                               AmqpConnectionManager connectionManager, boolean isResponseTopic, ScheduledExecutorService scheduler,
+                               int consumerCount) {
+        this(exchangeName, exchangeType, bindingKeys, amqpBrokerConfig, connectionManager, isResponseTopic, scheduler, consumerCount,
+                new AmqpTopologyCache());
+    }
+
+    /**
+     * @param topologyCache cache of declared exchanges. The exchange is declared unless the cache shows that it's already declared.
+     */
+    AmqpConsumerAdapter(String exchangeName, ExchangeType exchangeType, Set<String> bindingKeys, AmqpBrokerConfig amqpBrokerConfig,
+                        AmqpConnectionManager connectionManager, boolean isResponseTopic, ScheduledExecutorService scheduler,
+                        int consumerCount, AmqpTopologyCache topologyCache) {
         Validate.notNull(exchangeName, "Exchange name is required");
         Validate.notNull(exchangeType, "Exchange type is required");
         Validate.notEmpty(bindingKeys, "At least one routing key is required");
+        Validate.isTrue(consumerCount > 0, "Consumer count must be positive");
+        Validate.notNull(topologyCache, "Topology cache is required");
 
         this.bindingKeys = bindingKeys;
         this.exchangeName = exchangeName;
         this.adapterConfig = amqpBrokerConfig;
         this.isResponseTopic = isResponseTopic;
+        this.connectionManager = connectionManager;
+        this.scheduler = scheduler;
+        this.consumerCount = consumerCount;
+        this.topologyCache = topologyCache;
 
         try {
-            channel = connectionManager.obtainConnection().createChannel();
-            channel.exchangeDeclare(exchangeName, exchangeType.value(), false /* durable */, true /* auto-delete */, null);
+            channel = connectionManager.createConsumeChannel();
+            if (!topologyCache.isExchangeDeclared(exchangeName, exchangeType)) {
+                channel.exchangeDeclare(exchangeName, exchangeType.value(), false /* durable */, true /* auto-delete */, null);
+                topologyCache.exchangeDeclared(exchangeName, exchangeType);
+            }
+            consumerChannels.add(channel);
         } catch (IOException e) {
             throw new ChannelException("Failed to setup channel", e);
         }
@@ -44,28 +99,59 @@ public class AmqpConsumerAdapter implements ConsumerAdapter {
 
     /**
      * {@inheritDoc}
+     *
+     * Channels of additional consumers are opened on the first subscription and reused afterwards.
      */
     @Override
     public void subscribe(RawMessageHandler msgHandler) {
         String groupId = adapterConfig.getGroupId().orElse(Utils.generateId());
         boolean durable = isDurable();
-        int prefetchCount = adapterConfig.getPrefetchCount();
 
         String queueName = generateQueueName(exchangeName, groupId, durable);
 
         try {
-            channel.queueDeclare(queueName, durable /* durable */, false /* exclusive */, !durable /*auto-delete */, null);
-            channel.basicQos(prefetchCount); // Don't accept more messages if we have any unacknowledged
+            channel.queueDeclare(queueName, durable /* durable */, false /* exclusive */, !durable /*auto-delete */, queueArguments());
             for (String bindingKey : bindingKeys) {
                 channel.queueBind(queueName, exchangeName, bindingKey);
             }
-            consumerTag = channel.basicConsume(queueName, false /* autoAck */, new AmqpMessageConsumer(channel, msgHandler, adapterConfig));
+            while (consumerChannels.size() < consumerCount) {
+                consumerChannels.add(connectionManager.createConsumeChannel());
+            }
+            List<ChannelConsumer> newConsumers = new ArrayList<>(consumerCount);
+            for (Channel consumerChannel : consumerChannels) {
+                newConsumers.add(startConsumer(consumerChannel, queueName, msgHandler));
+            }
+            consumers = newConsumers;
             currentQueueName = Optional.of(queueName);
         } catch (IOException e) {
             throw new ChannelException(String.format("Failed to subscribe to topic %s with routing keys %s", exchangeName, bindingKeys), e);
         }
     }
 
+    private ChannelConsumer startConsumer(Channel consumerChannel, String queueName, RawMessageHandler msgHandler) throws IOException {
+        int prefetchCount = adapterConfig.getPrefetchCount();
+        AdaptivePrefetchController prefetchController = null;
+        if (scheduler != null && adapterConfig.isAdaptivePrefetch()) {
+            prefetchController = new AdaptivePrefetchController(consumerChannel, adapterConfig.getMinPrefetchCount(),
+                    adapterConfig.getMaxPrefetchCount(), prefetchCount, adapterConfig.getPrefetchAdjustmentIntervalMs());
+            prefetchController.start(scheduler);
+        } else {
+            consumerChannel.basicQos(prefetchCount); // Don't accept more messages if we have any unacknowledged
+        }
+        AmqpAckAggregator ackAggregator = null;
+        if (scheduler != null && adapterConfig.getAckBatchSize() > 1) {
+            ackAggregator = new AmqpAckAggregator(consumerChannel, adapterConfig.getAckBatchSize(), adapterConfig.getAckFlushIntervalMs(), scheduler);
+        }
+        String consumerTag = consumerChannel.basicConsume(queueName, false /* autoAck */, new AmqpMessageConsumer(consumerChannel, msgHandler, adapterConfig,
+                ackAggregator, prefetchController));
+        return new ChannelConsumer(consumerChannel, consumerTag, ackAggregator, prefetchController);
+    }
+
+    private Map<String, Object> queueArguments() {
+        int maxPriority = adapterConfig.getMaxPriority();
+        return maxPriority > 0 ? Collections.singletonMap("x-max-priority", maxPriority) : null;
+    }
+
     protected boolean isDurable() {
         if (isResponseTopic) {
             //response topic is always auto-delete and not durable
@@ -80,7 +166,14 @@ public class AmqpConsumerAdapter implements ConsumerAdapter {
     @Override
     public void unsubscribe() {
         try {
-            channel.basicCancel(consumerTag);
+            for (ChannelConsumer consumer : consumers) {
+                consumer.cancel();
+            }
+            consumers = Collections.emptyList();
+            if (!isDurable()) {
+                // the auto-delete queue is removed along with the exchange if no other queue is bound to it
+                topologyCache.forgetExchange(exchangeName);
+            }
             currentQueueName = Optional.empty();
         } catch (IOException e) {
             throw new ChannelException(String.format("Failed to unsubscribe from topic %s", exchangeName), e);
@@ -103,18 +196,42 @@ public class AmqpConsumerAdapter implements ConsumerAdapter {
 
     /**
      * {@inheritDoc}
+     *
+     * The consumer is connected if channels of all its consumers are open.
      */
     @Override
     public Optional<Boolean> isConnected() {
         return currentQueueName.map(queueName -> {
             try {
-                return channel.isOpen() && channel.getConnection().isOpen() && channel.consumerCount(queueName) > 0;
+                for (ChannelConsumer consumer : consumers) {
+                    if (!consumer.channel.isOpen() || !consumer.channel.getConnection().isOpen()) {
+                        return false;
+                    }
+                }
+                return channel.consumerCount(queueName) > 0;
             } catch (IOException e) {
                 throw new ChannelException(String.format("Failed to get consumer status for topic %s and queue %s", exchangeName, queueName), e);
             }
         });
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @return the total prefetch count of all consumers of the queue
+     */
+    @Override
+    public Optional<Integer> prefetchCount() {
+        return currentQueueName.map(queueName -> {
+            int total = 0;
+            for (ChannelConsumer consumer : consumers) {
+                AdaptivePrefetchController controller = consumer.prefetchController;
+                total += controller != null ? controller.getPrefetchCount() : adapterConfig.getPrefetchCount();
+            }
+            return total;
+        });
+    }
+
     /**
      * Generate topic name to get unique topics for different microservices
      *
@@ -125,4 +242,31 @@ public class AmqpConsumerAdapter implements ConsumerAdapter {
     private String generateQueueName(String topic, String groupId, boolean durable) {
         return topic + "." + groupId + "." + (durable ? "d" : "t");
     }
+
+    /**
+     * Consumer of the queue on a single channel along with the helpers that manage acknowledgements and QoS of the channel.
+     */
+    private static class ChannelConsumer {
+        private final Channel channel;
+        private final String consumerTag;
+        private final AmqpAckAggregator ackAggregator;
+        private final AdaptivePrefetchController prefetchController;
+
+        ChannelConsumer(Channel channel, String consumerTag, AmqpAckAggregator ackAggregator, AdaptivePrefetchController prefetchController) {
+            this.channel = channel;
+            this.consumerTag = consumerTag;
+            this.ackAggregator = ackAggregator;
+            this.prefetchController = prefetchController;
+        }
+
+        void cancel() throws IOException {
+            channel.basicCancel(consumerTag);
+            if (prefetchController != null) {
+                prefetchController.stop();
+            }
+            if (ackAggregator != null) {
+                ackAggregator.close();
+            }
+        }
+    }
 }
@@ -0,0 +1,180 @@
+package io.github.tcdl.msb.adapters.amqp;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import io.github.tcdl.msb.acknowledge.AcknowledgementAdapter;
+import io.github.tcdl.msb.acknowledge.AcknowledgementHandlerImpl;
+import io.github.tcdl.msb.acknowledge.AcknowledgementHandlerInternal;
+import io.github.tcdl.msb.adapters.ConsumerAdapter;
+import io.github.tcdl.msb.api.exception.ChannelException;
+import io.github.tcdl.msb.config.amqp.AmqpBrokerConfig;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * {@link AmqpDirectReplyChannel} handles RabbitMQ "direct reply-to": replies are consumed from
+ * the "amq.rabbitmq.reply-to" pseudo-queue and delivered straight to a channel instead of going through
+ * a response queue. The broker routes replies only to the channel the request was published on, so requests that
+ * expect direct replies are published on the channels that consume the replies.
+ *
+ * These channels are kept in a pool of their own that is configured like the pool of producer channels, so requests
+ * are subject to publisher confirms and to the limit of unconfirmed messages. A reply consumer is started on every
+ * channel as soon as the pool opens it. A channel closed by the broker is replaced along with its consumer when
+ * it's picked next time, and channels of a broken connection get their consumers back with automatic recovery.
+ *
+ * Since publishing and consuming have to share a channel, the channels are opened on publish connections, unlike
+ * other consumer channels. Broker flow control applied to a publish connection stops the broker from reading
+ * from it, but direct replies are consumed in no-ack mode, so the broker keeps delivering them. Consumers
+ * of regular queues, which need their acknowledgements read, stay on consume connections and are not stalled.
+ * Acknowledgements of the handler are ignored.
+ *
+ * Consumption must be started before requests are published. Once it's cancelled, requests are rejected until
+ * it's started again: cancellation waits for publishing threads that are picking or opening a channel, so that
+ * no channel is opened without a consumer.
+ */
+class AmqpDirectReplyChannel {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AmqpDirectReplyChannel.class);
+
+    /**
+     * Pseudo-queue to consume direct replies from. Replies are sent to addresses with this prefix that the broker
+     * substitutes for it in "reply-to" property of requests.
+     */
+    static final String DIRECT_REPLY_TO = "amq.rabbitmq.reply-to";
+
+    private final AmqpBrokerConfig amqpBrokerConfig;
+    private final AmqpProducerChannelPool channelPool;
+
+    /**
+     * Guards the handler: publishing threads hold the read lock while they pick or open a channel.
+     */
+    private final ReadWriteLock consumptionLock = new ReentrantReadWriteLock();
+    private volatile ConsumerAdapter.RawMessageHandler messageHandler;
+
+    AmqpDirectReplyChannel(AmqpConnectionManager connectionManager, AmqpBrokerConfig amqpBrokerConfig) {
+        Validate.notNull(connectionManager, "the 'connectionManager' must not be null");
+        Validate.notNull(amqpBrokerConfig, "the 'amqpBrokerConfig' must not be null");
+        this.amqpBrokerConfig = amqpBrokerConfig;
+        this.channelPool = new AmqpProducerChannelPool(connectionManager, amqpBrokerConfig.getProducerChannelPoolSize(),
+                amqpBrokerConfig.getProducerChannelSelection(),
+                amqpBrokerConfig.isPublisherConfirms() ? amqpBrokerConfig.getMaxUnconfirmedMessages() : 0,
+                this::startConsumer);
+    }
+
+    /**
+     * @return true if the address is where the broker delivers direct replies to
+     */
+    static boolean isDirectReplyAddress(String address) {
+        return address != null && address.startsWith(DIRECT_REPLY_TO);
+    }
+
+    /**
+     * Starts consuming direct replies. Channels and their consumers are opened when requests are published.
+     */
+    void consume(ConsumerAdapter.RawMessageHandler messageHandler) {
+        Validate.notNull(messageHandler, "the 'messageHandler' must not be null");
+        consumptionLock.writeLock().lock();
+        try {
+            Validate.validState(this.messageHandler == null, "Direct replies are already consumed");
+            this.messageHandler = messageHandler;
+        } finally {
+            consumptionLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Closes the channels along with their consumers.
+     *
+     * @throws ChannelException if a channel can't be closed
+     */
+    void cancel() {
+        consumptionLock.writeLock().lock();
+        try {
+            if (messageHandler != null) {
+                messageHandler = null;
+                channelPool.close();
+            }
+        } finally {
+            consumptionLock.writeLock().unlock();
+        }
+    }
+
+    boolean isConsuming() {
+        return messageHandler != null;
+    }
+
+    boolean isOpen() {
+        return channelPool.isConnected();
+    }
+
+    /**
+     * Publishes the request with "reply-to" property set, so that replies to it are delivered to the publishing channel.
+     *
+     * @return future that is completed once the broker confirms the request if publisher confirms are enabled,
+     * completed future otherwise
+     * @throws IllegalStateException if direct replies are not consumed, for example after {@link #cancel()}
+     * @throws ChannelException if the request can't be published, for example if the channel is closed by a concurrent
+     * {@link #cancel()}
+     */
+    CompletableFuture<Void> publish(String exchange, String routingKey, AMQP.BasicProperties properties, byte[] body) {
+        LoggingAmqpChannel replyChannel;
+        consumptionLock.readLock().lock();
+        try {
+            Validate.validState(messageHandler != null, "Direct replies must be consumed before publishing requests that expect them");
+            replyChannel = channelPool.getChannel();
+        } finally {
+            consumptionLock.readLock().unlock();
+        }
+        // publishing may block on unconfirmed messages, so it's done without the lock
+        return replyChannel.basicPublishConfirmed(exchange, routingKey, properties.builder().replyTo(DIRECT_REPLY_TO).build(), body);
+    }
+
+    /**
+     * Channel initializer of the pool, invoked by {@link #publish} under the read lock, so the handler is set.
+     * The shutdown listener only reports replies that are lost along with the channel: the pool replaces
+     * the channel on its own and blocking calls are not allowed in the listener.
+     */
+    private void startConsumer(LoggingAmqpChannel replyChannel) {
+        ConsumerAdapter.RawMessageHandler handler = messageHandler;
+        String consumerTag = replyChannel.basicConsume(DIRECT_REPLY_TO, true /* autoAck */,
+                channel -> new DirectReplyConsumer(channel, handler, amqpBrokerConfig));
+        LOG.debug("[consumer tag: {}] Consuming direct replies", consumerTag);
+
+        replyChannel.addShutdownListener(cause -> {
+            if (!cause.isInitiatedByApplication()) {
+                LOG.warn("[consumer tag: {}] Direct reply channel is closed, replies to requests published on it are lost", consumerTag);
+            }
+        });
+    }
+
+    private static class DirectReplyConsumer extends AmqpMessageConsumer {
+
+        private static final AcknowledgementAdapter NO_ACKNOWLEDGEMENT = new AcknowledgementAdapter() {
+            @Override
+            public void confirm() {
+            }
+
+            @Override
+            public void reject() {
+            }
+
+            @Override
+            public void retry() {
+            }
+        };
+
+        DirectReplyConsumer(Channel channel, ConsumerAdapter.RawMessageHandler msgHandler, AmqpBrokerConfig amqpBrokerConfig) {
+            super(channel, msgHandler, amqpBrokerConfig);
+        }
+
+        @Override
+        AcknowledgementHandlerInternal createAcknowledgementHandler(Channel channel, String consumerTag, long deliveryTag, boolean isRequeueRejectedMessages) {
+            return new AcknowledgementHandlerImpl(NO_ACKNOWLEDGEMENT, isRequeueRejectedMessages, "consumer tag: " + consumerTag);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.tcdl.msb.adapters.amqp;
+
+import io.github.tcdl.msb.adapters.ConsumerAdapter;
+import org.apache.commons.lang3.Validate;
+
+import java.util.Optional;
+
+/**
+ * {@link AmqpDirectReplyConsumerAdapter} consumes responses delivered by RabbitMQ "direct reply-to"
+ * on the {@link AmqpDirectReplyChannel} shared by all requesters of the microservice.
+ */
+public class AmqpDirectReplyConsumerAdapter implements ConsumerAdapter {
+
+    private final AmqpDirectReplyChannel directReplyChannel;
+
+    AmqpDirectReplyConsumerAdapter(AmqpDirectReplyChannel directReplyChannel) {
+        Validate.notNull(directReplyChannel, "the 'directReplyChannel' must not be null");
+        this.directReplyChannel = directReplyChannel;
+    }
+
+    @Override
+    public void subscribe(RawMessageHandler onMessageHandler) {
+        directReplyChannel.consume(onMessageHandler);
+    }
+
+    @Override
+    public void unsubscribe() {
+        directReplyChannel.cancel();
+    }
+
+    /**
+     * @return {@link Optional#empty()} since direct replies are never queued
+     */
+    @Override
+    public Optional<Long> messageCount() {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<Boolean> isConnected() {
+        if (!directReplyChannel.isConsuming()) {
+            return Optional.empty();
+        }
+        return Optional.of(directReplyChannel.isOpen());
+    }
+}
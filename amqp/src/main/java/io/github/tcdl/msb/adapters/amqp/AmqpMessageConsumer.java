@@ -17,7 +17,9 @@ import com.rabbitmq.client.DefaultConsumer;
 import com.rabbitmq.client.Envelope;
 
 /**
- * Consumer that converts message body to a String before passing it to handler.
+ * Consumer that passes raw message body along with its content type and charset to handler.
+ * Bodies compressed according to AMQP "content-encoding" property are decompressed before that.
+ * Direct reply address from AMQP "reply-to" property is passed along as well, so that responses are sent to it.
  * Also rejects message in case of any exception during its processing to prevent AMQP channel from being closed.
  */
 public class AmqpMessageConsumer extends DefaultConsumer {
@@ -26,33 +28,59 @@ public class AmqpMessageConsumer extends DefaultConsumer {
 
     ConsumerAdapter.RawMessageHandler msgHandler;
     private AmqpBrokerConfig amqpBrokerConfig;
+    private final AmqpAckAggregator ackAggregator;
+    private final AdaptivePrefetchController prefetchController;
 
     public AmqpMessageConsumer(Channel channel, ConsumerAdapter.RawMessageHandler msgHandler, AmqpBrokerConfig amqpBrokerConfig) {
+        this(channel, msgHandler, amqpBrokerConfig, null, null);
+    }
+
+    /**
+     * @param ackAggregator aggregator to coalesce acknowledgements with or null to send each of them right away
+     * @param prefetchController controller to report handling times to or null if the prefetch count is static
+     */
+    AmqpMessageConsumer(Channel channel, ConsumerAdapter.RawMessageHandler msgHandler, AmqpBrokerConfig amqpBrokerConfig,
+            AmqpAckAggregator ackAggregator, AdaptivePrefetchController prefetchController) {
         super(channel);
         this.msgHandler = msgHandler;
         this.amqpBrokerConfig = amqpBrokerConfig;
+        this.ackAggregator = ackAggregator;
+        this.prefetchController = prefetchController;
     }
 
     @Override
     public void handleDelivery(String consumerTag, Envelope envelope, AMQP.BasicProperties properties, byte[] body) throws IOException {
         long deliveryTag = envelope.getDeliveryTag();
+        if (ackAggregator != null) {
+            ackAggregator.delivered(deliveryTag);
+        }
         AcknowledgementHandlerInternal ackHandler = createAcknowledgementHandler(
                 getChannel(), consumerTag, deliveryTag, envelope.isRedeliver());
         try {
             Charset charset = amqpBrokerConfig.getCharset();
-
-            String bodyStr = new String(body, charset);
+            String contentType = properties != null ? properties.getContentType() : null;
+            String contentEncoding = properties != null ? properties.getContentEncoding() : null;
+            body = MessageCompression.forContentEncoding(contentEncoding).decompress(body);
 
             LOG.debug("[consumer tag: {}] Message consumed from broker.", consumerTag);
-            LOG.trace("Message: {}", bodyStr);
+            if (LOG.isTraceEnabled()) {
+                LOG.trace("Message: {}", new String(body, charset));
+            }
+
+            String replyTo = properties != null ? properties.getReplyTo() : null;
 
             try {
-                msgHandler.onMessage(bodyStr, ackHandler);
+                if (AmqpDirectReplyChannel.isDirectReplyAddress(replyTo)) {
+                    msgHandler.onMessage(body, contentType, charset, replyTo, ackHandler);
+                } else {
+                    msgHandler.onMessage(body, contentType, charset, ackHandler);
+                }
                 LOG.debug("[consumer tag: {}] Raw message has been handled.", consumerTag);
-                LOG.trace("Message: {}", bodyStr);
             } catch (Exception e) {
                 LOG.error("[consumer tag: {}] Can't handle a raw message.", consumerTag, e);
-                LOG.trace("Message: {}", bodyStr);
+                if (LOG.isTraceEnabled()) {
+                    LOG.trace("Message: {}", new String(body, charset));
+                }
                 throw e;
             }
         } catch (Exception e) {
@@ -63,7 +91,7 @@ public class AmqpMessageConsumer extends DefaultConsumer {
     }
 
     AcknowledgementHandlerInternal createAcknowledgementHandler(Channel channel, String consumerTag, long deliveryTag, boolean isRequeueRejectedMessages) {
-        AmqpAcknowledgementAdapter adapter = new AmqpAcknowledgementAdapter(channel, consumerTag, deliveryTag);
+        AmqpAcknowledgementAdapter adapter = new AmqpAcknowledgementAdapter(channel, consumerTag, deliveryTag, ackAggregator, prefetchController);
         String messageTextIdentifier = "consumer tag: " + consumerTag;
         return new AcknowledgementHandlerImpl(adapter, isRequeueRejectedMessages, messageTextIdentifier);
     }
@@ -1,37 +1,114 @@
 package io.github.tcdl.msb.adapters.amqp;
 
+import com.rabbitmq.client.AMQP;
 import com.rabbitmq.client.MessageProperties;
 import io.github.tcdl.msb.adapters.ProducerAdapter;
+import io.github.tcdl.msb.adapters.PublishOptions;
+import io.github.tcdl.msb.api.DeliveryMode;
 import io.github.tcdl.msb.api.ExchangeType;
 import io.github.tcdl.msb.api.exception.ChannelException;
+import io.github.tcdl.msb.codec.JsonMessageCodec;
 import io.github.tcdl.msb.config.amqp.AmqpBrokerConfig;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class AmqpProducerAdapter implements ProducerAdapter {
     private static final Logger LOG = LoggerFactory.getLogger(AmqpProducerAdapter.class);
     private static final String ERROR_MESSAGE_TEMPLATE = "Failed to publish message into exchange '%s' with routing key '%s'";
+    private static final int DELIVERY_MODE_TRANSIENT = 1;
+    private static final int DELIVERY_MODE_PERSISTENT = 2;
 
     final String exchangeName;
     final AmqpBrokerConfig amqpBrokerConfig;
-    final LoggingAmqpChannel channel;
+    final AmqpProducerChannelPool channelPool;
+    private final String replyAddress;
+    private final AmqpDirectReplyChannel directReplyChannel;
+    private final Map<String, AMQP.BasicProperties> propertiesByContent = new ConcurrentHashMap<>();
+    private boolean ownsChannelPool;
 
+    /**
+     * Creates adapter that publishes through its own channel. The channel is closed by {@link #close()}.
+     */
     public AmqpProducerAdapter(String topic, ExchangeType exchangeType, AmqpBrokerConfig amqpBrokerConfig, AmqpConnectionManager connectionManager) {
-        Validate.notNull(topic, "Topic is mandatory");
+        this(topic, exchangeType, amqpBrokerConfig, new AmqpProducerChannelPool(connectionManager, 1, ProducerChannelSelection.THREAD,
+                amqpBrokerConfig.isPublisherConfirms() ? amqpBrokerConfig.getMaxUnconfirmedMessages() : 0));
+        this.ownsChannelPool = true;
+    }
+
+    /**
+     * Creates adapter that publishes through the channels of the given pool.
+     */
+    public AmqpProducerAdapter(String topic, ExchangeType exchangeType, AmqpBrokerConfig amqpBrokerConfig, AmqpProducerChannelPool channelPool) {
+        this(topic, exchangeType, amqpBrokerConfig, channelPool, null, new AmqpTopologyCache());
+    }
+
+    /**
+     * Creates adapter that publishes through the channels of the given pool. Messages that expect direct replies
+     * are published through the given direct reply channel. The exchange is declared unless the cache shows
+     * that it's already declared.
+     */
+    AmqpProducerAdapter(String topic, ExchangeType exchangeType, AmqpBrokerConfig amqpBrokerConfig, AmqpProducerChannelPool channelPool,
+            AmqpDirectReplyChannel directReplyChannel, AmqpTopologyCache topologyCache) {
+        this(topic, (String) null, amqpBrokerConfig, channelPool, directReplyChannel);
         Validate.notNull(exchangeType, "Exchange type is mandatory");
+        Validate.notNull(topologyCache, "Topology cache is mandatory");
+
+        if (!topologyCache.isExchangeDeclared(exchangeName, exchangeType)) {
+            declareExchange(exchangeType);
+            topologyCache.exchangeDeclared(exchangeName, exchangeType);
+        }
+    }
+
+    private AmqpProducerAdapter(String exchangeName, String replyAddress, AmqpBrokerConfig amqpBrokerConfig, AmqpProducerChannelPool channelPool,
+            AmqpDirectReplyChannel directReplyChannel) {
+        Validate.notNull(exchangeName, "Topic is mandatory");
         Validate.notNull(amqpBrokerConfig, "Broker config is mandatory");
-        Validate.notNull(exchangeType, "Connection manager is mandatory");
+        Validate.notNull(channelPool, "Channel pool is mandatory");
 
-        this.exchangeName = topic;
+        this.exchangeName = exchangeName;
+        this.replyAddress = replyAddress;
         this.amqpBrokerConfig = amqpBrokerConfig;
-        this.channel = LoggingAmqpChannel.instance(connectionManager);
+        this.channelPool = channelPool;
+        this.directReplyChannel = directReplyChannel;
+    }
+
+    /**
+     * Creates adapter that sends direct replies to the given address. Replies are published to the default exchange
+     * with the address as routing key regardless of the routing key of the message.
+     */
+    static AmqpProducerAdapter forDirectReply(String replyAddress, AmqpBrokerConfig amqpBrokerConfig, AmqpProducerChannelPool channelPool) {
+        Validate.notNull(replyAddress, "Reply address is mandatory");
+        return new AmqpProducerAdapter(StringUtils.EMPTY, replyAddress, amqpBrokerConfig, channelPool, null);
+    }
 
+    /**
+     * Creates adapter that publishes responses to the given response topic through the channels of the given pool.
+     * The exchange is declared every time since it's deleted along with the response queue of the requester,
+     * so the topology cache can't tell whether it still exists.
+     */
+    static AmqpProducerAdapter forResponses(String topic, ExchangeType exchangeType, AmqpBrokerConfig amqpBrokerConfig,
+            AmqpProducerChannelPool channelPool) {
+        Validate.notNull(exchangeType, "Exchange type is mandatory");
+        AmqpProducerAdapter adapter = new AmqpProducerAdapter(topic, (String) null, amqpBrokerConfig, channelPool, null);
+        adapter.declareExchange(exchangeType);
+        return adapter;
+    }
+
+    private void declareExchange(ExchangeType exchangeType) {
         try {
-            channel.exchangeDeclare(exchangeName, exchangeType.value(), false /* durable */, true /* auto-delete */, null);
+            channelPool.runOnDedicatedChannel(channel ->
+                    channel.exchangeDeclare(exchangeName, exchangeType.value(), false /* durable */, true /* auto-delete */, null));
         } catch (Exception e) {
             throw new ChannelException("Failed to setup channel from ActiveMQ connection", e);
         }
@@ -49,13 +126,144 @@ public class AmqpProducerAdapter implements ProducerAdapter {
     public void publish(String jsonMessage, String routingKey) {
         Validate.notNull(routingKey, "routing key is required");
         Charset charset = amqpBrokerConfig.getCharset();
+        byte[] body = jsonMessage.getBytes(charset);
 
         try {
-            channel.basicPublish(exchangeName, routingKey, MessageProperties.PERSISTENT_BASIC, jsonMessage.getBytes(charset));
+            publishCompressed(body, 0, body.length, null, routingKey, PublishOptions.DEFAULTS);
         } catch (Exception e) {
             LOG.error(ERROR_MESSAGE_TEMPLATE, exchangeName, routingKey);
             LOG.trace("Message: {}", jsonMessage);
             throw new ChannelException(String.format(ERROR_MESSAGE_TEMPLATE, exchangeName, routingKey), e);
         }
     }
+
+    /**
+     * Publishes the message with AMQP "content-type" property set to the given content type.
+     * JSON messages are re-encoded if the charset from configuration is not UTF-8.
+     */
+    @Override
+    public void publish(byte[] message, String contentType, String routingKey) {
+        publish(message, 0, message.length, contentType, routingKey, PublishOptions.DEFAULTS);
+    }
+
+    /**
+     * Same as {@link #publish(byte[], String, String)} but reads the message directly from the buffer's backing array.
+     */
+    @Override
+    public void publish(ByteBuffer message, String contentType, String routingKey) {
+        publishConfirmed(message, contentType, routingKey);
+    }
+
+    /**
+     * Same as {@link #publish(ByteBuffer, String, String)}. If publisher confirms are enabled in configuration
+     * the returned future is completed when the broker acknowledges the message, otherwise it is already completed.
+     */
+    @Override
+    public CompletableFuture<Void> publishConfirmed(ByteBuffer message, String contentType, String routingKey) {
+        return publishConfirmed(message, contentType, routingKey, PublishOptions.DEFAULTS);
+    }
+
+    /**
+     * Same as {@link #publishConfirmed(ByteBuffer, String, String)}. The options are mapped to AMQP "delivery-mode",
+     * "priority" and "expiration" properties, so that the broker drops the message once it expires.
+     */
+    @Override
+    public CompletableFuture<Void> publishConfirmed(ByteBuffer message, String contentType, String routingKey, PublishOptions options) {
+        Validate.notNull(options, "publish options are required");
+        if (!message.hasArray()) {
+            byte[] bytes = new byte[message.remaining()];
+            message.duplicate().get(bytes);
+            return publish(bytes, 0, bytes.length, contentType, routingKey, options);
+        }
+        return publish(message.array(), message.arrayOffset() + message.position(), message.remaining(), contentType, routingKey, options);
+    }
+
+    private CompletableFuture<Void> publish(byte[] message, int offset, int length, String contentType, String routingKey, PublishOptions options) {
+        Validate.notNull(routingKey, "routing key is required");
+        Validate.notNull(contentType, "content type is required");
+        Charset charset = amqpBrokerConfig.getCharset();
+
+        byte[] body = message;
+        if (JsonMessageCodec.CONTENT_TYPE.equals(contentType) && !StandardCharsets.UTF_8.equals(charset)) {
+            body = new String(message, offset, length, StandardCharsets.UTF_8).getBytes(charset);
+            offset = 0;
+            length = body.length;
+        }
+
+        try {
+            return publishCompressed(body, offset, length, contentType, routingKey, options);
+        } catch (Exception e) {
+            LOG.error(ERROR_MESSAGE_TEMPLATE, exchangeName, routingKey);
+            throw new ChannelException(String.format(ERROR_MESSAGE_TEMPLATE, exchangeName, routingKey), e);
+        }
+    }
+
+    /**
+     * Compresses the body if compression is enabled and the body exceeds the configured threshold.
+     * Compressed messages are marked with AMQP "content-encoding" property.
+     *
+     * AMQP client accepts whole arrays only, so the body is copied if it occupies just a part of the array.
+     */
+    private CompletableFuture<Void> publishCompressed(byte[] body, int offset, int length, String contentType, String routingKey,
+            PublishOptions options) throws IOException {
+        MessageCompression compression = amqpBrokerConfig.getCompression();
+        if (compression == null || compression == MessageCompression.NONE
+                || length <= amqpBrokerConfig.getCompressionThresholdBytes()) {
+            byte[] exactBody = offset == 0 && length == body.length ? body : Arrays.copyOfRange(body, offset, offset + length);
+            return basicPublish(routingKey, getProperties(contentType, null, options), exactBody, options);
+        } else {
+            byte[] compressedBody = compression.compress(body, offset, length);
+            LOG.trace("Message body compressed with {} from {} to {} bytes", compression, length, compressedBody.length);
+            return basicPublish(routingKey, getProperties(contentType, compression.getContentEncoding(), options), compressedBody, options);
+        }
+    }
+
+    /**
+     * Messages that expect direct replies are published on the direct reply channel, since the broker delivers
+     * the replies to the channel the message was published on.
+     */
+    private CompletableFuture<Void> basicPublish(String routingKey, AMQP.BasicProperties properties, byte[] body, PublishOptions options)
+            throws IOException {
+        String actualRoutingKey = replyAddress != null ? replyAddress : routingKey;
+        if (options.getReplyTo() != null && directReplyChannel != null) {
+            return directReplyChannel.publish(exchangeName, actualRoutingKey, properties, body);
+        }
+        return channelPool.getChannel().basicPublishConfirmed(exchangeName, actualRoutingKey, properties, body);
+    }
+
+    /**
+     * Closes the channel of the adapter if it has its own one. Channels of a shared pool are left open.
+     */
+    @Override
+    public void close() {
+        if (ownsChannelPool) {
+            channelPool.close();
+        }
+    }
+
+    /**
+     * Properties without expiration are cached, since there are just a few combinations of them in practice.
+     */
+    private AMQP.BasicProperties getProperties(String contentType, String contentEncoding, PublishOptions options) {
+        boolean persistent = options.getDeliveryMode() == DeliveryMode.PERSISTENT;
+        if (options.getExpirationMs() != null) {
+            return buildProperties(contentType, contentEncoding, persistent, options.getPriority(), options.getExpirationMs());
+        }
+        if (contentType == null && contentEncoding == null && persistent && options.getPriority() == null) {
+            return MessageProperties.PERSISTENT_BASIC;
+        }
+        return propertiesByContent.computeIfAbsent(contentType + "/" + contentEncoding + "/" + persistent + "/" + options.getPriority(),
+                key -> buildProperties(contentType, contentEncoding, persistent, options.getPriority(), null));
+    }
+
+    private static AMQP.BasicProperties buildProperties(String contentType, String contentEncoding, boolean persistent,
+            Integer priority, Long expirationMs) {
+        return MessageProperties.BASIC.builder()
+                .contentType(contentType)
+                .contentEncoding(contentEncoding)
+                .deliveryMode(persistent ? DELIVERY_MODE_PERSISTENT : DELIVERY_MODE_TRANSIENT)
+                .priority(priority != null ? priority : MessageProperties.PERSISTENT_BASIC.getPriority())
+                .expiration(expirationMs != null ? String.valueOf(expirationMs) : null)
+                .build();
+    }
 }
@@ -0,0 +1,149 @@
+package io.github.tcdl.msb.adapters.amqp;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * {@link AmqpProducerChannelPool} holds a fixed number of channels that are shared by all producers of a connection.
+ *
+ * AMQP client serializes publishing on a channel, so a single channel caps the throughput of all threads that publish
+ * through it. The pool stripes publishing threads across several channels according to {@link ProducerChannelSelection}.
+ *
+ * Channels are opened on first use. A channel that is closed by the broker while the connection stays open
+ * (for example after publishing to a nonexistent exchange) is replaced by a new one when it is picked next time.
+ * Channels of a broken connection are left to automatic recovery.
+ *
+ * Topology is declared on dedicated channels rather than pooled ones, see {@link #runOnDedicatedChannel}.
+ *
+ * An optional initializer is applied to every channel the pool opens, so channels that are replaced get the same
+ * setup as the original ones.
+ */
+public class AmqpProducerChannelPool {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AmqpProducerChannelPool.class);
+
+    private final AmqpConnectionManager connectionManager;
+    private final ProducerChannelSelection selection;
+    private final int maxUnconfirmedMessages;
+    private final Consumer<LoggingAmqpChannel> channelInitializer;
+    private final AtomicReferenceArray<LoggingAmqpChannel> channels;
+    private final AtomicInteger nextIndex = new AtomicInteger();
+
+    /**
+     * @param size number of channels in the pool
+     * @param maxUnconfirmedMessages maximum number of unconfirmed messages per channel if channels are to be opened
+     *                               in confirm mode, zero otherwise
+     */
+    public AmqpProducerChannelPool(AmqpConnectionManager connectionManager, int size, ProducerChannelSelection selection,
+            int maxUnconfirmedMessages) {
+        this(connectionManager, size, selection, maxUnconfirmedMessages, channel -> {
+        });
+    }
+
+    /**
+     * @param channelInitializer invoked for every channel right after it's opened. If it throws, the channel is closed
+     *                           and the exception is propagated to the caller of {@link #getChannel()}
+     */
+    AmqpProducerChannelPool(AmqpConnectionManager connectionManager, int size, ProducerChannelSelection selection,
+            int maxUnconfirmedMessages, Consumer<LoggingAmqpChannel> channelInitializer) {
+        Validate.notNull(connectionManager, "the 'connectionManager' must not be null");
+        Validate.notNull(selection, "the 'selection' must not be null");
+        Validate.isTrue(size > 0, "the 'size' must be positive");
+        Validate.isTrue(maxUnconfirmedMessages >= 0, "the 'maxUnconfirmedMessages' must not be negative");
+        Validate.notNull(channelInitializer, "the 'channelInitializer' must not be null");
+
+        this.connectionManager = connectionManager;
+        this.selection = selection;
+        this.maxUnconfirmedMessages = maxUnconfirmedMessages;
+        this.channelInitializer = channelInitializer;
+        this.channels = new AtomicReferenceArray<>(size);
+    }
+
+    /**
+     * @return channel to publish the next message of the current thread
+     */
+    public LoggingAmqpChannel getChannel() {
+        int index;
+        if (channels.length() == 1) {
+            index = 0;
+        } else if (selection == ProducerChannelSelection.THREAD) {
+            index = (int) (Thread.currentThread().getId() % channels.length());
+        } else {
+            index = (nextIndex.getAndIncrement() & Integer.MAX_VALUE) % channels.length();
+        }
+
+        LoggingAmqpChannel channel = channels.get(index);
+        if (channel == null || !channel.isOpen() && channel.isConnectionOpen()) {
+            channel = openChannel(index, channel);
+        }
+        return channel;
+    }
+
+    public int size() {
+        return channels.length();
+    }
+
+    /**
+     * Runs the action on a channel that is opened for it and closed afterwards. Failed declarations make the broker
+     * close the channel (for example an exchange redeclared with another type is rejected with 406 PRECONDITION_FAILED),
+     * so running them on a pooled channel would fail unconfirmed messages of other producers that share the channel.
+     */
+    public void runOnDedicatedChannel(Consumer<LoggingAmqpChannel> action) {
+        LoggingAmqpChannel channel = LoggingAmqpChannel.instance(connectionManager);
+        try {
+            action.accept(channel);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * @return false if a channel opened so far has lost its connection and waits for automatic recovery
+     */
+    public boolean isConnected() {
+        for (int i = 0; i < channels.length(); i++) {
+            LoggingAmqpChannel channel = channels.get(i);
+            if (channel != null && !channel.isConnectionOpen()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Closes the channels opened so far. Channels that are picked afterwards are opened anew.
+     */
+    public synchronized void close() {
+        for (int i = 0; i < channels.length(); i++) {
+            LoggingAmqpChannel channel = channels.getAndSet(i, null);
+            if (channel != null) {
+                LOG.debug("Closing producer channel #{}", i);
+                channel.close();
+            }
+        }
+    }
+
+    private synchronized LoggingAmqpChannel openChannel(int index, LoggingAmqpChannel staleChannel) {
+        LoggingAmqpChannel channel = channels.get(index);
+        if (channel != staleChannel) {
+            return channel;
+        }
+        LOG.debug("Opening producer channel #{}", index);
+        channel = maxUnconfirmedMessages > 0
+                ? LoggingAmqpChannel.instance(connectionManager, maxUnconfirmedMessages)
+                : LoggingAmqpChannel.instance(connectionManager);
+        try {
+            channelInitializer.accept(channel);
+        } catch (RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        channels.set(index, channel);
+        return channel;
+    }
+}
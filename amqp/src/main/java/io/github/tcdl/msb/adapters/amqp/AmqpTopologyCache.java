@@ -0,0 +1,65 @@
+package io.github.tcdl.msb.adapters.amqp;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Method;
+import com.rabbitmq.client.ShutdownSignalException;
+import io.github.tcdl.msb.api.ExchangeType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link AmqpTopologyCache} remembers exchanges declared by adapters, so that adapters created for the same topic
+ * later on don't declare them again and save a round trip to the broker.
+ *
+ * Declared topology is kept by the broker regardless of the connection it was declared on and is re-declared by
+ * automatic connection recovery, so a single cache serves all connections. However, exchanges are auto-delete:
+ * the broker removes an exchange once the last queue bound to it is gone, so the exchange must be forgotten
+ * when an auto-delete queue bound to it is released.
+ *
+ * Exchanges may also disappear without this instance knowing: another instance releases the last queue bound
+ * to an exchange or the broker is restarted. So the whole cache is cleared when a connection is recovered and
+ * when the broker closes a channel because something it refers to is not found.
+ */
+class AmqpTopologyCache {
+
+    private final Map<String, ExchangeType> declaredExchanges = new ConcurrentHashMap<>();
+
+    /**
+     * @return true if the exchange has been declared with the given type
+     */
+    boolean isExchangeDeclared(String exchange, ExchangeType exchangeType) {
+        return exchangeType == declaredExchanges.get(exchange);
+    }
+
+    void exchangeDeclared(String exchange, ExchangeType exchangeType) {
+        declaredExchanges.put(exchange, exchangeType);
+    }
+
+    /**
+     * Makes the next adapter for the exchange declare it again.
+     */
+    void forgetExchange(String exchange) {
+        declaredExchanges.remove(exchange);
+    }
+
+    /**
+     * Makes the next adapters declare their exchanges again.
+     */
+    void clear() {
+        declaredExchanges.clear();
+    }
+
+    /**
+     * Clears the cache if the channel was closed by the broker with "not found" reply code.
+     */
+    void channelShutdown(ShutdownSignalException cause) {
+        if (cause.isHardError() || cause.isInitiatedByApplication()) {
+            return;
+        }
+        Method reason = cause.getReason();
+        if (reason instanceof AMQP.Channel.Close && ((AMQP.Channel.Close) reason).getReplyCode() == AMQP.NOT_FOUND) {
+            clear();
+        }
+    }
+}
@@ -1,32 +1,56 @@
 package io.github.tcdl.msb.adapters.amqp;
 
 import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.AlreadyClosedException;
 import com.rabbitmq.client.Channel;
 import com.rabbitmq.client.ConfirmListener;
+import com.rabbitmq.client.Consumer;
+import com.rabbitmq.client.ShutdownListener;
 import io.github.tcdl.msb.api.exception.ChannelException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 
 /**
  * Wrapper for {@link Channel} that provides some additional debug logging.
+ *
+ * Optionally the channel is put into confirm mode. Then every published message is tracked until the broker
+ * acknowledges it, see {@link #basicPublishConfirmed(String, String, AMQP.BasicProperties, byte[])}.
  */
 public class LoggingAmqpChannel {
     private static final Logger LOG = LoggerFactory.getLogger(LoggingAmqpChannel.class);
 
     private AmqpConnectionManager connectionManager;
     private Channel channel;
+    private final PublisherConfirmTracker confirmTracker;
+    private final Object publishLock = new Object();
 
     public static LoggingAmqpChannel instance(AmqpConnectionManager connectionManager){
-        LoggingAmqpChannel loggingChannel = new LoggingAmqpChannel(connectionManager);
+        LoggingAmqpChannel loggingChannel = new LoggingAmqpChannel(connectionManager, null);
         loggingChannel.init();
         return loggingChannel;
     }
 
-    private LoggingAmqpChannel(AmqpConnectionManager connectionManager) {
+    /**
+     * Creates channel in confirm mode.
+     *
+     * @param maxUnconfirmedMessages maximum number of published messages that are not confirmed yet
+     */
+    public static LoggingAmqpChannel instance(AmqpConnectionManager connectionManager, int maxUnconfirmedMessages) {
+        LoggingAmqpChannel loggingChannel = new LoggingAmqpChannel(connectionManager, new PublisherConfirmTracker(maxUnconfirmedMessages));
+        loggingChannel.init();
+        return loggingChannel;
+    }
+
+    private LoggingAmqpChannel(AmqpConnectionManager connectionManager, PublisherConfirmTracker confirmTracker) {
         this.connectionManager = connectionManager;
+        this.confirmTracker = confirmTracker;
     }
 
     /*
@@ -35,20 +59,34 @@ public class LoggingAmqpChannel {
      */
     private void init() {
         try {
-            this.channel = connectionManager.obtainConnection().createChannel();
+            this.channel = connectionManager.createPublishChannel();
         } catch (IOException e) {
             throw new ChannelException("Channel creation failed with exception", e);
         }
 
+        if (confirmTracker != null) {
+            try {
+                channel.confirmSelect();
+            } catch (IOException e) {
+                throw new ChannelException("Failed to enable publisher confirms", e);
+            }
+        }
+
         channel.addConfirmListener(new ConfirmListener() {
             @Override
             public void handleAck(long deliveryTag, boolean multiple) throws IOException {
                 LOG.debug("Processing publisher ack (deliveryTag = {}, multiple = {})", deliveryTag, multiple);
+                if (confirmTracker != null) {
+                    confirmTracker.settle(deliveryTag, multiple).forEach(future -> future.complete(null));
+                }
             }
 
             @Override
             public void handleNack(long deliveryTag, boolean multiple) throws IOException {
-                LOG.debug("Processing publisher nack (deliveryTag = {}, multiple = {})", deliveryTag, multiple);
+                LOG.warn("Message rejected by broker (deliveryTag = {}, multiple = {})", deliveryTag, multiple);
+                if (confirmTracker != null) {
+                    fail(confirmTracker.settle(deliveryTag, multiple), "Message was rejected by broker");
+                }
             }
         });
 
@@ -59,9 +97,55 @@ public class LoggingAmqpChannel {
             } else {
                 LOG.error("Shutdown is NOT initiated by application.", cause);
             }
+            if (confirmTracker != null) {
+                fail(confirmTracker.removeAll(), "Channel was closed before message was confirmed");
+            }
         });
     }
 
+    public boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    public boolean isConnectionOpen() {
+        return channel.getConnection().isOpen();
+    }
+
+    public void addShutdownListener(ShutdownListener listener) {
+        channel.addShutdownListener(listener);
+    }
+
+    /**
+     * Starts consuming from the queue on this channel.
+     *
+     * @param consumerFactory creates the consumer for the underlying channel
+     * @return consumer tag
+     */
+    public String basicConsume(String queue, boolean autoAck, Function<Channel, Consumer> consumerFactory) {
+        LOG.debug("Consuming from queue. Name = [{}], autoAck = [{}]", queue, autoAck);
+        try {
+            return channel.basicConsume(queue, autoAck, consumerFactory.apply(channel));
+        } catch (IOException e) {
+            throw new ChannelException("basic.consume call failed", e);
+        }
+    }
+
+    /**
+     * Closes the channel unless it's closed already. Unconfirmed messages are failed by the shutdown listener.
+     */
+    public void close() {
+        LOG.debug("Closing channel...");
+        try {
+            if (channel.isOpen()) {
+                channel.close();
+            }
+        } catch (IOException | TimeoutException e) {
+            throw new ChannelException("channel.close call failed", e);
+        } catch (AlreadyClosedException e) {
+            LOG.debug("Channel is already closed");
+        }
+    }
+
     public AMQP.Exchange.DeclareOk exchangeDeclare(String exchange, String type, boolean durable, boolean autoDelete, Map<String, Object> arguments) {
         LOG.debug("Declaring exchange. Name = [{}], type = [{}], durable = [{}], autoDelete = [{}], args = [{}].",
                 exchange, type, durable, autoDelete, arguments);
@@ -72,7 +156,25 @@ public class LoggingAmqpChannel {
         }
     }
 
+    /**
+     * Declares exchange without waiting for the broker to confirm it. A failure closes the channel, so it's
+     * reported by the next synchronous call on the channel.
+     */
+    public void exchangeDeclareNoWait(String exchange, String type, boolean durable, boolean autoDelete, Map<String, Object> arguments) {
+        LOG.debug("Declaring exchange without waiting. Name = [{}], type = [{}], durable = [{}], autoDelete = [{}], args = [{}].",
+                exchange, type, durable, autoDelete, arguments);
+        try {
+            channel.exchangeDeclareNoWait(exchange, type, durable, autoDelete, false /* internal */, arguments);
+        } catch (IOException e) {
+            throw new ChannelException("exchange.declare call failed", e);
+        }
+    }
+
     public void basicPublish(String exchange, String routingKey, AMQP.BasicProperties props, byte[] body) {
+        if (confirmTracker != null) {
+            basicPublishConfirmed(exchange, routingKey, props, body);
+            return;
+        }
         LOG.debug("Publishing message. Exchange name = [{}], routing key = [{}]", exchange, routingKey);
         try {
             channel.basicPublish(exchange, routingKey, props, body);
@@ -80,4 +182,46 @@ public class LoggingAmqpChannel {
             throw new ChannelException("basic.publish call failed", e);
         }
     }
+
+    /**
+     * Publishes the message. If the channel is in confirm mode the returned future is completed once the broker
+     * confirms the message, and completed exceptionally if the broker rejects it or the channel is closed before that.
+     * Blocks while the maximum number of unconfirmed messages is reached. Otherwise the returned future is already completed.
+     *
+     * @throws ChannelException if the message can't be published
+     */
+    public CompletableFuture<Void> basicPublishConfirmed(String exchange, String routingKey, AMQP.BasicProperties props, byte[] body) {
+        if (confirmTracker == null) {
+            basicPublish(exchange, routingKey, props, body);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        LOG.debug("Publishing message in confirm mode. Exchange name = [{}], routing key = [{}]", exchange, routingKey);
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        confirmTracker.acquire();
+        synchronized (publishLock) {
+            long deliveryTag;
+            try {
+                deliveryTag = channel.getNextPublishSeqNo();
+            } catch (RuntimeException e) {
+                confirmTracker.release();
+                throw e;
+            }
+            fail(confirmTracker.track(deliveryTag, future), "Channel was recovered before message was confirmed");
+            try {
+                channel.basicPublish(exchange, routingKey, props, body);
+            } catch (IOException | RuntimeException e) {
+                fail(confirmTracker.settle(deliveryTag, false), "basic.publish call failed");
+                throw new ChannelException("basic.publish call failed", e);
+            }
+        }
+        return future;
+    }
+
+    private static void fail(List<CompletableFuture<Void>> futures, String reason) {
+        if (!futures.isEmpty()) {
+            ChannelException exception = new ChannelException(reason);
+            futures.forEach(future -> future.completeExceptionally(exception));
+        }
+    }
 }
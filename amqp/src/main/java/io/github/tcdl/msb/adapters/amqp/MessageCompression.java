@@ -0,0 +1,111 @@
+package io.github.tcdl.msb.adapters.amqp;
+
+import net.jpountz.lz4.LZ4FrameInputStream;
+import net.jpountz.lz4.LZ4FrameOutputStream;
+import org.apache.commons.io.IOUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compression algorithms that can be applied to AMQP message bodies. Compressed messages are marked with
+ * AMQP "content-encoding" property so that consumers are able to decompress them transparently.
+ */
+public enum MessageCompression {
+
+    NONE(null) {
+        @Override
+        OutputStream wrap(OutputStream out) {
+            return out;
+        }
+
+        @Override
+        InputStream wrap(InputStream in) {
+            return in;
+        }
+    },
+
+    GZIP("gzip") {
+        @Override
+        OutputStream wrap(OutputStream out) throws IOException {
+            return new GZIPOutputStream(out);
+        }
+
+        @Override
+        InputStream wrap(InputStream in) throws IOException {
+            return new GZIPInputStream(in);
+        }
+    },
+
+    LZ4("lz4") {
+        @Override
+        OutputStream wrap(OutputStream out) throws IOException {
+            return new LZ4FrameOutputStream(out);
+        }
+
+        @Override
+        InputStream wrap(InputStream in) throws IOException {
+            return new LZ4FrameInputStream(in);
+        }
+    };
+
+    private final String contentEncoding;
+
+    MessageCompression(String contentEncoding) {
+        this.contentEncoding = contentEncoding;
+    }
+
+    /**
+     * @return value of AMQP "content-encoding" property for compressed messages or null if compression is disabled
+     */
+    public String getContentEncoding() {
+        return contentEncoding;
+    }
+
+    /**
+     * @return compression the content encoding corresponds to or {@link #NONE} if the content encoding is unknown
+     */
+    public static MessageCompression forContentEncoding(String contentEncoding) {
+        if (contentEncoding != null) {
+            for (MessageCompression compression : values()) {
+                if (contentEncoding.equalsIgnoreCase(compression.contentEncoding)) {
+                    return compression;
+                }
+            }
+        }
+        return NONE;
+    }
+
+    public byte[] compress(byte[] data) throws IOException {
+        if (this == NONE) {
+            return data;
+        }
+        return compress(data, 0, data.length);
+    }
+
+    public byte[] compress(byte[] data, int offset, int length) throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream(length / 4);
+        try (OutputStream out = wrap(result)) {
+            out.write(data, offset, length);
+        }
+        return result.toByteArray();
+    }
+
+    public byte[] decompress(byte[] data) throws IOException {
+        if (this == NONE) {
+            return data;
+        }
+        try (InputStream in = wrap(new ByteArrayInputStream(data))) {
+            return IOUtils.toByteArray(in);
+        }
+    }
+
+    abstract OutputStream wrap(OutputStream out) throws IOException;
+
+    abstract InputStream wrap(InputStream in) throws IOException;
+}
@@ -0,0 +1,26 @@
+package io.github.tcdl.msb.adapters.amqp;
+
+/**
+ * Strategies of choosing a channel from {@link AmqpProducerChannelPool} for a message that is being published.
+ */
+public enum ProducerChannelSelection {
+
+    /**
+     * Each publishing thread sticks to the same channel. Messages published by a thread keep their order.
+     */
+    THREAD,
+
+    /**
+     * Channels are used in turn regardless of the publishing thread. Load is spread evenly even if there are
+     * few publishing threads, but messages published by a single thread may be reordered across channels.
+     */
+    ROUND_ROBIN;
+
+    /**
+     * @param name case-insensitive name of the strategy, dashes are accepted instead of underscores
+     * @throws IllegalArgumentException if there is no strategy with the given name
+     */
+    public static ProducerChannelSelection forName(String name) {
+        return valueOf(name.replace('-', '_').toUpperCase());
+    }
+}
@@ -0,0 +1,151 @@
+package io.github.tcdl.msb.adapters.amqp;
+
+import io.github.tcdl.msb.api.exception.ChannelException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * {@link PublisherConfirmTracker} keeps futures of messages published on a channel in confirm mode until
+ * the broker acknowledges them.
+ *
+ * Delivery tags of a channel are consecutive, so the futures are kept in a ring buffer indexed by the distance from
+ * the oldest tracked tag. Both single and multiple acks cost O(1) amortized per message: each slot is visited once
+ * when it is settled and once when the head of the ring moves past it.
+ *
+ * The number of tracked messages is limited by the ring capacity. {@link #acquire()} blocks until there is a free slot,
+ * which gives producers backpressure when the broker falls behind.
+ *
+ * Futures are returned to the caller instead of being completed under the lock so that their callbacks never run
+ * while the tracker is locked.
+ */
+class PublisherConfirmTracker {
+
+    private final int capacity;
+    private final Semaphore permits;
+    private final CompletableFuture<Void>[] futures;
+    private final boolean[] settled;
+
+    private long headTag;
+    private int headIndex;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    PublisherConfirmTracker(int capacity) {
+        this.capacity = capacity;
+        this.permits = new Semaphore(capacity);
+        this.futures = (CompletableFuture<Void>[]) new CompletableFuture<?>[capacity];
+        this.settled = new boolean[capacity];
+    }
+
+    /**
+     * Waits for a free slot. Must be followed by either {@link #track(long, CompletableFuture)} or {@link #release()}.
+     *
+     * @throws ChannelException if the thread is interrupted while waiting
+     */
+    void acquire() {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ChannelException("Interrupted while waiting for publisher confirms", e);
+        }
+    }
+
+    /**
+     * Returns the slot obtained by {@link #acquire()} if the message was not published.
+     */
+    void release() {
+        permits.release();
+    }
+
+    /**
+     * Starts tracking of the message published with the given delivery tag. If the tag does not follow the last tracked
+     * one (channel was recovered and started numbering from scratch) all tracked messages are considered lost.
+     *
+     * @return futures of lost messages that are to be completed exceptionally
+     */
+    synchronized List<CompletableFuture<Void>> track(long deliveryTag, CompletableFuture<Void> future) {
+        List<CompletableFuture<Void>> lost = Collections.emptyList();
+        if (size > 0 && deliveryTag != headTag + size) {
+            lost = removeAll();
+        }
+        if (size == 0) {
+            headTag = deliveryTag;
+        }
+        int index = indexOf(size);
+        futures[index] = future;
+        settled[index] = false;
+        size++;
+        return lost;
+    }
+
+    /**
+     * Settles the message with the given delivery tag or, if multiple is true, all messages up to and including it.
+     *
+     * @return futures of the messages settled by this call
+     */
+    synchronized List<CompletableFuture<Void>> settle(long deliveryTag, boolean multiple) {
+        long offset = deliveryTag - headTag;
+        if (size == 0 || offset < 0) {
+            return Collections.emptyList();
+        }
+        int last = (int) Math.min(offset, size - 1);
+
+        List<CompletableFuture<Void>> result = new ArrayList<>(multiple ? last + 1 : 1);
+        if (multiple) {
+            for (int i = 0; i <= last; i++) {
+                settleAt(indexOf(i), result);
+            }
+        } else if (offset < size) {
+            settleAt(indexOf(last), result);
+        }
+
+        while (size > 0 && settled[headIndex]) {
+            futures[headIndex] = null;
+            headIndex = (headIndex + 1) % capacity;
+            headTag++;
+            size--;
+            permits.release();
+        }
+        return result;
+    }
+
+    /**
+     * Stops tracking of all messages, e.g. when the channel is closed.
+     *
+     * @return futures of messages that were not settled
+     */
+    synchronized List<CompletableFuture<Void>> removeAll() {
+        List<CompletableFuture<Void>> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int index = indexOf(i);
+            if (!settled[index]) {
+                result.add(futures[index]);
+            }
+            futures[index] = null;
+        }
+        permits.release(size);
+        headIndex = 0;
+        size = 0;
+        return result;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    private void settleAt(int index, List<CompletableFuture<Void>> result) {
+        if (!settled[index]) {
+            settled[index] = true;
+            result.add(futures[index]);
+        }
+    }
+
+    private int indexOf(int offset) {
+        return (headIndex + offset) % capacity;
+    }
+}
@@ -15,9 +15,11 @@ public class AmqpRequestOptions extends RequestOptions {
                                MessageTemplate messageTemplate,
                                String forwardNamespace,
                                String routingKey,
+                               boolean directReplyTo,
+                               ResponseRetention responseRetention,
                                ExchangeType exchangeType) {
 
-        super(ackTimeout, responseTimeout, waitForResponses, messageTemplate, forwardNamespace, routingKey);
+        super(ackTimeout, responseTimeout, waitForResponses, messageTemplate, forwardNamespace, routingKey, directReplyTo, responseRetention);
         this.exchangeType = exchangeType;
     }
 
@@ -42,7 +44,7 @@ public class AmqpRequestOptions extends RequestOptions {
         @Override
         public RequestOptions build() {
             return new AmqpRequestOptions(ackTimeout, responseTimeout, waitForResponses, messageTemplate,
-                    forwardNamespace, routingKey, exchangeType);
+                    forwardNamespace, routingKey, directReplyTo, responseRetention, exchangeType);
         }
     }
 }
@@ -15,7 +15,14 @@ public class AmqpResponderOptions extends ResponderOptions{
     protected AmqpResponderOptions(Set<String> bindingKeys,
                                    MessageTemplate messageTemplate,
                                    ExchangeType exchangeType) {
-        super(bindingKeys, messageTemplate);
+        this(bindingKeys, messageTemplate, null, exchangeType);
+    }
+
+    protected AmqpResponderOptions(Set<String> bindingKeys,
+                                   MessageTemplate messageTemplate,
+                                   Integer consumerCount,
+                                   ExchangeType exchangeType) {
+        super(bindingKeys, messageTemplate, consumerCount);
         this.exchangeType = exchangeType;
     }
 
@@ -37,6 +44,11 @@ public class AmqpResponderOptions extends ResponderOptions{
             return this;
         }
 
+        public Builder withConsumerCount(int consumerCount) {
+            super.withConsumerCount(consumerCount);
+            return this;
+        }
+
         public Builder withExchangeType(@Nonnull ExchangeType exchangeType){
             Validate.notNull(exchangeType);
             this.exchangeType = exchangeType;
@@ -49,7 +61,7 @@ public class AmqpResponderOptions extends ResponderOptions{
                     ? Collections.singleton(MATCH_ALL_BINDING_KEY)
                     : this.bindingKeys;
 
-            return new AmqpResponderOptions(bindingKeys, messageTemplate, exchangeType);
+            return new AmqpResponderOptions(bindingKeys, messageTemplate, consumerCount, exchangeType);
         }
     }
 }
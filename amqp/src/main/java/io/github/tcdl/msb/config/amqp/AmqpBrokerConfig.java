@@ -1,5 +1,7 @@
 package io.github.tcdl.msb.config.amqp;
 
+import io.github.tcdl.msb.adapters.amqp.MessageCompression;
+import io.github.tcdl.msb.adapters.amqp.ProducerChannelSelection;
 import io.github.tcdl.msb.api.ExchangeType;
 import io.github.tcdl.msb.api.exception.ConfigurationException;
 import io.github.tcdl.msb.config.ConfigurationUtil;
@@ -26,6 +28,23 @@ public class AmqpBrokerConfig {
     private final int heartbeatIntervalSec;
     private final long networkRecoveryIntervalMs;
     private final int prefetchCount;
+    private final MessageCompression compression;
+    private final int compressionThresholdBytes;
+    private final boolean publisherConfirms;
+    private final int maxUnconfirmedMessages;
+    private final int producerChannelPoolSize;
+    private final ProducerChannelSelection producerChannelSelection;
+    private final int publishConnections;
+    private final int consumeConnections;
+    private final int consumerThreadPoolSize;
+    private final int ackBatchSize;
+    private final long ackFlushIntervalMs;
+    private final boolean adaptivePrefetch;
+    private final int minPrefetchCount;
+    private final int maxPrefetchCount;
+    private final long prefetchAdjustmentIntervalMs;
+    private final int maxPriority;
+    private final int consumerCount;
 
     public AmqpBrokerConfig(Charset charset, String host, int port,
             Optional<String> username, Optional<String> password, Optional<String> virtualHost, boolean useSSL,
@@ -45,6 +64,56 @@ public class AmqpBrokerConfig {
         this.heartbeatIntervalSec = heartbeatIntervalSec;
         this.networkRecoveryIntervalMs = networkRecoveryIntervalMs;
         this.prefetchCount = prefetchCount;
+        this.compression = MessageCompression.NONE;
+        this.compressionThresholdBytes = 0;
+        this.publisherConfirms = false;
+        this.maxUnconfirmedMessages = 0;
+        this.producerChannelPoolSize = 1;
+        this.producerChannelSelection = ProducerChannelSelection.THREAD;
+        this.publishConnections = 0;
+        this.consumeConnections = 1;
+        this.consumerThreadPoolSize = 0;
+        this.ackBatchSize = 1;
+        this.ackFlushIntervalMs = 0;
+        this.adaptivePrefetch = false;
+        this.minPrefetchCount = prefetchCount;
+        this.maxPrefetchCount = prefetchCount;
+        this.prefetchAdjustmentIntervalMs = 0;
+        this.maxPriority = 0;
+        this.consumerCount = 1;
+    }
+
+    private AmqpBrokerConfig(AmqpBrokerConfigBuilder builder) {
+        this.charset = builder.charset;
+        this.port = builder.port;
+        this.host = builder.host;
+        this.username = builder.username;
+        this.password = builder.password;
+        this.virtualHost = builder.virtualHost;
+        this.useSSL = builder.useSSL;
+        this.groupId = builder.groupId;
+        this.durable = builder.durable;
+        this.defaultExchangeType = builder.defaultExchangeType;
+        this.heartbeatIntervalSec = builder.heartbeatIntervalSec;
+        this.networkRecoveryIntervalMs = builder.networkRecoveryIntervalMs;
+        this.prefetchCount = builder.prefetchCount;
+        this.compression = builder.compression;
+        this.compressionThresholdBytes = builder.compressionThresholdBytes;
+        this.publisherConfirms = builder.publisherConfirms;
+        this.maxUnconfirmedMessages = builder.maxUnconfirmedMessages;
+        this.producerChannelPoolSize = builder.producerChannelPoolSize;
+        this.producerChannelSelection = builder.producerChannelSelection;
+        this.publishConnections = builder.publishConnections;
+        this.consumeConnections = builder.consumeConnections;
+        this.consumerThreadPoolSize = builder.consumerThreadPoolSize;
+        this.ackBatchSize = builder.ackBatchSize;
+        this.ackFlushIntervalMs = builder.ackFlushIntervalMs;
+        this.adaptivePrefetch = builder.adaptivePrefetch;
+        this.minPrefetchCount = builder.minPrefetchCount;
+        this.maxPrefetchCount = builder.maxPrefetchCount;
+        this.prefetchAdjustmentIntervalMs = builder.prefetchAdjustmentIntervalMs;
+        this.maxPriority = builder.maxPriority;
+        this.consumerCount = builder.consumerCount;
     }
 
     public static class AmqpBrokerConfigBuilder {
@@ -61,6 +130,23 @@ public class AmqpBrokerConfig {
         private int heartbeatIntervalSec;
         private long networkRecoveryIntervalMs;
         private int prefetchCount;
+        private MessageCompression compression;
+        private int compressionThresholdBytes;
+        private boolean publisherConfirms;
+        private int maxUnconfirmedMessages;
+        private int producerChannelPoolSize;
+        private ProducerChannelSelection producerChannelSelection;
+        private int publishConnections;
+        private int consumeConnections;
+        private int consumerThreadPoolSize;
+        private int ackBatchSize;
+        private long ackFlushIntervalMs;
+        private boolean adaptivePrefetch;
+        private int minPrefetchCount;
+        private int maxPrefetchCount;
+        private long prefetchAdjustmentIntervalMs;
+        private int maxPriority;
+        private int consumerCount;
 
         /**
          * Initialize Builder with Config
@@ -89,6 +175,62 @@ public class AmqpBrokerConfig {
             this.heartbeatIntervalSec = ConfigurationUtil.getInt(config, "heartbeatIntervalSec");
             this.networkRecoveryIntervalMs = ConfigurationUtil.getLong(config, "networkRecoveryIntervalMs");
             this.prefetchCount = ConfigurationUtil.getInt(config, "prefetchCount");
+
+            String compressionName = ConfigurationUtil.getString(config, "compression");
+            try {
+                this.compression = MessageCompression.valueOf(compressionName.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new ConfigurationException(String.format("Unsupported compression: '%s'", compressionName), e);
+            }
+            this.compressionThresholdBytes = ConfigurationUtil.getInt(config, "compressionThresholdBytes");
+            this.publisherConfirms = ConfigurationUtil.getBoolean(config, "publisherConfirms");
+            this.maxUnconfirmedMessages = ConfigurationUtil.getInt(config, "maxUnconfirmedMessages");
+            if (publisherConfirms && maxUnconfirmedMessages <= 0) {
+                throw new ConfigurationException("'maxUnconfirmedMessages' must be positive when publisher confirms are enabled");
+            }
+
+            this.producerChannelPoolSize = ConfigurationUtil.getInt(config, "producerChannelPoolSize");
+            if (producerChannelPoolSize <= 0) {
+                throw new ConfigurationException("'producerChannelPoolSize' must be positive");
+            }
+            String selectionName = ConfigurationUtil.getString(config, "producerChannelSelection");
+            try {
+                this.producerChannelSelection = ProducerChannelSelection.forName(selectionName);
+            } catch (IllegalArgumentException e) {
+                throw new ConfigurationException(String.format("Unsupported producer channel selection: '%s'", selectionName), e);
+            }
+
+            this.publishConnections = ConfigurationUtil.getInt(config, "publishConnections");
+            this.consumeConnections = ConfigurationUtil.getInt(config, "consumeConnections");
+            if (publishConnections < 0 || consumeConnections <= 0) {
+                throw new ConfigurationException("'consumeConnections' must be positive and 'publishConnections' must not be negative");
+            }
+            this.consumerThreadPoolSize = ConfigurationUtil.getInt(config, "consumerThreadPoolSize");
+
+            this.ackBatchSize = ConfigurationUtil.getInt(config, "ackBatchSize");
+            this.ackFlushIntervalMs = ConfigurationUtil.getLong(config, "ackFlushIntervalMs");
+            if (ackBatchSize > 1 && ackFlushIntervalMs <= 0) {
+                throw new ConfigurationException("'ackFlushIntervalMs' must be positive when acknowledgements are coalesced");
+            }
+
+            this.adaptivePrefetch = ConfigurationUtil.getBoolean(config, "adaptivePrefetch");
+            this.minPrefetchCount = ConfigurationUtil.getInt(config, "minPrefetchCount");
+            this.maxPrefetchCount = ConfigurationUtil.getInt(config, "maxPrefetchCount");
+            this.prefetchAdjustmentIntervalMs = ConfigurationUtil.getLong(config, "prefetchAdjustmentIntervalMs");
+            if (adaptivePrefetch && (minPrefetchCount <= 0 || maxPrefetchCount < minPrefetchCount || prefetchAdjustmentIntervalMs <= 0)) {
+                throw new ConfigurationException("Adaptive prefetch requires positive 'minPrefetchCount' and 'prefetchAdjustmentIntervalMs' "
+                        + "and 'maxPrefetchCount' not less than 'minPrefetchCount'");
+            }
+
+            this.maxPriority = ConfigurationUtil.getInt(config, "maxPriority");
+            if (maxPriority < 0 || maxPriority > 255) {
+                throw new ConfigurationException("'maxPriority' must be between 0 and 255");
+            }
+
+            this.consumerCount = ConfigurationUtil.getInt(config, "consumerCount");
+            if (consumerCount <= 0) {
+                throw new ConfigurationException("'consumerCount' must be positive");
+            }
             return this;
         }
 
@@ -96,9 +238,7 @@ public class AmqpBrokerConfig {
          * @throws ConfigurationException if provided configuration is broken
          */
         public AmqpBrokerConfig build() {
-            return new AmqpBrokerConfig(charset, host, port, username, password, virtualHost, useSSL,
-                    groupId, durable, defaultExchangeType,
-                    heartbeatIntervalSec, networkRecoveryIntervalMs, prefetchCount);
+            return new AmqpBrokerConfig(this);
         }
     }
 
@@ -157,14 +297,140 @@ public class AmqpBrokerConfig {
     public int getPrefetchCount() {
         return prefetchCount;
     }
+
+    public MessageCompression getCompression() {
+        return compression;
+    }
+
+    /**
+     * @return size of message body in bytes. Only messages larger than that are compressed.
+     */
+    public int getCompressionThresholdBytes() {
+        return compressionThresholdBytes;
+    }
+
+    /**
+     * @return true if producers should publish in confirm mode and track broker acknowledgements
+     */
+    public boolean isPublisherConfirms() {
+        return publisherConfirms;
+    }
+
+    /**
+     * @return maximum number of messages per channel that are published but not confirmed by broker yet.
+     * Publishing blocks once the limit is reached.
+     */
+    public int getMaxUnconfirmedMessages() {
+        return maxUnconfirmedMessages;
+    }
+
+    /**
+     * @return number of channels shared by all producers of a connection
+     */
+    public int getProducerChannelPoolSize() {
+        return producerChannelPoolSize;
+    }
+
+    public ProducerChannelSelection getProducerChannelSelection() {
+        return producerChannelSelection;
+    }
+
+    /**
+     * @return number of connections dedicated to publishing. Zero means that messages are published
+     * over the consume connections.
+     */
+    public int getPublishConnections() {
+        return publishConnections;
+    }
+
+    /**
+     * @return number of connections to consume messages over
+     */
+    public int getConsumeConnections() {
+        return consumeConnections;
+    }
+
+    /**
+     * @return number of threads in the pool that dispatches deliveries of all consume connections.
+     * Zero or less means that AMQP client creates a pool per connection.
+     */
+    public int getConsumerThreadPoolSize() {
+        return consumerThreadPoolSize;
+    }
+
+    /**
+     * @return number of acknowledgements that are coalesced into a single multiple ack. One or less means
+     * that every message is acknowledged separately.
+     */
+    public int getAckBatchSize() {
+        return ackBatchSize;
+    }
+
+    /**
+     * @return maximum time in milliseconds acknowledgements are held back while coalescing
+     */
+    public long getAckFlushIntervalMs() {
+        return ackFlushIntervalMs;
+    }
+
+    /**
+     * @return true if prefetch count of consumers is adjusted at runtime according to their handling latency
+     */
+    public boolean isAdaptivePrefetch() {
+        return adaptivePrefetch;
+    }
+
+    /**
+     * @return lower bound of adaptive prefetch count
+     */
+    public int getMinPrefetchCount() {
+        return minPrefetchCount;
+    }
+
+    /**
+     * @return upper bound of adaptive prefetch count
+     */
+    public int getMaxPrefetchCount() {
+        return maxPrefetchCount;
+    }
+
+    /**
+     * @return interval in milliseconds between adjustments of adaptive prefetch count
+     */
+    public long getPrefetchAdjustmentIntervalMs() {
+        return prefetchAdjustmentIntervalMs;
+    }
+
+    /**
+     * @return maximum priority supported by queues declared by consumers. Zero means that queues don't support priorities.
+     */
+    public int getMaxPriority() {
+        return maxPriority;
+    }
+
+    /**
+     * @return number of consumers (each on its own channel) that receive messages from a subscribed queue in parallel,
+     * unless {@link io.github.tcdl.msb.api.ResponderOptions} specify otherwise
+     */
+    public int getConsumerCount() {
+        return consumerCount;
+    }
     
     @Override
     public String toString() {
         return String.format("AmqpBrokerConfig [charset=%s, host=%s, port=%d, username=%s, password=xxx, virtualHost=%s, useSSL=%s, groupId=%s, durable=%s, "
                         + "heartbeatIntervalSec=%s, "
-                        + "networkRecoveryIntervalMs=%s, prefetchCount=%s]",
+                        + "networkRecoveryIntervalMs=%s, prefetchCount=%s, compression=%s, compressionThresholdBytes=%s, "
+                        + "publisherConfirms=%s, maxUnconfirmedMessages=%s, producerChannelPoolSize=%s, producerChannelSelection=%s, "
+                        + "publishConnections=%s, consumeConnections=%s, consumerThreadPoolSize=%s, ackBatchSize=%s, ackFlushIntervalMs=%s, "
+                        + "adaptivePrefetch=%s, minPrefetchCount=%s, maxPrefetchCount=%s, prefetchAdjustmentIntervalMs=%s, maxPriority=%s, "
+                        + "consumerCount=%s]",
                 charset, host, port, username, virtualHost, useSSL, groupId, durable,
-                heartbeatIntervalSec, networkRecoveryIntervalMs, prefetchCount);
+                heartbeatIntervalSec, networkRecoveryIntervalMs, prefetchCount, compression, compressionThresholdBytes,
+                publisherConfirms, maxUnconfirmedMessages, producerChannelPoolSize, producerChannelSelection,
+                publishConnections, consumeConnections, consumerThreadPoolSize, ackBatchSize, ackFlushIntervalMs,
+                adaptivePrefetch, minPrefetchCount, maxPrefetchCount, prefetchAdjustmentIntervalMs, maxPriority,
+                consumerCount);
     }
 
 }
\ No newline at end of file
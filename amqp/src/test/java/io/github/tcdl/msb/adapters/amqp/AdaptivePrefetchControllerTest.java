@@ -0,0 +1,128 @@
+package io.github.tcdl.msb.adapters.amqp;
+
+import com.rabbitmq.client.Channel;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AdaptivePrefetchControllerTest {
+
+    private static final long INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    @Mock
+    private Channel channel;
+
+    @Mock
+    private ScheduledExecutorService scheduler;
+
+    @Mock
+    private ScheduledFuture<?> adjustmentTask;
+
+    private long now;
+
+    @Before
+    public void setUp() {
+        doReturn(adjustmentTask).when(scheduler).scheduleWithFixedDelay(any(Runnable.class), eq(1000L), eq(1000L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testStartSetsInitialPrefetchWithinBounds() throws Exception {
+        AdaptivePrefetchController controller = start(5, 50, 100);
+
+        assertEquals(50, controller.getPrefetchCount());
+        verify(channel).basicQos(50, true);
+
+        controller.stop();
+        verify(adjustmentTask).cancel(false);
+    }
+
+    @Test
+    public void testIncreasesWhenWindowIsUsedWithoutQueueing() throws Exception {
+        AdaptivePrefetchController controller = start(1, 100, 10);
+
+        // 100 messages per second handled in 100ms each keep the whole window busy
+        settle(controller, 100, 100);
+        controller.adjust(now += INTERVAL_NANOS);
+
+        assertEquals(12, controller.getPrefetchCount());
+        verify(channel).basicQos(12, true);
+    }
+
+    @Test
+    public void testDecreasesWhenMessagesQueueUp() throws Exception {
+        AdaptivePrefetchController controller = start(1, 100, 10);
+
+        // the fastest messages are handled in 10ms, the rest wait for 200ms more in the executor queue
+        settle(controller, 50, 10);
+        settle(controller, 50, 210);
+        controller.adjust(now += INTERVAL_NANOS);
+
+        assertEquals(8, controller.getPrefetchCount());
+        verify(channel).basicQos(8, true);
+    }
+
+    @Test
+    public void testHoldsWhenIdleOrWindowIsNotUsed() throws Exception {
+        AdaptivePrefetchController controller = start(1, 100, 10);
+
+        controller.adjust(now += INTERVAL_NANOS);
+        settle(controller, 10, 10);
+        controller.adjust(now += INTERVAL_NANOS);
+
+        assertEquals(10, controller.getPrefetchCount());
+        // only the initial value is set
+        verify(channel).basicQos(anyInt(), eq(true));
+    }
+
+    @Test
+    public void testStaysWithinBounds() throws Exception {
+        AdaptivePrefetchController controller = start(9, 11, 10);
+
+        settle(controller, 100, 100);
+        controller.adjust(now += INTERVAL_NANOS);
+        settle(controller, 110, 100);
+        controller.adjust(now += INTERVAL_NANOS);
+        assertEquals(11, controller.getPrefetchCount());
+
+        settle(controller, 50, 100);
+        settle(controller, 50, 1000);
+        controller.adjust(now += INTERVAL_NANOS);
+        settle(controller, 50, 100);
+        settle(controller, 50, 1000);
+        controller.adjust(now += INTERVAL_NANOS);
+        assertEquals(9, controller.getPrefetchCount());
+
+        verify(channel).basicQos(11, true);
+        verify(channel).basicQos(9, true);
+    }
+
+    private AdaptivePrefetchController start(int min, int max, int initial) throws Exception {
+        AdaptivePrefetchController controller = new AdaptivePrefetchController(channel, min, max, initial, 1000);
+        controller.start(scheduler);
+        verify(channel).basicQos(controller.getPrefetchCount(), true);
+        now = System.nanoTime();
+        controller.adjust(now);
+        return controller;
+    }
+
+    private void settle(AdaptivePrefetchController controller, int count, long latencyMs) {
+        long latencyNanos = TimeUnit.MILLISECONDS.toNanos(latencyMs);
+        for (int i = 0; i < count; i++) {
+            controller.settled(now - latencyNanos, now);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package io.github.tcdl.msb.adapters.amqp;
+
+import com.rabbitmq.client.Channel;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AmqpAckAggregatorTest {
+
+    private static final int BATCH_SIZE = 3;
+
+    @Mock
+    private Channel channel;
+
+    @Mock
+    private ScheduledExecutorService scheduler;
+
+    @Mock
+    private ScheduledFuture<?> flushTask;
+
+    private AmqpAckAggregator aggregator;
+    private Runnable periodicFlush;
+
+    @Before
+    public void setUp() {
+        doReturn(flushTask).when(scheduler).scheduleWithFixedDelay(any(Runnable.class), eq(100L), eq(100L), eq(TimeUnit.MILLISECONDS));
+        aggregator = new AmqpAckAggregator(channel, BATCH_SIZE, 100, scheduler);
+        ArgumentCaptor<Runnable> flushCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).scheduleWithFixedDelay(flushCaptor.capture(), anyLong(), anyLong(), any(TimeUnit.class));
+        periodicFlush = flushCaptor.getValue();
+    }
+
+    @Test
+    public void testAcksAreSentInBatch() throws Exception {
+        deliver(1, 4);
+
+        aggregator.ack(1);
+        aggregator.ack(2);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+
+        aggregator.ack(3);
+        verify(channel).basicAck(3, true);
+        assertEquals(0, aggregator.getPendingCount());
+    }
+
+    @Test
+    public void testAckIsHeldBackByEarlierMessageInProcess() throws Exception {
+        deliver(1, 4);
+
+        aggregator.ack(2);
+        aggregator.ack(3);
+        aggregator.ack(4);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+
+        aggregator.ack(1);
+        verify(channel).basicAck(4, true);
+    }
+
+    @Test
+    public void testRejectIsSentImmediately() throws Exception {
+        deliver(1, 4);
+
+        aggregator.ack(1);
+        aggregator.reject(2, true);
+        verify(channel).basicReject(2, true);
+
+        aggregator.ack(3);
+        aggregator.reject(4, false);
+        aggregator.flush();
+        verify(channel).basicReject(4, false);
+        verify(channel).basicAck(3, true);
+        verifyNoMoreInteractions(channel);
+    }
+
+    @Test
+    public void testPeriodicFlushSendsContiguousAcks() throws Exception {
+        deliver(1, 3);
+        aggregator.ack(1);
+        aggregator.ack(3);
+
+        periodicFlush.run();
+        verify(channel).basicAck(1, true);
+        verify(channel, never()).basicAck(eq(3L), anyBoolean());
+
+        periodicFlush.run();
+        verify(channel).basicAck(3, false);
+        assertEquals(0, aggregator.getPendingCount());
+
+        aggregator.ack(2);
+        aggregator.flush();
+        verify(channel).basicAck(2, true);
+    }
+
+    @Test
+    public void testCloseFlushesAndSwitchesToIndividualAcks() throws Exception {
+        deliver(1, 3);
+        aggregator.ack(1);
+
+        aggregator.close();
+        verify(flushTask).cancel(false);
+        verify(channel).basicAck(1, true);
+
+        aggregator.ack(3);
+        verify(channel).basicAck(3, false);
+    }
+
+    @Test
+    public void testDuplicateAckIsIgnored() throws Exception {
+        deliver(1, 1);
+        aggregator.ack(1);
+        aggregator.ack(1);
+
+        assertEquals(1, aggregator.getPendingCount());
+    }
+
+    private void deliver(long firstTag, int count) {
+        for (int i = 0; i < count; i++) {
+            aggregator.delivered(firstTag + i);
+        }
+    }
+}
@@ -42,4 +42,16 @@ public class AmqpAcknowledgementAdapterTest {
         verify(channel, times(1)).basicReject(DELIVERY_TAG, true);
     }
 
+    @Test
+    public void testConfirmWithAggregator() throws Exception {
+        AmqpAckAggregator aggregator = mock(AmqpAckAggregator.class);
+        AmqpAcknowledgementAdapter aggregatingAdapter = new AmqpAcknowledgementAdapter(channel, MESSAGE_TEXT_ID, DELIVERY_TAG, aggregator);
+
+        aggregatingAdapter.confirm();
+        aggregatingAdapter.retry();
+
+        verify(aggregator).ack(DELIVERY_TAG);
+        verify(aggregator).reject(DELIVERY_TAG, true);
+        verifyZeroInteractions(channel);
+    }
 }
@@ -1,11 +1,15 @@
 package io.github.tcdl.msb.adapters.amqp;
 
+import com.rabbitmq.client.Channel;
 import com.rabbitmq.client.Connection;
 import com.rabbitmq.client.ConnectionFactory;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigValueFactory;
 import io.github.tcdl.msb.adapters.ConsumerAdapter;
 import io.github.tcdl.msb.api.ExchangeType;
+import io.github.tcdl.msb.api.RequestOptions;
+import io.github.tcdl.msb.api.exception.ChannelException;
 import io.github.tcdl.msb.config.MsbConfig;
 import io.github.tcdl.msb.config.amqp.AmqpBrokerConfig;
 import org.junit.Before;
@@ -16,13 +20,26 @@ import org.mockito.runners.MockitoJUnitRunner;
 
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
 public class AmqpAdapterFactoryTest {
@@ -52,6 +69,8 @@ public class AmqpAdapterFactoryTest {
     Connection mockConnection;
 
     AmqpBrokerConfig amqpConfig;
+    List<Connection> createdPublishConnections;
+    List<Connection> createdConsumeConnections;
     AmqpAdapterFactory amqpAdapterFactory;
     MsbConfig msbConfigurations;
 
@@ -82,13 +101,15 @@ public class AmqpAdapterFactoryTest {
             }
 
             @Override
-            protected AmqpConnectionManager createConnectionManager(Connection connection) {
+            protected AmqpConnectionManager createConnectionManager(List<Connection> publishConnections, List<Connection> consumeConnections) {
+                createdPublishConnections = publishConnections;
+                createdConsumeConnections = consumeConnections;
                 return mockConnectionManager;
             }
 
             @Override
             protected Connection createConnection(ConnectionFactory connectionFactory) {
-                return mockConnection;
+                return mock(Connection.class);
             }
 
         };
@@ -111,6 +132,137 @@ public class AmqpAdapterFactoryTest {
         assertEquals(amqpAdapterFactory.getConnectionManager(), mockConnectionManager);
     }
 
+    @Test
+    public void testInitWithSharedConnection() {
+        amqpAdapterFactory.init(msbConfigurations);
+
+        assertEquals(1, createdConsumeConnections.size());
+        assertSame(createdConsumeConnections, createdPublishConnections);
+        verify(mockConnectionFactory, never()).setSharedExecutor(any(ExecutorService.class));
+    }
+
+    @Test
+    public void testInitWithSeparateConnections() {
+        amqpConfig = new AmqpBrokerConfig.AmqpBrokerConfigBuilder()
+                .withConfig(ConfigFactory.load("amqp").getConfig("config.amqp")
+                        .withValue("publishConnections", ConfigValueFactory.fromAnyRef(2))
+                        .withValue("consumeConnections", ConfigValueFactory.fromAnyRef(3))
+                        .withValue("consumerThreadPoolSize", ConfigValueFactory.fromAnyRef(4)))
+                .build();
+
+        amqpAdapterFactory.init(msbConfigurations);
+
+        assertEquals(2, createdPublishConnections.size());
+        assertEquals(3, createdConsumeConnections.size());
+        assertTrue(Collections.disjoint(createdPublishConnections, createdConsumeConnections));
+        verify(mockConnectionFactory).setSharedExecutor(any(ExecutorService.class));
+        amqpAdapterFactory.shutdown();
+    }
+
+    @Test
+    public void testFailedInitClosesOpenedConnections() throws IOException {
+        amqpConfig = new AmqpBrokerConfig.AmqpBrokerConfigBuilder()
+                .withConfig(ConfigFactory.load("amqp").getConfig("config.amqp")
+                        .withValue("publishConnections", ConfigValueFactory.fromAnyRef(2))
+                        .withValue("consumeConnections", ConfigValueFactory.fromAnyRef(2))
+                        .withValue("consumerThreadPoolSize", ConfigValueFactory.fromAnyRef(4)))
+                .build();
+        List<Connection> openedConnections = new ArrayList<>();
+        ExecutorService mockWorkPool = mock(ExecutorService.class);
+        ChannelException failure = new ChannelException("Connection refused");
+        amqpAdapterFactory = new AmqpAdapterFactory() {
+
+            @Override
+            protected ConnectionFactory createConnectionFactory() {
+                return mockConnectionFactory;
+            }
+
+            @Override
+            protected AmqpBrokerConfig createAmqpBrokerConfig(MsbConfig msbConfig) {
+                return amqpConfig;
+            }
+
+            @Override
+            protected ExecutorService createConsumerWorkPool(AmqpBrokerConfig brokerConfig) {
+                return mockWorkPool;
+            }
+
+            @Override
+            protected Connection createConnection(ConnectionFactory connectionFactory) {
+                if (openedConnections.size() == 3) {
+                    throw failure;
+                }
+                Connection connection = mock(Connection.class);
+                openedConnections.add(connection);
+                return connection;
+            }
+        };
+
+        try {
+            amqpAdapterFactory.init(msbConfigurations);
+            fail("Exception expected");
+        } catch (ChannelException e) {
+            assertSame(failure, e);
+        }
+
+        for (Connection connection : openedConnections) {
+            verify(connection).close();
+        }
+        verify(mockWorkPool).shutdown();
+    }
+
+    @Test
+    public void testProducerAdaptersShareChannelPool() throws IOException {
+        when(mockConnectionManager.createPublishChannel()).thenAnswer(invocation -> mockConnection.createChannel());
+        Channel mockChannel = mock(Channel.class);
+        when(mockChannel.isOpen()).thenReturn(true);
+        when(mockConnection.createChannel()).thenReturn(mockChannel);
+        amqpAdapterFactory.init(msbConfigurations);
+
+        AmqpProducerAdapter firstAdapter = amqpAdapterFactory.createProducerAdapter("topic1", RequestOptions.DEFAULTS);
+        AmqpProducerAdapter secondAdapter = amqpAdapterFactory.createProducerAdapter("topic2", RequestOptions.DEFAULTS);
+
+        assertSame(amqpAdapterFactory.getProducerChannelPool(), firstAdapter.channelPool);
+        assertSame(firstAdapter.channelPool, secondAdapter.channelPool);
+    }
+
+    @Test
+    public void testResponseProducerAdaptersDeclareExchangeOnSharedChannelPool() throws IOException {
+        when(mockConnectionManager.createPublishChannel()).thenAnswer(invocation -> mockConnection.createChannel());
+        Channel mockChannel = mock(Channel.class);
+        when(mockChannel.isOpen()).thenReturn(true);
+        when(mockConnection.createChannel()).thenReturn(mockChannel);
+        amqpAdapterFactory.init(msbConfigurations);
+
+        AmqpProducerAdapter firstAdapter = amqpAdapterFactory.createResponseProducerAdapter("topic:response:1");
+        amqpAdapterFactory.createResponseProducerAdapter("topic:response:1");
+
+        assertSame(amqpAdapterFactory.getProducerChannelPool(), firstAdapter.channelPool);
+        // response exchanges may be deleted along with the response queue, so they are declared every time
+        verify(mockChannel, times(2)).exchangeDeclare("topic:response:1", "fanout", false, true, null);
+    }
+
+    @Test
+    public void testWarmUpPipelinesExchangeDeclarations() throws IOException {
+        when(mockConnectionManager.createPublishChannel()).thenAnswer(invocation -> mockConnection.createChannel());
+        Channel mockChannel = mock(Channel.class);
+        when(mockChannel.isOpen()).thenReturn(true);
+        when(mockConnection.createChannel()).thenReturn(mockChannel);
+        amqpAdapterFactory.init(msbConfigurations);
+
+        amqpAdapterFactory.warmUp(Arrays.asList("topic1", "topic2", "topic3"));
+
+        verify(mockChannel).exchangeDeclareNoWait("topic1", "fanout", false, true, false, null);
+        verify(mockChannel).exchangeDeclareNoWait("topic2", "fanout", false, true, false, null);
+        verify(mockChannel).exchangeDeclare("topic3", "fanout", false, true, null);
+
+        // declared exchanges are not declared again
+        amqpAdapterFactory.warmUp(Collections.singletonList("topic1"));
+        amqpAdapterFactory.createProducerAdapter("topic2", RequestOptions.DEFAULTS);
+        verify(mockChannel, never()).exchangeDeclare(eq("topic1"), anyString(), anyBoolean(), anyBoolean(), any());
+        verify(mockChannel, never()).exchangeDeclare(eq("topic2"), anyString(), anyBoolean(), anyBoolean(), any());
+    }
+
     @Test
     public void testInitGroupIdWithServiceName() {
         AmqpBrokerConfig amqpBrokerConfig = new AmqpAdapterFactory().createAmqpBrokerConfig(msbConfigurations);
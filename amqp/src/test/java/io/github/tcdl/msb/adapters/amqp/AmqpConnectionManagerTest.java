@@ -1,18 +1,26 @@
 package io.github.tcdl.msb.adapters.amqp;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
+import com.rabbitmq.client.Channel;
 import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.ShutdownListener;
+import com.rabbitmq.client.ShutdownSignalException;
 
 public class AmqpConnectionManagerTest {
     
@@ -30,6 +38,117 @@ public class AmqpConnectionManagerTest {
         assertEquals(amqpConnectionManager.obtainConnection(), mockConnection);
     }
     
+    @Test
+    public void testSingleConnectionIsSharedByPublishersAndConsumers() throws IOException {
+        Channel publishChannel = mockChannel(mockConnection);
+        assertSame(publishChannel, amqpConnectionManager.createPublishChannel());
+        Channel consumeChannel = mockChannel(mockConnection);
+        assertSame(consumeChannel, amqpConnectionManager.createConsumeChannel());
+        assertEquals(2, amqpConnectionManager.getChannelCount(mockConnection));
+    }
+
+    @Test
+    public void testChannelIsOpenedOnLeastLoadedConnection() throws IOException {
+        Connection publishConnection = mock(Connection.class);
+        Connection consumeConnection1 = mock(Connection.class);
+        Connection consumeConnection2 = mock(Connection.class);
+        AmqpConnectionManager connectionManager = new AmqpConnectionManager(Collections.singletonList(publishConnection),
+                Arrays.asList(consumeConnection1, consumeConnection2));
+
+        Channel consumeChannel1 = mockChannel(consumeConnection1);
+        assertSame(consumeChannel1, connectionManager.createConsumeChannel());
+        Channel consumeChannel2 = mockChannel(consumeConnection2);
+        assertSame(consumeChannel2, connectionManager.createConsumeChannel());
+        Channel consumeChannel3 = mockChannel(consumeConnection1);
+        assertSame(consumeChannel3, connectionManager.createConsumeChannel());
+        Channel publishChannel = mockChannel(publishConnection);
+        assertSame(publishChannel, connectionManager.createPublishChannel());
+
+        assertEquals(2, connectionManager.getChannelCount(consumeConnection1));
+        assertEquals(1, connectionManager.getChannelCount(consumeConnection2));
+        assertEquals(1, connectionManager.getChannelCount(publishConnection));
+        assertSame(consumeConnection2, connectionManager.obtainConsumeConnection());
+    }
+
+    @Test
+    public void testClosedChannelIsNotCounted() throws IOException {
+        Connection consumeConnection1 = mock(Connection.class);
+        Connection consumeConnection2 = mock(Connection.class);
+        AmqpConnectionManager connectionManager = new AmqpConnectionManager(Collections.singletonList(mockConnection),
+                Arrays.asList(consumeConnection1, consumeConnection2));
+
+        Channel closedChannel = mockChannel(consumeConnection1);
+        ArgumentCaptor<ShutdownListener> shutdownListenerCaptor = ArgumentCaptor.forClass(ShutdownListener.class);
+        connectionManager.createConsumeChannel();
+        verify(closedChannel).addShutdownListener(shutdownListenerCaptor.capture());
+        mockChannel(consumeConnection2);
+        connectionManager.createConsumeChannel();
+
+        shutdownListenerCaptor.getValue().shutdownCompleted(new ShutdownSignalException(false /* hard error */, true, null, closedChannel));
+
+        assertEquals(0, connectionManager.getChannelCount(consumeConnection1));
+        Channel reopenedChannel = mockChannel(consumeConnection1);
+        assertSame(reopenedChannel, connectionManager.createConsumeChannel());
+    }
+
+    @Test
+    public void testChannelShutDownWithConnectionIsCounted() throws IOException {
+        Channel channel = mockChannel(mockConnection);
+        ArgumentCaptor<ShutdownListener> shutdownListenerCaptor = ArgumentCaptor.forClass(ShutdownListener.class);
+        amqpConnectionManager.createConsumeChannel();
+        verify(channel).addShutdownListener(shutdownListenerCaptor.capture());
+
+        // the channel is reopened by connection recovery
+        shutdownListenerCaptor.getValue().shutdownCompleted(new ShutdownSignalException(true /* hard error */, false, null, mockConnection));
+
+        assertEquals(1, amqpConnectionManager.getChannelCount(mockConnection));
+    }
+
+    @Test
+    public void testChannelShutdownListenersAreNotified() throws IOException {
+        ShutdownListener channelShutdownListener = mock(ShutdownListener.class);
+        amqpConnectionManager.addChannelShutdownListener(channelShutdownListener);
+        Channel channel = mockChannel(mockConnection);
+        ArgumentCaptor<ShutdownListener> shutdownListenerCaptor = ArgumentCaptor.forClass(ShutdownListener.class);
+        amqpConnectionManager.createPublishChannel();
+        verify(channel).addShutdownListener(shutdownListenerCaptor.capture());
+
+        ShutdownSignalException cause = new ShutdownSignalException(false /* hard error */, false, null, channel);
+        shutdownListenerCaptor.getValue().shutdownCompleted(cause);
+
+        verify(channelShutdownListener).shutdownCompleted(cause);
+    }
+
+    @Test
+    public void testFailedChannelCreationIsNotCounted() throws IOException {
+        when(mockConnection.createChannel()).thenThrow(new IOException());
+
+        try {
+            amqpConnectionManager.createPublishChannel();
+            fail("Failure to create a channel is not reported");
+        } catch (IOException expected) {
+            assertEquals(0, amqpConnectionManager.getChannelCount(mockConnection));
+        }
+    }
+
+    @Test
+    public void testAllConnectionsAreClosed() throws IOException {
+        Connection publishConnection = mock(Connection.class);
+        Connection consumeConnection = mock(Connection.class);
+        when(publishConnection.isOpen()).thenReturn(true);
+        when(consumeConnection.isOpen()).thenReturn(true);
+        doThrow(new IOException()).when(publishConnection).close();
+        AmqpConnectionManager connectionManager = new AmqpConnectionManager(Collections.singletonList(publishConnection),
+                Collections.singletonList(consumeConnection));
+
+        try {
+            connectionManager.close();
+            fail("Failure to close a connection is not reported");
+        } catch (IOException expected) {
+            verify(consumeConnection).close();
+        }
+    }
+
     @Test
     public void testConnectionClose() {
         when(mockConnection.isOpen()).thenReturn(true);
@@ -53,4 +172,9 @@ public class AmqpConnectionManagerTest {
         }
     }
 
+    private Channel mockChannel(Connection connection) throws IOException {
+        Channel channel = mock(Channel.class);
+        when(connection.createChannel()).thenReturn(channel);
+        return channel;
+    }
 }
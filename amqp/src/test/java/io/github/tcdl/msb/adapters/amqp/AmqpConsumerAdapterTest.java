@@ -4,6 +4,7 @@ import com.google.common.collect.Sets;
 import com.rabbitmq.client.Channel;
 import com.rabbitmq.client.Connection;
 import com.rabbitmq.client.Consumer;
+import com.typesafe.config.ConfigFactory;
 import io.github.tcdl.msb.adapters.ConsumerAdapter;
 import io.github.tcdl.msb.api.ExchangeType;
 import io.github.tcdl.msb.api.ResponderOptions;
@@ -16,9 +17,13 @@ import org.mockito.ArgumentCaptor;
 
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 import static org.mockito.Matchers.any;
@@ -39,7 +44,7 @@ public class AmqpConsumerAdapterTest {
         mockChannel = mock(Channel.class);
         mockAmqpConnectionManager = mock(AmqpConnectionManager.class);
 
-        when(mockAmqpConnectionManager.obtainConnection()).thenReturn(mockConnection);
+        when(mockAmqpConnectionManager.createConsumeChannel()).thenAnswer(invocation -> mockConnection.createChannel());
         when(mockConnection.createChannel()).thenReturn(mockChannel);
     }
 
@@ -355,6 +360,116 @@ public class AmqpConsumerAdapterTest {
         assertEquals(expectedAnswerWhileUnsubscribed, resultWhileUnsubscribed);
     }
 
+    @Test
+    public void testQueueDeclaredWithMaxPriority() throws Exception {
+        AmqpBrokerConfig config = new AmqpBrokerConfig.AmqpBrokerConfigBuilder()
+                .withConfig(ConfigFactory.parseString("maxPriority = 10\ngroupId = myGroupId")
+                        .withFallback(ConfigFactory.load("amqp").getConfig("config.amqp")))
+                .build();
+        AmqpConsumerAdapter adapter = new AmqpConsumerAdapter("myTopic", ExchangeType.FANOUT, ResponderOptions.DEFAULTS.getBindingKeys(), config,
+                mockAmqpConnectionManager, true);
+
+        adapter.subscribe((jsonMessage, ackHandler) -> {
+        });
+
+        verify(mockChannel).queueDeclare("myTopic.myGroupId.t", false, false, true, Collections.singletonMap("x-max-priority", 10));
+    }
+
+    @Test
+    public void testPrefetchCount() throws Exception {
+        AmqpConsumerAdapter adapter = createAdapterWithNonDurableConf("myTopic", "groupId", false);
+        assertEquals(Optional.empty(), adapter.prefetchCount());
+
+        adapter.subscribe((jsonMessage, ackHandler) -> {
+        });
+        verify(mockChannel).basicQos(1);
+        assertEquals(Optional.of(1), adapter.prefetchCount());
+
+        adapter.unsubscribe();
+        assertEquals(Optional.empty(), adapter.prefetchCount());
+    }
+
+    @Test
+    public void testAdaptivePrefetch() throws Exception {
+        AmqpBrokerConfig config = new AmqpBrokerConfig.AmqpBrokerConfigBuilder()
+                .withConfig(ConfigFactory.parseString("adaptivePrefetch = true\n"
+                        + "minPrefetchCount = 20\n"
+                        + "prefetchCount = 10\n"
+                        + "maxPrefetchCount = 50\n"
+                        + "prefetchAdjustmentIntervalMs = 500")
+                        .withFallback(ConfigFactory.load("amqp").getConfig("config.amqp")))
+                .build();
+        ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        ScheduledFuture<?> adjustmentTask = mock(ScheduledFuture.class);
+        doReturn(adjustmentTask).when(scheduler).scheduleWithFixedDelay(any(Runnable.class), eq(500L), eq(500L), eq(TimeUnit.MILLISECONDS));
+
+        AmqpConsumerAdapter adapter = new AmqpConsumerAdapter("myTopic", ExchangeType.FANOUT, ResponderOptions.DEFAULTS.getBindingKeys(), config,
+                mockAmqpConnectionManager, false, scheduler);
+        adapter.subscribe((jsonMessage, ackHandler) -> {
+        });
+
+        verify(mockChannel).basicQos(20, true);
+        assertEquals(Optional.of(20), adapter.prefetchCount());
+
+        adapter.unsubscribe();
+        verify(adjustmentTask).cancel(false);
+    }
+
+    @Test
+    public void testMultipleConsumersOnSeparateChannels() throws Exception {
+        Channel secondChannel = mock(Channel.class);
+        Channel thirdChannel = mock(Channel.class);
+        doReturn(mockChannel).doReturn(secondChannel).doReturn(thirdChannel).when(mockAmqpConnectionManager).createConsumeChannel();
+        when(mockChannel.basicConsume(anyString(), eq(false), any(Consumer.class))).thenReturn("tag1");
+        when(secondChannel.basicConsume(anyString(), eq(false), any(Consumer.class))).thenReturn("tag2");
+        when(thirdChannel.basicConsume(anyString(), eq(false), any(Consumer.class))).thenReturn("tag3");
+
+        AmqpConsumerAdapter adapter = new AmqpConsumerAdapter("myTopic", ExchangeType.FANOUT, ResponderOptions.DEFAULTS.getBindingKeys(),
+                brokerConfig("groupId", false), mockAmqpConnectionManager, false, null, 3);
+        adapter.subscribe((jsonMessage, ackHandler) -> {
+        });
+
+        // the queue is declared once and consumed on every channel
+        verify(mockChannel).queueDeclare(eq("myTopic.groupId.t"), anyBoolean(), anyBoolean(), anyBoolean(), any());
+        verify(secondChannel, never()).queueDeclare(anyString(), anyBoolean(), anyBoolean(), anyBoolean(), any());
+        for (Channel channel : Arrays.asList(mockChannel, secondChannel, thirdChannel)) {
+            verify(channel).basicQos(1);
+            verify(channel).basicConsume(eq("myTopic.groupId.t"), eq(false), any(Consumer.class));
+        }
+        assertEquals(Optional.of(3), adapter.prefetchCount());
+
+        adapter.unsubscribe();
+        verify(mockChannel).basicCancel("tag1");
+        verify(secondChannel).basicCancel("tag2");
+        verify(thirdChannel).basicCancel("tag3");
+
+        // channels are reused on the next subscription
+        adapter.subscribe((jsonMessage, ackHandler) -> {
+        });
+        verify(mockAmqpConnectionManager, times(3)).createConsumeChannel();
+    }
+
+    @Test
+    public void testDeclaredExchangeCachedUntilAutoDeleteQueueReleased() throws Exception {
+        AmqpTopologyCache topologyCache = new AmqpTopologyCache();
+        AmqpBrokerConfig config = brokerConfig("groupId", false);
+
+        AmqpConsumerAdapter adapter = new AmqpConsumerAdapter("myTopic", ExchangeType.FANOUT, ResponderOptions.DEFAULTS.getBindingKeys(), config,
+                mockAmqpConnectionManager, false, null, 1, topologyCache);
+        new AmqpConsumerAdapter("myTopic", ExchangeType.FANOUT, ResponderOptions.DEFAULTS.getBindingKeys(), config,
+                mockAmqpConnectionManager, false, null, 1, topologyCache);
+        verify(mockChannel, times(1)).exchangeDeclare("myTopic", "fanout", false, true, null);
+
+        adapter.subscribe((jsonMessage, ackHandler) -> {
+        });
+        adapter.unsubscribe();
+        assertFalse(topologyCache.isExchangeDeclared("myTopic", ExchangeType.FANOUT));
+
+        new AmqpConsumerAdapter("myTopic", ExchangeType.FANOUT, ResponderOptions.DEFAULTS.getBindingKeys(), config,
+                mockAmqpConnectionManager, false, null, 1, topologyCache);
+        verify(mockChannel, times(2)).exchangeDeclare("myTopic", "fanout", false, true, null);
+    }
+
     private AmqpConsumerAdapter createAdapterWithNonDurableConf(String topic, String groupId, boolean isResponseTopic) {
         boolean isDurableConf = false;
         AmqpBrokerConfig nondurableAmqpConfig = new AmqpBrokerConfig(Charset.forName("UTF-8"), "127.0.0.1", 10, Optional.empty(), Optional.empty(), Optional.empty(),
@@ -0,0 +1,229 @@
+package io.github.tcdl.msb.adapters.amqp;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.ConfirmListener;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.Consumer;
+import com.rabbitmq.client.MessageProperties;
+import io.github.tcdl.msb.acknowledge.AcknowledgementHandlerInternal;
+import io.github.tcdl.msb.adapters.ConsumerAdapter;
+import io.github.tcdl.msb.config.amqp.AmqpBrokerConfig;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AmqpDirectReplyChannelTest {
+
+    @Mock
+    private AmqpConnectionManager connectionManager;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private Channel channel;
+
+    @Mock
+    private AmqpBrokerConfig brokerConfig;
+
+    @Mock
+    private ConsumerAdapter.RawMessageHandler messageHandler;
+
+    private AmqpDirectReplyChannel directReplyChannel;
+
+    @Before
+    public void setUp() throws IOException {
+        when(connectionManager.createPublishChannel()).thenAnswer(invocation -> connection.createChannel());
+        when(connection.createChannel()).thenReturn(channel);
+        when(connection.isOpen()).thenReturn(true);
+        when(channel.isOpen()).thenReturn(true);
+        when(channel.getConnection()).thenReturn(connection);
+        when(channel.basicConsume(eq(AmqpDirectReplyChannel.DIRECT_REPLY_TO), eq(true), any(Consumer.class))).thenReturn("consumer tag");
+        when(brokerConfig.getProducerChannelPoolSize()).thenReturn(1);
+        when(brokerConfig.getProducerChannelSelection()).thenReturn(ProducerChannelSelection.THREAD);
+
+        directReplyChannel = new AmqpDirectReplyChannel(connectionManager, brokerConfig);
+    }
+
+    @Test
+    public void testRequestPublishedWithReplyToOnConsumingChannel() throws IOException {
+        byte[] body = "message".getBytes();
+        directReplyChannel.consume(messageHandler);
+        verify(connectionManager, never()).createPublishChannel();
+
+        directReplyChannel.publish("exchange", "routing key", MessageProperties.PERSISTENT_BASIC, body);
+
+        ArgumentCaptor<AMQP.BasicProperties> propertiesCaptor = ArgumentCaptor.forClass(AMQP.BasicProperties.class);
+        InOrder inOrder = inOrder(channel);
+        inOrder.verify(channel).basicConsume(eq(AmqpDirectReplyChannel.DIRECT_REPLY_TO), eq(true), any(Consumer.class));
+        inOrder.verify(channel).basicPublish(eq("exchange"), eq("routing key"), propertiesCaptor.capture(), eq(body));
+        assertEquals(AmqpDirectReplyChannel.DIRECT_REPLY_TO, propertiesCaptor.getValue().getReplyTo());
+        assertEquals(MessageProperties.PERSISTENT_BASIC.getDeliveryMode(), propertiesCaptor.getValue().getDeliveryMode());
+    }
+
+    @Test
+    public void testRequestPublishedWithConfirms() throws IOException {
+        when(brokerConfig.isPublisherConfirms()).thenReturn(true);
+        when(brokerConfig.getMaxUnconfirmedMessages()).thenReturn(10);
+        when(channel.getNextPublishSeqNo()).thenReturn(1L);
+        directReplyChannel = new AmqpDirectReplyChannel(connectionManager, brokerConfig);
+        directReplyChannel.consume(messageHandler);
+
+        CompletableFuture<Void> future = directReplyChannel.publish("exchange", "routing key", MessageProperties.PERSISTENT_BASIC,
+                "message".getBytes());
+
+        verify(channel).confirmSelect();
+        ArgumentCaptor<ConfirmListener> confirmListenerCaptor = ArgumentCaptor.forClass(ConfirmListener.class);
+        verify(channel).addConfirmListener(confirmListenerCaptor.capture());
+        assertFalse(future.isDone());
+
+        confirmListenerCaptor.getValue().handleAck(1L, false);
+        assertTrue(future.isDone());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testPublishWithoutConsumerRejected() throws IOException {
+        directReplyChannel.publish("exchange", "routing key", MessageProperties.PERSISTENT_BASIC, "message".getBytes());
+    }
+
+    @Test
+    public void testAcknowledgementsOfRepliesIgnored() throws IOException {
+        directReplyChannel.consume(messageHandler);
+        directReplyChannel.publish("exchange", "routing key", MessageProperties.PERSISTENT_BASIC, "message".getBytes());
+
+        ArgumentCaptor<Consumer> consumerCaptor = ArgumentCaptor.forClass(Consumer.class);
+        verify(channel).basicConsume(eq(AmqpDirectReplyChannel.DIRECT_REPLY_TO), eq(true), consumerCaptor.capture());
+        AcknowledgementHandlerInternal ackHandler = ((AmqpMessageConsumer) consumerCaptor.getValue())
+                .createAcknowledgementHandler(channel, "consumer tag", 1L, false);
+        ackHandler.confirmMessage();
+        ackHandler.rejectMessage();
+
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+        verify(channel, never()).basicReject(anyLong(), anyBoolean());
+    }
+
+    @Test
+    public void testChannelClosedByBrokerIsReplacedWithNewConsumer() throws IOException {
+        Channel replacingChannel = mock(Channel.class);
+        when(replacingChannel.isOpen()).thenReturn(true);
+        when(replacingChannel.getConnection()).thenReturn(connection);
+        when(connection.createChannel()).thenReturn(channel, replacingChannel);
+        directReplyChannel.consume(messageHandler);
+        directReplyChannel.publish("exchange", "routing key", MessageProperties.PERSISTENT_BASIC, "message".getBytes());
+
+        // e.g. the request was published to a nonexistent exchange
+        when(channel.isOpen()).thenReturn(false);
+        directReplyChannel.publish("exchange", "routing key", MessageProperties.PERSISTENT_BASIC, "message".getBytes());
+
+        assertTrue(directReplyChannel.isConsuming());
+        assertTrue(directReplyChannel.isOpen());
+        verify(replacingChannel).basicConsume(eq(AmqpDirectReplyChannel.DIRECT_REPLY_TO), eq(true), any(Consumer.class));
+        verify(replacingChannel).basicPublish(eq("exchange"), eq("routing key"), any(AMQP.BasicProperties.class), any(byte[].class));
+    }
+
+    @Test
+    public void testIsOpen() throws IOException {
+        directReplyChannel.consume(messageHandler);
+        directReplyChannel.publish("exchange", "routing key", MessageProperties.PERSISTENT_BASIC, "message".getBytes());
+        assertTrue(directReplyChannel.isOpen());
+
+        when(connection.isOpen()).thenReturn(false);
+        assertFalse(directReplyChannel.isOpen());
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        directReplyChannel.consume(messageHandler);
+        directReplyChannel.publish("exchange", "routing key", MessageProperties.PERSISTENT_BASIC, "message".getBytes());
+        assertTrue(directReplyChannel.isConsuming());
+
+        directReplyChannel.cancel();
+
+        verify(channel).close();
+        assertFalse(directReplyChannel.isConsuming());
+
+        // replies may be consumed again
+        directReplyChannel.consume(messageHandler);
+        assertTrue(directReplyChannel.isConsuming());
+    }
+
+    @Test
+    public void testRepliesConsumedOnPublishConnection() throws IOException {
+        directReplyChannel.consume(messageHandler);
+        directReplyChannel.publish("exchange", "routing key", MessageProperties.PERSISTENT_BASIC, "message".getBytes());
+
+        verify(connectionManager).createPublishChannel();
+        verify(connectionManager, never()).createConsumeChannel();
+    }
+
+    @Test
+    public void testPublishAfterCancelRejected() throws IOException {
+        directReplyChannel.consume(messageHandler);
+        directReplyChannel.cancel();
+
+        try {
+            directReplyChannel.publish("exchange", "routing key", MessageProperties.PERSISTENT_BASIC, "message".getBytes());
+            fail("Exception expected");
+        } catch (IllegalStateException e) {
+            verify(connectionManager, never()).createPublishChannel();
+        }
+    }
+
+    @Test
+    public void testCancelWaitsForChannelBeingOpened() throws Exception {
+        CountDownLatch channelRequested = new CountDownLatch(1);
+        CountDownLatch channelOpened = new CountDownLatch(1);
+        when(connection.createChannel()).thenAnswer(invocation -> {
+            channelRequested.countDown();
+            channelOpened.await();
+            return channel;
+        });
+        directReplyChannel.consume(messageHandler);
+        Thread publishingThread = new Thread(() ->
+                directReplyChannel.publish("exchange", "routing key", MessageProperties.PERSISTENT_BASIC, "message".getBytes()));
+        publishingThread.start();
+        channelRequested.await();
+
+        Thread cancellingThread = new Thread(directReplyChannel::cancel);
+        cancellingThread.start();
+        cancellingThread.join(100);
+        assertTrue(cancellingThread.isAlive());
+
+        channelOpened.countDown();
+        cancellingThread.join();
+        publishingThread.join();
+        verify(channel).basicConsume(eq(AmqpDirectReplyChannel.DIRECT_REPLY_TO), eq(true), any(Consumer.class));
+        verify(channel).close();
+    }
+
+    @Test
+    public void testIsDirectReplyAddress() {
+        assertTrue(AmqpDirectReplyChannel.isDirectReplyAddress("amq.rabbitmq.reply-to.g2dkABNyYWJiaXRAbG9jYWxob3N0AAAE"));
+        assertFalse(AmqpDirectReplyChannel.isDirectReplyAddress("namespace:response:instance"));
+        assertFalse(AmqpDirectReplyChannel.isDirectReplyAddress(null));
+    }
+}
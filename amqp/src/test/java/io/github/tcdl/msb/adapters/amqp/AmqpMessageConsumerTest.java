@@ -1,5 +1,6 @@
 package io.github.tcdl.msb.adapters.amqp;
 
+import com.rabbitmq.client.AMQP;
 import com.rabbitmq.client.Channel;
 import com.rabbitmq.client.Envelope;
 import io.github.tcdl.msb.acknowledge.AcknowledgementHandlerImpl;
@@ -16,10 +17,12 @@ import java.nio.charset.Charset;
 import java.util.concurrent.RejectedExecutionException;
 
 import static org.junit.Assert.fail;
+import static org.mockito.AdditionalMatchers.aryEq;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
-import static org.mockito.Mockito.anyString;
+import static org.mockito.Matchers.isNull;
 import static org.mockito.Mockito.*;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -62,17 +65,68 @@ public class AmqpMessageConsumerTest {
         // method under test
         amqpMessageConsumer.handleDelivery(consumerTag, envelope, null, messageStr.getBytes());
 
-        verify(mockMessageHandler, times(1)).onMessage(eq(messageStr), eq(amqpAcknowledgementHandler));
+        verify(mockMessageHandler, times(1)).onMessage(aryEq(messageStr.getBytes()), isNull(String.class), eq(Charset.forName("UTF-8")), eq(amqpAcknowledgementHandler));
 
     }
 
+    @Test
+    public void testContentTypePassedToHandler() throws IOException {
+        String messageStr = "some message";
+        Envelope envelope = mock(Envelope.class);
+        when(envelope.getDeliveryTag()).thenReturn(1234L);
+        AMQP.BasicProperties properties = new AMQP.BasicProperties.Builder().contentType("application/x-jackson-smile").build();
+
+        amqpMessageConsumer.handleDelivery("consumer tag", envelope, properties, messageStr.getBytes());
+
+        verify(mockMessageHandler, times(1)).onMessage(aryEq(messageStr.getBytes()), eq("application/x-jackson-smile"),
+                eq(Charset.forName("UTF-8")), eq(amqpAcknowledgementHandler));
+    }
+
+    @Test
+    public void testDirectReplyAddressPassedToHandler() throws IOException {
+        String messageStr = "some message";
+        Envelope envelope = mock(Envelope.class);
+        when(envelope.getDeliveryTag()).thenReturn(1234L);
+        AMQP.BasicProperties properties = new AMQP.BasicProperties.Builder().replyTo("amq.rabbitmq.reply-to.abc").build();
+
+        amqpMessageConsumer.handleDelivery("consumer tag", envelope, properties, messageStr.getBytes());
+
+        verify(mockMessageHandler, times(1)).onMessage(aryEq(messageStr.getBytes()), isNull(String.class),
+                eq(Charset.forName("UTF-8")), eq("amq.rabbitmq.reply-to.abc"), eq(amqpAcknowledgementHandler));
+    }
+
+    @Test
+    public void testCompressedMessageDecompressed() throws IOException {
+        String messageStr = "some message";
+        Envelope envelope = mock(Envelope.class);
+        when(envelope.getDeliveryTag()).thenReturn(1234L);
+        AMQP.BasicProperties properties = new AMQP.BasicProperties.Builder().contentEncoding("gzip").build();
+
+        amqpMessageConsumer.handleDelivery("consumer tag", envelope, properties, MessageCompression.GZIP.compress(messageStr.getBytes()));
+
+        verify(mockMessageHandler, times(1)).onMessage(aryEq(messageStr.getBytes()), isNull(String.class),
+                eq(Charset.forName("UTF-8")), eq(amqpAcknowledgementHandler));
+    }
+
+    @Test
+    public void testMalformedCompressedMessageRejected() throws IOException {
+        Envelope envelope = mock(Envelope.class);
+        when(envelope.getDeliveryTag()).thenReturn(1234L);
+        AMQP.BasicProperties properties = new AMQP.BasicProperties.Builder().contentEncoding("gzip").build();
+
+        amqpMessageConsumer.handleDelivery("consumer tag", envelope, properties, "not compressed".getBytes());
+
+        verify(mockMessageHandler, never()).onMessage(any(byte[].class), anyString(), any(Charset.class), any());
+        verify(amqpAcknowledgementHandler, times(1)).autoReject();
+    }
+
     @Test
     public void testMessageCannotBeSubmittedForProcessing() throws IOException {
         long deliveryTag = 1234L;
         Envelope envelope = mock(Envelope.class);
         when(envelope.getDeliveryTag()).thenReturn(deliveryTag);
 
-        doThrow(new RejectedExecutionException()).when(mockMessageHandler).onMessage(anyString(), any());
+        doThrow(new RejectedExecutionException()).when(mockMessageHandler).onMessage(any(byte[].class), anyString(), any(Charset.class), any());
 
         try {
             amqpMessageConsumer.handleDelivery("consumer tag", envelope, null, "some message".getBytes());
@@ -105,7 +159,7 @@ public class AmqpMessageConsumerTest {
         Envelope envelope = mock(Envelope.class);
         when(envelope.getDeliveryTag()).thenReturn(deliveryTag);
 
-        doThrow(new RejectedExecutionException()).when(mockMessageHandler).onMessage(anyString(), any());
+        doThrow(new RejectedExecutionException()).when(mockMessageHandler).onMessage(any(byte[].class), anyString(), any(Charset.class), any());
         doThrow(new RuntimeException()).when(mockChannel).basicReject(eq(deliveryTag), anyBoolean());
 
         try {
@@ -121,7 +175,6 @@ public class AmqpMessageConsumerTest {
         when(mockBrokerConfig.getCharset()).thenReturn(Charset.forName("UTF-32"));
 
         byte[] encodedMessage = new byte[] { 0, 0, 0, -10 }; // In UTF-32 ö is mapped to 000000f6
-        String expectedDecodedMessage = "ö";
 
         Envelope envelope = mock(Envelope.class);
         when(envelope.getDeliveryTag()).thenReturn(1234L);
@@ -129,7 +182,7 @@ public class AmqpMessageConsumerTest {
         AmqpMessageConsumer consumer = new AmqpMessageConsumer(mockChannel, mockMessageHandler, mockBrokerConfig);
         consumer.handleDelivery("some tag", envelope, null, encodedMessage);
 
-        verify(mockMessageHandler, times(1)).onMessage(eq(expectedDecodedMessage), any());
+        verify(mockMessageHandler, times(1)).onMessage(aryEq(encodedMessage), isNull(String.class), eq(Charset.forName("UTF-32")), any());
 
     }
 
@@ -2,41 +2,58 @@ package io.github.tcdl.msb.adapters.amqp;
 
 import com.rabbitmq.client.AMQP;
 import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.ConfirmListener;
 import com.rabbitmq.client.Connection;
 import com.rabbitmq.client.MessageProperties;
+import io.github.tcdl.msb.adapters.PublishOptions;
+import io.github.tcdl.msb.api.DeliveryMode;
 import io.github.tcdl.msb.api.ExchangeType;
 import io.github.tcdl.msb.api.exception.ChannelException;
+import io.github.tcdl.msb.codec.JsonMessageCodec;
 import io.github.tcdl.msb.config.amqp.AmqpBrokerConfig;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.AdditionalMatchers;
+import org.mockito.ArgumentCaptor;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
 
 public class AmqpProducerAdapterTest {
     public static final String TOPIC_NAME = "myTopic";
     private Channel mockChannel;
+    private Connection mockConnection;
     private AmqpConnectionManager mockAmqpConnectionManager;
     private AmqpBrokerConfig mockAmqpBrokerConfig;
 
     @Before
     public void setUp() throws IOException {
-        Connection mockConnection = mock(Connection.class);
+        mockConnection = mock(Connection.class);
         mockChannel = mock(Channel.class);
         mockAmqpBrokerConfig = mock(AmqpBrokerConfig.class);
         when(mockAmqpBrokerConfig.getCharset()).thenReturn(Charset.forName("UTF-8"));
+        when(mockAmqpBrokerConfig.getCompression()).thenReturn(MessageCompression.NONE);
 
         mockAmqpConnectionManager = mock(AmqpConnectionManager.class);
 
-        when(mockAmqpConnectionManager.obtainConnection()).thenReturn(mockConnection);
+        when(mockAmqpConnectionManager.createPublishChannel()).thenAnswer(invocation -> mockConnection.createChannel());
         when(mockConnection.createChannel()).thenReturn(mockChannel);
+        when(mockChannel.isOpen()).thenReturn(true);
     }
 
     @Test
@@ -92,4 +109,202 @@ public class AmqpProducerAdapterTest {
 
         verify(mockChannel).basicPublish(anyString(), anyString(), any(AMQP.BasicProperties.class), AdditionalMatchers.aryEq(expectedEncodedMessage));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testPublishWithContentType() throws IOException {
+        byte[] message = new byte[] { 58, 41, 10, 1 };
+        AmqpProducerAdapter producerAdapter = new AmqpProducerAdapter(TOPIC_NAME, ExchangeType.TOPIC, mockAmqpBrokerConfig, mockAmqpConnectionManager);
+
+        producerAdapter.publish(message, "application/x-jackson-smile", "routingKey");
+
+        ArgumentCaptor<AMQP.BasicProperties> propertiesCaptor = ArgumentCaptor.forClass(AMQP.BasicProperties.class);
+        verify(mockChannel).basicPublish(eq(TOPIC_NAME), eq("routingKey"), propertiesCaptor.capture(), AdditionalMatchers.aryEq(message));
+        assertEquals("application/x-jackson-smile", propertiesCaptor.getValue().getContentType());
+        assertEquals(MessageProperties.PERSISTENT_BASIC.getDeliveryMode(), propertiesCaptor.getValue().getDeliveryMode());
+    }
+
+    @Test
+    public void testPublishOptionsMappedToProperties() throws IOException {
+        AmqpProducerAdapter producerAdapter = new AmqpProducerAdapter(TOPIC_NAME, ExchangeType.TOPIC, mockAmqpBrokerConfig, mockAmqpConnectionManager);
+        PublishOptions options = new PublishOptions.Builder()
+                .withDeliveryMode(DeliveryMode.TRANSIENT)
+                .withPriority(5)
+                .withExpirationMs(3000L)
+                .build();
+
+        producerAdapter.publishConfirmed(ByteBuffer.wrap("message".getBytes(StandardCharsets.UTF_8)), JsonMessageCodec.CONTENT_TYPE, "routingKey", options);
+
+        ArgumentCaptor<AMQP.BasicProperties> propertiesCaptor = ArgumentCaptor.forClass(AMQP.BasicProperties.class);
+        verify(mockChannel).basicPublish(eq(TOPIC_NAME), eq("routingKey"), propertiesCaptor.capture(), any(byte[].class));
+        AMQP.BasicProperties properties = propertiesCaptor.getValue();
+        assertEquals(JsonMessageCodec.CONTENT_TYPE, properties.getContentType());
+        assertEquals(Integer.valueOf(1), properties.getDeliveryMode());
+        assertEquals(Integer.valueOf(5), properties.getPriority());
+        assertEquals("3000", properties.getExpiration());
+    }
+
+    @Test
+    public void testProperCharsetUsedForJsonBytes() throws IOException {
+        when(mockAmqpBrokerConfig.getCharset()).thenReturn(Charset.forName("UTF-32"));
+
+        byte[] message = "ö".getBytes(StandardCharsets.UTF_8);
+        byte[] expectedEncodedMessage = new byte[] { 0, 0, 0, -10 }; // In UTF-32 ö is mapped to 000000f6
+        AmqpProducerAdapter producerAdapter = new AmqpProducerAdapter(TOPIC_NAME, ExchangeType.FANOUT, mockAmqpBrokerConfig, mockAmqpConnectionManager);
+
+        producerAdapter.publish(message, JsonMessageCodec.CONTENT_TYPE, StringUtils.EMPTY);
+
+        verify(mockChannel).basicPublish(anyString(), anyString(), any(AMQP.BasicProperties.class), AdditionalMatchers.aryEq(expectedEncodedMessage));
+    }
+
+    @Test
+    public void testMessageAboveThresholdCompressed() throws IOException {
+        when(mockAmqpBrokerConfig.getCompression()).thenReturn(MessageCompression.GZIP);
+        when(mockAmqpBrokerConfig.getCompressionThresholdBytes()).thenReturn(4);
+        byte[] message = "{\"body\":\"message\"}".getBytes(StandardCharsets.UTF_8);
+        AmqpProducerAdapter producerAdapter = new AmqpProducerAdapter(TOPIC_NAME, ExchangeType.FANOUT, mockAmqpBrokerConfig, mockAmqpConnectionManager);
+
+        producerAdapter.publish(message, JsonMessageCodec.CONTENT_TYPE, StringUtils.EMPTY);
+
+        ArgumentCaptor<AMQP.BasicProperties> propertiesCaptor = ArgumentCaptor.forClass(AMQP.BasicProperties.class);
+        ArgumentCaptor<byte[]> bodyCaptor = ArgumentCaptor.forClass(byte[].class);
+        verify(mockChannel).basicPublish(eq(TOPIC_NAME), eq(StringUtils.EMPTY), propertiesCaptor.capture(), bodyCaptor.capture());
+        assertEquals("gzip", propertiesCaptor.getValue().getContentEncoding());
+        assertEquals(JsonMessageCodec.CONTENT_TYPE, propertiesCaptor.getValue().getContentType());
+        assertArrayEquals(message, MessageCompression.GZIP.decompress(bodyCaptor.getValue()));
+    }
+
+    @Test
+    public void testMessageBelowThresholdNotCompressed() throws IOException {
+        when(mockAmqpBrokerConfig.getCompression()).thenReturn(MessageCompression.LZ4);
+        when(mockAmqpBrokerConfig.getCompressionThresholdBytes()).thenReturn(1024);
+        String message = "message";
+        AmqpProducerAdapter producerAdapter = new AmqpProducerAdapter(TOPIC_NAME, ExchangeType.FANOUT, mockAmqpBrokerConfig, mockAmqpConnectionManager);
+
+        producerAdapter.publish(message);
+
+        verify(mockChannel).basicPublish(TOPIC_NAME, StringUtils.EMPTY, MessageProperties.PERSISTENT_BASIC, message.getBytes());
+    }
+
+    @Test
+    public void testPublishByteBuffer() throws IOException {
+        byte[] message = "_message_".getBytes(StandardCharsets.UTF_8);
+        AmqpProducerAdapter producerAdapter = new AmqpProducerAdapter(TOPIC_NAME, ExchangeType.FANOUT, mockAmqpBrokerConfig, mockAmqpConnectionManager);
+
+        producerAdapter.publish(ByteBuffer.wrap(message, 1, 7), JsonMessageCodec.CONTENT_TYPE, StringUtils.EMPTY);
+
+        verify(mockChannel).basicPublish(eq(TOPIC_NAME), eq(StringUtils.EMPTY), any(AMQP.BasicProperties.class),
+                AdditionalMatchers.aryEq("message".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testPublishWithPublisherConfirms() throws IOException {
+        when(mockAmqpBrokerConfig.isPublisherConfirms()).thenReturn(true);
+        when(mockAmqpBrokerConfig.getMaxUnconfirmedMessages()).thenReturn(10);
+        when(mockChannel.getNextPublishSeqNo()).thenReturn(1L, 2L, 3L);
+        when(mockConnection.createChannel()).thenReturn(mock(Channel.class), mockChannel);
+        ByteBuffer message = ByteBuffer.wrap("message".getBytes(StandardCharsets.UTF_8));
+        AmqpProducerAdapter producerAdapter = new AmqpProducerAdapter(TOPIC_NAME, ExchangeType.FANOUT, mockAmqpBrokerConfig, mockAmqpConnectionManager);
+
+        CompletableFuture<Void> first = producerAdapter.publishConfirmed(message, JsonMessageCodec.CONTENT_TYPE, StringUtils.EMPTY);
+        verify(mockChannel).confirmSelect();
+        ArgumentCaptor<ConfirmListener> listenerCaptor = ArgumentCaptor.forClass(ConfirmListener.class);
+        verify(mockChannel).addConfirmListener(listenerCaptor.capture());
+        CompletableFuture<Void> second = producerAdapter.publishConfirmed(message, JsonMessageCodec.CONTENT_TYPE, StringUtils.EMPTY);
+        CompletableFuture<Void> third = producerAdapter.publishConfirmed(message, JsonMessageCodec.CONTENT_TYPE, StringUtils.EMPTY);
+        assertFalse(first.isDone());
+
+        listenerCaptor.getValue().handleAck(2, true);
+        listenerCaptor.getValue().handleNack(3, false);
+
+        assertTrue(first.isDone() && !first.isCompletedExceptionally());
+        assertTrue(second.isDone() && !second.isCompletedExceptionally());
+        assertTrue(third.isCompletedExceptionally());
+    }
+
+    @Test
+    public void testPublishWithoutPublisherConfirms() throws IOException {
+        AmqpProducerAdapter producerAdapter = new AmqpProducerAdapter(TOPIC_NAME, ExchangeType.FANOUT, mockAmqpBrokerConfig, mockAmqpConnectionManager);
+
+        CompletableFuture<Void> result = producerAdapter.publishConfirmed(ByteBuffer.wrap("message".getBytes(StandardCharsets.UTF_8)),
+                JsonMessageCodec.CONTENT_TYPE, StringUtils.EMPTY);
+
+        assertTrue(result.isDone());
+        verify(mockChannel, never()).confirmSelect();
+    }
+
+    @Test
+    public void testDirectReplyPublishedToDefaultExchange() throws IOException {
+        AmqpProducerChannelPool channelPool = new AmqpProducerChannelPool(mockAmqpConnectionManager, 1, ProducerChannelSelection.THREAD, 0);
+        AmqpProducerAdapter producerAdapter = AmqpProducerAdapter.forDirectReply("amq.rabbitmq.reply-to.abc", mockAmqpBrokerConfig, channelPool);
+
+        producerAdapter.publish("message");
+
+        verify(mockChannel, never()).exchangeDeclare(anyString(), anyString(), anyBoolean(), anyBoolean(), any());
+        verify(mockChannel).basicPublish(StringUtils.EMPTY, "amq.rabbitmq.reply-to.abc", MessageProperties.PERSISTENT_BASIC, "message".getBytes());
+    }
+
+    @Test
+    public void testCloseClosesOwnChannelOnly() throws Exception {
+        Channel declarationChannel = mock(Channel.class);
+        when(declarationChannel.isOpen()).thenReturn(true);
+        Channel sharedChannel = mock(Channel.class);
+        when(sharedChannel.isOpen()).thenReturn(true);
+        when(mockConnection.createChannel()).thenReturn(declarationChannel, declarationChannel, mockChannel, sharedChannel);
+        AmqpProducerAdapter ownChannelAdapter = new AmqpProducerAdapter(TOPIC_NAME, ExchangeType.FANOUT, mockAmqpBrokerConfig, mockAmqpConnectionManager);
+        AmqpProducerChannelPool channelPool = new AmqpProducerChannelPool(mockAmqpConnectionManager, 1, ProducerChannelSelection.THREAD, 0);
+        AmqpProducerAdapter sharedChannelAdapter = AmqpProducerAdapter.forResponses("myTopic:response:instance", ExchangeType.FANOUT,
+                mockAmqpBrokerConfig, channelPool);
+        ownChannelAdapter.publish("message");
+        sharedChannelAdapter.publish("message");
+
+        sharedChannelAdapter.close();
+        verify(sharedChannel, never()).close();
+
+        ownChannelAdapter.close();
+        verify(mockChannel).close();
+        // exchanges are declared on channels of their own
+        verify(declarationChannel, times(2)).close();
+    }
+
+    @Test
+    public void testFailedExchangeDeclarationDoesNotCloseSharedChannel() throws Exception {
+        Channel declarationChannel = mock(Channel.class);
+        Channel failedDeclarationChannel = mock(Channel.class);
+        when(failedDeclarationChannel.exchangeDeclare(anyString(), anyString(), anyBoolean(), anyBoolean(), any()))
+                .thenThrow(new IOException("PRECONDITION_FAILED - inequivalent arg 'type' for exchange"));
+        when(mockConnection.createChannel()).thenReturn(declarationChannel, mockChannel, failedDeclarationChannel);
+        AmqpProducerChannelPool channelPool = new AmqpProducerChannelPool(mockAmqpConnectionManager, 1, ProducerChannelSelection.THREAD, 0);
+        AmqpProducerAdapter producerAdapter = new AmqpProducerAdapter(TOPIC_NAME, ExchangeType.FANOUT, mockAmqpBrokerConfig, channelPool,
+                null, new AmqpTopologyCache());
+        producerAdapter.publish("first");
+
+        try {
+            new AmqpProducerAdapter("otherTopic", ExchangeType.TOPIC, mockAmqpBrokerConfig, channelPool, null, new AmqpTopologyCache());
+            fail("Exception expected");
+        } catch (ChannelException e) {
+            verify(mockChannel, never()).exchangeDeclare(anyString(), anyString(), anyBoolean(), anyBoolean(), any());
+        }
+
+        producerAdapter.publish("second");
+        verify(mockChannel).basicPublish(TOPIC_NAME, StringUtils.EMPTY, MessageProperties.PERSISTENT_BASIC, "second".getBytes());
+        verify(mockChannel, never()).close();
+    }
+
+    @Test
+    public void testRequestExpectingDirectReplyPublishedOnDirectReplyChannel() throws IOException {
+        AmqpDirectReplyChannel directReplyChannel = mock(AmqpDirectReplyChannel.class);
+        when(directReplyChannel.publish(anyString(), anyString(), any(AMQP.BasicProperties.class), any(byte[].class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        AmqpProducerChannelPool channelPool = new AmqpProducerChannelPool(mockAmqpConnectionManager, 1, ProducerChannelSelection.THREAD, 0);
+        AmqpProducerAdapter producerAdapter = new AmqpProducerAdapter(TOPIC_NAME, ExchangeType.FANOUT, mockAmqpBrokerConfig, channelPool,
+                directReplyChannel, new AmqpTopologyCache());
+        byte[] body = "message".getBytes(StandardCharsets.UTF_8);
+
+        producerAdapter.publishConfirmed(ByteBuffer.wrap(body), JsonMessageCodec.CONTENT_TYPE, StringUtils.EMPTY,
+                new PublishOptions.Builder().withReplyTo(AmqpDirectReplyChannel.DIRECT_REPLY_TO).build());
+        producerAdapter.publishConfirmed(ByteBuffer.wrap(body), JsonMessageCodec.CONTENT_TYPE, StringUtils.EMPTY, PublishOptions.DEFAULTS);
+
+        verify(directReplyChannel).publish(eq(TOPIC_NAME), eq(StringUtils.EMPTY), any(AMQP.BasicProperties.class), AdditionalMatchers.aryEq(body));
+        verify(mockChannel).basicPublish(eq(TOPIC_NAME), eq(StringUtils.EMPTY), any(AMQP.BasicProperties.class), AdditionalMatchers.aryEq(body));
+    }
+}
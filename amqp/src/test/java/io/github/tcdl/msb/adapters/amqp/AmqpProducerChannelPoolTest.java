@@ -0,0 +1,160 @@
+package io.github.tcdl.msb.adapters.amqp;
+
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Connection;
+import io.github.tcdl.msb.api.exception.ChannelException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AmqpProducerChannelPoolTest {
+
+    private Connection mockConnection;
+    private AmqpConnectionManager mockConnectionManager;
+
+    @Before
+    public void setUp() throws IOException {
+        mockConnection = mock(Connection.class);
+        mockConnectionManager = mock(AmqpConnectionManager.class);
+        when(mockConnectionManager.createPublishChannel()).thenAnswer(invocation -> mockConnection.createChannel());
+        when(mockConnection.isOpen()).thenReturn(true);
+        when(mockConnection.createChannel()).thenAnswer(invocation -> {
+            Channel channel = mock(Channel.class);
+            when(channel.isOpen()).thenReturn(true);
+            when(channel.getConnection()).thenReturn(mockConnection);
+            return channel;
+        });
+    }
+
+    @Test
+    public void testThreadSelectionSticksToChannel() throws Exception {
+        AmqpProducerChannelPool pool = new AmqpProducerChannelPool(mockConnectionManager, 4, ProducerChannelSelection.THREAD, 0);
+
+        LoggingAmqpChannel channel = pool.getChannel();
+        assertSame(channel, pool.getChannel());
+
+        AtomicReference<LoggingAmqpChannel> otherThreadChannel = new AtomicReference<>();
+        Thread otherThread = new Thread(() -> otherThreadChannel.set(pool.getChannel()));
+        otherThread.start();
+        otherThread.join();
+        if (otherThread.getId() % 4 != Thread.currentThread().getId() % 4) {
+            assertNotSame(channel, otherThreadChannel.get());
+        }
+    }
+
+    @Test
+    public void testRoundRobinSelectionUsesAllChannels() throws IOException {
+        AmqpProducerChannelPool pool = new AmqpProducerChannelPool(mockConnectionManager, 3, ProducerChannelSelection.ROUND_ROBIN, 0);
+
+        Set<LoggingAmqpChannel> channels = new HashSet<>();
+        for (int i = 0; i < 6; i++) {
+            channels.add(pool.getChannel());
+        }
+
+        assertEquals(3, channels.size());
+        verify(mockConnection, times(3)).createChannel();
+    }
+
+    @Test
+    public void testClosedChannelIsReplaced() throws IOException {
+        AmqpProducerChannelPool pool = new AmqpProducerChannelPool(mockConnectionManager, 1, ProducerChannelSelection.THREAD, 0);
+        Channel closedChannel = mock(Channel.class);
+        doReturn(mockConnection).when(closedChannel).getConnection();
+        doReturn(closedChannel).doReturn(mock(Channel.class)).when(mockConnection).createChannel();
+
+        LoggingAmqpChannel channel = pool.getChannel();
+
+        assertNotSame(channel, pool.getChannel());
+    }
+
+    @Test
+    public void testClosedChannelIsNotReplacedWhileConnectionIsDown() throws IOException {
+        AmqpProducerChannelPool pool = new AmqpProducerChannelPool(mockConnectionManager, 1, ProducerChannelSelection.THREAD, 0);
+        Channel closedChannel = mock(Channel.class);
+        doReturn(mockConnection).when(closedChannel).getConnection();
+        doReturn(closedChannel).when(mockConnection).createChannel();
+        when(mockConnection.isOpen()).thenReturn(false);
+
+        assertSame(pool.getChannel(), pool.getChannel());
+    }
+
+    @Test
+    public void testChannelsInConfirmMode() throws IOException {
+        Channel mockChannel = mock(Channel.class);
+        doReturn(mockChannel).when(mockConnection).createChannel();
+        AmqpProducerChannelPool pool = new AmqpProducerChannelPool(mockConnectionManager, 1, ProducerChannelSelection.THREAD, 10);
+
+        pool.getChannel();
+
+        verify(mockChannel).confirmSelect();
+    }
+
+    @Test
+    public void testInitializerAppliedToReplacingChannel() throws IOException {
+        List<LoggingAmqpChannel> initializedChannels = new ArrayList<>();
+        AmqpProducerChannelPool pool = new AmqpProducerChannelPool(mockConnectionManager, 1, ProducerChannelSelection.THREAD, 0,
+                initializedChannels::add);
+        Channel closedChannel = mock(Channel.class);
+        doReturn(mockConnection).when(closedChannel).getConnection();
+        doReturn(closedChannel).doReturn(mock(Channel.class)).when(mockConnection).createChannel();
+
+        LoggingAmqpChannel channel = pool.getChannel();
+        LoggingAmqpChannel replacingChannel = pool.getChannel();
+
+        assertEquals(Arrays.asList(channel, replacingChannel), initializedChannels);
+    }
+
+    @Test
+    public void testChannelClosedIfInitializerFails() throws Exception {
+        Channel mockChannel = mock(Channel.class);
+        when(mockChannel.isOpen()).thenReturn(true);
+        doReturn(mockChannel).when(mockConnection).createChannel();
+        AmqpProducerChannelPool pool = new AmqpProducerChannelPool(mockConnectionManager, 1, ProducerChannelSelection.THREAD, 0,
+                channel -> {
+                    throw new ChannelException("basic.consume call failed");
+                });
+
+        try {
+            pool.getChannel();
+            fail("Exception expected");
+        } catch (ChannelException e) {
+            verify(mockChannel).close();
+        }
+    }
+
+    @Test
+    public void testIsConnected() throws IOException {
+        AmqpProducerChannelPool pool = new AmqpProducerChannelPool(mockConnectionManager, 1, ProducerChannelSelection.THREAD, 0);
+        assertTrue(pool.isConnected());
+
+        pool.getChannel();
+        assertTrue(pool.isConnected());
+
+        when(mockConnection.isOpen()).thenReturn(false);
+        assertFalse(pool.isConnected());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyPool() {
+        new AmqpProducerChannelPool(mockConnectionManager, 0, ProducerChannelSelection.THREAD, 0);
+    }
+}
@@ -0,0 +1,60 @@
+package io.github.tcdl.msb.adapters.amqp;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.ShutdownSignalException;
+import io.github.tcdl.msb.api.ExchangeType;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class AmqpTopologyCacheTest {
+
+    private AmqpTopologyCache topologyCache;
+
+    @Before
+    public void setUp() {
+        topologyCache = new AmqpTopologyCache();
+        topologyCache.exchangeDeclared("topic1", ExchangeType.FANOUT);
+        topologyCache.exchangeDeclared("topic2", ExchangeType.TOPIC);
+    }
+
+    @Test
+    public void testExchangeDeclaredWithType() {
+        assertTrue(topologyCache.isExchangeDeclared("topic1", ExchangeType.FANOUT));
+        assertFalse(topologyCache.isExchangeDeclared("topic1", ExchangeType.TOPIC));
+        assertFalse(topologyCache.isExchangeDeclared("topic3", ExchangeType.FANOUT));
+    }
+
+    @Test
+    public void testForgetExchange() {
+        topologyCache.forgetExchange("topic1");
+
+        assertFalse(topologyCache.isExchangeDeclared("topic1", ExchangeType.FANOUT));
+        assertTrue(topologyCache.isExchangeDeclared("topic2", ExchangeType.TOPIC));
+    }
+
+    @Test
+    public void testClearedWhenChannelClosedWithNotFound() {
+        topologyCache.channelShutdown(channelClosed(AMQP.NOT_FOUND));
+
+        assertFalse(topologyCache.isExchangeDeclared("topic1", ExchangeType.FANOUT));
+        assertFalse(topologyCache.isExchangeDeclared("topic2", ExchangeType.TOPIC));
+    }
+
+    @Test
+    public void testNotClearedWhenChannelClosedForOtherReason() {
+        topologyCache.channelShutdown(channelClosed(AMQP.PRECONDITION_FAILED));
+        topologyCache.channelShutdown(new ShutdownSignalException(false /* hard error */, true, null, mock(Channel.class)));
+
+        assertTrue(topologyCache.isExchangeDeclared("topic1", ExchangeType.FANOUT));
+    }
+
+    private static ShutdownSignalException channelClosed(int replyCode) {
+        AMQP.Channel.Close close = new AMQP.Channel.Close.Builder().replyCode(replyCode).replyText("reply text").build();
+        return new ShutdownSignalException(false /* hard error */, false, close, mock(Channel.class));
+    }
+}
@@ -0,0 +1,47 @@
+package io.github.tcdl.msb.adapters.amqp;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MessageCompressionTest {
+
+    private final byte[] data = StringUtils.repeat("{\"body\":\"some message\"}", 100).getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void testGzipRoundTrip() throws IOException {
+        byte[] compressed = MessageCompression.GZIP.compress(data);
+
+        assertTrue(compressed.length < data.length);
+        assertArrayEquals(data, MessageCompression.GZIP.decompress(compressed));
+    }
+
+    @Test
+    public void testLz4RoundTrip() throws IOException {
+        byte[] compressed = MessageCompression.LZ4.compress(data);
+
+        assertTrue(compressed.length < data.length);
+        assertArrayEquals(data, MessageCompression.LZ4.decompress(compressed));
+    }
+
+    @Test
+    public void testNoneKeepsData() throws IOException {
+        assertSame(data, MessageCompression.NONE.compress(data));
+        assertSame(data, MessageCompression.NONE.decompress(data));
+    }
+
+    @Test
+    public void testForContentEncoding() {
+        assertEquals(MessageCompression.GZIP, MessageCompression.forContentEncoding("gzip"));
+        assertEquals(MessageCompression.LZ4, MessageCompression.forContentEncoding("LZ4"));
+        assertEquals(MessageCompression.NONE, MessageCompression.forContentEncoding(null));
+        assertEquals(MessageCompression.NONE, MessageCompression.forContentEncoding("identity"));
+    }
+}
@@ -14,6 +14,7 @@ import java.util.concurrent.*;
 
 import io.github.tcdl.msb.acknowledge.AcknowledgementHandlerImpl;
 import io.github.tcdl.msb.api.message.Message;
+import io.github.tcdl.msb.threading.MessageDiagnosticContext;
 import io.github.tcdl.msb.threading.MessageProcessingTask;
 import org.junit.Before;
 import org.junit.Test;
@@ -83,6 +84,17 @@ public class MessageProcessingTaskTest {
         assertFalse("MDC data is present in a thread while was not provided", isMdcPresentInThread());
     }
 
+    @Test
+    public void testDiagnosticContextCarried() throws Exception {
+        MessageDiagnosticContext diagnosticContext = new MessageDiagnosticContext(message, "tags", MDC_KEY, null);
+        diagnosticContext.makeCurrent();
+        try {
+            assertTrue("Diagnostic context is missing in a thread while was provided", isMdcPresentInThread());
+        } finally {
+            MessageDiagnosticContext.clearCurrent();
+        }
+    }
+
     private boolean isMdcPresentInThread() throws Exception{
         CompletableFuture<Boolean> isMdcPresentInTaskRun = new CompletableFuture<>();
         CompletableFuture<Boolean> isMdcPresentInOtherRun = new CompletableFuture<>();
@@ -99,6 +111,7 @@ public class MessageProcessingTaskTest {
     }
 
     private boolean isMdcPresent() {
-        return MDC_VALUE.equals(MDC.get(MDC_KEY));
+        String value = MDC.get(MDC_KEY);
+        return MDC_VALUE.equals(value) || message.getCorrelationId().equals(value);
     }
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+package io.github.tcdl.msb.adapters.amqp;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PublisherConfirmTrackerTest {
+
+    private final PublisherConfirmTracker tracker = new PublisherConfirmTracker(4);
+
+    @Test
+    public void testSettleSingle() {
+        List<CompletableFuture<Void>> futures = publish(1, 3);
+
+        assertEquals(Collections.singletonList(futures.get(1)), tracker.settle(2, false));
+        assertEquals(3, tracker.size());
+
+        assertEquals(Collections.singletonList(futures.get(0)), tracker.settle(1, false));
+        assertEquals(1, tracker.size());
+    }
+
+    @Test
+    public void testSettleMultiple() {
+        List<CompletableFuture<Void>> futures = publish(1, 3);
+        tracker.settle(2, false);
+
+        assertEquals(Arrays.asList(futures.get(0), futures.get(2)), tracker.settle(3, true));
+        assertEquals(0, tracker.size());
+    }
+
+    @Test
+    public void testSettleUnknownTag() {
+        publish(5, 1);
+
+        assertTrue(tracker.settle(4, true).isEmpty());
+        assertTrue(tracker.settle(7, false).isEmpty());
+        assertEquals(1, tracker.size());
+    }
+
+    @Test
+    public void testRingWrapsAround() {
+        List<CompletableFuture<Void>> futures = publish(1, 3);
+        tracker.settle(3, true);
+        futures = publish(4, 4);
+
+        assertEquals(futures, tracker.settle(7, true));
+        assertEquals(0, tracker.size());
+    }
+
+    @Test
+    public void testNonConsecutiveTagDropsTrackedMessages() {
+        List<CompletableFuture<Void>> futures = publish(10, 2);
+
+        tracker.acquire();
+        List<CompletableFuture<Void>> lost = tracker.track(1, new CompletableFuture<>());
+
+        assertEquals(futures, lost);
+        assertEquals(1, tracker.size());
+    }
+
+    @Test
+    public void testRemoveAllReturnsUnsettled() {
+        List<CompletableFuture<Void>> futures = publish(1, 3);
+        tracker.settle(2, false);
+
+        assertEquals(Arrays.asList(futures.get(0), futures.get(2)), tracker.removeAll());
+        assertEquals(0, tracker.size());
+        publish(1, 4);
+    }
+
+    @Test(timeout = 5000)
+    public void testAcquireBlocksWhenFull() throws Exception {
+        publish(1, 4);
+        Thread publisher = new Thread(() -> publish(5, 1));
+        publisher.start();
+
+        publisher.join(100);
+        assertTrue(publisher.isAlive());
+
+        tracker.settle(1, false);
+        publisher.join();
+        assertEquals(4, tracker.size());
+    }
+
+    private List<CompletableFuture<Void>> publish(long firstTag, int count) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            tracker.acquire();
+            tracker.track(firstTag + i, future);
+            futures.add(future);
+        }
+        return futures;
+    }
+}
@@ -13,4 +13,15 @@ public class AmqpResponderOptionsBuilderTest {
         ResponderOptions responderOptions = new AmqpResponderOptions.Builder().build();
         assertEquals(Collections.singleton("#"), responderOptions.getBindingKeys());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void build_shouldKeepConsumerCount() throws Exception {
+        assertNull(new AmqpResponderOptions.Builder().build().getConsumerCount());
+
+        ResponderOptions responderOptions = new AmqpResponderOptions.Builder()
+                .withConsumerCount(4)
+                .withExchangeType(ExchangeType.TOPIC)
+                .build();
+        assertEquals(Integer.valueOf(4), responderOptions.getConsumerCount());
+    }
+}
@@ -4,6 +4,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import io.github.tcdl.msb.adapters.amqp.MessageCompression;
+import io.github.tcdl.msb.adapters.amqp.ProducerChannelSelection;
 import io.github.tcdl.msb.api.exception.ConfigurationException;
 
 import java.nio.charset.Charset;
@@ -28,6 +30,23 @@ public class AmqpBrokerConfigTest {
     final int heartbeatIntervalSec = 1;
     final long networkRecoveryIntervalMs = 5000;
     final int prefetchCount = 1;
+    final String compression = "gzip";
+    final int compressionThresholdBytes = 1024;
+    final boolean publisherConfirms = true;
+    final int maxUnconfirmedMessages = 100;
+    final int producerChannelPoolSize = 8;
+    final String producerChannelSelection = "round-robin";
+    final int publishConnections = 2;
+    final int consumeConnections = 3;
+    final int consumerThreadPoolSize = 16;
+    final int ackBatchSize = 50;
+    final long ackFlushIntervalMs = 200;
+    final boolean adaptivePrefetch = true;
+    final int minPrefetchCount = 5;
+    final int maxPrefetchCount = 100;
+    final long prefetchAdjustmentIntervalMs = 2000;
+    final int maxPriority = 10;
+    final int consumerCount = 3;
 
     @Test
     public void testBuildAmqpBrokerConfig() {
@@ -45,6 +64,23 @@ public class AmqpBrokerConfigTest {
                 + " heartbeatIntervalSec = " + heartbeatIntervalSec + "\n"
                 + " networkRecoveryIntervalMs = " + networkRecoveryIntervalMs + "\n"
                 + " prefetchCount = " + prefetchCount + "\n"
+                + " compression = " + compression + "\n"
+                + " compressionThresholdBytes = " + compressionThresholdBytes + "\n"
+                + " publisherConfirms = " + publisherConfirms + "\n"
+                + " maxUnconfirmedMessages = " + maxUnconfirmedMessages + "\n"
+                + " producerChannelPoolSize = " + producerChannelPoolSize + "\n"
+                + " producerChannelSelection = " + producerChannelSelection + "\n"
+                + " publishConnections = " + publishConnections + "\n"
+                + " consumeConnections = " + consumeConnections + "\n"
+                + " consumerThreadPoolSize = " + consumerThreadPoolSize + "\n"
+                + " ackBatchSize = " + ackBatchSize + "\n"
+                + " ackFlushIntervalMs = " + ackFlushIntervalMs + "\n"
+                + " adaptivePrefetch = " + adaptivePrefetch + "\n"
+                + " minPrefetchCount = " + minPrefetchCount + "\n"
+                + " maxPrefetchCount = " + maxPrefetchCount + "\n"
+                + " prefetchAdjustmentIntervalMs = " + prefetchAdjustmentIntervalMs + "\n"
+                + " maxPriority = " + maxPriority + "\n"
+                + " consumerCount = " + consumerCount + "\n"
                 + "}";
 
         Config amqpConfig = ConfigFactory.parseString(configStr).getConfig("config.amqp");
@@ -66,7 +102,24 @@ public class AmqpBrokerConfigTest {
         assertEquals(networkRecoveryIntervalMs, brokerConfig.getNetworkRecoveryIntervalMs());
         
         assertEquals(prefetchCount, brokerConfig.getPrefetchCount());
-        
+
+        assertEquals(MessageCompression.GZIP, brokerConfig.getCompression());
+        assertEquals(compressionThresholdBytes, brokerConfig.getCompressionThresholdBytes());
+        assertEquals(publisherConfirms, brokerConfig.isPublisherConfirms());
+        assertEquals(maxUnconfirmedMessages, brokerConfig.getMaxUnconfirmedMessages());
+        assertEquals(producerChannelPoolSize, brokerConfig.getProducerChannelPoolSize());
+        assertEquals(ProducerChannelSelection.ROUND_ROBIN, brokerConfig.getProducerChannelSelection());
+        assertEquals(publishConnections, brokerConfig.getPublishConnections());
+        assertEquals(consumeConnections, brokerConfig.getConsumeConnections());
+        assertEquals(consumerThreadPoolSize, brokerConfig.getConsumerThreadPoolSize());
+        assertEquals(ackBatchSize, brokerConfig.getAckBatchSize());
+        assertEquals(ackFlushIntervalMs, brokerConfig.getAckFlushIntervalMs());
+        assertEquals(adaptivePrefetch, brokerConfig.isAdaptivePrefetch());
+        assertEquals(minPrefetchCount, brokerConfig.getMinPrefetchCount());
+        assertEquals(maxPrefetchCount, brokerConfig.getMaxPrefetchCount());
+        assertEquals(prefetchAdjustmentIntervalMs, brokerConfig.getPrefetchAdjustmentIntervalMs());
+        assertEquals(maxPriority, brokerConfig.getMaxPriority());
+        assertEquals(consumerCount, brokerConfig.getConsumerCount());
     }
 
     @Test
@@ -81,6 +134,23 @@ public class AmqpBrokerConfigTest {
                 + " heartbeatIntervalSec = " + heartbeatIntervalSec + "\n"
                 + " networkRecoveryIntervalMs = " + networkRecoveryIntervalMs + "\n"
                 + " prefetchCount = " + prefetchCount + "\n"
+                + " compression = " + compression + "\n"
+                + " compressionThresholdBytes = " + compressionThresholdBytes + "\n"
+                + " publisherConfirms = " + publisherConfirms + "\n"
+                + " maxUnconfirmedMessages = " + maxUnconfirmedMessages + "\n"
+                + " producerChannelPoolSize = " + producerChannelPoolSize + "\n"
+                + " producerChannelSelection = " + producerChannelSelection + "\n"
+                + " publishConnections = " + publishConnections + "\n"
+                + " consumeConnections = " + consumeConnections + "\n"
+                + " consumerThreadPoolSize = " + consumerThreadPoolSize + "\n"
+                + " ackBatchSize = " + ackBatchSize + "\n"
+                + " ackFlushIntervalMs = " + ackFlushIntervalMs + "\n"
+                + " adaptivePrefetch = " + adaptivePrefetch + "\n"
+                + " minPrefetchCount = " + minPrefetchCount + "\n"
+                + " maxPrefetchCount = " + maxPrefetchCount + "\n"
+                + " prefetchAdjustmentIntervalMs = " + prefetchAdjustmentIntervalMs + "\n"
+                + " maxPriority = " + maxPriority + "\n"
+                + " consumerCount = " + consumerCount + "\n"
                 + "}";
 
         Config amqpConfig = ConfigFactory.parseString(configStr).getConfig("config.amqp");
@@ -273,6 +343,40 @@ public class AmqpBrokerConfigTest {
         testMandatoryConfigurationOption(configStr, "prefetchCount");
     }
 
+    @Test(expected = ConfigurationException.class)
+    public void testInvalidCompression() {
+        String configStr = "config.amqp {"
+                + " charsetName = \"" + charsetName + "\"\n"
+                + " host = \"" + host + "\"\n"
+                + " port = \"" + port + "\"\n"
+                + " useSSL = \"" + useSSL + "\"\n"
+                + " durable = " + durable + "\n"
+                + " defaultExchangeType = " + exchangeType + "\n"
+                + " heartbeatIntervalSec = " + heartbeatIntervalSec + "\n"
+                + " networkRecoveryIntervalMs = " + networkRecoveryIntervalMs + "\n"
+                + " prefetchCount = " + prefetchCount + "\n"
+                + " compression = zip\n"
+                + " compressionThresholdBytes = " + compressionThresholdBytes + "\n"
+                + " publisherConfirms = " + publisherConfirms + "\n"
+                + " maxUnconfirmedMessages = " + maxUnconfirmedMessages + "\n"
+                + " producerChannelPoolSize = " + producerChannelPoolSize + "\n"
+                + " producerChannelSelection = " + producerChannelSelection + "\n"
+                + " publishConnections = " + publishConnections + "\n"
+                + " consumeConnections = " + consumeConnections + "\n"
+                + " consumerThreadPoolSize = " + consumerThreadPoolSize + "\n"
+                + " ackBatchSize = " + ackBatchSize + "\n"
+                + " ackFlushIntervalMs = " + ackFlushIntervalMs + "\n"
+                + " adaptivePrefetch = " + adaptivePrefetch + "\n"
+                + " minPrefetchCount = " + minPrefetchCount + "\n"
+                + " maxPrefetchCount = " + maxPrefetchCount + "\n"
+                + " prefetchAdjustmentIntervalMs = " + prefetchAdjustmentIntervalMs + "\n"
+                + " maxPriority = " + maxPriority + "\n"
+                + " consumerCount = " + consumerCount + "\n"
+                + "}";
+
+        createConfigBuilder(configStr).build();
+    }
+
     private void testMandatoryConfigurationOption(String configStr, String path) {
         try {
             AmqpBrokerConfig.AmqpBrokerConfigBuilder builder = createConfigBuilder(configStr);
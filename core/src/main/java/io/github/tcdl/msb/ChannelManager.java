@@ -7,6 +7,8 @@ import io.github.tcdl.msb.adapters.ProducerAdapter;
 import io.github.tcdl.msb.api.RequestOptions;
 import io.github.tcdl.msb.api.ResponderOptions;
 import io.github.tcdl.msb.api.exception.ConsumerSubscriptionException;
+import io.github.tcdl.msb.codec.JsonMessageCodec;
+import io.github.tcdl.msb.codec.MessageCodecs;
 import io.github.tcdl.msb.collector.CollectorManager;
 import io.github.tcdl.msb.config.MsbConfig;
 import io.github.tcdl.msb.impl.SimpleMessageHandlerResolverImpl;
@@ -18,6 +20,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Clock;
+import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
@@ -33,22 +36,29 @@ public class ChannelManager {
     private final MsbConfig msbConfig;
     private final Clock clock;
     private final JsonValidator validator;
-    private final ObjectMapper messageMapper;
+    private final MessageCodecs messageCodecs;
     private final AdapterFactory adapterFactory;
     private final MessageHandlerInvoker messageHandlerInvoker;
 
     private final Map<String, Producer> producersByTopic;
+    private final ResponseProducerCache responseProducers;
     private final Map<String, Consumer> consumersByTopic;
 
     public ChannelManager(MsbConfig msbConfig, Clock clock, JsonValidator validator, ObjectMapper messageMapper, AdapterFactory adapterFactory, MessageHandlerInvoker messageHandlerInvoker) {
+        this(msbConfig, clock, validator, new MessageCodecs(new JsonMessageCodec(messageMapper)), adapterFactory, messageHandlerInvoker);
+    }
+
+    public ChannelManager(MsbConfig msbConfig, Clock clock, JsonValidator validator, MessageCodecs messageCodecs, AdapterFactory adapterFactory, MessageHandlerInvoker messageHandlerInvoker) {
         this.msbConfig = msbConfig;
         this.clock = clock;
         this.validator = validator;
-        this.messageMapper = messageMapper;
+        this.messageCodecs = messageCodecs;
         this.adapterFactory = adapterFactory;
         this.messageHandlerInvoker = messageHandlerInvoker;
 
         this.producersByTopic = new ConcurrentHashMap<>();
+        this.responseProducers = new ResponseProducerCache(msbConfig.getResponseProducersMaxSize(), msbConfig.getResponseProducersIdleTimeout(),
+                clock, this::createResponseProducer);
         this.consumersByTopic = new ConcurrentHashMap<>();
     }
 
@@ -64,6 +74,16 @@ public class ChannelManager {
         return producer;
     }
 
+    /**
+     * Finds or creates producer to publish responses to the given response topic (or direct reply address).
+     * Unlike producers of {@link #findOrCreateProducer(String, RequestOptions)}, which are kept forever,
+     * response producers are kept in a bounded cache and closed when they are evicted from it.
+     */
+    public Producer findOrCreateResponseProducer(String topic) {
+        Validate.notEmpty(topic, "Topic is mandatory");
+        return responseProducers.findOrCreate(topic);
+    }
+
     public Optional<Long> getAvailableMessageCount(String topic) {
         return Optional.ofNullable(consumersByTopic.get(topic)).flatMap(Consumer::messageCount);
     }
@@ -72,6 +92,27 @@ public class ChannelManager {
         return Optional.ofNullable(consumersByTopic.get(topic)).flatMap(Consumer::isConnected);
     }
 
+    public Optional<Integer> getPrefetchCount(String topic) {
+        return Optional.ofNullable(consumersByTopic.get(topic)).flatMap(Consumer::prefetchCount);
+    }
+
+    /**
+     * Lets the bus prepare the given topics ahead of time, see {@link AdapterFactory#warmUp(Collection)}.
+     *
+     * @throws IllegalArgumentException if some of the topics is invalid
+     */
+    public void warmUp(Collection<String> topics) {
+        topics.forEach(this::validateTopic);
+        adapterFactory.warmUp(topics);
+    }
+
+    /**
+     * @return topic to consume direct replies from or {@link Optional#empty()} if the bus doesn't support them
+     */
+    public Optional<String> getDirectReplyTopic() {
+        return adapterFactory.getDirectReplyTopic();
+    }
+
     /**
      * Start consuming messages on specified topic with handler.
      * Calls to subscribe() and unsubscribe() have to be properly synchronized by client code not to lose messages.
@@ -135,15 +176,27 @@ public class ChannelManager {
     }
 
     private Producer createProducer(String topic, RequestOptions requestOptions) {
-        Utils.validateTopic(topic);
+        validateTopic(topic);
         ProducerAdapter adapter = this.adapterFactory.createProducerAdapter(topic, requestOptions);
-        return new Producer(adapter, topic, messageMapper);
+        return new Producer(adapter, topic, messageCodecs.getDefaultCodec());
+    }
+
+    private Producer createResponseProducer(String topic) {
+        validateTopic(topic);
+        ProducerAdapter adapter = this.adapterFactory.createResponseProducerAdapter(topic);
+        return new Producer(adapter, topic, messageCodecs.getDefaultCodec());
     }
 
     private Consumer createConsumer(String topic, boolean isResponseTopic, ResponderOptions responderOptions, MessageHandlerResolver messageHandlerResolver) {
-        Utils.validateTopic(topic);
+        validateTopic(topic);
         ConsumerAdapter adapter = this.adapterFactory.createConsumerAdapter(topic, responderOptions, isResponseTopic);
-        return new Consumer(adapter, messageHandlerInvoker, topic, messageHandlerResolver, msbConfig, clock, validator, messageMapper);
+        return new Consumer(adapter, messageHandlerInvoker, topic, messageHandlerResolver, msbConfig, clock, validator, messageCodecs);
+    }
+
+    private void validateTopic(String topic) {
+        if (!adapterFactory.isDirectReplyTopic(topic)) {
+            Utils.validateTopic(topic);
+        }
     }
 
     public void shutdown() {
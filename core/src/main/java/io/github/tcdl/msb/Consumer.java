@@ -1,24 +1,28 @@
 package io.github.tcdl.msb;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.tcdl.msb.acknowledge.AcknowledgementHandlerInternal;
 import io.github.tcdl.msb.adapters.ConsumerAdapter;
 import io.github.tcdl.msb.api.message.Message;
 import io.github.tcdl.msb.api.message.MetaMessage;
+import io.github.tcdl.msb.api.message.Topics;
+import io.github.tcdl.msb.codec.JsonMessageCodec;
+import io.github.tcdl.msb.codec.MessageCodecs;
 import io.github.tcdl.msb.collector.ConsumedMessagesAwareMessageHandler;
 import io.github.tcdl.msb.config.MsbConfig;
 import io.github.tcdl.msb.support.JsonValidator;
+import io.github.tcdl.msb.support.MessageEnvelope;
 import io.github.tcdl.msb.support.Utils;
+import io.github.tcdl.msb.threading.MessageDiagnosticContext;
 import io.github.tcdl.msb.threading.MessageHandlerInvoker;
-import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
+import java.nio.charset.Charset;
 import java.time.Clock;
-import java.time.Instant;
-import java.time.temporal.ChronoUnit;
 import java.util.Optional;
 
 /**
@@ -35,9 +39,10 @@ public class Consumer {
     private final Clock clock;
     private final MessageHandlerResolver messageHandlerResolver;
     private final JsonValidator validator;
-    private final ObjectMapper messageMapper;
+    private final MessageCodecs messageCodecs;
+    private final ObjectMapper jsonMessageMapper;
     private final String loggingTag;
-    private final boolean isSplitTagsForMdcLogging;
+    private final boolean isDiagnosticContextAwareInvoker;
 
     /**
      * @param rawAdapter instance of {@link ConsumerAdapter} that allows to receive messages from message bus
@@ -51,6 +56,22 @@ public class Consumer {
     public Consumer(ConsumerAdapter rawAdapter, MessageHandlerInvoker messageHandlerInvoker,
             String topic, MessageHandlerResolver messageHandlerResolver, MsbConfig msbConfig,
             Clock clock, JsonValidator validator, ObjectMapper messageMapper) {
+        this(rawAdapter, messageHandlerInvoker, topic, messageHandlerResolver, msbConfig, clock, validator,
+                new MessageCodecs(new JsonMessageCodec(messageMapper)));
+    }
+
+    /**
+     * @param rawAdapter instance of {@link ConsumerAdapter} that allows to receive messages from message bus
+     * @param topic
+     * @param messageHandlerResolver resolves {@link MessageHandler} instance that user can implement to handle received messages.
+     * @param msbConfig consumer configs
+     * @param clock
+     * @param validator validates incoming messages
+     * @param messageCodecs codecs that incoming messages are decoded with according to their content type
+     */
+    public Consumer(ConsumerAdapter rawAdapter, MessageHandlerInvoker messageHandlerInvoker,
+            String topic, MessageHandlerResolver messageHandlerResolver, MsbConfig msbConfig,
+            Clock clock, JsonValidator validator, MessageCodecs messageCodecs) {
 
         LOG.debug("Creating consumer for topic: {}", topic);
         Validate.notNull(rawAdapter, "the 'rawAdapter' must not be null");
@@ -60,7 +81,7 @@ public class Consumer {
         Validate.notNull(msbConfig, "the 'msbConfig' must not be null");
         Validate.notNull(clock, "the 'clock' must not be null");
         Validate.notNull(validator, "the 'validator' must not be null");
-        Validate.notNull(messageMapper, "the 'messageMapper' must not be null");
+        Validate.notNull(messageCodecs, "the 'messageCodecs' must not be null");
 
         this.rawAdapter = rawAdapter;
         this.messageHandlerInvoker = messageHandlerInvoker;
@@ -69,17 +90,38 @@ public class Consumer {
         this.msbConfig = msbConfig;
         this.clock = clock;
         this.validator = validator;
-        this.messageMapper = messageMapper;
+        this.messageCodecs = messageCodecs;
+        this.jsonMessageMapper = messageCodecs.findCodec(JsonMessageCodec.CONTENT_TYPE).getMessageMapper();
 
         this.loggingTag = String.format("[Consumer for: '%s' on topic: '%s']", messageHandlerResolver.getLoggingName(), topic);
-        this.isSplitTagsForMdcLogging = !StringUtils.isEmpty(msbConfig.getMdcLoggingSplitTagsBy());
+        this.isDiagnosticContextAwareInvoker = messageHandlerInvoker.isDiagnosticContextAware();
     }
 
     /**
      * Start consuming messages
      */
     public void subscribe() {
-        this.rawAdapter.subscribe(this::handleRawMessage);
+        this.rawAdapter.subscribe(new ConsumerAdapter.RawMessageHandler() {
+            @Override
+            public void onMessage(String jsonMessage, AcknowledgementHandlerInternal acknowledgementHandler) {
+                handleRawMessage(jsonMessage, acknowledgementHandler);
+            }
+
+            @Override
+            public void onMessage(byte[] body, Charset charset, AcknowledgementHandlerInternal acknowledgementHandler) {
+                handleRawMessage(body, charset, acknowledgementHandler);
+            }
+
+            @Override
+            public void onMessage(byte[] body, String contentType, Charset charset, AcknowledgementHandlerInternal acknowledgementHandler) {
+                handleRawMessage(body, contentType, charset, acknowledgementHandler);
+            }
+
+            @Override
+            public void onMessage(byte[] body, String contentType, Charset charset, String replyTo, AcknowledgementHandlerInternal acknowledgementHandler) {
+                handleRawMessage(body, contentType, charset, replyTo, acknowledgementHandler);
+            }
+        });
     }
 
     /**
@@ -107,6 +149,15 @@ public class Consumer {
         return rawAdapter.isConnected();
     }
 
+    /**
+     * Returns the current limit of unacknowledged messages delivered to the consumer.
+     * If the queue has not been subscribed to yet, this will return {@link Optional#empty()}.
+     * @return the current prefetch count
+     */
+    public Optional<Integer> prefetchCount() {
+        return rawAdapter.prefetchCount();
+    }
+
     /**
      * Process raw incoming message JSON. If Message JSON is invalid or the message has been expired, the message
      * will be rejected by means of {@link AcknowledgementHandlerInternal}.
@@ -120,6 +171,9 @@ public class Consumer {
         Message message;
 
         try {
+            if (isDroppedBeforeParsing(MessageEnvelope.peek(jsonMessage, jsonMessageMapper), jsonMessage, acknowledgeHandler)) {
+                return;
+            }
             message = parseMessage(jsonMessage);
         } catch (Exception e) {
             LOG.error("{} ", loggingTag, e);
@@ -128,16 +182,103 @@ public class Consumer {
             return;
         }
 
+        handleMessage(message, jsonMessage, acknowledgeHandler);
+    }
+
+    /**
+     * Process raw incoming message JSON supplied as bytes. The message is parsed straight from the given bytes
+     * without building an intermediate String. If Message JSON is invalid or the message has been expired, the message
+     * will be rejected by means of {@link AcknowledgementHandlerInternal}.
+     *
+     * @param body message to process
+     * @param charset charset the message is encoded with
+     */
+    protected void handleRawMessage(byte[] body, Charset charset, AcknowledgementHandlerInternal acknowledgeHandler) {
+        handleRawMessage(body, null, charset, acknowledgeHandler);
+    }
+
+    /**
+     * Process raw incoming message supplied as bytes. The message is decoded with the codec that corresponds to
+     * the given content type (JSON if content type is unknown). If Message is invalid or the message has been expired,
+     * the message will be rejected by means of {@link AcknowledgementHandlerInternal}.
+     *
+     * @param body message to process
+     * @param contentType MIME type of the message, may be null
+     * @param charset charset the message is encoded with if the message is textual
+     */
+    protected void handleRawMessage(byte[] body, String contentType, Charset charset, AcknowledgementHandlerInternal acknowledgeHandler) {
+        handleRawMessage(body, contentType, charset, null, acknowledgeHandler);
+    }
+
+    /**
+     * Same as {@link #handleRawMessage(byte[], String, Charset, AcknowledgementHandlerInternal)}, but responses to the message
+     * are sent to the given direct reply address instead of the response topic of the message.
+     *
+     * @param replyTo bus-specific address to send responses to or null to use the response topic of the message
+     */
+    protected void handleRawMessage(byte[] body, String contentType, Charset charset, String replyTo, AcknowledgementHandlerInternal acknowledgeHandler) {
+        LOG.debug("{} message received.", loggingTag);
+        ObjectMapper messageMapper = messageCodecs.findCodec(contentType).getMessageMapper();
+        Object loggableMessage = new LoggableBody(body, charset);
+        LOG.trace("Message: {}", loggableMessage);
+
+        Message message;
+
+        try {
+            if (isDroppedBeforeParsing(MessageEnvelope.peek(body, charset, messageMapper), loggableMessage, acknowledgeHandler)) {
+                return;
+            }
+            message = parseMessage(body, charset, messageMapper, loggableMessage);
+            if (replyTo != null) {
+                Topics topics = message.getTopics();
+                message = message.withTopics(new Topics(topics.getTo(), replyTo, topics.getForward(), topics.getRoutingKey()));
+            }
+        } catch (Exception e) {
+            LOG.error("{} ", loggingTag, e);
+            LOG.trace("Unable to process consumed message: {}", loggableMessage);
+            acknowledgeHandler.autoReject();
+            return;
+        }
+
+        handleMessage(message, loggableMessage, acknowledgeHandler);
+    }
+
+    /**
+     * Rejects the message if its envelope shows that the message is expired or can't be handled, so that
+     * the message is not fully deserialized just to be discarded.
+     *
+     * @param rawMessage original message representation, used for trace logging only
+     * @return true if the message was rejected
+     */
+    private boolean isDroppedBeforeParsing(MessageEnvelope envelope, Object rawMessage, AcknowledgementHandlerInternal acknowledgeHandler) {
+        if (envelope.isExpired(clock.instant())) {
+            LOG.warn("[correlation id: {}, message id: {}] {} Expired message. ", envelope.getCorrelationId(), envelope.getId(), loggingTag);
+        } else if (envelope.getCorrelationId() != null && messageHandlerResolver.isUnresolvable(envelope.getCorrelationId())) {
+            LOG.warn("[correlation id: {}, message id: {}] {} Can't resolve message handler.", envelope.getCorrelationId(), envelope.getId(), loggingTag);
+        } else {
+            return false;
+        }
+        LOG.trace("Message: {}", rawMessage);
+        acknowledgeHandler.autoReject();
+        return true;
+    }
+
+    /**
+     * @param rawMessage original message representation, used for trace logging only
+     */
+    private void handleMessage(Message message, Object rawMessage, AcknowledgementHandlerInternal acknowledgeHandler) {
         ConsumedMessagesAwareMessageHandler consumedMessagesAwareMessageHandler = null;
+        MessageDiagnosticContext diagnosticContext = null;
 
         try {
             if(msbConfig.isMdcLogging()) {
-                saveMdc(message);
+                diagnosticContext = createDiagnosticContext(message);
             }
 
             if (isMessageExpired(message)) {
+                installForWarning(diagnosticContext);
                 LOG.warn("[correlation id: {}, message id: {}] {} Expired message. ", message.getCorrelationId(), message.getId(), loggingTag);
-                LOG.trace("Message: {}", jsonMessage);
+                LOG.trace("Message: {}", rawMessage);
                 acknowledgeHandler.autoReject();
                 return;
             }
@@ -151,69 +292,118 @@ public class Consumer {
                 }
                 messageHandlerInvoker.execute(messageHandler, message, acknowledgeHandler);
             } else {
+                installForWarning(diagnosticContext);
                 LOG.warn("{} Can't resolve message handler.", loggingTag);
-                LOG.trace("Message: {}", jsonMessage);
+                LOG.trace("Message: {}", rawMessage);
                 acknowledgeHandler.autoReject();
             }
         } catch (Exception e) {
+            installForWarning(diagnosticContext);
             LOG.warn("[correlation id: {}, message id: {}] {} Error while trying to handle a message. ",
                     message.getCorrelationId(), message.getId(), loggingTag, e);
-            LOG.trace("Message: {}", jsonMessage);
+            LOG.trace("Message: {}", rawMessage);
             acknowledgeHandler.autoRetry();
             if(consumedMessagesAwareMessageHandler != null) {
                 consumedMessagesAwareMessageHandler.notifyConsumedMessageIsLost();
             }
         } finally {
-            if(msbConfig.isMdcLogging()) {
-                clearMdc();
+            if(diagnosticContext != null) {
+                MessageDiagnosticContext.clearCurrent();
+                MDC.clear();
             }
         }
     }
 
     private Message parseMessage(String jsonMessage) {
-        if (msbConfig.getSchema() != null && !Utils.isServiceTopic(topic) && msbConfig.isValidateMessage()) {
-            LOG.debug("{} Validating schema.", loggingTag);
-            LOG.trace("Message: {}", jsonMessage);
-            validator.validate(jsonMessage, msbConfig.getSchema());
-        }
         LOG.debug("{} Parsing message.", loggingTag);
         LOG.trace("Message: {}", jsonMessage);
 
-        Message result = Utils.fromJson(jsonMessage, Message.class, messageMapper);
+        Message result;
+        if (isValidationRequired()) {
+            result = validateAndBind(Utils.readTree(jsonMessage, jsonMessageMapper), jsonMessageMapper);
+        } else {
+            result = Utils.fromJson(jsonMessage, Message.class, jsonMessageMapper);
+        }
         LOG.debug("[correlation id: {}, message id: {}] {} Message has been successfully parsed.",
                 result.getCorrelationId(), result.getId(), loggingTag);
         LOG.trace("Message: {}", jsonMessage);
         return result;
     }
 
-    private boolean isMessageExpired(Message message) {
-        MetaMessage meta = message.getMeta();
-        if (meta == null || meta.getTtl() == null) {
-            return false;
+    private Message parseMessage(byte[] body, Charset charset, ObjectMapper messageMapper, Object loggableMessage) {
+        LOG.debug("{} Parsing message.", loggingTag);
+
+        Message result;
+        if (isValidationRequired()) {
+            result = validateAndBind(Utils.readTree(body, charset, messageMapper), messageMapper);
+        } else {
+            result = Utils.fromJson(body, charset, Message.class, messageMapper);
         }
+        LOG.debug("[correlation id: {}, message id: {}] {} Message has been successfully parsed.",
+                result.getCorrelationId(), result.getId(), loggingTag);
+        LOG.trace("Message: {}", loggableMessage);
+        return result;
+    }
 
-        Integer ttl = meta.getTtl();
-        Instant expiryTime = meta.getCreatedAt().plus(ttl, ChronoUnit.MILLIS);
-        Instant now = clock.instant();
+    /**
+     * Validates the message tree against the schema and binds {@link Message} from the very same tree,
+     * so the raw message is parsed only once.
+     */
+    private Message validateAndBind(JsonNode messageTree, ObjectMapper messageMapper) {
+        Validate.notNull(messageTree, "the message must not be empty");
+        LOG.debug("{} Validating schema.", loggingTag);
+        LOG.trace("Message: {}", messageTree);
+        validator.validate(messageTree, msbConfig.getSchema());
+        return Utils.fromJsonTree(messageTree, Message.class, messageMapper);
+    }
 
-        return expiryTime.isBefore(now);
+    private boolean isValidationRequired() {
+        return msbConfig.getSchema() != null && !Utils.isServiceTopic(topic) && msbConfig.isValidateMessage();
     }
 
-    private void saveMdc(Message message) {
-        String tags = StringUtils.join(message.getTags(), ",");
-        MDC.put(msbConfig.getMdcLoggingKeyMessageTags(), tags);
-        MDC.put(msbConfig.getMdcLoggingKeyCorrelationId(), message.getCorrelationId());
-        if(isSplitTagsForMdcLogging) {
-            for(String tag: message.getTags()) {
-                String[] parts = StringUtils.split(tag, msbConfig.getMdcLoggingSplitTagsBy(), 2);
-                if(parts.length == 2) {
-                    MDC.put(parts[0], parts[1]);
-                }
-            }
+    private boolean isMessageExpired(Message message) {
+        MetaMessage meta = message.getMeta();
+        return meta != null && MessageEnvelope.isExpired(meta.getTtl(), meta.getCreatedAt(), clock.instant());
+    }
+
+    /**
+     * Creates diagnostic context of the message and makes it available to the invoker. The context is installed
+     * into MDC right away only if the invoker is not able to carry it to the handling thread itself.
+     */
+    private MessageDiagnosticContext createDiagnosticContext(Message message) {
+        MessageDiagnosticContext diagnosticContext = new MessageDiagnosticContext(message,
+                msbConfig.getMdcLoggingKeyMessageTags(), msbConfig.getMdcLoggingKeyCorrelationId(), msbConfig.getMdcLoggingSplitTagsBy());
+        diagnosticContext.makeCurrent();
+        if (!isDiagnosticContextAwareInvoker) {
+            diagnosticContext.install();
+        }
+        return diagnosticContext;
+    }
+
+    /**
+     * Installs diagnostic context only if the warning is going to be logged and the context is not installed yet.
+     */
+    private void installForWarning(MessageDiagnosticContext diagnosticContext) {
+        if (diagnosticContext != null && isDiagnosticContextAwareInvoker && LOG.isWarnEnabled()) {
+            diagnosticContext.install();
         }
     }
 
-    private void clearMdc() {
-        MDC.clear();
+    /**
+     * Decodes raw message body only when it is really going to be logged.
+     */
+    private static final class LoggableBody {
+        private final byte[] body;
+        private final Charset charset;
+
+        LoggableBody(byte[] body, Charset charset) {
+            this.body = body;
+            this.charset = charset;
+        }
+
+        @Override
+        public String toString() {
+            return new String(body, charset);
+        }
     }
 }
\ No newline at end of file
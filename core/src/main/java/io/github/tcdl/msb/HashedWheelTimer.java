@@ -0,0 +1,345 @@
+package io.github.tcdl.msb;
+
+import io.github.tcdl.msb.support.Utils;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@link HashedWheelTimer} schedules tasks on a hashed timing wheel: a ring of buckets, one per tick, where every task
+ * is put into the bucket of the tick it expires at. A single worker thread advances the wheel once per tick and hands
+ * expired tasks over to a thread pool for execution.
+ *
+ * Scheduling and cancelling a task take constant time regardless of the number of pending tasks, unlike
+ * {@link RunOnShutdownScheduledExecutorDecorator} that keeps them in a heap. The price is precision: a task is executed
+ * up to one tick later than requested.
+ *
+ * Scheduled and cancelled tasks are passed to the worker thread through lock-free queues, so buckets are accessed
+ * by the worker thread only. Pending tasks (not yet cancelled or completed) are executed during shutdown.
+ */
+public class HashedWheelTimer implements RunOnShutdownScheduler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HashedWheelTimer.class);
+    private static final AtomicIntegerFieldUpdater<WheelTask> STATE_UPDATER = AtomicIntegerFieldUpdater.newUpdater(WheelTask.class, "state");
+
+    private final String name;
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<WheelTask> scheduledTasks = new ConcurrentLinkedQueue<>();
+    private final Queue<WheelTask> cancelledTasks = new ConcurrentLinkedQueue<>();
+    private final ExecutorService taskExecutor;
+    private final Thread workerThread;
+    private final long startTime;
+    private volatile boolean shutdown;
+
+    /**
+     * @param tickDuration duration of a tick, that is precision of the timer
+     * @param ticksPerWheel number of buckets, rounded up to a power of two. Tasks that expire more than a wheel
+     *                      turn ahead share buckets with earlier ones, so it should cover typical timeouts.
+     * @param threadPoolSize number of threads that execute expired tasks
+     * @param threadFactory factory of the threads that execute expired tasks
+     */
+    public HashedWheelTimer(String name, long tickDuration, TimeUnit unit, int ticksPerWheel, int threadPoolSize, ThreadFactory threadFactory) {
+        Validate.notNull(unit, "the 'unit' must not be null");
+        Validate.isTrue(tickDuration > 0, "the 'tickDuration' must be positive");
+        Validate.isTrue(ticksPerWheel > 0 && ticksPerWheel <= 1 << 30, "the 'ticksPerWheel' must be in range (0, 2^30]");
+        Validate.notNull(threadFactory, "the 'threadFactory' must not be null");
+
+        int wheelSize = 1;
+        while (wheelSize < ticksPerWheel) {
+            wheelSize <<= 1;
+        }
+        LOG.info("[hashed wheel timer '{}'] Starting with {} buckets of {} {} and {} threads", name, wheelSize, tickDuration, unit, threadPoolSize);
+
+        this.name = name;
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.wheel = new Bucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = wheelSize - 1;
+        this.taskExecutor = Executors.newFixedThreadPool(threadPoolSize, threadFactory);
+        this.startTime = System.nanoTime();
+
+        this.workerThread = new Thread(this::runWorker, "hashed-wheel-timer-" + name);
+        workerThread.setDaemon(true);
+        workerThread.start();
+    }
+
+    /**
+     * @throws RejectedExecutionException if the timer is shut down
+     */
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        Validate.notNull(command, "the 'command' must not be null");
+        if (shutdown) {
+            throw new RejectedExecutionException("Timer '" + name + "' is shut down");
+        }
+
+        long deadline = System.nanoTime() - startTime + unit.toNanos(Math.max(delay, 0));
+        WheelTask task = new WheelTask(command, deadline >= 0 ? deadline : Long.MAX_VALUE);
+        scheduledTasks.add(task);
+
+        // Shutdown may have drained the queue before the task was added. Unless it has executed the task, reject it.
+        if (shutdown && task.compareAndSetState(WheelTask.PENDING, WheelTask.CANCELLED)) {
+            throw new RejectedExecutionException("Timer '" + name + "' is shut down");
+        }
+        return task;
+    }
+
+    /**
+     * Stops the worker thread, waits for the expired tasks to complete and executes all pending tasks
+     * (not yet cancelled or completed) in the current thread.
+     */
+    @Override
+    public synchronized void shutdown() {
+        if (shutdown) {
+            return;
+        }
+        shutdown = true;
+        LockSupport.unpark(workerThread);
+        try {
+            workerThread.join();
+        } catch (InterruptedException e) {
+            LOG.warn("[hashed wheel timer '{}'] Interrupted while waiting for worker thread to stop", name, e);
+            Thread.currentThread().interrupt();
+        }
+        Utils.gracefulShutdown(taskExecutor, "timeout");
+
+        // The worker thread is stopped, so buckets can be drained by the current thread
+        LOG.info("[hashed wheel timer '{}'] Executing pending tasks...", name);
+        for (Bucket bucket : wheel) {
+            for (WheelTask task = bucket.head; task != null; task = task.next) {
+                task.runIfPending();
+            }
+        }
+        WheelTask task;
+        while ((task = scheduledTasks.poll()) != null) {
+            task.runIfPending();
+        }
+        cancelledTasks.clear();
+        LOG.info("[hashed wheel timer '{}'] Completed pending tasks execution.", name);
+    }
+
+    private void runWorker() {
+        long tick = 0;
+        while (awaitTick(tick)) {
+            removeCancelledTasks();
+            transferScheduledTasks(tick);
+            expireTasks(wheel[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    /**
+     * @return false if the timer is shut down while waiting
+     */
+    private boolean awaitTick(long tick) {
+        long tickDeadline = tickNanos * (tick + 1);
+        while (!shutdown) {
+            long sleepNanos = tickDeadline - (System.nanoTime() - startTime);
+            if (sleepNanos <= 0) {
+                return true;
+            }
+            LockSupport.parkNanos(this, sleepNanos);
+        }
+        return false;
+    }
+
+    private void removeCancelledTasks() {
+        WheelTask task;
+        while ((task = cancelledTasks.poll()) != null) {
+            if (task.bucket != null) {
+                task.bucket.remove(task);
+            }
+        }
+    }
+
+    /**
+     * Tasks that should have expired already are put into the current bucket.
+     */
+    private void transferScheduledTasks(long tick) {
+        WheelTask task;
+        while ((task = scheduledTasks.poll()) != null) {
+            if (task.state != WheelTask.PENDING) {
+                continue;
+            }
+            long expirationTick = task.deadline / tickNanos;
+            task.remainingRounds = (expirationTick - tick) / wheel.length;
+            wheel[(int) (Math.max(expirationTick, tick) & mask)].add(task);
+        }
+    }
+
+    private void expireTasks(Bucket bucket) {
+        WheelTask task = bucket.head;
+        while (task != null) {
+            WheelTask next = task.next;
+            if (task.remainingRounds <= 0) {
+                bucket.remove(task);
+                if (task.compareAndSetState(WheelTask.PENDING, WheelTask.EXPIRED)) {
+                    taskExecutor.execute(task);
+                }
+            } else if (task.state != WheelTask.PENDING) {
+                bucket.remove(task);
+            } else {
+                task.remainingRounds--;
+            }
+            task = next;
+        }
+    }
+
+    /**
+     * Doubly linked list of the tasks that expire at the same tick of a wheel turn.
+     */
+    private static class Bucket {
+        WheelTask head;
+        WheelTask tail;
+
+        void add(WheelTask task) {
+            task.bucket = this;
+            if (tail == null) {
+                head = tail = task;
+            } else {
+                tail.next = task;
+                task.prev = tail;
+                tail = task;
+            }
+        }
+
+        void remove(WheelTask task) {
+            if (task.prev != null) {
+                task.prev.next = task.next;
+            } else {
+                head = task.next;
+            }
+            if (task.next != null) {
+                task.next.prev = task.prev;
+            } else {
+                tail = task.prev;
+            }
+            task.prev = task.next = null;
+            task.bucket = null;
+        }
+    }
+
+    private class WheelTask implements ScheduledFuture<Object>, Runnable {
+        static final int PENDING = 0;
+        static final int CANCELLED = 1;
+        static final int EXPIRED = 2;
+        static final int COMPLETED = 3;
+
+        private final Runnable command;
+        private final long deadline;
+        volatile int state = PENDING;
+
+        // accessed by the worker thread only
+        private long remainingRounds;
+        private Bucket bucket;
+        private WheelTask prev;
+        private WheelTask next;
+
+        WheelTask(Runnable command, long deadline) {
+            this.command = command;
+            this.deadline = deadline;
+        }
+
+        boolean compareAndSetState(int expected, int newState) {
+            return STATE_UPDATER.compareAndSet(this, expected, newState);
+        }
+
+        void runIfPending() {
+            if (compareAndSetState(PENDING, EXPIRED)) {
+                run();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                command.run();
+            } catch (RuntimeException e) {
+                LOG.error("[hashed wheel timer '{}'] Task failed", name, e);
+            } finally {
+                synchronized (this) {
+                    state = COMPLETED;
+                    notifyAll();
+                }
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (!compareAndSetState(PENDING, CANCELLED)) {
+                return false;
+            }
+            cancelledTasks.add(this);
+            synchronized (this) {
+                notifyAll();
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        @Override
+        public boolean isDone() {
+            return state == CANCELLED || state == COMPLETED;
+        }
+
+        @Override
+        public synchronized Object get() throws InterruptedException {
+            while (!isDone()) {
+                wait();
+            }
+            return getResult();
+        }
+
+        @Override
+        public synchronized Object get(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+            long waitUntil = System.nanoTime() + unit.toNanos(timeout);
+            while (!isDone()) {
+                long waitNanos = waitUntil - System.nanoTime();
+                if (waitNanos <= 0) {
+                    throw new TimeoutException();
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, waitNanos);
+            }
+            return getResult();
+        }
+
+        private Object getResult() {
+            if (state == CANCELLED) {
+                throw new CancellationException();
+            }
+            return null;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadline - (System.nanoTime() - startTime), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
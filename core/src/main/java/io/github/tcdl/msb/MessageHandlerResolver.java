@@ -16,6 +16,15 @@ public interface MessageHandlerResolver {
      */
     Optional<MessageHandler> resolveMessageHandler(Message message);
 
+    /**
+     * Quick check that allows to drop an incoming message before it is fully deserialized.
+     * @param correlationId correlationId of the incoming message
+     * @return true only if it is known for sure that no {@link MessageHandler} will be resolved for the message
+     */
+    default boolean isUnresolvable(String correlationId) {
+        return false;
+    }
+
     /**
      * Get an arbitrary text name of the MessageHandlerResolver instance that
      * will be used used in log messages.
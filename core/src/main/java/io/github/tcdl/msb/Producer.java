@@ -2,16 +2,23 @@ package io.github.tcdl.msb;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.tcdl.msb.adapters.ProducerAdapter;
+import io.github.tcdl.msb.adapters.PublishOptions;
 import io.github.tcdl.msb.api.Callback;
 import io.github.tcdl.msb.api.exception.ChannelException;
 import io.github.tcdl.msb.api.exception.JsonConversionException;
 import io.github.tcdl.msb.api.message.Message;
+import io.github.tcdl.msb.api.message.MetaMessage;
+import io.github.tcdl.msb.codec.JsonMessageCodec;
+import io.github.tcdl.msb.codec.MessageCodec;
+import io.github.tcdl.msb.support.PooledByteArrayOutputStream;
 import io.github.tcdl.msb.support.Utils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * {@link Producer} is a component responsible for producing messages to the bus.
  */
@@ -20,27 +27,65 @@ public class Producer {
     private static final Logger LOG = LoggerFactory.getLogger(Producer.class);
 
     private final ProducerAdapter rawAdapter;
-    private final ObjectMapper messageMapper;
+    private final MessageCodec messageCodec;
 
     public Producer(ProducerAdapter rawAdapter, String topic, ObjectMapper messageMapper) {
+        this(rawAdapter, topic, new JsonMessageCodec(messageMapper));
+    }
+
+    /**
+     * @param messageCodec codec that defines the wire format of published messages
+     */
+    public Producer(ProducerAdapter rawAdapter, String topic, MessageCodec messageCodec) {
         LOG.debug("Creating producer for topic: {}", topic);
         Validate.notNull(rawAdapter, "the 'rawAdapter' must not be null");
         Validate.notNull(topic, "the 'topic' must not be null");
-        Validate.notNull(messageMapper, "the 'messageMapper' must not be null");
+        Validate.notNull(messageCodec, "the 'messageCodec' must not be null");
 
         this.rawAdapter = rawAdapter;
-        this.messageMapper = messageMapper;
+        this.messageCodec = messageCodec;
+    }
+
+    /**
+     * Publishes the message with {@link PublishOptions#DEFAULTS default options}.
+     *
+     * @return future that is completed when the adapter confirms delivery of the message
+     */
+    public CompletableFuture<Void> publish(Message message) {
+        return publish(message, PublishOptions.DEFAULTS);
     }
 
-    public void publish(Message message) {
+    /**
+     * Serializes the message into a buffer reused by the current thread and passes it to the adapter.
+     * Unless the options specify expiration, the message expires once its ttl elapses.
+     *
+     * @return future that is completed when the adapter confirms delivery of the message
+     */
+    public CompletableFuture<Void> publish(Message message, PublishOptions options) {
+        Validate.notNull(options, "the 'options' must not be null");
         String routingKey = message.getTopics().getRoutingKey();
-        try {
-            String jsonMessage = Utils.toJson(message, messageMapper);
-            LOG.trace("Publishing message to adapter : {}", jsonMessage);
-            rawAdapter.publish(jsonMessage, routingKey != null ? routingKey : StringUtils.EMPTY);
+        try (PooledByteArrayOutputStream out = PooledByteArrayOutputStream.acquire()) {
+            Utils.writeTo(message, out, messageCodec.getMessageMapper());
+            LOG.trace("Publishing message to adapter : {}", message);
+            return rawAdapter.publishConfirmed(out.toByteBuffer(), messageCodec.getContentType(), routingKey != null ? routingKey : StringUtils.EMPTY,
+                    withExpiration(options, message.getMeta()));
         } catch (ChannelException | JsonConversionException e) {
             LOG.error("Exception while message publish to adapter", e);
             throw e;
         }
     }
+
+    /**
+     * Releases resources of the underlying adapter, see {@link ProducerAdapter#close()}.
+     */
+    public void close() {
+        rawAdapter.close();
+    }
+
+    private static PublishOptions withExpiration(PublishOptions options, MetaMessage meta) {
+        if (options.getExpirationMs() != null || meta == null || meta.getTtl() == null || meta.getTtl() < 0) {
+            return options;
+        }
+        return options.asBuilder().withExpirationMs(meta.getTtl().longValue()).build();
+    }
 }
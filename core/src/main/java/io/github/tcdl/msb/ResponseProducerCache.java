@@ -0,0 +1,129 @@
+package io.github.tcdl.msb;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * {@link ResponseProducerCache} keeps producers of response topics. Every requester instance has its own response topic,
+ * so a long-living responder would otherwise collect a producer for every requester instance it has ever answered.
+ *
+ * The cache holds no more than the given number of producers and evicts the least recently used one to make room
+ * for a new one. Producers that haven't been used for the idle timeout are evicted as well. Idle producers
+ * are looked for when the cache is accessed, so the producers of a responder that receives no requests are kept
+ * until the next response. Evicted producers are closed.
+ */
+class ResponseProducerCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ResponseProducerCache.class);
+
+    private final int maxSize;
+    private final long idleTimeoutMs;
+    private final Clock clock;
+    private final Function<String, Producer> producerFactory;
+    private final Map<String, CachedProducer> producersByTopic = new LinkedHashMap<>(16, 0.75f, true /* access order */);
+
+    ResponseProducerCache(int maxSize, long idleTimeoutMs, Clock clock, Function<String, Producer> producerFactory) {
+        Validate.isTrue(maxSize > 0, "the 'maxSize' must be positive");
+        Validate.isTrue(idleTimeoutMs > 0, "the 'idleTimeoutMs' must be positive");
+        Validate.notNull(clock, "the 'clock' must not be null");
+        Validate.notNull(producerFactory, "the 'producerFactory' must not be null");
+
+        this.maxSize = maxSize;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.clock = clock;
+        this.producerFactory = producerFactory;
+    }
+
+    /**
+     * Producers are created outside of the lock since creation may take a round trip to the bus. If several threads
+     * create a producer for the same topic at once, all but the first one are closed.
+     *
+     * @return cached producer for the topic or a new one
+     */
+    Producer findOrCreate(String topic) {
+        Producer producer = find(topic);
+        if (producer != null) {
+            return producer;
+        }
+
+        Producer newProducer = producerFactory.apply(topic);
+        List<Producer> evicted = new ArrayList<>();
+        synchronized (producersByTopic) {
+            CachedProducer cached = producersByTopic.get(topic);
+            if (cached != null) {
+                evicted.add(newProducer);
+            } else {
+                cached = new CachedProducer(newProducer);
+                producersByTopic.put(topic, cached);
+            }
+            producer = use(cached, evicted);
+        }
+        evicted.forEach(this::close);
+        return producer;
+    }
+
+    int size() {
+        synchronized (producersByTopic) {
+            return producersByTopic.size();
+        }
+    }
+
+    private Producer find(String topic) {
+        List<Producer> evicted = new ArrayList<>();
+        Producer producer = null;
+        synchronized (producersByTopic) {
+            CachedProducer cached = producersByTopic.get(topic);
+            if (cached != null) {
+                producer = use(cached, evicted);
+            }
+        }
+        evicted.forEach(this::close);
+        return producer;
+    }
+
+    /**
+     * Marks the producer as used and evicts producers beyond the limit and idle ones. Since the map is kept
+     * in access order, both are found at its head.
+     */
+    private Producer use(CachedProducer cached, List<Producer> evicted) {
+        long now = clock.millis();
+        cached.lastUsedMs = now;
+
+        Iterator<CachedProducer> eldest = producersByTopic.values().iterator();
+        while (eldest.hasNext()) {
+            CachedProducer candidate = eldest.next();
+            if (producersByTopic.size() <= maxSize && now - candidate.lastUsedMs < idleTimeoutMs) {
+                break;
+            }
+            eldest.remove();
+            evicted.add(candidate.producer);
+        }
+        return cached.producer;
+    }
+
+    private void close(Producer producer) {
+        try {
+            producer.close();
+        } catch (RuntimeException e) {
+            LOG.warn("Failed to close response producer", e);
+        }
+    }
+
+    private static class CachedProducer {
+        final Producer producer;
+        long lastUsedMs;
+
+        CachedProducer(Producer producer) {
+            this.producer = producer;
+        }
+    }
+}
@@ -18,7 +18,7 @@ import java.util.concurrent.TimeoutException;
 /**
  * This decorator around {@link ScheduledThreadPoolExecutor} executes all pending tasks (not yet cancelled or completed) during shutdown.
  */
-public class RunOnShutdownScheduledExecutorDecorator {
+public class RunOnShutdownScheduledExecutorDecorator implements RunOnShutdownScheduler {
 
     private static final Logger LOG = LoggerFactory.getLogger(RunOnShutdownScheduledExecutorDecorator.class);
 
@@ -35,6 +35,7 @@ public class RunOnShutdownScheduledExecutorDecorator {
         scheduledThreadPoolExecutor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
     }
 
+    @Override
     public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
         CleaningRunnable decorated = new CleaningRunnable(command);
         ScheduledFuture<?> future = scheduledThreadPoolExecutor.schedule(decorated, delay, unit);
@@ -46,6 +47,7 @@ public class RunOnShutdownScheduledExecutorDecorator {
     /**
      * Executes all pending tasks (not yet cancelled or completed).
      */
+    @Override
     public synchronized void shutdown() {
         Utils.gracefulShutdown(scheduledThreadPoolExecutor, "timeout");
 
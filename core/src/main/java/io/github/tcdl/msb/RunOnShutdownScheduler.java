@@ -0,0 +1,23 @@
+package io.github.tcdl.msb;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RunOnShutdownScheduler} executes tasks after a delay. Tasks that are still pending (neither cancelled nor
+ * completed) when the scheduler is shut down are executed during shutdown instead of being discarded.
+ */
+public interface RunOnShutdownScheduler {
+
+    /**
+     * @return future that allows to cancel the task
+     * @throws RejectedExecutionException if the scheduler is shut down
+     */
+    ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit);
+
+    /**
+     * Stops accepting new tasks and executes all pending tasks (not yet cancelled or completed).
+     */
+    void shutdown();
+}
@@ -6,6 +6,9 @@ import io.github.tcdl.msb.api.exception.ChannelException;
 import io.github.tcdl.msb.api.exception.ConfigurationException;
 import io.github.tcdl.msb.config.MsbConfig;
 
+import java.util.Collection;
+import java.util.Optional;
+
 /**
  * MSBAdapterFactory interface represents a common way for creation a particular AdapterFactory
  * accordingly to MSB Configuration and associated with a proper Topic.
@@ -33,6 +36,22 @@ public interface AdapterFactory {
 
     ProducerAdapter createProducerAdapter(String topic, RequestOptions requestOptions);
 
+    /**
+     * Creates adapter to publish responses to the given response topic (or direct reply address). A responder answers
+     * many short-lived requester instances, each with its own response topic, so such adapters should be cheap
+     * and share the underlying bus resources rather than allocate them per topic. Adapters that aren't used
+     * for a while are closed with {@link ProducerAdapter#close()}.
+     *
+     * Default implementation delegates to {@link #createProducerAdapter(String, RequestOptions)} with default options.
+     *
+     * @param topic response topic name
+     * @return Producer Adapter associated with the response topic
+     * @throws ChannelException if some problems during creation were occurred
+     */
+    default ProducerAdapter createResponseProducerAdapter(String topic) {
+        return createProducerAdapter(topic, RequestOptions.DEFAULTS);
+    }
+
     /**
      * @param topic topic name
      * @param isResponseTopic specify if this topic used to handle response
@@ -48,6 +67,35 @@ public interface AdapterFactory {
      */
     ConsumerAdapter createConsumerAdapter(String topic, ResponderOptions responderOptions, boolean isResponseTopic);
 
+    /**
+     * Prepares the bus for publishing and consuming on the given topics ahead of time, for example declares
+     * their topology in one go. Default implementation does nothing.
+     *
+     * @param topics topics to prepare
+     * @throws ChannelException if the bus can't be prepared
+     */
+    default void warmUp(Collection<String> topics) {
+    }
+
+    /**
+     * Returns the topic to consume responses from if the bus is able to deliver them straight to the requester
+     * ("direct reply-to"). Requests that expect such responses are published with
+     * {@link PublishOptions#getReplyTo()} set to this topic.
+     * @return the direct reply topic or {@link Optional#empty()} if the bus doesn't support direct replies
+     */
+    default Optional<String> getDirectReplyTopic() {
+        return Optional.empty();
+    }
+
+    /**
+     * @param topic topic name
+     * @return true if the topic is a bus-specific address of a direct reply consumer (or the direct reply topic itself)
+     * rather than an MSB topic, so it's not subject to topic name validation
+     */
+    default boolean isDirectReplyTopic(String topic) {
+        return false;
+    }
+
     /**
      * @return true if custom MSB threading model should be used.
      * @return false if {@link io.github.tcdl.msb.MessageHandler} should be invoked directly.
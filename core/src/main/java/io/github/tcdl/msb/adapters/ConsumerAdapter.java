@@ -3,6 +3,7 @@ package io.github.tcdl.msb.adapters;
 import io.github.tcdl.msb.acknowledge.AcknowledgementHandlerInternal;
 import io.github.tcdl.msb.api.exception.ChannelException;
 
+import java.nio.charset.Charset;
 import java.util.Optional;
 
 /**
@@ -38,6 +39,15 @@ public interface ConsumerAdapter {
      */
     Optional<Boolean> isConnected();
 
+    /**
+     * Returns the current limit of unacknowledged messages delivered to the consumer.
+     * If the queue has not been subscribed to yet or the broker has no such limit, this will return {@link Optional#empty()}.
+     * @return the current prefetch count
+     */
+    default Optional<Integer> prefetchCount() {
+        return Optional.empty();
+    }
+
     /**
      * Callback interface for incoming message handler
      */
@@ -49,6 +59,51 @@ public interface ConsumerAdapter {
          * @param acknowledgementHandler confirm/reject message handler
          */
         void onMessage(String jsonMessage, AcknowledgementHandlerInternal acknowledgementHandler);
+
+        /**
+         * Is called once a message arrives on the topic. Adapters that receive raw bytes from the bus should prefer
+         * this method so that the message can be parsed without building an intermediate String.
+         *
+         * Default implementation decodes the body and delegates to {@link #onMessage(String, AcknowledgementHandlerInternal)}.
+         *
+         * @param body incoming JSON message as raw bytes
+         * @param charset charset the body is encoded with
+         * @param acknowledgementHandler confirm/reject message handler
+         */
+        default void onMessage(byte[] body, Charset charset, AcknowledgementHandlerInternal acknowledgementHandler) {
+            onMessage(new String(body, charset), acknowledgementHandler);
+        }
+
+        /**
+         * Is called once a message arrives on the topic. Adapters that are able to receive content type of the message
+         * should prefer this method so that the message is decoded with the codec it was encoded with.
+         *
+         * Default implementation ignores the content type and delegates to {@link #onMessage(byte[], Charset, AcknowledgementHandlerInternal)}.
+         *
+         * @param body incoming message as raw bytes
+         * @param contentType MIME type of the message, may be null
+         * @param charset charset the body is encoded with if the message is textual
+         * @param acknowledgementHandler confirm/reject message handler
+         */
+        default void onMessage(byte[] body, String contentType, Charset charset, AcknowledgementHandlerInternal acknowledgementHandler) {
+            onMessage(body, charset, acknowledgementHandler);
+        }
+
+        /**
+         * Is called once a request that expects a direct reply arrives on the topic. The reply address overrides
+         * the response topic of the message, so that responses are delivered straight to the requester.
+         *
+         * Default implementation ignores the reply address and delegates to {@link #onMessage(byte[], String, Charset, AcknowledgementHandlerInternal)}.
+         *
+         * @param body incoming message as raw bytes
+         * @param contentType MIME type of the message, may be null
+         * @param charset charset the body is encoded with if the message is textual
+         * @param replyTo bus-specific address to send responses to
+         * @param acknowledgementHandler confirm/reject message handler
+         */
+        default void onMessage(byte[] body, String contentType, Charset charset, String replyTo, AcknowledgementHandlerInternal acknowledgementHandler) {
+            onMessage(body, contentType, charset, acknowledgementHandler);
+        }
     }
     
 }
@@ -1,6 +1,11 @@
 package io.github.tcdl.msb.adapters;
 
 import io.github.tcdl.msb.api.exception.ChannelException;
+import io.github.tcdl.msb.codec.JsonMessageCodec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * {@link ProducerAdapter} allows to produce messages to message bus. One adapter instance is associated with specific topic.
@@ -24,4 +29,85 @@ public interface ProducerAdapter {
      * @param routingKey non null String of max length 255 bytes to be used for message routing
      */
     void publish(String jsonMessage, String routingKey);
+
+    /**
+     * Publishes the encoded message to the associated topic with specified routing key. Adapters should announce
+     * the content type along with the message so that consumers are able to decode it.
+     *
+     * Default implementation supports JSON messages only and delegates to {@link #publish(String, String)}.
+     *
+     * @param message encoded message to publish
+     * @param contentType MIME type of the encoded message
+     * @param routingKey non null String of max length 255 bytes to be used for message routing
+     * @throws ChannelException if the content type is not supported or some problems during publishing message to Broker were occurred
+     */
+    default void publish(byte[] message, String contentType, String routingKey) {
+        if (!JsonMessageCodec.CONTENT_TYPE.equals(contentType)) {
+            throw new ChannelException(String.format("Content type '%s' is not supported by %s", contentType, getClass().getName()));
+        }
+        publish(new String(message, StandardCharsets.UTF_8), routingKey);
+    }
+
+    /**
+     * Publishes the encoded message held in the remaining bytes of the buffer. The buffer is owned by the caller and
+     * is reused once the method returns, so adapters must neither modify nor retain it.
+     *
+     * Default implementation copies the bytes and delegates to {@link #publish(byte[], String, String)}.
+     *
+     * @param message buffer with encoded message to publish
+     * @param contentType MIME type of the encoded message
+     * @param routingKey non null String of max length 255 bytes to be used for message routing
+     * @throws ChannelException if the content type is not supported or some problems during publishing message to Broker were occurred
+     */
+    default void publish(ByteBuffer message, String contentType, String routingKey) {
+        byte[] bytes = new byte[message.remaining()];
+        message.duplicate().get(bytes);
+        publish(bytes, contentType, routingKey);
+    }
+
+    /**
+     * Publishes the encoded message the same way as {@link #publish(ByteBuffer, String, String)} does and allows
+     * to track its delivery. Adapters that support broker confirmations complete the returned future once the broker
+     * has taken responsibility for the message and complete it exceptionally if the broker rejects it.
+     *
+     * Default implementation completes the future as soon as the message is handed over to the bus.
+     *
+     * @param message buffer with encoded message to publish
+     * @param contentType MIME type of the encoded message
+     * @param routingKey non null String of max length 255 bytes to be used for message routing
+     * @return future that is completed when delivery of the message is confirmed
+     * @throws ChannelException if the content type is not supported or some problems during publishing message to Broker were occurred
+     */
+    default CompletableFuture<Void> publishConfirmed(ByteBuffer message, String contentType, String routingKey) {
+        publish(message, contentType, routingKey);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Publishes the encoded message the same way as {@link #publishConfirmed(ByteBuffer, String, String)} does
+     * and asks the bus to treat it according to the given options.
+     *
+     * Default implementation ignores the options and delegates to {@link #publishConfirmed(ByteBuffer, String, String)}.
+     *
+     * @param message buffer with encoded message to publish
+     * @param contentType MIME type of the encoded message
+     * @param routingKey non null String of max length 255 bytes to be used for message routing
+     * @param options delivery mode, priority and expiration of the message
+     * @return future that is completed when delivery of the message is confirmed
+     * @throws ChannelException if the content type is not supported or some problems during publishing message to Broker were occurred
+     */
+    default CompletableFuture<Void> publishConfirmed(ByteBuffer message, String contentType, String routingKey, PublishOptions options) {
+        return publishConfirmed(message, contentType, routingKey);
+    }
+
+    /**
+     * Releases resources held by the adapter once it's no longer used. Messages that are being published concurrently
+     * with this method may still use the adapter, so shared resources must not be released.
+     *
+     * Default implementation does nothing.
+     *
+     * @throws ChannelException if the resources can't be released
+     */
+    default void close() {
+    }
 }
@@ -0,0 +1,112 @@
+package io.github.tcdl.msb.adapters;
+
+import io.github.tcdl.msb.api.DeliveryMode;
+import io.github.tcdl.msb.api.MessageTemplate;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * {@link PublishOptions} specifies how the bus should treat a published message: whether to persist it,
+ * with which priority to deliver it, when to drop it if it's still not consumed and where to deliver replies to it.
+ */
+public final class PublishOptions {
+
+    public static final PublishOptions DEFAULTS = new Builder().build();
+
+    private final DeliveryMode deliveryMode;
+    private final Integer priority;
+    private final Long expirationMs;
+    private final String replyTo;
+
+    private PublishOptions(DeliveryMode deliveryMode, Integer priority, Long expirationMs, String replyTo) {
+        this.deliveryMode = deliveryMode;
+        this.priority = priority;
+        this.expirationMs = expirationMs;
+        this.replyTo = replyTo;
+    }
+
+    /**
+     * @return options with delivery mode and priority taken from the template. Delivery mode defaults to {@link DeliveryMode#PERSISTENT}.
+     */
+    public static PublishOptions fromTemplate(MessageTemplate messageTemplate) {
+        if (messageTemplate == null) {
+            return DEFAULTS;
+        }
+        return new Builder()
+                .withDeliveryMode(messageTemplate.getDeliveryMode() != null ? messageTemplate.getDeliveryMode() : DeliveryMode.PERSISTENT)
+                .withPriority(messageTemplate.getPriority())
+                .build();
+    }
+
+    public DeliveryMode getDeliveryMode() {
+        return deliveryMode;
+    }
+
+    /**
+     * @return priority of the message or null if it has no priority
+     */
+    public Integer getPriority() {
+        return priority;
+    }
+
+    /**
+     * @return time in milliseconds after which the bus may drop the message if it's not consumed or null if it never expires
+     */
+    public Long getExpirationMs() {
+        return expirationMs;
+    }
+
+    /**
+     * @return direct reply topic (see {@link AdapterFactory#getDirectReplyTopic()}) the replies should be delivered to
+     * or null if replies go to the response topic of the message
+     */
+    public String getReplyTo() {
+        return replyTo;
+    }
+
+    public Builder asBuilder() {
+        return new Builder()
+                .withDeliveryMode(deliveryMode)
+                .withPriority(priority)
+                .withExpirationMs(expirationMs)
+                .withReplyTo(replyTo);
+    }
+
+    @Override
+    public String toString() {
+        return "PublishOptions [deliveryMode=" + deliveryMode + ", priority=" + priority + ", expirationMs=" + expirationMs
+                + ", replyTo=" + replyTo + "]";
+    }
+
+    public static class Builder {
+
+        private DeliveryMode deliveryMode = DeliveryMode.PERSISTENT;
+        private Integer priority;
+        private Long expirationMs;
+        private String replyTo;
+
+        public Builder withDeliveryMode(DeliveryMode deliveryMode) {
+            Validate.notNull(deliveryMode, "the 'deliveryMode' must not be null");
+            this.deliveryMode = deliveryMode;
+            return this;
+        }
+
+        public Builder withPriority(Integer priority) {
+            this.priority = priority;
+            return this;
+        }
+
+        public Builder withExpirationMs(Long expirationMs) {
+            this.expirationMs = expirationMs;
+            return this;
+        }
+
+        public Builder withReplyTo(String replyTo) {
+            this.replyTo = replyTo;
+            return this;
+        }
+
+        public PublishOptions build() {
+            return new PublishOptions(deliveryMode, priority, expirationMs, replyTo);
+        }
+    }
+}
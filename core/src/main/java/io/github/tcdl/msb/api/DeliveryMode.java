@@ -0,0 +1,17 @@
+package io.github.tcdl.msb.api;
+
+/**
+ * Specifies whether the broker keeps a message on disk until it is consumed.
+ */
+public enum DeliveryMode {
+
+    /**
+     * The message survives broker restarts if it's routed to a durable queue
+     */
+    PERSISTENT,
+
+    /**
+     * The message is kept in memory only. Is cheaper for messages that are worthless after a restart, e.g. responses.
+     */
+    TRANSIENT
+}
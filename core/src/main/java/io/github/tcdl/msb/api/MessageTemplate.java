@@ -1,6 +1,7 @@
 package io.github.tcdl.msb.api;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -13,6 +14,8 @@ public class MessageTemplate {
 
     private Integer ttl;
     private List<String> tags;
+    private DeliveryMode deliveryMode;
+    private Integer priority;
 
     public MessageTemplate() {
         tags = new ArrayList<>();
@@ -27,6 +30,8 @@ public class MessageTemplate {
         this();
         if (copyFrom != null) {
             this.ttl = copyFrom.getTtl();
+            this.deliveryMode = copyFrom.getDeliveryMode();
+            this.priority = copyFrom.getPriority();
             tags.addAll(copyFrom.getTags());
         }
     }
@@ -52,6 +57,39 @@ public class MessageTemplate {
         return this;
     }
 
+    /**
+     * @return delivery mode of the message or null if the default one ({@link DeliveryMode#PERSISTENT} for requests) is used
+     */
+    public DeliveryMode getDeliveryMode() {
+        return deliveryMode;
+    }
+
+    /**
+     * @param deliveryMode whether the broker keeps the message on disk. Responses and acks are always transient.
+     */
+    public MessageTemplate withDeliveryMode(DeliveryMode deliveryMode) {
+        this.deliveryMode = deliveryMode;
+        return this;
+    }
+
+    /**
+     * @return priority of the message or null if the message has no priority
+     */
+    public Integer getPriority() {
+        return priority;
+    }
+
+    /**
+     * @param priority priority of the message from 0 to 255. Takes effect for queues that support priorities only.
+     */
+    public MessageTemplate withPriority(Integer priority) {
+        if (priority != null) {
+            Validate.inclusiveBetween(0, 255, priority.intValue(), "the 'priority' must be between 0 and 255");
+        }
+        this.priority = priority;
+        return this;
+    }
+
     /**
      * @return tags of the message
      */
@@ -88,6 +126,7 @@ public class MessageTemplate {
 
     @Override
     public String toString() {
-        return "MessageTemplate [ttl=" + ttl + ", tags=" + StringUtils.join(tags, ",") + "]";
+        return "MessageTemplate [ttl=" + ttl + ", tags=" + StringUtils.join(tags, ",")
+                + ", deliveryMode=" + deliveryMode + ", priority=" + priority + "]";
     }
 }
@@ -10,6 +10,19 @@ public interface MsbContext {
     */
     ObjectFactory getObjectFactory();
 
+    /**
+     * Prepares the context for sending requests to the given namespaces, so that the first requests don't have to
+     * wait for that: declares the topology on the bus, creates producers for the namespaces and starts consuming
+     * responses to them. Producers are created with default {@link RequestOptions}.
+     *
+     * The default implementation does nothing.
+     *
+     * @param namespaces namespaces to send requests to
+     * @throws io.github.tcdl.msb.api.exception.ChannelException if some problems with the bus were occurred
+     */
+    default void warmUp(String... namespaces) {
+    }
+
     /**
      * Gracefully shuts down the current context.
      * This methods is not guaranteed to be THREAD-SAFE and is not intended to be executed in parallel from different threads.
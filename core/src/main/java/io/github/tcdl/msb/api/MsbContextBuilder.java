@@ -1,10 +1,6 @@
 package io.github.tcdl.msb.api;
 
-import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JSR310Module;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
 import io.github.tcdl.msb.ChannelManager;
@@ -12,9 +8,12 @@ import io.github.tcdl.msb.adapters.AdapterFactory;
 import io.github.tcdl.msb.adapters.AdapterFactoryLoader;
 import io.github.tcdl.msb.api.exception.MsbException;
 import io.github.tcdl.msb.callback.MutableCallbackHandler;
+import io.github.tcdl.msb.codec.JacksonMessageCodec;
+import io.github.tcdl.msb.codec.MessageCodecs;
 import io.github.tcdl.msb.collector.CollectorManagerFactory;
 import io.github.tcdl.msb.collector.TimeoutManager;
 import io.github.tcdl.msb.config.MsbConfig;
+import io.github.tcdl.msb.config.TimerType;
 import io.github.tcdl.msb.impl.MsbContextImpl;
 import io.github.tcdl.msb.impl.ObjectFactoryImpl;
 import io.github.tcdl.msb.message.MessageFactory;
@@ -112,13 +111,17 @@ public class MsbContextBuilder {
             msbConfig = new MsbConfig(config);
         }
         ObjectMapper messageEnvelopeMapper = createMessageEnvelopeMapper();
+        MessageCodecs messageCodecs = new MessageCodecs(MessageCodecs.createCodec(msbConfig.getMessageCodec(), messageEnvelopeMapper),
+                messageEnvelopeMapper);
 
         AdapterFactory adapterFactory = new AdapterFactoryLoader(msbConfig).getAdapterFactory();
         MessageHandlerInvoker messageHandlerInvoker = createMessageHandlerInvoker(adapterFactory, msbConfig);
-        ChannelManager channelManager = new ChannelManager(msbConfig, clock, validator, messageEnvelopeMapper, adapterFactory, messageHandlerInvoker);
+        ChannelManager channelManager = new ChannelManager(msbConfig, clock, validator, messageCodecs, adapterFactory, messageHandlerInvoker);
         MessageFactory messageFactory = new MessageFactory(msbConfig.getServiceDetails(), clock, payloadMapper);
-        TimeoutManager timeoutManager = new TimeoutManager(msbConfig.getTimerThreadPoolSize());
-        CollectorManagerFactory collectorManagerFactory = new CollectorManagerFactory(channelManager);
+        TimeoutManager timeoutManager = msbConfig.getTimerType() == TimerType.WHEEL
+                ? new TimeoutManager(msbConfig.getTimerThreadPoolSize(), msbConfig.getTimerTickDuration(), msbConfig.getTimerTicksPerWheel())
+                : new TimeoutManager(msbConfig.getTimerThreadPoolSize());
+        CollectorManagerFactory collectorManagerFactory = new CollectorManagerFactory(channelManager, msbConfig.getCorrelationIndexShards());
 
         MsbContextImpl msbContext = new MsbContextImpl(msbConfig, messageFactory, channelManager,
                 clock, timeoutManager,
@@ -165,10 +168,6 @@ public class MsbContextBuilder {
      * @return creates an instance of "default" object mapper that is used to parse message envelope (without payload)
      */
     public ObjectMapper createMessageEnvelopeMapper() {
-        return new ObjectMapper()
-                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
-                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
-                .setSerializationInclusion(JsonInclude.Include.NON_NULL)
-                .registerModule(new JSR310Module());
+        return JacksonMessageCodec.configureEnvelopeMapper(new ObjectMapper());
     }
 }
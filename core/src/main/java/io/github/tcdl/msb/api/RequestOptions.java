@@ -1,6 +1,7 @@
 package io.github.tcdl.msb.api;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
 
 /**
  * Specifies waiting policy (for acknowledgements and responses) for requests sent using {@link Requester}.
@@ -39,13 +40,36 @@ public class RequestOptions {
 
     private final String routingKey;
 
+    /**
+     * Whether responses should be delivered straight to the requester's channel (if the bus supports that)
+     * instead of the response topic of the microservice instance.
+     */
+    private final boolean directReplyTo;
+
+    /**
+     * Which of the received responses and acknowledgements are kept until the request ends.
+     */
+    private final ResponseRetention responseRetention;
+
     protected RequestOptions(Integer ackTimeout, Integer responseTimeout, Integer waitForResponses, MessageTemplate messageTemplate, String forwardNamespace, String routingKey) {
+        this(ackTimeout, responseTimeout, waitForResponses, messageTemplate, forwardNamespace, routingKey, false);
+    }
+
+    protected RequestOptions(Integer ackTimeout, Integer responseTimeout, Integer waitForResponses, MessageTemplate messageTemplate, String forwardNamespace,
+            String routingKey, boolean directReplyTo) {
+        this(ackTimeout, responseTimeout, waitForResponses, messageTemplate, forwardNamespace, routingKey, directReplyTo, ResponseRetention.NONE);
+    }
+
+    protected RequestOptions(Integer ackTimeout, Integer responseTimeout, Integer waitForResponses, MessageTemplate messageTemplate, String forwardNamespace,
+            String routingKey, boolean directReplyTo, ResponseRetention responseRetention) {
         this.ackTimeout = ackTimeout;
         this.responseTimeout = responseTimeout;
         this.waitForResponses = waitForResponses;
         this.messageTemplate = messageTemplate;
         this.forwardNamespace = forwardNamespace;
         this.routingKey = routingKey;
+        this.directReplyTo = directReplyTo;
+        this.responseRetention = responseRetention != null ? responseRetention : ResponseRetention.NONE;
     }
 
     public Integer getAckTimeout() {
@@ -77,6 +101,14 @@ public class RequestOptions {
         return routingKey;
     }
 
+    public boolean isDirectReplyTo() {
+        return directReplyTo;
+    }
+
+    public ResponseRetention getResponseRetention() {
+        return responseRetention;
+    }
+
     public Builder asBuilder() {
         return new RequestOptions.Builder().from(this);
     }
@@ -87,6 +119,8 @@ public class RequestOptions {
                 + ", responseTimeout=" + responseTimeout
                 + ", waitForResponses=" + waitForResponses
                 + ", forwardNamespace=" + forwardNamespace
+                + (directReplyTo ? ", directReplyTo=true" : "")
+                + (responseRetention != ResponseRetention.NONE ? ", responseRetention=" + responseRetention : "")
                 + (messageTemplate != null ? messageTemplate : "")
                 + "]";
     }
@@ -99,6 +133,8 @@ public class RequestOptions {
         protected Integer waitForResponses;
         protected MessageTemplate messageTemplate;
         protected String forwardNamespace;
+        protected boolean directReplyTo;
+        protected ResponseRetention responseRetention = ResponseRetention.NONE;
 
         public Builder withRoutingKey(String routingKey) {
             this.routingKey = routingKey;
@@ -130,6 +166,26 @@ public class RequestOptions {
             return this;
         }
 
+        /**
+         * Requests the bus to deliver responses and acknowledgements straight to the channel the request was published on
+         * (RabbitMQ "direct reply-to"), so that no response queue is involved. Is ignored if the bus doesn't support that,
+         * for requests that don't wait for responses and for forwarded requests.
+         */
+        public Builder withDirectReplyTo(boolean directReplyTo) {
+            this.directReplyTo = directReplyTo;
+            return this;
+        }
+
+        /**
+         * Specifies which of the received responses and acknowledgements are kept until the request ends.
+         * Defaults to {@link ResponseRetention#NONE}, since callbacks get every message as soon as it arrives.
+         */
+        public Builder withResponseRetention(ResponseRetention responseRetention) {
+            Validate.notNull(responseRetention, "the 'responseRetention' must not be null");
+            this.responseRetention = responseRetention;
+            return this;
+        }
+
         /**
          * Convenience method to prepare Builder with properties equal to {@literal source} properties.
          * Is useful for cases when almost same RequestOptions except one or two properties are needed.
@@ -141,12 +197,14 @@ public class RequestOptions {
             this.messageTemplate = source.messageTemplate;
             this.forwardNamespace = source.forwardNamespace;
             this.routingKey = source.routingKey;
+            this.directReplyTo = source.directReplyTo;
+            this.responseRetention = source.responseRetention;
             return this;
         }
 
         public RequestOptions build() {
             return new RequestOptions(ackTimeout, responseTimeout, waitForResponses, messageTemplate, forwardNamespace,
-                    routingKey != null ? routingKey : StringUtils.EMPTY);
+                    routingKey != null ? routingKey : StringUtils.EMPTY, directReplyTo, responseRetention);
         }
     }
 }
@@ -15,13 +15,25 @@ public class ResponderOptions {
     private final Set<String> bindingKeys;
     private final MessageTemplate messageTemplate;
 
+    /**
+     * Number of consumers that receive messages from the subscribed queue in parallel.
+     */
+    private final Integer consumerCount;
+
     public static final ResponderOptions DEFAULTS = new Builder().build();
 
     protected ResponderOptions(Set<String> bindingKeys,
                                MessageTemplate messageTemplate) {
+        this(bindingKeys, messageTemplate, null);
+    }
+
+    protected ResponderOptions(Set<String> bindingKeys,
+                               MessageTemplate messageTemplate,
+                               Integer consumerCount) {
 
         this.bindingKeys = Collections.unmodifiableSet(bindingKeys);
         this.messageTemplate = messageTemplate;
+        this.consumerCount = consumerCount;
     }
 
     @Nonnull
@@ -33,10 +45,18 @@ public class ResponderOptions {
         return messageTemplate;
     }
 
+    /**
+     * @return number of parallel consumers or null to use the default of the bus adapter
+     */
+    public Integer getConsumerCount() {
+        return consumerCount;
+    }
+
     public static class Builder {
 
         protected Set<String> bindingKeys;
         protected MessageTemplate messageTemplate;
+        protected Integer consumerCount;
 
         /**
          * Each invocation REPLACES the old set of binding keys. Last one wins.
@@ -51,10 +71,22 @@ public class ResponderOptions {
             return this;
         }
 
+        /**
+         * Sets the number of consumers that receive messages from the subscribed queue in parallel. Each consumer
+         * decodes its messages on its own thread before they are passed to the handler executor,
+         * so more consumers help if decoding of incoming messages can't keep up with the traffic.
+         */
+        public Builder withConsumerCount(int consumerCount) {
+            Validate.isTrue(consumerCount > 0, "the 'consumerCount' must be positive");
+            this.consumerCount = consumerCount;
+            return this;
+        }
+
         public ResponderOptions build() {
             return new ResponderOptions(
                     bindingKeys == null ? Collections.singleton(Strings.EMPTY) : bindingKeys,
-                    messageTemplate == null ? new MessageTemplate() : messageTemplate);
+                    messageTemplate == null ? new MessageTemplate() : messageTemplate,
+                    consumerCount);
         }
     }
 }
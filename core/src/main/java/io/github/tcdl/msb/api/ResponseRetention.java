@@ -0,0 +1,89 @@
+package io.github.tcdl.msb.api;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Specifies which of the received responses and acknowledgements a request keeps until it ends.
+ *
+ * Responses are passed to the callbacks as soon as they arrive regardless of the retention, so retaining them is only
+ * useful for inspection and costs heap for as long as the request waits for responses.
+ */
+public final class ResponseRetention {
+
+    public enum Type {
+        /**
+         * Nothing is retained.
+         */
+        NONE,
+
+        /**
+         * Only ids of the messages are retained.
+         */
+        IDS_ONLY,
+
+        /**
+         * The given number of the latest responses and the latest acknowledgements are retained.
+         */
+        LAST,
+
+        /**
+         * All messages are retained.
+         */
+        ALL
+    }
+
+    public static final ResponseRetention NONE = new ResponseRetention(Type.NONE, 0);
+
+    public static final ResponseRetention IDS_ONLY = new ResponseRetention(Type.IDS_ONLY, 0);
+
+    public static final ResponseRetention ALL = new ResponseRetention(Type.ALL, 0);
+
+    private final Type type;
+    private final int count;
+
+    private ResponseRetention(Type type, int count) {
+        this.type = type;
+        this.count = count;
+    }
+
+    /**
+     * @param count number of the latest responses (and the same number of the latest acknowledgements) to retain
+     */
+    public static ResponseRetention last(int count) {
+        Validate.isTrue(count > 0, "the 'count' must be positive");
+        return new ResponseRetention(Type.LAST, count);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return number of messages of each kind to retain for {@link Type#LAST}, 0 otherwise
+     */
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ResponseRetention that = (ResponseRetention) o;
+        return type == that.type && count == that.count;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * type.hashCode() + count;
+    }
+
+    @Override
+    public String toString() {
+        return type == Type.LAST ? type + "(" + count + ")" : type.toString();
+    }
+}
@@ -5,6 +5,10 @@ package io.github.tcdl.msb.api.exception;
  */
 public class ChannelException extends MsbException {
 
+    public ChannelException(String message) {
+        super(message);
+    }
+
     public ChannelException(String message, Throwable cause) {
         super(message, cause);
     }
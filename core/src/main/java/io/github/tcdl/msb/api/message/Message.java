@@ -1,6 +1,7 @@
 package io.github.tcdl.msb.api.message;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -15,7 +16,8 @@ import static com.fasterxml.jackson.annotation.JsonInclude.Include.ALWAYS;
  * {@link Message} represents a message coming from/to bus. It contains the following information:
  * 1. Protocol information used internally
  * 2. Acknowledgement information
- * 3. "Raw" payload that can be converted to a high-level object at the following processing stages
+ * 3. "Raw" payload that can be converted to a high-level object at the following processing stages. The payload of an
+ * incoming message is kept unparsed until it is actually needed (see {@link MessagePayload}).
  */
 public final class Message {
 
@@ -30,11 +32,11 @@ public final class Message {
     private final MetaMessage meta; // To be filled with createMeta() ->completeMeta() sequence
     private final Acknowledge ack; // To be filled on ack or response
     @JsonProperty("payload")
-    private final JsonNode rawPayload;
+    private final MessagePayload payload;
 
     @JsonCreator
     private Message(@JsonProperty("id") String id, @JsonProperty("correlationId") String correlationId, @JsonProperty("tags") List<String> tags,
-            @JsonProperty("topics") Topics topics, @JsonProperty("meta") MetaMessage meta, @JsonProperty("ack") Acknowledge ack, @JsonProperty("payload") JsonNode rawPayload) {
+            @JsonProperty("topics") Topics topics, @JsonProperty("meta") MetaMessage meta, @JsonProperty("ack") Acknowledge ack, @JsonProperty("payload") MessagePayload payload) {
         Validate.notNull(id, "the 'id' must not be null");
         Validate.notNull(correlationId, "the 'correlationId' must not be null");
         Validate.notNull(topics, "the 'topics' must not be null");
@@ -45,7 +47,7 @@ public final class Message {
         this.topics = topics;
         this.meta = meta;
         this.ack = ack;
-        this.rawPayload = rawPayload;
+        this.payload = payload;
     }
 
     public static class Builder {
@@ -56,7 +58,7 @@ public final class Message {
         private Topics topics;
         private MetaMessage.Builder metaBuilder;
         private Acknowledge ack;
-        private JsonNode rawPayload;
+        private MessagePayload payload;
 
         public Builder withId(String id) {
             this.id = id;
@@ -89,15 +91,27 @@ public final class Message {
         }
 
         public Builder withPayload(JsonNode rawPayload) {
-            this.rawPayload = rawPayload;
+            this.payload = rawPayload != null ? MessagePayload.of(rawPayload) : null;
+            return this;
+        }
+
+        public Builder withMessagePayload(MessagePayload payload) {
+            this.payload = payload;
             return this;
         }
 
         public Message build() {
-            return new Message(id, correlationId, tags, topics, metaBuilder.build(), ack, rawPayload);
+            return new Message(id, correlationId, tags, topics, metaBuilder.build(), ack, payload);
         }
     }
 
+    /**
+     * @return copy of the message with the given topics
+     */
+    public Message withTopics(Topics topics) {
+        return new Message(id, correlationId, tags, topics, meta, ack, payload);
+    }
+
     public String getId() {
         return id;
     }
@@ -122,13 +136,21 @@ public final class Message {
         return ack;
     }
 
+    /**
+     * @return payload as a JSON tree. The tree is built on demand if the message was received from the bus.
+     */
+    @JsonIgnore
     public JsonNode getRawPayload() {
-        return rawPayload;
+        return payload != null ? payload.getRawPayload() : null;
+    }
+
+    public MessagePayload getPayload() {
+        return payload;
     }
 
     @Override
     public String toString() {
         return String.format("Message [id=%s, topics=%s, meta=%s, ack=%s, rawPayload=%s, correlationId=%s, tags=[%s]]",
-                id, topics, meta, ack, rawPayload, correlationId, StringUtils.join(tags, ","));
+                id, topics, meta, ack, payload, correlationId, StringUtils.join(tags, ","));
     }
 }
@@ -0,0 +1,333 @@
+package io.github.tcdl.msb.api.message;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import io.github.tcdl.msb.api.exception.JsonConversionException;
+import io.github.tcdl.msb.api.message.payload.RawJsonPayload;
+import io.github.tcdl.msb.support.Utils;
+import org.apache.commons.lang3.Validate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link MessagePayload} holds a payload of a {@link Message}.
+ *
+ * Payload of an incoming message is not parsed into a JSON tree during envelope deserialization. Instead the holder
+ * keeps a reference to the payload bytes of the original message (or a buffer of its tokens if the message was not parsed
+ * from bytes) and binds it directly to the requested type only when {@link #bind(TypeReference, ObjectMapper)} is called.
+ * The JSON tree is built on demand by {@link #getRawPayload()}.
+ *
+ * Payload of an outgoing message keeps the original object which is serialized straight into the message envelope
+ * when the message is published (see {@link #ofValue(Object, ObjectMapper)}).
+ */
+@JsonSerialize(using = MessagePayload.Serializer.class)
+@JsonDeserialize(using = MessagePayload.Deserializer.class)
+public abstract class MessagePayload {
+
+    private volatile JsonNode rawPayload;
+
+    MessagePayload() {
+    }
+
+    MessagePayload(JsonNode rawPayload) {
+        this.rawPayload = rawPayload;
+    }
+
+    /**
+     * @return payload holder for the given JSON tree
+     */
+    public static MessagePayload of(JsonNode rawPayload) {
+        Validate.notNull(rawPayload, "the 'rawPayload' must not be null");
+        return new TreePayload(rawPayload);
+    }
+
+    /**
+     * @param value payload object. JSON trees are wrapped as is. {@link MessagePayload} of another message
+     * and {@link RawJsonPayload} are spliced into the message verbatim if the message is written as JSON.
+     * @param payloadMapper object mapper configured for payload serialization
+     * @return payload holder that serializes the given object directly when the message is written
+     */
+    public static MessagePayload ofValue(Object value, ObjectMapper payloadMapper) {
+        Validate.notNull(value, "the 'value' must not be null");
+        Validate.notNull(payloadMapper, "the 'payloadMapper' must not be null");
+        if (value instanceof MessagePayload) {
+            return (MessagePayload) value;
+        }
+        if (value instanceof JsonNode) {
+            return of((JsonNode) value);
+        }
+        if (value instanceof RawJsonPayload) {
+            byte[] json = ((RawJsonPayload) value).getBytes();
+            return new ByteSpanPayload(json, 0, json.length, payloadMapper);
+        }
+        return new ObjectPayload(value, payloadMapper);
+    }
+
+    /**
+     * @return payload as a JSON tree. The tree is built on the first invocation and reused afterwards.
+     * @throws JsonConversionException if the payload can't be parsed
+     */
+    public JsonNode getRawPayload() {
+        JsonNode result = rawPayload;
+        if (result == null) {
+            try {
+                result = readTree();
+            } catch (IOException e) {
+                throw new JsonConversionException("Failed parse from JSON", e);
+            }
+            rawPayload = result;
+        }
+        return result;
+    }
+
+    /**
+     * Binds the payload to the given type.
+     *
+     * @param typeReference type to bind the payload to
+     * @param payloadMapper object mapper configured for payload deserialization
+     * @throws JsonConversionException if the payload can't be bound to the given type
+     */
+    public <T> T bind(TypeReference<T> typeReference, ObjectMapper payloadMapper) {
+        JsonNode tree = rawPayload;
+        if (tree != null) {
+            return Utils.convert(tree, typeReference, payloadMapper);
+        }
+        try {
+            return doBind(typeReference, payloadMapper);
+        } catch (IOException e) {
+            throw new JsonConversionException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return false if payload is JSON null
+     */
+    public boolean isPresent() {
+        return true;
+    }
+
+    abstract JsonNode readTree() throws IOException;
+
+    abstract <T> T doBind(TypeReference<T> typeReference, ObjectMapper payloadMapper) throws IOException;
+
+    abstract void writeTo(JsonGenerator generator, SerializerProvider provider) throws IOException;
+
+    /**
+     * Payload that is already represented as a JSON tree.
+     */
+    static final class TreePayload extends MessagePayload {
+
+        TreePayload(JsonNode rawPayload) {
+            super(rawPayload);
+        }
+
+        @Override
+        public boolean isPresent() {
+            return !(getRawPayload() instanceof NullNode);
+        }
+
+        @Override
+        JsonNode readTree() {
+            throw new IllegalStateException("Tree is always available");
+        }
+
+        @Override
+        <T> T doBind(TypeReference<T> typeReference, ObjectMapper payloadMapper) {
+            throw new IllegalStateException("Tree is always available");
+        }
+
+        @Override
+        void writeTo(JsonGenerator generator, SerializerProvider provider) throws IOException {
+            getRawPayload().serialize(generator, provider);
+        }
+
+        @Override
+        public String toString() {
+            return getRawPayload().toString();
+        }
+    }
+
+    /**
+     * Payload of an outgoing message that holds the original object.
+     */
+    static final class ObjectPayload extends MessagePayload {
+
+        private final Object value;
+        private final ObjectMapper payloadMapper;
+
+        ObjectPayload(Object value, ObjectMapper payloadMapper) {
+            this.value = value;
+            this.payloadMapper = payloadMapper;
+        }
+
+        Object getValue() {
+            return value;
+        }
+
+        @Override
+        JsonNode readTree() {
+            JsonNode tree = Utils.convert(value, JsonNode.class, payloadMapper);
+            return tree != null ? tree : NullNode.getInstance();
+        }
+
+        @Override
+        <T> T doBind(TypeReference<T> typeReference, ObjectMapper payloadMapper) {
+            return Utils.convert(value, typeReference, payloadMapper);
+        }
+
+        @Override
+        void writeTo(JsonGenerator generator, SerializerProvider provider) throws IOException {
+            payloadMapper.writeValue(generator, value);
+        }
+
+        @Override
+        public String toString() {
+            return getRawPayload().toString();
+        }
+    }
+
+    /**
+     * Payload that refers to a span of UTF-8 encoded JSON bytes, usually of the original message.
+     * The span is written back verbatim when the message is serialized to JSON.
+     */
+    static final class ByteSpanPayload extends MessagePayload {
+
+        private final byte[] source;
+        private final int offset;
+        private final int length;
+        private final ObjectCodec codec;
+
+        ByteSpanPayload(byte[] source, int offset, int length, ObjectCodec codec) {
+            this.source = source;
+            this.offset = offset;
+            this.length = length;
+            this.codec = codec;
+        }
+
+        @Override
+        JsonNode readTree() throws IOException {
+            try (JsonParser parser = codec.getFactory().createParser(source, offset, length)) {
+                return codec.readTree(parser);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        <T> T doBind(TypeReference<T> typeReference, ObjectMapper payloadMapper) throws IOException {
+            if (typeReference.getType() == RawJsonPayload.class) {
+                return (T) RawJsonPayload.of(source, offset, length);
+            }
+            return payloadMapper.readValue(source, offset, length, typeReference);
+        }
+
+        @Override
+        void writeTo(JsonGenerator generator, SerializerProvider provider) throws IOException {
+            RawJsonPayload.write(generator, source, offset, length);
+        }
+
+        @Override
+        public String toString() {
+            return new String(source, offset, length, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Payload that keeps tokens of the original message. Used when the message was not parsed from a byte array.
+     */
+    static final class TokenBufferPayload extends MessagePayload {
+
+        private final TokenBuffer tokens;
+        private final ObjectCodec codec;
+
+        TokenBufferPayload(TokenBuffer tokens, ObjectCodec codec) {
+            this.tokens = tokens;
+            this.codec = codec;
+        }
+
+        @Override
+        JsonNode readTree() throws IOException {
+            try (JsonParser parser = tokens.asParser(codec)) {
+                return codec.readTree(parser);
+            }
+        }
+
+        @Override
+        <T> T doBind(TypeReference<T> typeReference, ObjectMapper payloadMapper) throws IOException {
+            try (JsonParser parser = tokens.asParser(payloadMapper)) {
+                return payloadMapper.readValue(parser, typeReference);
+            }
+        }
+
+        @Override
+        void writeTo(JsonGenerator generator, SerializerProvider provider) throws IOException {
+            tokens.serialize(generator);
+        }
+
+        @Override
+        public String toString() {
+            return getRawPayload().toString();
+        }
+    }
+
+    static class Serializer extends JsonSerializer<MessagePayload> {
+
+        @Override
+        public void serialize(MessagePayload value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            value.writeTo(generator, provider);
+        }
+    }
+
+    static class Deserializer extends JsonDeserializer<MessagePayload> {
+
+        @Override
+        public MessagePayload deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            JsonToken token = parser.getCurrentToken();
+
+            if (token.isScalarValue()) {
+                // nothing to gain by deferring scalars
+                return new TreePayload(parser.readValueAsTree());
+            }
+
+            JsonLocation start = parser.getTokenLocation();
+            if (isJson(parser) && start.getSourceRef() instanceof byte[] && start.getByteOffset() >= 0) {
+                // the message is parsed from UTF-8 bytes so it is enough to remember where the payload starts and ends
+                parser.skipChildren();
+                long end = parser.getCurrentLocation().getByteOffset();
+                if (end > start.getByteOffset()) {
+                    return new ByteSpanPayload((byte[]) start.getSourceRef(), (int) start.getByteOffset(),
+                            (int) (end - start.getByteOffset()), parser.getCodec());
+                }
+                throw context.mappingException("Unable to determine payload boundaries");
+            }
+
+            TokenBuffer tokens = new TokenBuffer(parser, context);
+            tokens.copyCurrentStructure(parser);
+            return new TokenBufferPayload(tokens, parser.getCodec());
+        }
+
+        /**
+         * Only JSON text can be re-parsed from the middle of the message. Binary formats may refer to names and values
+         * seen earlier in the message.
+         */
+        private static boolean isJson(JsonParser parser) {
+            ObjectCodec codec = parser.getCodec();
+            return codec != null && JsonFactory.FORMAT_NAME_JSON.equals(codec.getFactory().getFormatName());
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package io.github.tcdl.msb.api.message.payload;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.apache.commons.lang3.Validate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Payload that is already serialized to JSON. It is written into the outgoing message verbatim, without being parsed,
+ * which makes it suitable for services that relay payloads of incoming messages.
+ *
+ * The content is not validated, so it's up to the caller to provide a well-formed JSON value.
+ * Binding an incoming payload to this class captures its JSON representation.
+ */
+@JsonSerialize(using = RawJsonPayload.Serializer.class)
+@JsonDeserialize(using = RawJsonPayload.Deserializer.class)
+public final class RawJsonPayload {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final byte[] json;
+
+    private RawJsonPayload(byte[] json) {
+        this.json = json;
+    }
+
+    /**
+     * @param json UTF-8 encoded JSON value. The array must not be modified afterwards.
+     */
+    public static RawJsonPayload of(byte[] json) {
+        Validate.notNull(json, "the 'json' must not be null");
+        return new RawJsonPayload(json);
+    }
+
+    /**
+     * @param json UTF-8 encoded JSON value that occupies the given part of the array. The part is copied.
+     */
+    public static RawJsonPayload of(byte[] json, int offset, int length) {
+        Validate.notNull(json, "the 'json' must not be null");
+        return new RawJsonPayload(Arrays.copyOfRange(json, offset, offset + length));
+    }
+
+    public static RawJsonPayload of(String json) {
+        Validate.notNull(json, "the 'json' must not be null");
+        return new RawJsonPayload(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return UTF-8 encoded JSON value. The array must not be modified.
+     */
+    public byte[] getBytes() {
+        return json;
+    }
+
+    /**
+     * Writes UTF-8 encoded JSON value to the generator. The bytes are copied as is if the generator produces JSON text,
+     * otherwise the value is parsed and re-encoded in the generator's format.
+     */
+    public static void write(JsonGenerator generator, byte[] json, int offset, int length) throws IOException {
+        if (writesJsonText(generator)) {
+            generator.writeRawValue(new Utf8Value(json, offset, length));
+        } else {
+            try (JsonParser parser = JSON_FACTORY.createParser(json, offset, length)) {
+                parser.nextToken();
+                generator.copyCurrentStructure(parser);
+            }
+        }
+    }
+
+    /**
+     * Generators that write JSON text have a JSON codec and an output to write to. Token buffers that
+     * {@link com.fasterxml.jackson.databind.ObjectMapper} converts values with have no output, so they get parsed values.
+     */
+    private static boolean writesJsonText(JsonGenerator generator) {
+        ObjectCodec codec = generator.getCodec();
+        return codec != null && JsonFactory.FORMAT_NAME_JSON.equals(codec.getFactory().getFormatName())
+                && generator.getOutputTarget() != null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return Arrays.equals(json, ((RawJsonPayload) o).json);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(json);
+    }
+
+    @Override
+    public String toString() {
+        return new String(json, StandardCharsets.UTF_8);
+    }
+
+    static class Serializer extends JsonSerializer<RawJsonPayload> {
+
+        @Override
+        public void serialize(RawJsonPayload value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            write(generator, value.json, 0, value.json.length);
+        }
+    }
+
+    static class Deserializer extends JsonDeserializer<RawJsonPayload> {
+
+        @Override
+        public RawJsonPayload deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            ByteArrayBuilder out = new ByteArrayBuilder();
+            try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+                generator.copyCurrentStructure(parser);
+            }
+            return new RawJsonPayload(out.toByteArray());
+        }
+    }
+
+    /**
+     * Part of a byte array that can be written by JSON generators as a raw value. The unquoted representation is
+     * the bytes themselves, the quoted one is computed on demand like for any other string.
+     */
+    static final class Utf8Value implements SerializableString {
+
+        private final byte[] bytes;
+        private final int offset;
+        private final int length;
+        private SerializedString quoted;
+
+        Utf8Value(byte[] bytes, int offset, int length) {
+            this.bytes = bytes;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public String getValue() {
+            return new String(bytes, offset, length, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public int charLength() {
+            return getValue().length();
+        }
+
+        @Override
+        public byte[] asUnquotedUTF8() {
+            return offset == 0 && length == bytes.length ? bytes : Arrays.copyOfRange(bytes, offset, offset + length);
+        }
+
+        @Override
+        public int appendUnquotedUTF8(byte[] buffer, int offset) {
+            if (offset + length > buffer.length) {
+                return -1;
+            }
+            System.arraycopy(bytes, this.offset, buffer, offset, length);
+            return length;
+        }
+
+        @Override
+        public int appendUnquoted(char[] buffer, int offset) {
+            String value = getValue();
+            if (offset + value.length() > buffer.length) {
+                return -1;
+            }
+            value.getChars(0, value.length(), buffer, offset);
+            return value.length();
+        }
+
+        @Override
+        public int writeUnquotedUTF8(OutputStream out) throws IOException {
+            out.write(bytes, offset, length);
+            return length;
+        }
+
+        @Override
+        public int putUnquotedUTF8(ByteBuffer buffer) {
+            if (length > buffer.remaining()) {
+                return -1;
+            }
+            buffer.put(bytes, offset, length);
+            return length;
+        }
+
+        @Override
+        public char[] asQuotedChars() {
+            return quoted().asQuotedChars();
+        }
+
+        @Override
+        public byte[] asQuotedUTF8() {
+            return quoted().asQuotedUTF8();
+        }
+
+        @Override
+        public int appendQuotedUTF8(byte[] buffer, int offset) {
+            return quoted().appendQuotedUTF8(buffer, offset);
+        }
+
+        @Override
+        public int appendQuoted(char[] buffer, int offset) {
+            return quoted().appendQuoted(buffer, offset);
+        }
+
+        @Override
+        public int writeQuotedUTF8(OutputStream out) throws IOException {
+            return quoted().writeQuotedUTF8(out);
+        }
+
+        @Override
+        public int putQuotedUTF8(ByteBuffer buffer) {
+            return quoted().putQuotedUTF8(buffer);
+        }
+
+        private SerializedString quoted() {
+            if (quoted == null) {
+                quoted = new SerializedString(getValue());
+            }
+            return quoted;
+        }
+
+        @Override
+        public String toString() {
+            return getValue();
+        }
+    }
+}
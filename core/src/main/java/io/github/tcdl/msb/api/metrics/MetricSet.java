@@ -17,6 +17,11 @@ public interface MetricSet extends Metric {
      */
     String CONSUMER_CONNECTED_METRIC = "consumerConnected";
 
+    /**
+     * {@value #PREFETCH_COUNT_METRIC} metric key for the current prefetch count of the consumer as {@link Gauge} of {@link Integer} type
+     */
+    String PREFETCH_COUNT_METRIC = "prefetchCount";
+
     /**
      * @return supported metric by name
      */
@@ -0,0 +1,52 @@
+package io.github.tcdl.msb.codec;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JSR310Module;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Base {@link MessageCodec} for formats supported by Jackson.
+ */
+public class JacksonMessageCodec implements MessageCodec {
+
+    private final String contentType;
+    private final ObjectMapper messageMapper;
+
+    public JacksonMessageCodec(String contentType, ObjectMapper messageMapper) {
+        Validate.notEmpty(contentType, "the 'contentType' must not be empty");
+        Validate.notNull(messageMapper, "the 'messageMapper' must not be null");
+        this.contentType = contentType;
+        this.messageMapper = messageMapper;
+    }
+
+    /**
+     * Applies settings required to read and write message envelopes to the given object mapper.
+     *
+     * @return the same object mapper
+     */
+    public static ObjectMapper configureEnvelopeMapper(ObjectMapper objectMapper) {
+        return objectMapper
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+                .registerModule(new JSR310Module());
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public ObjectMapper getMessageMapper() {
+        return messageMapper;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{contentType='" + contentType + "'}";
+    }
+}
@@ -0,0 +1,19 @@
+package io.github.tcdl.msb.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Default {@link MessageCodec} that represents messages as JSON text.
+ */
+public class JsonMessageCodec extends JacksonMessageCodec {
+
+    public static final String CONTENT_TYPE = "application/json";
+
+    public JsonMessageCodec() {
+        this(configureEnvelopeMapper(new ObjectMapper()));
+    }
+
+    public JsonMessageCodec(ObjectMapper messageMapper) {
+        super(CONTENT_TYPE, messageMapper);
+    }
+}
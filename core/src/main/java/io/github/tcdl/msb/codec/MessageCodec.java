@@ -0,0 +1,24 @@
+package io.github.tcdl.msb.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.tcdl.msb.api.message.Message;
+
+/**
+ * {@link MessageCodec} defines the wire format of message envelopes.
+ *
+ * Outgoing messages are encoded with the codec configured by "messageCodec" property of msbConfig. The codec announces
+ * itself by means of content type that is sent along with every message (e.g. AMQP "content-type" property) so that
+ * consumers are able to pick the right codec for every incoming message.
+ */
+public interface MessageCodec {
+
+    /**
+     * @return MIME type of messages encoded by this codec
+     */
+    String getContentType();
+
+    /**
+     * @return object mapper that reads and writes {@link Message} envelopes in the format of this codec
+     */
+    ObjectMapper getMessageMapper();
+}
@@ -0,0 +1,114 @@
+package io.github.tcdl.msb.codec;
+
+import io.github.tcdl.msb.api.exception.ConfigurationException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * {@link MessageCodecs} holds the codec used to encode outgoing messages and all the codecs that incoming messages
+ * can be decoded with. Thanks to that consumers understand messages in any known format regardless of their own
+ * configured codec, so services can be switched to a new format one by one.
+ */
+public class MessageCodecs {
+
+    public static final String JSON = "json";
+    public static final String SMILE = "smile";
+
+    private final MessageCodec defaultCodec;
+    private final MessageCodec jsonCodec;
+    private final Map<String, MessageCodec> codecsByContentType = new HashMap<>();
+
+    /**
+     * @param defaultCodec codec for outgoing messages
+     */
+    public MessageCodecs(MessageCodec defaultCodec) {
+        this(defaultCodec, JacksonMessageCodec.configureEnvelopeMapper(new ObjectMapper()));
+    }
+
+    /**
+     * @param defaultCodec codec for outgoing messages
+     * @param envelopeMapper JSON mapper to derive the built-in codecs for incoming messages from
+     */
+    public MessageCodecs(MessageCodec defaultCodec, ObjectMapper envelopeMapper) {
+        Validate.notNull(defaultCodec, "the 'defaultCodec' must not be null");
+        Validate.notNull(envelopeMapper, "the 'envelopeMapper' must not be null");
+        this.defaultCodec = defaultCodec;
+
+        register(new SmileMessageCodec(envelopeMapper));
+        register(new JsonMessageCodec(envelopeMapper));
+        register(defaultCodec);
+        this.jsonCodec = codecsByContentType.get(JsonMessageCodec.CONTENT_TYPE);
+    }
+
+    /**
+     * Creates a codec by its name from configuration.
+     *
+     * @param name either {@link #JSON}, {@link #SMILE} or a name of a class that implements {@link MessageCodec} and has
+     *             a public no-argument constructor
+     * @throws ConfigurationException if the codec can't be created
+     */
+    public static MessageCodec createCodec(String name) {
+        return createCodec(name, JacksonMessageCodec.configureEnvelopeMapper(new ObjectMapper()));
+    }
+
+    /**
+     * Creates a codec by its name from configuration. Built-in codecs use the given mapper, a Smile one derived from it
+     * in case of {@link #SMILE}. Codecs specified by class name create their own mappers.
+     *
+     * @param name either {@link #JSON}, {@link #SMILE} or a name of a class that implements {@link MessageCodec} and has
+     *             a public no-argument constructor
+     * @param envelopeMapper JSON mapper to read and write message envelopes with
+     * @throws ConfigurationException if the codec can't be created
+     */
+    public static MessageCodec createCodec(String name, ObjectMapper envelopeMapper) {
+        Validate.notEmpty(name, "the 'name' must not be empty");
+        Validate.notNull(envelopeMapper, "the 'envelopeMapper' must not be null");
+        switch (name) {
+            case JSON:
+                return new JsonMessageCodec(envelopeMapper);
+            case SMILE:
+                return new SmileMessageCodec(envelopeMapper);
+            default:
+                try {
+                    return (MessageCodec) Class.forName(name).newInstance();
+                } catch (ClassNotFoundException | InstantiationException | IllegalAccessException | ClassCastException e) {
+                    throw new ConfigurationException("Failed to create message codec: " + name, e);
+                }
+        }
+    }
+
+    /**
+     * @return codec for outgoing messages
+     */
+    public MessageCodec getDefaultCodec() {
+        return defaultCodec;
+    }
+
+    /**
+     * @param contentType content type of incoming message, may be null
+     * @return codec for the given content type. Messages without content type or with an unknown one are treated as JSON.
+     */
+    public MessageCodec findCodec(String contentType) {
+        if (contentType == null) {
+            return jsonCodec;
+        }
+        MessageCodec codec = codecsByContentType.get(contentType);
+        if (codec == null) {
+            codec = codecsByContentType.getOrDefault(normalize(contentType), jsonCodec);
+        }
+        return codec;
+    }
+
+    private void register(MessageCodec codec) {
+        codecsByContentType.put(normalize(codec.getContentType()), codec);
+    }
+
+    private static String normalize(String contentType) {
+        return StringUtils.substringBefore(contentType, ";").trim().toLowerCase(Locale.ROOT);
+    }
+}
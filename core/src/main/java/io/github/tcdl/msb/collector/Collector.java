@@ -1,14 +1,16 @@
 package io.github.tcdl.msb.collector;
 
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.tcdl.msb.api.AcknowledgementHandler;
 import io.github.tcdl.msb.api.Callback;
 import io.github.tcdl.msb.api.MessageContext;
 import io.github.tcdl.msb.api.RequestOptions;
+import io.github.tcdl.msb.api.ResponseRetention;
+import io.github.tcdl.msb.api.exception.MsbException;
 import io.github.tcdl.msb.api.message.Acknowledge;
 import io.github.tcdl.msb.api.message.Message;
+import io.github.tcdl.msb.api.message.MessagePayload;
 import io.github.tcdl.msb.config.MsbConfig;
 import io.github.tcdl.msb.events.EventHandlers;
 import io.github.tcdl.msb.impl.MessageContextImpl;
@@ -17,19 +19,19 @@ import io.github.tcdl.msb.support.Utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 
 import static io.github.tcdl.msb.support.Utils.ifNull;
@@ -37,25 +39,35 @@ import static java.lang.Math.toIntExact;
 
 /**
  * {@link Collector} is a component which collects responses and acknowledgements for sent requests.
+ *
+ * Responses to the same request may be handled by several threads at once, so the collector keeps its state
+ * in concurrent collections and atomic variables rather than behind a monitor. Its lifecycle is a state machine
+ * driven by compare-and-set: {@link #ACTIVE} until {@link #end()} unsubscribes it, {@link #UNSUBSCRIBED}
+ * until all consumed messages are handled and {@link #ENDED} once "onEnd" callback is invoked. Only one thread
+ * wins each transition, so "onEnd" is invoked exactly once.
  */
-@NotThreadSafe
+@ThreadSafe
 public class Collector<T> implements ConsumedMessagesAwareMessageHandler, ExecutionOptionsAwareMessageHandler {
 
     private static final Logger LOG = LoggerFactory.getLogger(Collector.class);
 
-    private final List<Message> ackMessages;
-    private final List<Message> payloadMessages;
+    private static final int ACTIVE = 0;
+    private static final int UNSUBSCRIBED = 1;
+    private static final int ENDED = 2;
+
+    private final RetainedMessages ackMessages;
+    private final RetainedMessages payloadMessages;
 
     private final Map<String, Integer> timeoutMsById;
     private final Map<String, Integer> responsesRemainingById;
-    private final Set<String> handledMessagesIds;
+    private final MessageIdSet handledMessagesIds;
 
     private final int timeoutMs;
-    private volatile int currentTimeoutMs;
+    private final AtomicInteger currentTimeoutMs;
     private final Integer waitForAcksMs;
     private volatile Instant waitForAcksUntil;
 
-    private volatile int responsesRemaining;
+    private final AtomicInteger responsesRemaining;
     private final boolean shouldWaitUntilResponseTimeout;
 
     private final TypeReference<T> payloadTypeReference;
@@ -73,37 +85,23 @@ public class Collector<T> implements ConsumedMessagesAwareMessageHandler, Execut
     private final Optional<Callback<Void>> onEnd;
     private final Optional<BiConsumer<Exception, Message>> onError;
 
-    private ScheduledFuture ackTimeoutFuture;
-    private ScheduledFuture responseTimeoutFuture;
+    private final AtomicBoolean isAckTimeoutScheduled = new AtomicBoolean();
+    private volatile ScheduledFuture ackTimeoutFuture;
+    private final AtomicReference<ScheduledFuture> responseTimeoutFuture = new AtomicReference<>();
     private final CollectorManager collectorManager;
     private final MsbConfig msbConfig;
 
     /**
-     * Count of consumed incoming messages so {@link #handleMessage} invocation is expected in future.
-     * Even redelivered messages increment this counter.
-     */
-    private final LongAdder consumedMessagesCount = new LongAdder();
-
-    /**
-     * Count of consumed incoming messages that were lost afterwards so {@link #handleMessage} invocation is
-     * no longer expected
-     */
-    private final LongAdder consumedAndLostMessagesCount = new LongAdder();
-
-    /**
-     * Counter of consumed incoming messages that are already handled by {@link #handleMessage}.
-     */
-    private final LongAdder handledMessagesHandledCount = new LongAdder();
-
-    /**
-     * Is the current instance unsubscribed from message source so new incoming messages are no longer expected.
+     * Count of consumed incoming messages (even redelivered ones) for which {@link #handleMessage} invocation
+     * is still expected: incremented when a message is consumed and decremented when it's handled or lost.
      */
-    private volatile boolean isUnsubscribed = false;
+    private final AtomicLong pendingMessagesCount = new AtomicLong();
 
     /**
-     * Was the "onEnd" callback invoked? Used to guarantee that "onEnd" will not be invoked more than once.
+     * {@link #ACTIVE}, {@link #UNSUBSCRIBED} from message source so new incoming messages are no longer expected,
+     * or {@link #ENDED} when "onEnd" callback is invoked.
      */
-    private volatile boolean isOnEndInvoked = false;
+    private final AtomicInteger state = new AtomicInteger(ACTIVE);
 
     private final boolean directlyInvokable;
 
@@ -123,21 +121,22 @@ public class Collector<T> implements ConsumedMessagesAwareMessageHandler, Execut
         this.payloadMapper = msbContext.getPayloadMapper();
 
         this.startedAt = clock.instant().toEpochMilli();
-        this.ackMessages = new LinkedList<>();
-        this.payloadMessages = new LinkedList<>();
-        this.timeoutMsById = new HashMap<>();
-        this.responsesRemainingById = new HashMap<>();
-        this.handledMessagesIds = new HashSet<>();
+        ResponseRetention responseRetention = ifNull(requestOptions.getResponseRetention(), ResponseRetention.NONE);
+        this.ackMessages = new RetainedMessages(responseRetention);
+        this.payloadMessages = new RetainedMessages(responseRetention);
+        this.timeoutMsById = new ConcurrentHashMap<>();
+        this.responsesRemainingById = new ConcurrentHashMap<>();
+        this.handledMessagesIds = new MessageIdSet();
 
         this.waitForAcksMs = requestOptions.getAckTimeout();
         this.waitForAcksUntil = null;
 
         this.timeoutMs = getResponseTimeoutFromConfigs(requestOptions);
-        this.currentTimeoutMs = timeoutMs;
+        this.currentTimeoutMs = new AtomicInteger(timeoutMs);
 
-        this.responsesRemaining = requestOptions.getWaitForResponses();
+        this.responsesRemaining = new AtomicInteger(requestOptions.getWaitForResponses());
 
-        this.shouldWaitUntilResponseTimeout = (responsesRemaining == RequestOptions.WAIT_FOR_RESPONSES_UNTIL_TIMEOUT);
+        this.shouldWaitUntilResponseTimeout = (requestOptions.getWaitForResponses() == RequestOptions.WAIT_FOR_RESPONSES_UNTIL_TIMEOUT);
 
         this.payloadTypeReference = payloadTypeReference;
 
@@ -150,16 +149,14 @@ public class Collector<T> implements ConsumedMessagesAwareMessageHandler, Execut
     }
 
     @Override
-    public synchronized void notifyMessageConsumed() {
-        consumedMessagesCount.increment();
+    public void notifyMessageConsumed() {
+        pendingMessagesCount.incrementAndGet();
     }
 
     @Override
-    public synchronized void notifyConsumedMessageIsLost() {
-        consumedAndLostMessagesCount.increment();
-        if(isNoMoreMessagesHandlingPossible()) {
-            end();
-        }
+    public void notifyConsumedMessageIsLost() {
+        pendingMessagesCount.decrementAndGet();
+        invokeOnEndIfNoMoreMessagesExpected();
     }
 
     boolean isAwaitingAcks() {
@@ -183,7 +180,7 @@ public class Collector<T> implements ConsumedMessagesAwareMessageHandler, Execut
                 requestMessage.getCorrelationId(), incomingMessage.getCorrelationId());
         LOG.trace("Message: {}", incomingMessage);
 
-        JsonNode rawPayload = incomingMessage.getRawPayload();
+        MessagePayload rawPayload = incomingMessage.getPayload();
         MessageContext messageContext = createMessageContext(acknowledgeHandler, incomingMessage);
         boolean isWithPayload = Utils.isPayloadPresent(rawPayload);
 
@@ -195,7 +192,7 @@ public class Collector<T> implements ConsumedMessagesAwareMessageHandler, Execut
             try {
                 onRawResponse.ifPresent(handler -> handler.accept(incomingMessage, messageContext));
 
-                T payload = Utils.convert(rawPayload, payloadTypeReference, payloadMapper);
+                T payload = rawPayload.bind(payloadTypeReference, payloadMapper);
                 onResponse.ifPresent(handler -> handler.accept(payload, messageContext));
             } catch (Exception e) {
                 //do not propagate exception outside of this method in order to prevent autoRetry for responses
@@ -210,73 +207,74 @@ public class Collector<T> implements ConsumedMessagesAwareMessageHandler, Execut
         }
 
         processAck(incomingMessage.getAck());
-
-        synchronized (this) {
-            handledMessagesHandledCount.increment();
-            updateCounters(incomingMessage, isWithPayload);
-
-            boolean isInvokeOnEnd = false;
-            if (!isAwaitingResponses()) {
-                //set ack timer task in case we received ALL expected responses but still have to wait for ack
-                if (isAwaitingAcks()) {
-                    waitForAcks();
-                } else {
-                    isInvokeOnEnd = true;
-                }
-            }
-
-            isInvokeOnEnd = isInvokeOnEnd || isNoMoreMessagesHandlingPossible();
-
-            if(isInvokeOnEnd) {
+        updateCounters(incomingMessage, isWithPayload);
+        pendingMessagesCount.decrementAndGet();
+
+        if (!isAwaitingResponses()) {
+            //set ack timer task in case we received ALL expected responses but still have to wait for ack
+            if (isAwaitingAcks()) {
+                waitForAcks();
+            } else {
                 LOG.debug("[correlation ids: {}] All messages has been received", requestMessage.getCorrelationId());
                 end();
+                return;
             }
         }
+        invokeOnEndIfNoMoreMessagesExpected();
     }
 
     MessageContext createMessageContext(AcknowledgementHandler acknowledgementHandler, Message originalMessage) {
         return new MessageContextImpl(acknowledgementHandler, originalMessage);
     }
 
-    protected synchronized void end() {
-        LOG.debug("[correlation id: {}] Stop response processing ", requestMessage.getCorrelationId());
-        cancelAckTimeoutTask();
-        cancelResponseTimeoutTask();
-
-        collectorManager.unregisterCollector(this);
-        isUnsubscribed = true;
-
-        if(!isOnEndInvoked && isAllConsumedMessagesHandled()) {
-            isOnEndInvoked = true;
-            LOG.debug("[correlation id: {}] triggering 'onEnd' callback", requestMessage.getCorrelationId());
-            try {
-                onEnd.ifPresent(handler -> handler.call(null));
-            } catch (Exception e) {
-                LOG.warn("Unexpected exception during 'onEnd' handler invocation", e);
-            }
+    /**
+     * Invoked if the request couldn't be delivered to the bus: invokes "onError" callback with the request message
+     * and ends the collector, since no responses to the request will arrive.
+     */
+    public void handlePublishFailure(Throwable cause) {
+        Exception exception = cause instanceof Exception ? (Exception) cause : new MsbException("Request publish failed", cause);
+        try {
+            onError.ifPresent(handler -> handler.accept(exception, requestMessage));
+        } catch (Exception e) {
+            LOG.warn("Unexpected exception during 'onError' handler invocation", e);
         }
+        end();
     }
 
     /**
-     * Returns true if no more {@link #handleMessage} invocations are expected.
+     * Unsubscribes the collector and invokes "onEnd" callback unless some consumed messages are still being handled.
+     * In that case the callback is invoked by the thread that handles the last of them. Repeated calls have no effect.
      */
-    private boolean isNoMoreMessagesHandlingPossible() {
-        return isUnsubscribed && isAllConsumedMessagesHandled();
+    protected void end() {
+        if (state.compareAndSet(ACTIVE, UNSUBSCRIBED)) {
+            LOG.debug("[correlation id: {}] Stop response processing ", requestMessage.getCorrelationId());
+            cancelAckTimeoutTask();
+            cancelResponseTimeoutTask();
+            collectorManager.unregisterCollector(this);
+        }
+        invokeOnEndIfNoMoreMessagesExpected();
     }
 
     /**
-     * Returns true if all incoming messages consumed at the moment were handled by {@link #handleMessage}.
-     * But it is possible, that some new messages will be consumed and handled afterwards.
+     * Invokes "onEnd" callback if the collector is unsubscribed and all consumed messages are handled, so no more
+     * {@link #handleMessage} invocations are expected.
+     *
+     * Both conditions are set by different threads: the state by {@link #end()} and the count by the thread that
+     * handles the last message. Each of them changes its condition first and then checks the other one, so at least
+     * one of them sees both, and the state transition lets only one of them invoke the callback.
      */
-    private synchronized boolean isAllConsumedMessagesHandled() {
-        int consumed = consumedMessagesCount.intValue();
-        int handled = handledMessagesHandledCount.intValue();
-        int consumedAndLost = consumedAndLostMessagesCount.intValue();
+    private void invokeOnEndIfNoMoreMessagesExpected() {
+        long pendingMessages = pendingMessagesCount.get();
+        LOG.debug("[correlation id: {}] Messages consumed but not handled yet: {}", requestMessage.getCorrelationId(), pendingMessages);
 
-        LOG.debug("[correlation id: {}] Messages consumed: {}; handled: {} consumed and lost: {}  ",
-                requestMessage.getCorrelationId(), consumed, handled, consumedAndLost);
-
-        return (consumed == consumedAndLost + handled);
+        if (pendingMessages == 0 && state.compareAndSet(UNSUBSCRIBED, ENDED)) {
+            LOG.debug("[correlation id: {}] triggering 'onEnd' callback", requestMessage.getCorrelationId());
+            try {
+                onEnd.ifPresent(handler -> handler.call(null));
+            } catch (Exception e) {
+                LOG.warn("Unexpected exception during 'onEnd' handler invocation", e);
+            }
+        }
     }
 
     void processAck(Acknowledge acknowledge) {
@@ -293,20 +291,33 @@ public class Collector<T> implements ConsumedMessagesAwareMessageHandler, Execut
             setTimeoutMsForResponderId(acknowledge.getResponderId(), acknowledge.getTimeoutMs());
         }
 
-        Integer newTimeoutMs = getMaxTimeoutMs();
-        if (newTimeoutMs != this.currentTimeoutMs) {
-            this.currentTimeoutMs = newTimeoutMs;
+        if (updateCurrentTimeoutMs()) {
             waitForResponses();
         }
     }
 
-    private Integer setTimeoutMsForResponderId(String responderId, Integer timeoutMs) {
-        if (timeoutMsById != null && timeoutMsById.containsKey(responderId) && timeoutMsById.get(responderId).equals(timeoutMs)) {
-            return 0; // Not changed
+    /**
+     * Sets the current timeout to the maximum one of the responders. The maximum is calculated after reading
+     * the current value, so if another thread changes the timeouts concurrently, either the compare-and-set fails
+     * and the maximum is calculated again or the other thread sees the value set here and corrects it.
+     *
+     * @return true if the current timeout was changed
+     */
+    private boolean updateCurrentTimeoutMs() {
+        while (true) {
+            int current = currentTimeoutMs.get();
+            int newTimeoutMs = getMaxTimeoutMs();
+            if (newTimeoutMs == current) {
+                return false;
+            }
+            if (currentTimeoutMs.compareAndSet(current, newTimeoutMs)) {
+                return true;
+            }
         }
-        timeoutMsById.put(responderId, timeoutMs);
+    }
 
-        return timeoutMs;
+    private void setTimeoutMsForResponderId(String responderId, Integer timeoutMs) {
+        timeoutMsById.put(responderId, timeoutMs);
     }
 
     private int getMaxTimeoutMs() {
@@ -314,41 +325,32 @@ public class Collector<T> implements ConsumedMessagesAwareMessageHandler, Execut
             return this.timeoutMs;
         }
 
-        Integer maxTimeoutMs = this.timeoutMs;
-        for (String responderId : timeoutMsById.keySet()) {
+        int maxTimeoutMs = this.timeoutMs;
+        for (Map.Entry<String, Integer> responderTimeoutMs : timeoutMsById.entrySet()) {
             // Use only what we're waiting for
-            if (!responsesRemainingById.isEmpty() && responsesRemainingById.containsKey(responderId)
-                    && responsesRemainingById.get(responderId) == 0) {
+            Integer responderResponsesRemaining = responsesRemainingById.get(responderTimeoutMs.getKey());
+            if (responderResponsesRemaining != null && responderResponsesRemaining == 0) {
                 continue;
             }
-            maxTimeoutMs = Math.max(timeoutMsById.get(responderId), maxTimeoutMs);
+            maxTimeoutMs = Math.max(responderTimeoutMs.getValue(), maxTimeoutMs);
         }
 
         return maxTimeoutMs;
     }
 
-    private synchronized void updateCounters(Message message, boolean isWithPayload) {
-        String id = message.getId();
-
+    private void updateCounters(Message message, boolean isWithPayload) {
         /**
          * Don't update remaining messages counter when a message id was already recorder so the current
          * message is a redelivery of a previous one.
          */
-        if(!handledMessagesIds.contains(id)) {
-            if(isWithPayload) {
-                incResponsesRemaining(-1);
-            }
-            handledMessagesIds.add(message.getId());
+        if (handledMessagesIds.add(message.getId()) && isWithPayload) {
+            responsesRemaining.updateAndGet(remaining -> Math.max(remaining - 1, 0));
         }
     }
 
-    private synchronized Integer incResponsesRemaining(Integer inc) {
-        return (responsesRemaining = Math.max(responsesRemaining + inc, 0));
-    }
-
     int getResponsesRemaining() {
         if (responsesRemainingById.isEmpty()) {
-            return responsesRemaining;
+            return responsesRemaining.get();
         }
 
         Integer sumOfResponsesRemaining = 0;
@@ -356,41 +358,49 @@ public class Collector<T> implements ConsumedMessagesAwareMessageHandler, Execut
             sumOfResponsesRemaining += responses;
         }
 
-        return Math.max(responsesRemaining, sumOfResponsesRemaining);
+        return Math.max(responsesRemaining.get(), sumOfResponsesRemaining);
     }
 
+    /**
+     * The value of the responder is updated atomically, so concurrent acks of the same responder are all counted.
+     */
     private Integer setResponsesRemainingForResponderId(String responderId, int responsesRemaining) {
-        //check for responsesRemaining < 0 seems redundant, since if config.waitForResponses == -1 we use  Infinity
-        boolean atMin = (responsesRemaining < 0 && (responsesRemainingById.isEmpty() || !responsesRemainingById
-                .containsKey(responderId)));
-        if (atMin) {
-            return null;
-        }
-        //when second, third, etc time same value (not equals 0) for responsesRemaining is received for corresponding responderId, it must be sum up with previous.
-        if (responsesRemaining == 0) {
-            responsesRemainingById.put(responderId, 0);
-        } else {
-            responsesRemainingById.put(responderId,
-                    Math.max(0, ifNull(responsesRemainingById.get(responderId), 0) + responsesRemaining));
-        }
-
-        return responsesRemainingById.get(responderId);
+        return responsesRemainingById.compute(responderId, (id, current) -> {
+            //check for responsesRemaining < 0 seems redundant, since if config.waitForResponses == -1 we use  Infinity
+            if (responsesRemaining < 0 && current == null) {
+                return null;
+            }
+            //when second, third, etc time same value (not equals 0) for responsesRemaining is received for corresponding responderId, it must be sum up with previous.
+            return responsesRemaining == 0 ? 0 : Math.max(0, ifNull(current, 0) + responsesRemaining);
+        });
     }
 
+    /**
+     * (Re)schedules the response timeout according to the current timeout. If the current timeout is changed
+     * by another thread meanwhile, the timeout is scheduled again, so the one scheduled last always matches it.
+     */
     public void waitForResponses() {
-        if(this.responseTimeoutFuture != null){
-            this.responseTimeoutFuture.cancel(true);
+        int scheduledTimeoutMs;
+        do {
+            scheduledTimeoutMs = currentTimeoutMs.get();
+            int newTimeoutMs = scheduledTimeoutMs - toIntExact(clock.instant().toEpochMilli() - this.startedAt);
+            LOG.debug("[correlation id: {}] Waiting for responses until {}.", requestMessage.getCorrelationId(), clock.instant().plus(newTimeoutMs, ChronoUnit.MILLIS));
+            cancel(responseTimeoutFuture.getAndSet(timeoutManager.enableResponseTimeout(newTimeoutMs, this)));
+        } while (scheduledTimeoutMs != currentTimeoutMs.get());
+
+        if (state.get() != ACTIVE) {
+            cancelResponseTimeoutTask();
         }
-        int newTimeoutMs = this.currentTimeoutMs - toIntExact(clock.instant().toEpochMilli() - this.startedAt);
-        LOG.debug("[correlation id: {}] Waiting for responses until {}.", requestMessage.getCorrelationId(), clock.instant().plus(newTimeoutMs, ChronoUnit.MILLIS));
-        this.responseTimeoutFuture = timeoutManager.enableResponseTimeout(newTimeoutMs, this);
     }
 
     void waitForAcks() {
-        if (ackTimeoutFuture == null) {
+        if (isAckTimeoutScheduled.compareAndSet(false, true)) {
             LOG.debug("[correlation id: {}] Waiting for ack until {}.", requestMessage.getCorrelationId(), this.waitForAcksUntil);
             long ackTimeoutMs = waitForAcksUntil.toEpochMilli() - clock.instant().toEpochMilli();
             ackTimeoutFuture = timeoutManager.enableAckTimeout(toIntExact(ackTimeoutMs), this);
+            if (state.get() != ACTIVE) {
+                cancelAckTimeoutTask();
+            }
         } else {
             LOG.debug("[correlation id: {}] Ack timeout is already scheduled", requestMessage.getCorrelationId());
         }
@@ -404,23 +414,33 @@ public class Collector<T> implements ConsumedMessagesAwareMessageHandler, Execut
     }
 
     private void cancelResponseTimeoutTask() {
-        if (this.responseTimeoutFuture != null) {
-            responseTimeoutFuture.cancel(true);
-        }
+        cancel(responseTimeoutFuture.get());
     }
 
     private void cancelAckTimeoutTask() {
-        if (this.ackTimeoutFuture != null) {
-            ackTimeoutFuture.cancel(true);
+        cancel(ackTimeoutFuture);
+    }
+
+    private static void cancel(ScheduledFuture timeoutFuture) {
+        if (timeoutFuture != null) {
+            timeoutFuture.cancel(true);
         }
     }
 
     List<Message> getAckMessages() {
-        return ackMessages;
+        return ackMessages.getMessages();
     }
 
     List<Message> getPayloadMessages() {
-        return payloadMessages;
+        return payloadMessages.getMessages();
+    }
+
+    List<String> getAckMessageIds() {
+        return ackMessages.getIds();
+    }
+
+    List<String> getPayloadMessageIds() {
+        return payloadMessages.getIds();
     }
 
     Message getRequestMessage() {
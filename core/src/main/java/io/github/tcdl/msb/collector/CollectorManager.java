@@ -6,15 +6,13 @@ import io.github.tcdl.msb.MessageHandlerResolver;
 import io.github.tcdl.msb.api.exception.ConsumerSubscriptionException;
 import io.github.tcdl.msb.api.message.Message;
 
-import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Manages instances of {@link Collector}s that listens to the same response topic.
+ * Manages instances of {@link Collector}s and {@link SingleResponseCollector}s that listen to the same response topic.
  */
 public class CollectorManager implements MessageHandlerResolver {
 
@@ -25,11 +23,19 @@ public class CollectorManager implements MessageHandlerResolver {
 
     private final String topic;
     private final ChannelManager channelManager;
-    Map<String, Collector> collectorsByCorrelationId = new ConcurrentHashMap<>();
+    final CorrelationIndex<MessageHandler> collectorsByCorrelationId;
 
     public CollectorManager(String topic, ChannelManager channelManager) {
+        this(topic, channelManager, CorrelationIndex.DEFAULT_SHARD_COUNT);
+    }
+
+    /**
+     * @param correlationIndexShards number of shards of the index of collectors by correlation id
+     */
+    public CollectorManager(String topic, ChannelManager channelManager, int correlationIndexShards) {
         this.topic = topic;
         this.channelManager = channelManager;
+        this.collectorsByCorrelationId = new CorrelationIndex<>(correlationIndexShards);
     }
 
     /**
@@ -37,7 +43,7 @@ public class CollectorManager implements MessageHandlerResolver {
      */
     @Override public Optional<MessageHandler> resolveMessageHandler(Message message) {
         String correlationId = message.getCorrelationId();
-        Collector collector = collectorsByCorrelationId.get(correlationId);
+        MessageHandler collector = collectorsByCorrelationId.get(correlationId);
         if (collector != null) {
             return Optional.of(collector);
         } else {
@@ -46,13 +52,40 @@ public class CollectorManager implements MessageHandlerResolver {
         }
     }
 
+    /**
+     * Responses with correlationId that doesn't belong to any registered {@link Collector} (e.g. late responses to
+     * already timed out requests) can't be handled.
+     */
+    @Override
+    public boolean isUnresolvable(String correlationId) {
+        return collectorsByCorrelationId.get(correlationId) == null;
+    }
+
     /**
      * @throws ConsumerSubscriptionException if another consumer already listen for messages on topic
      */
     public void registerCollector(Collector collector) {
-        String correlationId = collector.getRequestMessage().getCorrelationId();
+        register(collector.getRequestMessage().getCorrelationId(), collector);
+    }
+
+    /**
+     * @throws ConsumerSubscriptionException if another consumer already listen for messages on topic
+     */
+    public void registerCollector(SingleResponseCollector collector) {
+        register(collector.getCorrelationId(), collector);
+    }
+
+    private void register(String correlationId, MessageHandler collector) {
         collectorsByCorrelationId.putIfAbsent(correlationId, collector);
+        subscribe();
+    }
 
+    /**
+     * Starts consuming responses on the topic unless already started.
+     *
+     * @throws ConsumerSubscriptionException if another consumer already listen for messages on topic
+     */
+    public void subscribe() {
         if(!isSubscribed) {
             synchronized (this) {
                 if (!isSubscribed) {
@@ -70,6 +103,20 @@ public class CollectorManager implements MessageHandlerResolver {
         collectorsByCorrelationId.remove(collector.getRequestMessage().getCorrelationId());
     }
 
+    /**
+     * Remove this collector from collector's map, if it is present.
+     */
+    public void unregisterCollector(SingleResponseCollector collector) {
+        collectorsByCorrelationId.remove(collector.getCorrelationId());
+    }
+
+    /**
+     * @return number of requests that are waiting for responses on the topic
+     */
+    public int getInFlightCount() {
+        return collectorsByCorrelationId.size();
+    }
+
     @Override
     public String getLoggingName() {
         return LOGGING_NAME;
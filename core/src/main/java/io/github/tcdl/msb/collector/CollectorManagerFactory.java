@@ -9,18 +9,35 @@ public class CollectorManagerFactory {
 
     private Map<String, CollectorManager> collectorManagersByTopic;
     private ChannelManager channelManager;
+    private int correlationIndexShards;
 
     public CollectorManagerFactory(ChannelManager channelManager) {
+        this(channelManager, CorrelationIndex.DEFAULT_SHARD_COUNT);
+    }
+
+    /**
+     * @param correlationIndexShards number of shards of the index of collectors by correlation id of every topic
+     */
+    public CollectorManagerFactory(ChannelManager channelManager, int correlationIndexShards) {
         this.collectorManagersByTopic = new ConcurrentHashMap<>();
         this.channelManager = channelManager;
+        this.correlationIndexShards = correlationIndexShards;
     }
 
     public CollectorManager findOrCreateCollectorManager(final String topic) {
         CollectorManager collectorManager = collectorManagersByTopic.computeIfAbsent(topic, key -> {
-            CollectorManager newCollectorManager =  new CollectorManager(topic, channelManager);
+            CollectorManager newCollectorManager =  new CollectorManager(topic, channelManager, correlationIndexShards);
             return newCollectorManager;
         });
 
         return collectorManager;
     }
+
+    /**
+     * @return number of requests that are waiting for responses on the response topic
+     */
+    public int getInFlightCount(String responseTopic) {
+        CollectorManager collectorManager = collectorManagersByTopic.get(responseTopic);
+        return collectorManager != null ? collectorManager.getInFlightCount() : 0;
+    }
 }
@@ -0,0 +1,327 @@
+package io.github.tcdl.msb.collector;
+
+import io.github.tcdl.msb.support.Utils;
+import org.apache.commons.lang3.Validate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * {@link CorrelationIndex} maps correlation ids of requests in flight to the handlers of their responses.
+ *
+ * Correlation ids generated by MSB are UUIDs in canonical form, so they are kept as two longs in open-addressing
+ * tables instead of 36 character strings. Other ids are kept in regular maps created on demand. Lookups parse
+ * the id in place and allocate nothing.
+ *
+ * The index is split into shards, each guarded by its own lock, so threads that register requests rarely wait for
+ * each other. Lookups don't lock at all unless they race with a registration or unregistration in the same shard,
+ * so resolving responses doesn't contend with anything. Tables use linear probing with backward shift deletion,
+ * so registration, unregistration and lookup take constant time and no tombstones are left behind.
+ */
+class CorrelationIndex<V> {
+
+    static final int DEFAULT_SHARD_COUNT = 16;
+
+    private final Shard<V>[] shards;
+
+    /**
+     * @param shardCount number of shards, rounded up to a power of two
+     */
+    @SuppressWarnings("unchecked")
+    CorrelationIndex(int shardCount) {
+        Validate.isTrue(shardCount > 0 && shardCount <= 1 << 16, "the 'shardCount' must be in range (0, 2^16]");
+
+        int bits = 0;
+        while (1 << bits < shardCount) {
+            bits++;
+        }
+        this.shards = new Shard[1 << bits];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard<>(bits);
+        }
+    }
+
+    /**
+     * @return the value already registered for the id or null if the given one is registered
+     */
+    V putIfAbsent(String correlationId, V value) {
+        Validate.notNull(value, "the 'value' must not be null");
+        if (Utils.isCanonicalUuid(correlationId)) {
+            long mostSigBits = Utils.uuidMostSignificantBits(correlationId);
+            long leastSigBits = Utils.uuidLeastSignificantBits(correlationId);
+            return shardFor(hash(mostSigBits, leastSigBits)).putIfAbsent(mostSigBits, leastSigBits, value);
+        }
+        return shardFor(hash(correlationId)).putIfAbsent(correlationId, value);
+    }
+
+    V get(String correlationId) {
+        if (Utils.isCanonicalUuid(correlationId)) {
+            long mostSigBits = Utils.uuidMostSignificantBits(correlationId);
+            long leastSigBits = Utils.uuidLeastSignificantBits(correlationId);
+            return shardFor(hash(mostSigBits, leastSigBits)).get(mostSigBits, leastSigBits);
+        }
+        return shardFor(hash(correlationId)).get(correlationId);
+    }
+
+    /**
+     * @return removed value or null if nothing is registered for the id
+     */
+    V remove(String correlationId) {
+        if (Utils.isCanonicalUuid(correlationId)) {
+            long mostSigBits = Utils.uuidMostSignificantBits(correlationId);
+            long leastSigBits = Utils.uuidLeastSignificantBits(correlationId);
+            return shardFor(hash(mostSigBits, leastSigBits)).remove(mostSigBits, leastSigBits);
+        }
+        return shardFor(hash(correlationId)).remove(correlationId);
+    }
+
+    /**
+     * Shards are counted one by one, so the result is exact only if the index isn't modified meanwhile.
+     */
+    int size() {
+        int size = 0;
+        for (Shard<V> shard : shards) {
+            size += shard.size;
+        }
+        return size;
+    }
+
+    private Shard<V> shardFor(int hash) {
+        return shards[hash & (shards.length - 1)];
+    }
+
+    private static int hash(long mostSigBits, long leastSigBits) {
+        long hash = (mostSigBits ^ leastSigBits) * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private static int hash(String correlationId) {
+        int hash = correlationId.hashCode() * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class Shard<V> {
+
+        private static final int INITIAL_CAPACITY = 8;
+
+        /**
+         * Low bits of the hash select the shard, so the slot is selected by the rest of them.
+         */
+        private final int shardBits;
+
+        /**
+         * Writers hold the write lock. Readers don't lock: they look the id up optimistically and repeat the lookup
+         * under the read lock only if a writer changed the shard meanwhile.
+         */
+        private final StampedLock lock = new StampedLock();
+
+        private Table table = new Table(INITIAL_CAPACITY);
+        private int uuidCount;
+        private volatile Map<String, V> otherIds;
+
+        // written under the write lock, read by size() without it
+        private volatile int size;
+
+        Shard(int shardBits) {
+            this.shardBits = shardBits;
+        }
+
+        V putIfAbsent(long mostSigBits, long leastSigBits, V value) {
+            long stamp = lock.writeLock();
+            try {
+                int slot = find(table, mostSigBits, leastSigBits);
+                if (table.values[slot] != null) {
+                    return value(table, slot);
+                }
+                if (2 * (uuidCount + 1) > table.capacity()) {
+                    resize(2 * table.capacity());
+                    slot = find(table, mostSigBits, leastSigBits);
+                }
+                table.uuids[2 * slot] = mostSigBits;
+                table.uuids[2 * slot + 1] = leastSigBits;
+                table.values[slot] = value;
+                uuidCount++;
+                size++;
+                return null;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        V get(long mostSigBits, long leastSigBits) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                // the table may be modified during the lookup, so the result is used only if the stamp is still valid
+                Table current = table;
+                int slot = findOptimistically(current, mostSigBits, leastSigBits);
+                V value = slot >= 0 ? value(current, slot) : null;
+                if (lock.validate(stamp)) {
+                    return value;
+                }
+            }
+
+            stamp = lock.readLock();
+            try {
+                return value(table, find(table, mostSigBits, leastSigBits));
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        V remove(long mostSigBits, long leastSigBits) {
+            long stamp = lock.writeLock();
+            try {
+                int slot = find(table, mostSigBits, leastSigBits);
+                V removed = value(table, slot);
+                if (removed == null) {
+                    return null;
+                }
+                deleteSlot(slot);
+                uuidCount--;
+                size--;
+                if (table.capacity() > INITIAL_CAPACITY && 8 * uuidCount < table.capacity()) {
+                    resize(table.capacity() / 2);
+                }
+                return removed;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        V putIfAbsent(String correlationId, V value) {
+            long stamp = lock.writeLock();
+            try {
+                if (otherIds == null) {
+                    otherIds = new ConcurrentHashMap<>();
+                }
+                V existing = otherIds.putIfAbsent(correlationId, value);
+                if (existing == null) {
+                    size++;
+                }
+                return existing;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        V get(String correlationId) {
+            Map<String, V> ids = otherIds;
+            return ids != null ? ids.get(correlationId) : null;
+        }
+
+        V remove(String correlationId) {
+            long stamp = lock.writeLock();
+            try {
+                V removed = otherIds != null ? otherIds.remove(correlationId) : null;
+                if (removed != null) {
+                    size--;
+                }
+                return removed;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * @return slot of the UUID or the free slot it should be put into
+         */
+        private int find(Table table, long mostSigBits, long leastSigBits) {
+            int mask = table.capacity() - 1;
+            int slot = home(table, mostSigBits, leastSigBits);
+            while (table.values[slot] != null
+                    && (table.uuids[2 * slot] != mostSigBits || table.uuids[2 * slot + 1] != leastSigBits)) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        /**
+         * Same as {@link #find}, but doesn't rely on the table being consistent: a concurrent writer may leave
+         * the table without free slots for a moment, so the probe gives up after a full turn.
+         *
+         * @return slot of the UUID or -1 if it wasn't found
+         */
+        private int findOptimistically(Table table, long mostSigBits, long leastSigBits) {
+            int mask = table.capacity() - 1;
+            int slot = home(table, mostSigBits, leastSigBits);
+            for (int probes = 0; probes < table.capacity() && table.values[slot] != null; probes++) {
+                if (table.uuids[2 * slot] == mostSigBits && table.uuids[2 * slot + 1] == leastSigBits) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        /**
+         * Frees the slot and moves back the entries of the same probe sequence that follow it, so lookups
+         * don't stop at the freed slot.
+         */
+        private void deleteSlot(int slot) {
+            long[] uuids = table.uuids;
+            Object[] values = table.values;
+            int mask = values.length - 1;
+            int free = slot;
+            int next = (free + 1) & mask;
+            while (values[next] != null) {
+                int home = home(table, uuids[2 * next], uuids[2 * next + 1]);
+                if (((next - home) & mask) >= ((next - free) & mask)) {
+                    uuids[2 * free] = uuids[2 * next];
+                    uuids[2 * free + 1] = uuids[2 * next + 1];
+                    values[free] = values[next];
+                    free = next;
+                }
+                next = (next + 1) & mask;
+            }
+            uuids[2 * free] = 0;
+            uuids[2 * free + 1] = 0;
+            values[free] = null;
+        }
+
+        private void resize(int capacity) {
+            Table oldTable = table;
+            Table newTable = new Table(capacity);
+            for (int i = 0; i < oldTable.capacity(); i++) {
+                if (oldTable.values[i] != null) {
+                    int slot = find(newTable, oldTable.uuids[2 * i], oldTable.uuids[2 * i + 1]);
+                    newTable.uuids[2 * slot] = oldTable.uuids[2 * i];
+                    newTable.uuids[2 * slot + 1] = oldTable.uuids[2 * i + 1];
+                    newTable.values[slot] = oldTable.values[i];
+                }
+            }
+            table = newTable;
+        }
+
+        private int home(Table table, long mostSigBits, long leastSigBits) {
+            return Integer.rotateRight(hash(mostSigBits, leastSigBits), shardBits) & (table.capacity() - 1);
+        }
+
+        @SuppressWarnings("unchecked")
+        private V value(Table table, int slot) {
+            return (V) table.values[slot];
+        }
+    }
+
+    /**
+     * Arrays of a shard are replaced together on resize, so a reader that doesn't lock always sees arrays of
+     * the same size.
+     */
+    private static final class Table {
+
+        /**
+         * Pairs of the most and the least significant bits of UUIDs. A slot is free if its value is null.
+         */
+        final long[] uuids;
+        final Object[] values;
+
+        Table(int capacity) {
+            this.uuids = new long[2 * capacity];
+            this.values = new Object[capacity];
+        }
+
+        int capacity() {
+            return values.length;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package io.github.tcdl.msb.collector;
+
+import io.github.tcdl.msb.support.Utils;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * {@link MessageIdSet} remembers ids of handled messages so that redeliveries can be told apart from new messages.
+ *
+ * Ids in canonical UUID form, which MSB generates, are kept as pairs of longs in an open-addressing table, so an id
+ * takes 16 bytes instead of a String and a set entry. Other ids are kept in a concurrent set created on demand.
+ *
+ * Threads that handle messages of the same collector add ids without locking: a slot is claimed by a CAS of its
+ * most significant bits. When the table gets half full, the thread that filled it marks the remaining free slots
+ * as moved and copies the UUIDs to a table twice as big. Additions that run into a moved slot wait for the copy
+ * and repeat on the new table.
+ */
+class MessageIdSet {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * Most significant bits of a free slot. UUIDs with such bits or with zero least significant bits are kept
+     * with the other ids.
+     */
+    private static final long FREE = 0;
+
+    /**
+     * Most significant bits of a free slot of a table that is being copied to a bigger one.
+     */
+    private static final long MOVED = -1;
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<MessageIdSet, Set> OTHER_IDS_UPDATER =
+            AtomicReferenceFieldUpdater.newUpdater(MessageIdSet.class, Set.class, "otherIds");
+
+    private final AtomicReference<Table> table = new AtomicReference<>(new Table(INITIAL_CAPACITY));
+    private volatile Set<String> otherIds;
+
+    /**
+     * @return true if the id was not in the set
+     */
+    boolean add(String id) {
+        if (Utils.isCanonicalUuid(id)) {
+            long mostSigBits = Utils.uuidMostSignificantBits(id);
+            long leastSigBits = Utils.uuidLeastSignificantBits(id);
+            if (mostSigBits != FREE && mostSigBits != MOVED && leastSigBits != 0) {
+                return addUuid(mostSigBits, leastSigBits);
+            }
+        }
+        return otherIds().add(id);
+    }
+
+    private boolean addUuid(long mostSigBits, long leastSigBits) {
+        while (true) {
+            Table current = table.get();
+            switch (current.insert(mostSigBits, leastSigBits)) {
+                case ADDED:
+                    if (current.incrementCount() > current.capacity() / 2) {
+                        resize(current);
+                    }
+                    return true;
+                case PRESENT:
+                    return false;
+                default:
+                    while (table.get() == current) {
+                        Thread.yield();
+                    }
+            }
+        }
+    }
+
+    /**
+     * Copies UUIDs to a table twice as big unless another thread does it already.
+     */
+    private void resize(Table current) {
+        if (!current.startResize()) {
+            return;
+        }
+        Table bigger = new Table(2 * current.capacity());
+        for (int slot = 0; slot < current.capacity(); slot++) {
+            long mostSigBits = current.freeze(slot);
+            if (mostSigBits != MOVED) {
+                bigger.insert(mostSigBits, current.leastSigBits(slot));
+                bigger.incrementCount();
+            }
+        }
+        table.set(bigger);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<String> otherIds() {
+        Set<String> ids = otherIds;
+        if (ids == null) {
+            OTHER_IDS_UPDATER.compareAndSet(this, null, ConcurrentHashMap.newKeySet());
+            ids = otherIds;
+        }
+        return ids;
+    }
+
+    private enum InsertResult {
+        ADDED, PRESENT, RETRY
+    }
+
+    private static final class Table {
+
+        private static final AtomicIntegerFieldUpdater<Table> COUNT_UPDATER =
+                AtomicIntegerFieldUpdater.newUpdater(Table.class, "count");
+        private static final AtomicIntegerFieldUpdater<Table> RESIZING_UPDATER =
+                AtomicIntegerFieldUpdater.newUpdater(Table.class, "resizing");
+
+        /**
+         * Pairs of the most and the least significant bits of UUIDs. The most significant bits are written first,
+         * so zero least significant bits of a claimed slot mean that the claiming thread hasn't written them yet.
+         */
+        private final AtomicLongArray uuids;
+        private volatile int count;
+        private volatile int resizing;
+
+        Table(int capacity) {
+            this.uuids = new AtomicLongArray(2 * capacity);
+        }
+
+        int capacity() {
+            return uuids.length() / 2;
+        }
+
+        int incrementCount() {
+            return COUNT_UPDATER.incrementAndGet(this);
+        }
+
+        boolean startResize() {
+            return RESIZING_UPDATER.compareAndSet(this, 0, 1);
+        }
+
+        /**
+         * UUIDs are never removed, so the probe sequence of a UUID only grows and threads that add the same UUID
+         * concurrently race for the same free slot.
+         */
+        InsertResult insert(long mostSigBits, long leastSigBits) {
+            int mask = capacity() - 1;
+            int slot = Long.hashCode(mostSigBits ^ leastSigBits * 0x9E3779B97F4A7C15L) & mask;
+            for (int probes = 0; probes < capacity(); probes++) {
+                long slotMostSigBits = uuids.get(2 * slot);
+                if (slotMostSigBits == FREE) {
+                    if (uuids.compareAndSet(2 * slot, FREE, mostSigBits)) {
+                        uuids.set(2 * slot + 1, leastSigBits);
+                        return InsertResult.ADDED;
+                    }
+                    slotMostSigBits = uuids.get(2 * slot);
+                }
+                if (slotMostSigBits == MOVED) {
+                    return InsertResult.RETRY;
+                }
+                if (slotMostSigBits == mostSigBits && leastSigBits(slot) == leastSigBits) {
+                    return InsertResult.PRESENT;
+                }
+                slot = (slot + 1) & mask;
+            }
+            // a full table is being resized by the thread that filled it up
+            return InsertResult.RETRY;
+        }
+
+        /**
+         * Marks the slot as moved if it's free.
+         *
+         * @return most significant bits of the UUID in the slot or {@link MessageIdSet#MOVED} if the slot was free
+         */
+        long freeze(int slot) {
+            while (true) {
+                long mostSigBits = uuids.get(2 * slot);
+                if (mostSigBits != FREE || uuids.compareAndSet(2 * slot, FREE, MOVED)) {
+                    return mostSigBits != FREE ? mostSigBits : MOVED;
+                }
+            }
+        }
+
+        /**
+         * Waits for the thread that claimed the slot to write the least significant bits.
+         */
+        long leastSigBits(int slot) {
+            long leastSigBits;
+            while ((leastSigBits = uuids.get(2 * slot + 1)) == 0) {
+                Thread.yield();
+            }
+            return leastSigBits;
+        }
+    }
+}
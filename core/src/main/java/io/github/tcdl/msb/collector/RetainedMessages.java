@@ -0,0 +1,68 @@
+package io.github.tcdl.msb.collector;
+
+import io.github.tcdl.msb.api.ResponseRetention;
+import io.github.tcdl.msb.api.message.Message;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * {@link RetainedMessages} keeps messages received by a collector according to the {@link ResponseRetention}
+ * of the request. Messages are added concurrently from consumer threads.
+ */
+class RetainedMessages {
+
+    private final ResponseRetention retention;
+    private final Queue<Message> messages;
+    private final Queue<String> ids;
+    private final AtomicInteger size = new AtomicInteger();
+
+    RetainedMessages(ResponseRetention retention) {
+        this.retention = retention;
+        this.messages = retention.getType() == ResponseRetention.Type.LAST || retention.getType() == ResponseRetention.Type.ALL
+                ? new ConcurrentLinkedQueue<>() : null;
+        this.ids = retention.getType() == ResponseRetention.Type.IDS_ONLY ? new ConcurrentLinkedQueue<>() : null;
+    }
+
+    void add(Message message) {
+        switch (retention.getType()) {
+            case IDS_ONLY:
+                ids.add(message.getId());
+                break;
+            case LAST:
+                messages.add(message);
+                // Concurrent additions may evict an extra message at most for a moment, the size settles at the count
+                if (size.incrementAndGet() > retention.getCount() && messages.poll() != null) {
+                    size.decrementAndGet();
+                }
+                break;
+            case ALL:
+                messages.add(message);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * @return retained messages in order of arrival, empty if only ids are retained
+     */
+    List<Message> getMessages() {
+        return messages != null ? new ArrayList<>(messages) : Collections.emptyList();
+    }
+
+    /**
+     * @return ids of retained messages in order of arrival
+     */
+    List<String> getIds() {
+        if (ids != null) {
+            return new ArrayList<>(ids);
+        }
+        return getMessages().stream().map(Message::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,215 @@
+package io.github.tcdl.msb.collector;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.tcdl.msb.api.AcknowledgementHandler;
+import io.github.tcdl.msb.api.RequestOptions;
+import io.github.tcdl.msb.api.message.Acknowledge;
+import io.github.tcdl.msb.api.message.Message;
+import io.github.tcdl.msb.api.message.MessagePayload;
+import io.github.tcdl.msb.impl.MsbContextImpl;
+import io.github.tcdl.msb.support.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.time.Clock;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import static java.lang.Math.toIntExact;
+
+/**
+ * {@link SingleResponseCollector} completes the future returned by {@link io.github.tcdl.msb.api.Requester#request}
+ * with the first response to a request that waits for exactly one response.
+ *
+ * Unlike {@link Collector} it keeps neither messages nor per-responder counters and schedules a single timer.
+ * Acks are looked at only if the responder sends them: an ack that announces a number of responses other than one
+ * cancels the future and an ack with a longer timeout postpones the timer.
+ *
+ * The future is cancelled when the response timeout expires, unless a response consumed before that is still being
+ * handled, or when the response can't be converted to the payload type.
+ */
+@ThreadSafe
+public class SingleResponseCollector<T> implements ConsumedMessagesAwareMessageHandler, ExecutionOptionsAwareMessageHandler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SingleResponseCollector.class);
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<SingleResponseCollector> PENDING_MESSAGES_COUNT_UPDATER =
+            AtomicIntegerFieldUpdater.newUpdater(SingleResponseCollector.class, "pendingMessagesCount");
+
+    private final String correlationId;
+    private final CompletableFuture<T> future;
+    private final TypeReference<T> payloadTypeReference;
+    private final ObjectMapper payloadMapper;
+    private final CollectorManager collectorManager;
+    private final TimeoutManager timeoutManager;
+    private final Clock clock;
+    private final long startedAt;
+
+    // guarded by this
+    private int timeoutMs;
+    private ScheduledFuture<?> timeoutFuture;
+
+    private volatile boolean ended;
+
+    /**
+     * Count of consumed incoming messages for which {@link #handleMessage} invocation is still expected.
+     */
+    private volatile int pendingMessagesCount;
+
+    public SingleResponseCollector(String topic, Message requestMessage, RequestOptions requestOptions, MsbContextImpl msbContext,
+            CompletableFuture<T> future, TypeReference<T> payloadTypeReference) {
+        this.correlationId = requestMessage.getCorrelationId();
+        this.future = future;
+        this.payloadTypeReference = payloadTypeReference;
+        this.payloadMapper = msbContext.getPayloadMapper();
+        this.collectorManager = msbContext.getCollectorManagerFactory().findOrCreateCollectorManager(topic);
+        this.timeoutManager = msbContext.getTimeoutManager();
+        this.clock = msbContext.getClock();
+        this.startedAt = clock.instant().toEpochMilli();
+        this.timeoutMs = requestOptions.getResponseTimeout() != null
+                ? requestOptions.getResponseTimeout()
+                : msbContext.getMsbConfig().getDefaultResponseTimeout();
+    }
+
+    @Override
+    public void notifyMessageConsumed() {
+        PENDING_MESSAGES_COUNT_UPDATER.incrementAndGet(this);
+    }
+
+    @Override
+    public void notifyConsumedMessageIsLost() {
+        messageHandled();
+    }
+
+    public void listenForResponses() {
+        collectorManager.registerCollector(this);
+    }
+
+    /**
+     * Schedules the response timeout.
+     */
+    public synchronized void waitForResponses() {
+        if (!ended) {
+            scheduleTimeout();
+        }
+    }
+
+    @Override
+    public void handleMessage(Message incomingMessage, AcknowledgementHandler acknowledgeHandler) {
+        LOG.debug("[correlation ids: {}-{}] Received.", correlationId, incomingMessage.getCorrelationId());
+        LOG.trace("Message: {}", incomingMessage);
+
+        try {
+            MessagePayload rawPayload = incomingMessage.getPayload();
+            if (Utils.isPayloadPresent(rawPayload)) {
+                try {
+                    future.complete(rawPayload.bind(payloadTypeReference, payloadMapper));
+                } catch (Exception e) {
+                    //do not propagate exception outside of this method in order to prevent autoRetry for responses
+                    LOG.warn("[correlation id: {}] Unable to convert response payload", correlationId, e);
+                    future.cancel(true);
+                }
+                end();
+            } else {
+                processAck(incomingMessage.getAck());
+            }
+        } finally {
+            messageHandled();
+        }
+    }
+
+    private void processAck(Acknowledge acknowledge) {
+        if (acknowledge == null) {
+            return;
+        }
+        LOG.debug("[correlation id: {}] Received {}", correlationId, acknowledge);
+
+        Integer responsesRemaining = acknowledge.getResponsesRemaining();
+        if (responsesRemaining != null && responsesRemaining != 1) {
+            LOG.debug("[correlation id: {}] Responder [{}] announced {} responses instead of one", correlationId,
+                    acknowledge.getResponderId(), responsesRemaining);
+            future.cancel(true);
+            end();
+            return;
+        }
+
+        if (acknowledge.getTimeoutMs() != null) {
+            extendTimeout(acknowledge.getTimeoutMs());
+        }
+    }
+
+    private synchronized void extendTimeout(int ackTimeoutMs) {
+        if (ended || ackTimeoutMs <= timeoutMs) {
+            return;
+        }
+        timeoutMs = ackTimeoutMs;
+        if (timeoutFuture != null) {
+            scheduleTimeout();
+        }
+    }
+
+    private void scheduleTimeout() {
+        if (timeoutFuture != null) {
+            timeoutFuture.cancel(true);
+        }
+        int remainingTimeoutMs = timeoutMs - toIntExact(clock.instant().toEpochMilli() - startedAt);
+        LOG.debug("[correlation id: {}] Waiting for response for {} ms.", correlationId, remainingTimeoutMs);
+        timeoutFuture = timeoutManager.enableSingleResponseTimeout(remainingTimeoutMs, this);
+    }
+
+    /**
+     * Invoked if the request couldn't be delivered to the bus: completes the future exceptionally and ends
+     * the collector, since no response to the request will arrive.
+     */
+    public void handlePublishFailure(Throwable cause) {
+        future.completeExceptionally(cause);
+        end();
+    }
+
+    /**
+     * Unsubscribes the collector and cancels the future unless it's completed or a consumed message is still
+     * being handled. In that case the future is cancelled by the thread that handles the last of them.
+     * Repeated calls have no effect.
+     */
+    void end() {
+        synchronized (this) {
+            if (ended) {
+                return;
+            }
+            ended = true;
+            if (timeoutFuture != null) {
+                timeoutFuture.cancel(true);
+            }
+        }
+        LOG.debug("[correlation id: {}] Stop response processing", correlationId);
+        collectorManager.unregisterCollector(this);
+
+        if (pendingMessagesCount <= 0) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * Both the flag and the count are changed by different threads, each of them changes its own value first
+     * and then checks the other one, so at least one of them sees both. Cancelling a future twice or after
+     * completion has no effect.
+     */
+    private void messageHandled() {
+        if (PENDING_MESSAGES_COUNT_UPDATER.decrementAndGet(this) <= 0 && ended) {
+            future.cancel(true);
+        }
+    }
+
+    String getCorrelationId() {
+        return correlationId;
+    }
+
+    @Override
+    public boolean forceDirectInvocation() {
+        return true;
+    }
+}
@@ -1,6 +1,8 @@
 package io.github.tcdl.msb.collector;
 
+import io.github.tcdl.msb.HashedWheelTimer;
 import io.github.tcdl.msb.RunOnShutdownScheduledExecutorDecorator;
+import io.github.tcdl.msb.RunOnShutdownScheduler;
 import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,32 +13,53 @@ import java.util.concurrent.TimeUnit;
 
 /**
  * {@link  TimeoutManager} class is responsible for scheduling tasks for execution and returning scheduled future for this tasks.
+ * Tasks are scheduled either on a thread pool or on a {@link HashedWheelTimer} that schedules and cancels them in constant time.
  */
 public class TimeoutManager {
 
     private static final Logger LOG = LoggerFactory.getLogger(TimeoutManager.class);
 
-    private RunOnShutdownScheduledExecutorDecorator timeoutExecutorDecorator;
+    private RunOnShutdownScheduler timeoutExecutorDecorator;
 
     public TimeoutManager(int threadPoolSize) {
         timeoutExecutorDecorator = createTimeoutExecutorDecorator(threadPoolSize);
     }
 
+    /**
+     * Creates manager that schedules tasks on a hashed timing wheel.
+     *
+     * @param threadPoolSize number of threads that execute expired tasks
+     * @param tickDurationMs precision of the timeouts
+     * @param ticksPerWheel number of ticks in a turn of the wheel
+     */
+    public TimeoutManager(int threadPoolSize, long tickDurationMs, int ticksPerWheel) {
+        timeoutExecutorDecorator = new HashedWheelTimer("timeout manager", tickDurationMs, TimeUnit.MILLISECONDS, ticksPerWheel, threadPoolSize,
+                createThreadFactory());
+    }
+
     protected ScheduledFuture<?> enableResponseTimeout(int timeoutMs, Collector collector) {
-        LOG.debug("[correlation id: {}] Enabling response timeout for {} ms", collector.getRequestMessage().getCorrelationId(), timeoutMs);
+        return enableResponseTimeout(timeoutMs, collector.getRequestMessage().getCorrelationId(), collector::end);
+    }
+
+    protected ScheduledFuture<?> enableSingleResponseTimeout(int timeoutMs, SingleResponseCollector<?> collector) {
+        return enableResponseTimeout(timeoutMs, collector.getCorrelationId(), collector::end);
+    }
+
+    private ScheduledFuture<?> enableResponseTimeout(int timeoutMs, String correlationId, Runnable onTimeout) {
+        LOG.debug("[correlation id: {}] Enabling response timeout for {} ms", correlationId, timeoutMs);
 
         if (timeoutMs <= 0) {
-            LOG.debug("[correlation id: {}] Unable to schedule timeout with negative delay : {}", collector.getRequestMessage().getCorrelationId(), timeoutMs);
+            LOG.debug("[correlation id: {}] Unable to schedule timeout with negative delay : {}", correlationId, timeoutMs);
             return null;
         }
 
         try {
             return timeoutExecutorDecorator.schedule(() -> {
-                LOG.debug("[correlation id: {}] Response timeout expired.", collector.getRequestMessage().getCorrelationId());
-                collector.end();
+                LOG.debug("[correlation id: {}] Response timeout expired.", correlationId);
+                onTimeout.run();
             }, timeoutMs, TimeUnit.MILLISECONDS);
         } catch (RejectedExecutionException e) {
-            LOG.warn("[correlation id: {}] Unable to schedule task for execution", collector.getRequestMessage().getCorrelationId(), e);
+            LOG.warn("[correlation id: {}] Unable to schedule task for execution", correlationId, e);
             return null;
         }
 
@@ -66,11 +89,13 @@ public class TimeoutManager {
     }
 
     private RunOnShutdownScheduledExecutorDecorator createTimeoutExecutorDecorator(int threadPoolSize) {
-        BasicThreadFactory threadFactory = new BasicThreadFactory.Builder()
+        return new RunOnShutdownScheduledExecutorDecorator("timeout manager", threadPoolSize, createThreadFactory());
+    }
+
+    private static BasicThreadFactory createThreadFactory() {
+        return new BasicThreadFactory.Builder()
                 .namingPattern("timer-provider-thread-%d")
                 .build();
-
-        return new RunOnShutdownScheduledExecutorDecorator("timeout manager", threadPoolSize, threadFactory);
     }
 
     public void shutdown() {
@@ -2,6 +2,7 @@ package io.github.tcdl.msb.config;
 
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
+import io.github.tcdl.msb.api.exception.ConfigurationException;
 import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,6 +16,8 @@ import static io.github.tcdl.msb.config.ConfigurationUtil.*;
  */
 public class MsbConfig {
 
+    private static final int MAX_CORRELATION_INDEX_SHARDS = 1 << 16;
+
     public final Logger LOG = LoggerFactory.getLogger(getClass());
 
     //Broker Adapter Factory class. Represented with brokerAdapterFactory property from config 
@@ -29,8 +32,16 @@ public class MsbConfig {
 
     private final boolean validateMessage;
 
+    private final String messageCodec;
+
     private final int timerThreadPoolSize;
 
+    private final TimerType timerType;
+
+    private final long timerTickDuration;
+
+    private final int timerTicksPerWheel;
+
     private final boolean mdcLogging;
 
     private final String mdcLoggingKeyMessageTags;
@@ -45,6 +56,12 @@ public class MsbConfig {
 
     private final int defaultResponseTimeout;
 
+    private final int responseProducersMaxSize;
+
+    private final long responseProducersIdleTimeout;
+
+    private final int correlationIndexShards;
+
     public MsbConfig(Config loadedConfig) {
         Config config = loadedConfig.getConfig("msbConfig");
 
@@ -55,7 +72,17 @@ public class MsbConfig {
 
         this.brokerConfig = config.hasPath("brokerConfig") ? config.getConfig("brokerConfig") : ConfigFactory.empty();
         this.timerThreadPoolSize = getInt(config, "timerThreadPoolSize");
+        Config timerConfig = config.getConfig("timer");
+        String timerTypeName = getString(timerConfig, "type");
+        try {
+            this.timerType = TimerType.valueOf(timerTypeName.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ConfigurationException(String.format("Unsupported timer type: '%s'", timerTypeName), e);
+        }
+        this.timerTickDuration = getLong(timerConfig, "tickDuration");
+        this.timerTicksPerWheel = getInt(timerConfig, "ticksPerWheel");
         this.validateMessage = getBoolean(config, "validateMessage");
+        this.messageCodec = getString(config, "messageCodec");
 
         this.consumerThreadPoolSize = config.getInt("threadingConfig.consumerThreadPoolSize");
         this.consumerThreadPoolQueueCapacity = config.getInt("threadingConfig.consumerThreadPoolQueueCapacity");
@@ -71,6 +98,15 @@ public class MsbConfig {
         Config requestOptionsConfig = config.getConfig("requestOptions");
         this.defaultResponseTimeout = getInt(requestOptionsConfig, "responseTimeout");
 
+        Config responseProducersConfig = config.getConfig("responseProducers");
+        this.responseProducersMaxSize = getInt(responseProducersConfig, "maxSize");
+        this.responseProducersIdleTimeout = getLong(responseProducersConfig, "idleTimeout");
+
+        this.correlationIndexShards = getInt(config, "correlationIndexShards");
+        if (correlationIndexShards <= 0 || correlationIndexShards > MAX_CORRELATION_INDEX_SHARDS) {
+            throw new ConfigurationException(String.format("'correlationIndexShards' must be in range [1, %d]", MAX_CORRELATION_INDEX_SHARDS));
+        }
+
         LOG.debug("Loaded {}", this);
     }
 
@@ -99,6 +135,10 @@ public class MsbConfig {
         return validateMessage;
     }
 
+    public String getMessageCodec() {
+        return messageCodec;
+    }
+
     public Config getBrokerConfig() {
         return brokerConfig;
     }
@@ -111,6 +151,24 @@ public class MsbConfig {
         return timerThreadPoolSize;
     }
 
+    public TimerType getTimerType() {
+        return timerType;
+    }
+
+    /**
+     * @return duration of a tick of {@link TimerType#WHEEL} timer in milliseconds
+     */
+    public long getTimerTickDuration() {
+        return timerTickDuration;
+    }
+
+    /**
+     * @return number of ticks in a turn of {@link TimerType#WHEEL} timer
+     */
+    public int getTimerTicksPerWheel() {
+        return timerTicksPerWheel;
+    }
+
     public boolean isMdcLogging() {
         return mdcLogging;
     }
@@ -131,6 +189,27 @@ public class MsbConfig {
         return defaultResponseTimeout;
     }
 
+    /**
+     * @return maximum number of response topic producers kept open
+     */
+    public int getResponseProducersMaxSize() {
+        return responseProducersMaxSize;
+    }
+
+    /**
+     * @return time in milliseconds after which an unused response topic producer is closed
+     */
+    public long getResponseProducersIdleTimeout() {
+        return responseProducersIdleTimeout;
+    }
+
+    /**
+     * @return number of shards of the index of requests waiting for responses on a topic
+     */
+    public int getCorrelationIndexShards() {
+        return correlationIndexShards;
+    }
+
     @Override public String toString() {
         //please keep custom "brokerConfig" when using auto-generation of this method
         return "MsbConfig{" +
@@ -138,13 +217,20 @@ public class MsbConfig {
                 ", serviceDetails=" + serviceDetails +
                 ", schema='" + schema + '\'' +
                 ", validateMessage=" + validateMessage +
+                ", messageCodec='" + messageCodec + '\'' +
                 ", timerThreadPoolSize=" + timerThreadPoolSize +
+                ", timerType=" + timerType +
+                ", timerTickDuration=" + timerTickDuration +
+                ", timerTicksPerWheel=" + timerTicksPerWheel +
                 ", mdcLogging=" + mdcLogging +
                 ", mdcLoggingKeyMessageTags='" + mdcLoggingKeyMessageTags + '\'' +
                 ", mdcLoggingKeyCorrelationId='" + mdcLoggingKeyCorrelationId + '\'' +
                 ", mdcLoggingSplitTagsBy='" + mdcLoggingSplitTagsBy + '\'' +
                 ", consumerThreadPoolSize=" + consumerThreadPoolSize +
                 ", consumerThreadPoolQueueCapacity=" + consumerThreadPoolQueueCapacity +
+                ", responseProducersMaxSize=" + responseProducersMaxSize +
+                ", responseProducersIdleTimeout=" + responseProducersIdleTimeout +
+                ", correlationIndexShards=" + correlationIndexShards +
                 ", brokerConfig='" + brokerConfig.root().render() + '\'' +
                 '}';
     }
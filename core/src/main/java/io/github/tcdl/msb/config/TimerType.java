@@ -0,0 +1,17 @@
+package io.github.tcdl.msb.config;
+
+/**
+ * Scheduler of ack and response timeout tasks.
+ */
+public enum TimerType {
+
+    /**
+     * Tasks are kept in a scheduled thread pool.
+     */
+    EXECUTOR,
+
+    /**
+     * Tasks are kept on a hashed timing wheel that schedules and cancels them in constant time.
+     */
+    WHEEL
+}
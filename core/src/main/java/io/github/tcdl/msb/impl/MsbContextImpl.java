@@ -4,15 +4,20 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.tcdl.msb.ChannelManager;
 import io.github.tcdl.msb.api.MsbContext;
 import io.github.tcdl.msb.api.ObjectFactory;
+import io.github.tcdl.msb.api.RequestOptions;
 import io.github.tcdl.msb.callback.MutableCallbackHandler;
 import io.github.tcdl.msb.collector.CollectorManager;
 import io.github.tcdl.msb.collector.CollectorManagerFactory;
 import io.github.tcdl.msb.collector.TimeoutManager;
 import io.github.tcdl.msb.config.MsbConfig;
 import io.github.tcdl.msb.message.MessageFactory;
+import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Specifies the context for MSB message processing.
@@ -126,6 +131,26 @@ public class MsbContextImpl implements MsbContext {
         this.objectFactory = objectFactory;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void warmUp(String... namespaces) {
+        Validate.noNullElements(namespaces, "namespaces must not be null");
+        List<String> topics = new ArrayList<>(Arrays.asList(namespaces));
+        for (String namespace : namespaces) {
+            topics.add(messageFactory.createResponseTopic(namespace));
+        }
+        LOG.info("Warming up topics {}...", topics);
+        channelManager.warmUp(topics);
+
+        for (String namespace : namespaces) {
+            channelManager.findOrCreateProducer(namespace, RequestOptions.DEFAULTS);
+            collectorManagerFactory.findOrCreateCollectorManager(messageFactory.createResponseTopic(namespace)).subscribe();
+        }
+        LOG.info("Topics have been warmed up.");
+    }
+
     @Override
     public void addShutdownCallback(Runnable shutdownCallback) {
         shutdownCallbackHandler.add(shutdownCallback);
@@ -2,16 +2,20 @@ package io.github.tcdl.msb.impl;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import io.github.tcdl.msb.ChannelManager;
+import io.github.tcdl.msb.adapters.PublishOptions;
 import io.github.tcdl.msb.api.*;
 import io.github.tcdl.msb.api.message.Acknowledge;
 import io.github.tcdl.msb.api.message.Message;
 import io.github.tcdl.msb.api.message.Topics;
 import io.github.tcdl.msb.collector.Collector;
+import io.github.tcdl.msb.collector.SingleResponseCollector;
 import io.github.tcdl.msb.events.EventHandlers;
 import io.github.tcdl.msb.message.MessageFactory;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.Arrays;
 import java.util.concurrent.CompletableFuture;
@@ -26,6 +30,8 @@ import java.util.function.BiConsumer;
  */
 public class RequesterImpl<T> implements Requester<T> {
 
+    private static final Logger LOG = LoggerFactory.getLogger(RequesterImpl.class);
+
     private RequestOptions requestOptions;
     private MsbContextImpl context;
 
@@ -113,10 +119,14 @@ public class RequesterImpl<T> implements Requester<T> {
      */
     @Override
     public CompletableFuture<T> request(Object requestPayload, Message originalMessage, String... tags) {
-        this.eventHandlers = new EventHandlers<>(); //discard all previously set handlers
-
         CompletableFuture<T> futureResult = new CompletableFuture<>();
 
+        if (isSingleResponseRequest()) {
+            publishSingleResponseRequest(futureResult, requestPayload, originalMessage, tags);
+            return futureResult;
+        }
+
+        this.eventHandlers = new EventHandlers<>(); //discard all previously set handlers
         this.onResponse((response, messageContext) -> futureResult.complete(response))
                 .onAcknowledge((acknowledge, messageContext) -> {
                     boolean noResponse = !futureResult.isDone() && acknowledge.getResponsesRemaining() < 1;
@@ -145,6 +155,56 @@ public class RequesterImpl<T> implements Requester<T> {
     }
 
     private void publish(boolean invokeHandlersDirectly, Object requestPayload, Message originalMessage, String... tags) {
+        boolean fireAndForget = !(isWaitForAckMs() || isWaitForResponses());
+        boolean forwardingRequired = StringUtils.isNotBlank(requestOptions.getForwardNamespace());
+        String directReplyTopic = !(forwardingRequired || fireAndForget) ? getDirectReplyTopic() : null;
+
+        Message message = createRequestMessage(requestPayload, originalMessage, directReplyTopic, tags);
+
+        if(forwardingRequired || fireAndForget){
+            publishMessage(message, null).whenComplete((result, cause) -> {
+                if (cause != null) {
+                    logPublishFailure(message, cause);
+                }
+            });
+        } else {
+            //set up collector for responses or acks
+            Collector collector = createCollector(message, requestOptions, context, eventHandlers, invokeHandlersDirectly);
+            collector.listenForResponses();
+
+            publishMessage(message, directReplyTopic).whenComplete((result, cause) -> {
+                if (cause != null) {
+                    logPublishFailure(message, cause);
+                    collector.handlePublishFailure(cause);
+                }
+            });
+
+            collector.waitForResponses();
+        }
+    }
+
+    /**
+     * Requests that wait for a single response to complete the future are collected by {@link SingleResponseCollector}
+     * that doesn't need event handlers and per-responder bookkeeping of {@link Collector}.
+     */
+    private void publishSingleResponseRequest(CompletableFuture<T> futureResult, Object requestPayload, Message originalMessage, String... tags) {
+        String directReplyTopic = getDirectReplyTopic();
+        Message message = createRequestMessage(requestPayload, originalMessage, directReplyTopic, tags);
+
+        SingleResponseCollector<T> collector = createSingleResponseCollector(message, requestOptions, context, futureResult);
+        collector.listenForResponses();
+
+        publishMessage(message, directReplyTopic).whenComplete((result, cause) -> {
+            if (cause != null) {
+                logPublishFailure(message, cause);
+                collector.handlePublishFailure(cause);
+            }
+        });
+
+        collector.waitForResponses();
+    }
+
+    private Message createRequestMessage(Object requestPayload, Message originalMessage, String directReplyTopic, String... tags) {
         MessageTemplate messageTemplate = MessageTemplate.copyOf(requestOptions.getMessageTemplate());
 
         if (tags != null) {
@@ -155,29 +215,35 @@ public class RequesterImpl<T> implements Requester<T> {
                 namespace,
                 requestOptions.getForwardNamespace(),
                 requestOptions.getRoutingKey(),
+                directReplyTopic,
                 messageTemplate,
                 originalMessage);
 
-        Message message = messageFactory.createRequestMessage(messageBuilder, requestPayload);
-
-        boolean fireAndForget = !(isWaitForAckMs() || isWaitForResponses());
-        boolean forwardingRequired = StringUtils.isNotBlank(requestOptions.getForwardNamespace());
-
-        if(forwardingRequired || fireAndForget){
-            publishMessage(message);
-        } else {
-            //set up collector for responses or acks
-            Collector collector = createCollector(message, requestOptions, context, eventHandlers, invokeHandlersDirectly);
-            collector.listenForResponses();
+        return messageFactory.createRequestMessage(messageBuilder, requestPayload);
+    }
 
-            publishMessage(message);
+    /**
+     * @return direct reply topic if it's requested and supported by the adapter, null otherwise
+     */
+    private String getDirectReplyTopic() {
+        return requestOptions.isDirectReplyTo() ? getChannelManager().getDirectReplyTopic().orElse(null) : null;
+    }
 
-            collector.waitForResponses();
+    /**
+     * @param directReplyTopic direct reply topic the responses should be delivered to or null if they are sent to the response topic
+     * @return future that is completed when the adapter confirms delivery of the message
+     */
+    private CompletableFuture<Void> publishMessage(Message message, String directReplyTopic) {
+        PublishOptions publishOptions = PublishOptions.fromTemplate(requestOptions.getMessageTemplate());
+        if (directReplyTopic != null) {
+            publishOptions = publishOptions.asBuilder().withReplyTo(directReplyTopic).build();
         }
+        return getChannelManager().findOrCreateProducer(message.getTopics().getTo(), requestOptions)
+                .publish(message, publishOptions);
     }
 
-    private void publishMessage(Message message) {
-        getChannelManager().findOrCreateProducer(message.getTopics().getTo(), requestOptions).publish(message);
+    private static void logPublishFailure(Message message, Throwable cause) {
+        LOG.warn("[correlation id: {}] Failed to publish request to topic {}", message.getCorrelationId(), message.getTopics().getTo(), cause);
     }
 
     private boolean isWaitForAckMs() {
@@ -188,6 +254,10 @@ public class RequesterImpl<T> implements Requester<T> {
         return requestOptions.getWaitForResponses() != 0;
     }
 
+    private boolean isSingleResponseRequest() {
+        return requestOptions.getWaitForResponses() == 1 && StringUtils.isBlank(requestOptions.getForwardNamespace());
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -244,4 +314,12 @@ public class RequesterImpl<T> implements Requester<T> {
         return new Collector<>(requestMessage.getTopics().getResponse(), requestMessage, requestOptions, context,
                 eventHandlers, payloadTypeReference, invokeHandlersDirectly);
     }
+
+    SingleResponseCollector<T> createSingleResponseCollector(Message requestMessage,
+                                                             RequestOptions requestOptions,
+                                                             MsbContextImpl context,
+                                                             CompletableFuture<T> futureResult) {
+        return new SingleResponseCollector<>(requestMessage.getTopics().getResponse(), requestMessage, requestOptions, context,
+                futureResult, payloadTypeReference);
+    }
 }
@@ -2,9 +2,10 @@ package io.github.tcdl.msb.impl;
 
 import io.github.tcdl.msb.ChannelManager;
 import io.github.tcdl.msb.Producer;
+import io.github.tcdl.msb.adapters.PublishOptions;
+import io.github.tcdl.msb.api.DeliveryMode;
 import io.github.tcdl.msb.api.AcknowledgementHandler;
 import io.github.tcdl.msb.api.MessageTemplate;
-import io.github.tcdl.msb.api.RequestOptions;
 import io.github.tcdl.msb.api.Responder;
 import io.github.tcdl.msb.api.message.Acknowledge.Builder;
 import io.github.tcdl.msb.api.message.Message;
@@ -23,6 +24,7 @@ public class ResponderImpl implements Responder {
     private ChannelManager channelManager;
     private MessageFactory messageFactory;
     private Message.Builder messageBuilder;
+    private PublishOptions publishOptions;
 
     public ResponderImpl(MessageTemplate messageTemplate, Message originalMessage, 
             MsbContextImpl msbContext) {
@@ -31,6 +33,10 @@ public class ResponderImpl implements Responder {
         this.channelManager = msbContext.getChannelManager();
         this.messageFactory = msbContext.getMessageFactory();
         this.messageBuilder = messageFactory.createResponseMessageBuilder(messageTemplate, originalMessage);
+        // responses and acks are worthless once the requester is gone, so there is no point to persist them
+        this.publishOptions = PublishOptions.fromTemplate(messageTemplate).asBuilder()
+                .withDeliveryMode(DeliveryMode.TRANSIENT)
+                .build();
     }
 
     /**
@@ -61,9 +67,13 @@ public class ResponderImpl implements Responder {
     }
 
     private void sendMessage(Message message) {
-        Producer producer = channelManager.findOrCreateProducer(message.getTopics().getTo(), RequestOptions.DEFAULTS);
+        Producer producer = channelManager.findOrCreateResponseProducer(message.getTopics().getTo());
         LOG.debug("Publishing message to topic : {}", message.getTopics().getTo());
-        producer.publish(message);
+        producer.publish(message, publishOptions).whenComplete((result, cause) -> {
+            if (cause != null) {
+                LOG.warn("[correlation id: {}] Failed to publish response to topic {}", message.getCorrelationId(), message.getTopics().getTo(), cause);
+            }
+        });
     }
 
     private void validateReceivedMessage(Message originalMessage) {
@@ -87,9 +87,11 @@ public class ResponderServerImpl<T> implements ResponderServer {
     public MetricSet getMetrics() {
         Gauge<Long> messageCountMetric = () -> msbContext.getChannelManager().getAvailableMessageCount(namespace).orElse(null);
         Gauge<Boolean> consumerConnectedMetric = () -> msbContext.getChannelManager().isConnected(namespace).orElse(null);
+        Gauge<Integer> prefetchCountMetric = () -> msbContext.getChannelManager().getPrefetchCount(namespace).orElse(null);
         return () -> ImmutableMap.of(
                 MetricSet.MESSAGE_COUNT_METRIC, messageCountMetric,
-                MetricSet.CONSUMER_CONNECTED_METRIC, consumerConnectedMetric);
+                MetricSet.CONSUMER_CONNECTED_METRIC, consumerConnectedMetric,
+                MetricSet.PREFETCH_COUNT_METRIC, prefetchCountMetric);
     }
 
     Responder createResponder(Message incomingMessage) {
@@ -106,9 +108,8 @@ public class ResponderServerImpl<T> implements ResponderServer {
 
     void onResponder(ResponderContext responderContext) {
         Message originalMessage = responderContext.getOriginalMessage();
-        Object rawPayload = originalMessage.getRawPayload();
         try {
-            T request = Utils.convert(rawPayload, payloadTypeReference, payloadMapper);
+            T request = Utils.bindPayload(originalMessage.getPayload(), payloadTypeReference, payloadMapper);
             MsbThreadContext.setMessageContext(responderContext);
             MsbThreadContext.setRequest(request);
 
@@ -1,10 +1,10 @@
 package io.github.tcdl.msb.message;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.tcdl.msb.api.MessageTemplate;
 import io.github.tcdl.msb.api.message.Acknowledge;
 import io.github.tcdl.msb.api.message.Message;
+import io.github.tcdl.msb.api.message.MessagePayload;
 import io.github.tcdl.msb.api.message.MetaMessage;
 import io.github.tcdl.msb.api.message.MetaMessage.Builder;
 import io.github.tcdl.msb.api.message.Topics;
@@ -33,15 +33,19 @@ public class MessageFactory {
         this.payloadMapper = payloadMapper;
     }
 
+    /**
+     * The payload object is kept in the message as is and serialized only once together with the message.
+     */
     public Message createRequestMessage(Message.Builder messageBuilder, Object payload) {
-        JsonNode convertedPayload = Utils.convert(payload, JsonNode.class, payloadMapper);
-        messageBuilder.withPayload(convertedPayload);
+        messageBuilder.withMessagePayload(createPayload(payload));
         return messageBuilder.build();
     }
 
+    /**
+     * The payload object is kept in the message as is and serialized only once together with the message.
+     */
     public Message createResponseMessage(Message.Builder messageBuilder, Acknowledge ack, Object payload) {
-        JsonNode convertedPayload = Utils.convert(payload, JsonNode.class, payloadMapper);
-        messageBuilder.withPayload(convertedPayload);
+        messageBuilder.withMessagePayload(createPayload(payload));
         messageBuilder.withAck(ack);
         return messageBuilder.build();
     }
@@ -51,14 +55,31 @@ public class MessageFactory {
     }
 
     public Message.Builder createRequestMessageBuilder(String namespace, String forwardNamespace, String routingKey, MessageTemplate messageTemplate, Message originalMessage) {
-        String responseNamespace = StringUtils.isBlank(forwardNamespace)
-                ? namespace + ":response:" + this.serviceDetails.getInstanceId()
-                : null;
+        return createRequestMessageBuilder(namespace, forwardNamespace, routingKey, null, messageTemplate, originalMessage);
+    }
+
+    /**
+     * @param responseTopic topic responses should be sent to. If null, responses are sent to the response topic of this microservice instance
+     *                      unless the message is forwarded.
+     */
+    public Message.Builder createRequestMessageBuilder(String namespace, String forwardNamespace, String routingKey, String responseTopic,
+            MessageTemplate messageTemplate, Message originalMessage) {
+        String responseNamespace = responseTopic;
+        if (responseNamespace == null && StringUtils.isBlank(forwardNamespace)) {
+            responseNamespace = createResponseTopic(namespace);
+        }
 
         Topics topic = new Topics(namespace, responseNamespace, forwardNamespace, routingKey);
         return createMessageBuilder(topic, messageTemplate, originalMessage, false);
     }
 
+    /**
+     * @return topic this microservice instance receives responses to requests sent to the given namespace on
+     */
+    public String createResponseTopic(String namespace) {
+        return namespace + ":response:" + this.serviceDetails.getInstanceId();
+    }
+
     public Message.Builder createRequestMessageBuilder(String namespace, String forwardNamespace, MessageTemplate messageTemplate, Message originalMessage) {
         return createRequestMessageBuilder(namespace, forwardNamespace, null, messageTemplate, originalMessage);
     }
@@ -77,6 +98,10 @@ public class MessageFactory {
         return new Acknowledge.Builder().withResponderId(Utils.generateId());
     }
 
+    private MessagePayload createPayload(Object payload) {
+        return payload != null ? MessagePayload.ofValue(payload, payloadMapper) : null;
+    }
+
     private Message.Builder createMessageBuilder(Topics topics, MessageTemplate messageTemplate, Message originalMessage, boolean isResponseMessage) {
         Message.Builder messageBuilder = new Message.Builder().withId(Utils.generateId());
         messageBuilder.withTags(createTags(messageTemplate, originalMessage));
@@ -41,9 +41,29 @@ public class JsonValidator {
         Validate.notNull(json, "field 'json' is null");
         Validate.notNull(schema, "field 'schema' is null");
 
+        JsonNode jsonNode;
         try {
-            JsonNode jsonNode = jsonReader.read(json);
+            jsonNode = jsonReader.read(json);
+        } catch (IOException e) {
+            LOG.error(ERROR_MESSAGE_TEMPLATE, schema);
+            LOG.trace("Message: {}", json);
+            throw new JsonSchemaValidationException(String.format(ERROR_MESSAGE_TEMPLATE, schema), e);
+        }
+
+        validate(jsonNode, schema);
+    }
+
+    /**
+     * Validates already parsed JSON tree so that the caller is able to reuse the same tree afterwards.
+     *
+     * @throws JsonSchemaValidationException if problem encountered during validation.
+     */
+    public void validate(JsonNode jsonNode, String schema) {
 
+        Validate.notNull(jsonNode, "field 'jsonNode' is null");
+        Validate.notNull(schema, "field 'schema' is null");
+
+        try {
             JsonSchema jsonSchema = schemaCache.computeIfAbsent(schema, s -> {
                 try {
                     JsonNode jsonSchemaNode = jsonReader.read(s);
@@ -60,9 +80,9 @@ public class JsonValidator {
                 throw new JsonSchemaValidationException(validationReport.toString());
             }
 
-        } catch (IOException | ProcessingException e) {
+        } catch (ProcessingException e) {
             LOG.error(ERROR_MESSAGE_TEMPLATE, schema);
-            LOG.trace("Message: {}", json);
+            LOG.trace("Message: {}", jsonNode);
             throw new JsonSchemaValidationException(String.format(ERROR_MESSAGE_TEMPLATE, schema), e);
         }
     }
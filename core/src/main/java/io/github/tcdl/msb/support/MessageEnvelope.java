@@ -0,0 +1,152 @@
+package io.github.tcdl.msb.support;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.tcdl.msb.api.exception.JsonConversionException;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * {@link MessageEnvelope} holds the routing fields of a raw incoming message: id, correlationId, meta.ttl and meta.createdAt.
+ *
+ * The fields are read by a streaming parser that stops as soon as all of them are found, so neither the rest of the
+ * envelope nor the payload is parsed. This makes it cheap to drop expired and unroutable messages before they are
+ * fully deserialized.
+ */
+public final class MessageEnvelope {
+
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_CORRELATION_ID = "correlationId";
+    private static final String FIELD_META = "meta";
+    private static final String FIELD_TTL = "ttl";
+    private static final String FIELD_CREATED_AT = "createdAt";
+
+    private String id;
+    private String correlationId;
+    private boolean metaFound;
+    private Integer ttl;
+    private Instant createdAt;
+
+    private MessageEnvelope() {
+    }
+
+    /**
+     * @throws JsonConversionException if problem encountered during parsing JSON
+     */
+    public static MessageEnvelope peek(String json, ObjectMapper objectMapper) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            return peek(parser);
+        } catch (IOException e) {
+            throw new JsonConversionException("Failed parse from JSON", e);
+        }
+    }
+
+    /**
+     * @throws JsonConversionException if problem encountered during parsing JSON
+     */
+    public static MessageEnvelope peek(byte[] json, Charset charset, ObjectMapper objectMapper) {
+        try (JsonParser parser = Utils.createParser(json, charset, objectMapper)) {
+            return peek(parser);
+        } catch (IOException e) {
+            throw new JsonConversionException("Failed parse from JSON", e);
+        }
+    }
+
+    private static MessageEnvelope peek(JsonParser parser) throws IOException {
+        MessageEnvelope envelope = new MessageEnvelope();
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return envelope;
+        }
+
+        while (!envelope.isComplete() && parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (FIELD_ID.equals(fieldName)) {
+                envelope.id = readText(parser, token);
+            } else if (FIELD_CORRELATION_ID.equals(fieldName)) {
+                envelope.correlationId = readText(parser, token);
+            } else if (FIELD_META.equals(fieldName) && token == JsonToken.START_OBJECT) {
+                envelope.metaFound = true;
+                readMeta(parser, envelope);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return envelope;
+    }
+
+    private static void readMeta(JsonParser parser, MessageEnvelope envelope) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (FIELD_TTL.equals(fieldName) && token == JsonToken.VALUE_NUMBER_INT) {
+                envelope.ttl = parser.getIntValue();
+            } else if (FIELD_CREATED_AT.equals(fieldName) && token == JsonToken.VALUE_STRING) {
+                envelope.createdAt = parseInstant(parser.getText());
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private static String readText(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    private static Instant parseInstant(String text) {
+        try {
+            return Instant.parse(text);
+        } catch (DateTimeParseException e) {
+            // leave the decision to the full deserialization
+            return null;
+        }
+    }
+
+    private boolean isComplete() {
+        return id != null && correlationId != null && metaFound;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getCorrelationId() {
+        return correlationId;
+    }
+
+    public Integer getTtl() {
+        return ttl;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * @return true only if the message has both ttl and creation time and its expiry time is before the given moment
+     */
+    public boolean isExpired(Instant now) {
+        return isExpired(ttl, createdAt, now);
+    }
+
+    public static boolean isExpired(Integer ttl, Instant createdAt, Instant now) {
+        if (ttl == null || createdAt == null) {
+            return false;
+        }
+        return createdAt.plus(ttl, ChronoUnit.MILLIS).isBefore(now);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MessageEnvelope [id=%s, correlationId=%s, ttl=%s, createdAt=%s]", id, correlationId, ttl, createdAt);
+    }
+}
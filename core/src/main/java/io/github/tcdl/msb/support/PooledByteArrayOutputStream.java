@@ -0,0 +1,101 @@
+package io.github.tcdl.msb.support;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * {@link PooledByteArrayOutputStream} is a growable in-memory output stream whose buffer is reused by subsequent
+ * serializations on the same thread. It allows to serialize outgoing messages without allocating a new array per message.
+ *
+ * Instances are obtained with {@link #acquire()} and must be closed once the written data is no longer needed.
+ * If the thread's stream is still in use (e.g. message is published from within another publish call)
+ * a new non-pooled stream is returned.
+ */
+public final class PooledByteArrayOutputStream extends OutputStream {
+
+    static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * Buffers that grew bigger than this are dropped on release to not to retain memory after occasional huge messages.
+     */
+    static final int MAX_RETAINED_CAPACITY = 1024 * 1024;
+
+    private static final ThreadLocal<PooledByteArrayOutputStream> POOL = ThreadLocal.withInitial(() -> new PooledByteArrayOutputStream(true));
+
+    private final boolean pooled;
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int count;
+    private boolean inUse;
+
+    private PooledByteArrayOutputStream(boolean pooled) {
+        this.pooled = pooled;
+    }
+
+    public static PooledByteArrayOutputStream acquire() {
+        PooledByteArrayOutputStream stream = POOL.get();
+        if (stream.inUse) {
+            return new PooledByteArrayOutputStream(false);
+        }
+        stream.inUse = true;
+        return stream;
+    }
+
+    @Override
+    public void write(int b) {
+        ensureCapacity(count + 1);
+        buffer[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        if (off < 0 || len < 0 || off + len > b.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        ensureCapacity(count + len);
+        System.arraycopy(b, off, buffer, count, len);
+        count += len;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @return buffer that wraps the written data without copying. It is valid only until the stream is closed.
+     */
+    public ByteBuffer toByteBuffer() {
+        return ByteBuffer.wrap(buffer, 0, count);
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, count);
+    }
+
+    /**
+     * Returns the stream to the pool. Written data must not be accessed afterwards.
+     */
+    @Override
+    public void close() {
+        count = 0;
+        if (pooled) {
+            if (buffer.length > MAX_RETAINED_CAPACITY) {
+                buffer = new byte[INITIAL_CAPACITY];
+            }
+            inUse = false;
+        }
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity < 0) {
+            throw new OutOfMemoryError("Message is too large");
+        }
+        if (minCapacity > buffer.length) {
+            int newCapacity = Math.max(buffer.length << 1, minCapacity);
+            if (newCapacity < 0) {
+                newCapacity = Integer.MAX_VALUE - 8;
+            }
+            buffer = Arrays.copyOf(buffer, newCapacity);
+        }
+    }
+}
@@ -1,18 +1,27 @@
 
 package io.github.tcdl.msb.support;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.NullNode;
 import io.github.tcdl.msb.api.exception.JsonConversionException;
+import io.github.tcdl.msb.api.message.MessagePayload;
+import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -34,6 +43,51 @@ public class Utils {
         return UUID.randomUUID().toString();
     }
 
+    /**
+     * @return true if the id is a UUID in the canonical form produced by {@link #generateId()}: 36 characters,
+     * lowercase hex digits grouped by hyphens. Such ids can be kept as two longs and restored exactly.
+     */
+    public static boolean isCanonicalUuid(String id) {
+        if (id == null || id.length() != 36) {
+            return false;
+        }
+        for (int i = 0; i < 36; i++) {
+            char c = id.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return false;
+                }
+            } else if (!(c >= '0' && c <= '9' || c >= 'a' && c <= 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param id UUID in canonical form, see {@link #isCanonicalUuid(String)}
+     * @return the most significant 64 bits of the UUID, same as {@link UUID#getMostSignificantBits()}
+     */
+    public static long uuidMostSignificantBits(String id) {
+        return parseHex(id, 0, 8) << 32 | parseHex(id, 9, 13) << 16 | parseHex(id, 14, 18);
+    }
+
+    /**
+     * @param id UUID in canonical form, see {@link #isCanonicalUuid(String)}
+     * @return the least significant 64 bits of the UUID, same as {@link UUID#getLeastSignificantBits()}
+     */
+    public static long uuidLeastSignificantBits(String id) {
+        return parseHex(id, 19, 23) << 48 | parseHex(id, 24, 36);
+    }
+
+    private static long parseHex(String s, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            value = value << 4 | Character.digit(s.charAt(i), 16);
+        }
+        return value;
+    }
+
     public static String validateTopic(String topic) {
         if (VALID_TOPIC_REGEXP.matcher(topic).matches()) {
             return topic;
@@ -58,6 +112,33 @@ public class Utils {
         }
     }
 
+    /**
+     * Serializes the object straight into bytes in the format of the given object mapper.
+     *
+     * @throws JsonConversionException if problem encountered during serialization
+     */
+    public static byte[] toBytes(Object object, ObjectMapper objectMapper) {
+        try {
+            return objectMapper.writeValueAsBytes(object);
+        } catch (JsonProcessingException e) {
+            throw new JsonConversionException("Failed parse to JSON", e);
+        }
+    }
+
+    /**
+     * Serializes the object into the given stream in the format of the given object mapper. The stream is left open.
+     *
+     * @throws JsonConversionException if problem encountered during serialization
+     */
+    public static void writeTo(Object object, OutputStream out, ObjectMapper objectMapper) {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            objectMapper.writeValue(generator, object);
+        } catch (IOException e) {
+            throw new JsonConversionException("Failed parse to JSON", e);
+        }
+    }
+
     /**
      * @throws JsonConversionException if problem encountered during parsing JSON
      */
@@ -82,6 +163,73 @@ public class Utils {
         }
     }
 
+    /**
+     * Parses JSON directly from its encoded representation. UTF-8 input is handed to Jackson as is,
+     * other charsets are decoded on the fly without materializing an intermediate String.
+     *
+     * @throws JsonConversionException if problem encountered during parsing JSON
+     */
+    public static <T> T fromJson(byte[] json, Charset charset, Class<T> clazz, ObjectMapper objectMapper) {
+        if (ArrayUtils.isEmpty(json))
+            return null;
+        try (JsonParser parser = createParser(json, charset, objectMapper)) {
+            return objectMapper.readValue(parser, clazz);
+        } catch (IOException e) {
+            throw new JsonConversionException("Failed parse from JSON", e);
+        }
+    }
+
+    /**
+     * @throws JsonConversionException if problem encountered during parsing JSON
+     */
+    public static JsonNode readTree(String json, ObjectMapper objectMapper) {
+        if (StringUtils.isEmpty(json))
+            return null;
+        try {
+            return objectMapper.readTree(json);
+        } catch (IOException e) {
+            throw new JsonConversionException("Failed parse from JSON", e);
+        }
+    }
+
+    /**
+     * Same as {@link #readTree(String, ObjectMapper)} but reads JSON directly from its encoded representation.
+     *
+     * @throws JsonConversionException if problem encountered during parsing JSON
+     */
+    public static JsonNode readTree(byte[] json, Charset charset, ObjectMapper objectMapper) {
+        if (ArrayUtils.isEmpty(json))
+            return null;
+        try (JsonParser parser = createParser(json, charset, objectMapper)) {
+            return objectMapper.readTree(parser);
+        } catch (IOException e) {
+            throw new JsonConversionException("Failed parse from JSON", e);
+        }
+    }
+
+    /**
+     * Binds already parsed JSON tree to the given type without serializing it back to text.
+     *
+     * @throws JsonConversionException if the tree can't be bound to the given type
+     */
+    public static <T> T fromJsonTree(JsonNode tree, Class<T> clazz, ObjectMapper objectMapper) {
+        if (tree == null)
+            return null;
+        try {
+            return objectMapper.treeToValue(tree, clazz);
+        } catch (JsonProcessingException e) {
+            throw new JsonConversionException("Failed parse from JSON", e);
+        }
+    }
+
+    static JsonParser createParser(byte[] json, Charset charset, ObjectMapper objectMapper) throws IOException {
+        // binary formats are not affected by charset
+        if (StandardCharsets.UTF_8.equals(charset) || objectMapper.getFactory().canHandleBinaryNatively()) {
+            return objectMapper.getFactory().createParser(json);
+        }
+        return objectMapper.getFactory().createParser(new InputStreamReader(new ByteArrayInputStream(json), charset));
+    }
+
     public static <T> T convert(Object srcObject, Class<T> destClass, ObjectMapper objectMapper) {
         return convert(srcObject,
                 new TypeReference<T>() {
@@ -109,6 +257,20 @@ public class Utils {
         return rawPayload != null && !(rawPayload instanceof NullNode);
     }
 
+    public static boolean isPayloadPresent(MessagePayload payload) {
+        return payload != null && payload.isPresent();
+    }
+
+    /**
+     * Binds message payload to the given type without building an intermediate JSON tree if possible.
+     *
+     * @return bound payload or null if payload is absent
+     * @throws JsonConversionException if the payload can't be bound to the given type
+     */
+    public static <T> T bindPayload(MessagePayload payload, TypeReference<T> typeReference, ObjectMapper payloadMapper) {
+        return payload != null ? payload.bind(typeReference, payloadMapper) : null;
+    }
+
     /**
      * Shuts down given executor service and waits for all its tasks to complete.
      */
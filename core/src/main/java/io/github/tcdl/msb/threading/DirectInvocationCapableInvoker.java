@@ -38,6 +38,15 @@ public class DirectInvocationCapableInvoker implements MessageHandlerInvoker {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * Direct invoker is always aware of the context so it depends on the client invoker only.
+     */
+    @Override
+    public boolean isDiagnosticContextAware() {
+        return clientMessageHandlerInvoker.isDiagnosticContextAware();
+    }
+
     @Override
     public void shutdown() {
         clientMessageHandlerInvoker.shutdown();
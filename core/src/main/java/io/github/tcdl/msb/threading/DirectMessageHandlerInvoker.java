@@ -3,6 +3,7 @@ package io.github.tcdl.msb.threading;
 import io.github.tcdl.msb.MessageHandler;
 import io.github.tcdl.msb.acknowledge.AcknowledgementHandlerInternal;
 import io.github.tcdl.msb.api.message.Message;
+import org.slf4j.MDC;
 
 /**
  * Trivial {@link MessageHandlerInvoker} implementation that preforms a direct {@link MessageHandler} invocation
@@ -12,8 +13,23 @@ public class DirectMessageHandlerInvoker implements MessageHandlerInvoker {
 
     @Override
     public void execute(MessageHandler messageHandler, Message message, AcknowledgementHandlerInternal acknowledgeHandler) {
-        messageHandler.handleMessage(message, acknowledgeHandler);
-        acknowledgeHandler.autoConfirm();
+        MessageDiagnosticContext diagnosticContext = MessageDiagnosticContext.current();
+        if (diagnosticContext != null) {
+            diagnosticContext.install();
+        }
+        try {
+            messageHandler.handleMessage(message, acknowledgeHandler);
+            acknowledgeHandler.autoConfirm();
+        } finally {
+            if (diagnosticContext != null) {
+                MDC.clear();
+            }
+        }
+    }
+
+    @Override
+    public boolean isDiagnosticContextAware() {
+        return true;
     }
 
     @Override
@@ -28,6 +28,15 @@ public abstract class ExecutorBasedMessageHandlerInvoker implements MessageHandl
                 message.getCorrelationId());
     }
 
+    /**
+     * {@inheritDoc}
+     * The context is carried by {@link MessageProcessingTask}.
+     */
+    @Override
+    public boolean isDiagnosticContextAware() {
+        return true;
+    }
+
     protected abstract void doSubmitTask(MessageProcessingTask task, Message message);
 
 }
@@ -0,0 +1,96 @@
+package io.github.tcdl.msb.threading;
+
+import io.github.tcdl.msb.api.message.Message;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.MDC;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link MessageDiagnosticContext} holds MDC logging entries of a single incoming message: message tags,
+ * correlation id and (optionally) values of tags split into key and value.
+ *
+ * The context is created once per message and travels along with it to the thread that handles the message.
+ * The entries are computed on the first {@link #install()} only, so the context costs next to nothing if it is
+ * never installed. Installation replaces the whole MDC of the current thread in a single operation.
+ *
+ * While a message is being dispatched the consumer exposes its context via {@link #current()} so that
+ * {@link MessageHandlerInvoker} implementations are able to carry it to the handling thread.
+ */
+public final class MessageDiagnosticContext {
+
+    private static final ThreadLocal<MessageDiagnosticContext> CURRENT = new ThreadLocal<>();
+
+    private final Message message;
+    private final String tagsKey;
+    private final String correlationIdKey;
+    private final String splitTagsBy;
+
+    private Map<String, String> entries;
+
+    /**
+     * @param tagsKey MDC key for comma-separated message tags
+     * @param correlationIdKey MDC key for message correlation id
+     * @param splitTagsBy separator to split tags into MDC key and value, null or empty if tags should not be split
+     */
+    public MessageDiagnosticContext(Message message, String tagsKey, String correlationIdKey, String splitTagsBy) {
+        this.message = message;
+        this.tagsKey = tagsKey;
+        this.correlationIdKey = correlationIdKey;
+        this.splitTagsBy = StringUtils.isEmpty(splitTagsBy) ? null : splitTagsBy;
+    }
+
+    /**
+     * @return context of the message that is being dispatched by the current thread or null
+     */
+    public static MessageDiagnosticContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Makes the context available via {@link #current()} while the message is dispatched by the current thread.
+     */
+    public void makeCurrent() {
+        CURRENT.set(this);
+    }
+
+    public static void clearCurrent() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Replaces MDC of the current thread with the entries of this context.
+     */
+    public void install() {
+        MDC.setContextMap(getEntries());
+    }
+
+    Map<String, String> getEntries() {
+        Map<String, String> result = entries;
+        if (result == null) {
+            result = computeEntries();
+            entries = result;
+        }
+        return result;
+    }
+
+    private Map<String, String> computeEntries() {
+        List<String> tags = message.getTags();
+        Map<String, String> result = new HashMap<>();
+        result.put(tagsKey, StringUtils.join(tags, ","));
+        if (message.getCorrelationId() != null) {
+            result.put(correlationIdKey, message.getCorrelationId());
+        }
+        if (splitTagsBy != null && tags != null) {
+            for (String tag : tags) {
+                String[] parts = StringUtils.split(tag, splitTagsBy, 2);
+                if (parts.length == 2) {
+                    result.put(parts[0], parts[1]);
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -24,6 +24,17 @@ public interface MessageHandlerInvoker {
      */
     void execute(MessageHandler messageHandler, Message message, AcknowledgementHandlerInternal acknowledgeHandler);
 
+    /**
+     * Invokers that are aware of {@link MessageDiagnosticContext} take {@link MessageDiagnosticContext#current()}
+     * and install it on the thread that handles the message. For other invokers the context is installed into MDC
+     * of the thread that calls {@link #execute(MessageHandler, Message, AcknowledgementHandlerInternal)}.
+     *
+     * @return true if the invoker installs diagnostic context of the message itself
+     */
+    default boolean isDiagnosticContextAware() {
+        return false;
+    }
+
     /**
      * Perform cleanup on shutdown if required.
      */
@@ -18,16 +18,22 @@ public class MessageProcessingTask implements Runnable {
     final Message message;
     final MessageHandler messageHandler;
     final AcknowledgementHandlerInternal ackHandler;
+    final MessageDiagnosticContext diagnosticContext;
     final Map<String, String> mdcLogContextMap;
     final boolean mdcLogCopy;
 
+    /**
+     * Diagnostic context of the message being dispatched is carried to the handling thread. If there is none,
+     * a copy of MDC of the current thread is carried instead.
+     */
     public MessageProcessingTask( MessageHandler messageHandler, Message message,
                                      AcknowledgementHandlerInternal ackHandler) {
         this.message = message;
         this.messageHandler = messageHandler;
         this.ackHandler = ackHandler;
-        this.mdcLogContextMap = MDC.getCopyOfContextMap();
-        this.mdcLogCopy = mdcLogContextMap != null && !mdcLogContextMap.isEmpty();
+        this.diagnosticContext = MessageDiagnosticContext.current();
+        this.mdcLogContextMap = diagnosticContext == null ? MDC.getCopyOfContextMap() : null;
+        this.mdcLogCopy = diagnosticContext != null || (mdcLogContextMap != null && !mdcLogContextMap.isEmpty());
     }
 
     /**
@@ -37,7 +43,9 @@ public class MessageProcessingTask implements Runnable {
      */
     @Override
     public void run() {
-        if(mdcLogCopy) {
+        if (diagnosticContext != null) {
+            diagnosticContext.install();
+        } else if (mdcLogCopy) {
             MDC.setContextMap(mdcLogContextMap);
         }
         try {
@@ -3,6 +3,7 @@ package io.github.tcdl.msb;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.tcdl.msb.adapters.AdapterFactory;
 import io.github.tcdl.msb.adapters.AdapterFactoryLoader;
+import io.github.tcdl.msb.adapters.ProducerAdapter;
 import io.github.tcdl.msb.api.RequestOptions;
 import io.github.tcdl.msb.api.ResponderOptions;
 import io.github.tcdl.msb.api.exception.ConsumerSubscriptionException;
@@ -26,6 +27,13 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class ChannelManagerTest {
 
@@ -143,6 +151,50 @@ public class ChannelManagerTest {
         assertEquals(Optional.empty(), result);
     }
 
+    @Test
+    public void testPrefetchCountNotSupported() {
+        String topic = "some:topic";
+
+        assertEquals(Optional.empty(), channelManager.getPrefetchCount(topic));
+
+        channelManager.subscribe(topic, new ResponderOptions.Builder().build(), (message, acknowledgeHandler) -> {});
+
+        assertEquals(Optional.empty(), channelManager.getPrefetchCount(topic));
+    }
+
+    @Test
+    public void testDirectReplyNotSupported() {
+        assertEquals(Optional.empty(), channelManager.getDirectReplyTopic());
+    }
+
+    @Test
+    public void testDirectReplyTopicNotValidated() {
+        MsbConfig msbConfig = TestUtils.createMsbConfigurations();
+        AdapterFactory adapterFactory = mock(AdapterFactory.class);
+        when(adapterFactory.isDirectReplyTopic("amq.rabbitmq.reply-to.abc")).thenReturn(true);
+        when(adapterFactory.createProducerAdapter(eq("amq.rabbitmq.reply-to.abc"), any(RequestOptions.class))).thenReturn(mock(ProducerAdapter.class));
+        ChannelManager channelManager = new ChannelManager(msbConfig, Clock.systemDefaultZone(), new JsonValidator(), TestUtils.createMessageMapper(),
+                adapterFactory, mock(MessageHandlerInvoker.class));
+
+        assertNotNull(channelManager.findOrCreateProducer("amq.rabbitmq.reply-to.abc", RequestOptions.DEFAULTS));
+    }
+
+    @Test
+    public void testResponseProducerCreatedWithResponseAdapter() {
+        String topic = "topic:response:instance";
+        MsbConfig msbConfig = TestUtils.createMsbConfigurations();
+        AdapterFactory adapterFactory = mock(AdapterFactory.class);
+        when(adapterFactory.createResponseProducerAdapter(topic)).thenReturn(mock(ProducerAdapter.class));
+        ChannelManager channelManager = new ChannelManager(msbConfig, Clock.systemDefaultZone(), new JsonValidator(), TestUtils.createMessageMapper(),
+                adapterFactory, mock(MessageHandlerInvoker.class));
+
+        Producer producer = channelManager.findOrCreateResponseProducer(topic);
+
+        assertSame(producer, channelManager.findOrCreateResponseProducer(topic));
+        verify(adapterFactory).createResponseProducerAdapter(topic);
+        verify(adapterFactory, never()).createProducerAdapter(anyString(), any(RequestOptions.class));
+    }
+
     @Test
     public void testIsConsumerConnectedInitialized() {
         String topic = "some:topic";
@@ -1,5 +1,6 @@
 package io.github.tcdl.msb;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.typesafe.config.ConfigFactory;
 import io.github.tcdl.msb.acknowledge.AcknowledgementHandlerInternal;
@@ -8,27 +9,39 @@ import io.github.tcdl.msb.api.exception.JsonConversionException;
 import io.github.tcdl.msb.api.message.Message;
 import io.github.tcdl.msb.api.message.MetaMessage;
 import io.github.tcdl.msb.api.message.Topics;
+import io.github.tcdl.msb.codec.JsonMessageCodec;
+import io.github.tcdl.msb.codec.MessageCodec;
+import io.github.tcdl.msb.codec.MessageCodecs;
+import io.github.tcdl.msb.codec.SmileMessageCodec;
 import io.github.tcdl.msb.collector.ConsumedMessagesAwareMessageHandler;
 import io.github.tcdl.msb.config.MsbConfig;
 import io.github.tcdl.msb.support.JsonValidator;
 import io.github.tcdl.msb.support.TestUtils;
 import io.github.tcdl.msb.support.Utils;
+import io.github.tcdl.msb.threading.MessageDiagnosticContext;
 import io.github.tcdl.msb.threading.MessageHandlerInvoker;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatcher;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.slf4j.MDC;
 
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.*;
@@ -124,7 +137,7 @@ public class ConsumerTest {
 
     @Test(expected = NullPointerException.class)
     public void testCreateConsumerNullMessageMapper() {
-        new Consumer(adapterMock, messageHandlerInvokerMock, TOPIC, messageHandlerResolverMock, msbConfMock, clock, validator, null);
+        new Consumer(adapterMock, messageHandlerInvokerMock, TOPIC, messageHandlerResolverMock, msbConfMock, clock, validator, (ObjectMapper) null);
     }
 
     @Test
@@ -137,6 +150,104 @@ public class ConsumerTest {
         verifyMessageHandled();
     }
 
+    @Test
+    public void testValidMessageFromBytesProcessedBySubscriber() throws JsonConversionException {
+        Message originalMessage = TestUtils.createSimpleRequestMessage(TOPIC);
+        Consumer consumer = new Consumer(adapterMock, messageHandlerInvokerMock, TOPIC, messageHandlerResolverMock, msbConfMock, clock, validator, messageMapper);
+
+        byte[] body = Utils.toJson(originalMessage, messageMapper).getBytes(StandardCharsets.UTF_8);
+        consumer.handleRawMessage(body, StandardCharsets.UTF_8, acknowledgementHandlerMock);
+
+        verifyMessageHandled();
+    }
+
+    @Test
+    public void testMessageDecodedAccordingToContentType() throws JsonConversionException {
+        Message originalMessage = TestUtils.createSimpleRequestMessage(TOPIC);
+        MessageCodec smileCodec = new SmileMessageCodec();
+        Consumer consumer = new Consumer(adapterMock, messageHandlerInvokerMock, TOPIC, messageHandlerResolverMock,
+                TestUtils.createMsbConfigurations(), clock, validator, new MessageCodecs(new JsonMessageCodec(messageMapper)));
+
+        byte[] body = Utils.toBytes(originalMessage, smileCodec.getMessageMapper());
+        consumer.handleRawMessage(body, SmileMessageCodec.CONTENT_TYPE, StandardCharsets.UTF_8, acknowledgementHandlerMock);
+
+        ArgumentCaptor<Message> messageCaptor = ArgumentCaptor.forClass(Message.class);
+        verify(messageHandlerInvokerMock).execute(eq(messageHandlerMock), messageCaptor.capture(), eq(acknowledgementHandlerMock));
+        assertEquals(originalMessage.getId(), messageCaptor.getValue().getId());
+        assertEquals(originalMessage.getRawPayload(), messageCaptor.getValue().getRawPayload());
+    }
+
+    @Test
+    public void testReplyToOverridesResponseTopic() throws JsonConversionException {
+        Message originalMessage = TestUtils.createSimpleRequestMessage(TOPIC);
+        Consumer consumer = new Consumer(adapterMock, messageHandlerInvokerMock, TOPIC, messageHandlerResolverMock, msbConfMock, clock, validator, messageMapper);
+
+        byte[] body = Utils.toJson(originalMessage, messageMapper).getBytes(StandardCharsets.UTF_8);
+        consumer.handleRawMessage(body, JsonMessageCodec.CONTENT_TYPE, StandardCharsets.UTF_8, "reply-address", acknowledgementHandlerMock);
+
+        ArgumentCaptor<Message> messageCaptor = ArgumentCaptor.forClass(Message.class);
+        verify(messageHandlerInvokerMock).execute(eq(messageHandlerMock), messageCaptor.capture(), eq(acknowledgementHandlerMock));
+        assertEquals(originalMessage.getId(), messageCaptor.getValue().getId());
+        assertEquals(originalMessage.getTopics().getTo(), messageCaptor.getValue().getTopics().getTo());
+        assertEquals("reply-address", messageCaptor.getValue().getTopics().getResponse());
+    }
+
+    @Test
+    public void testMessageWithUnknownContentTypeDecodedAsJson() throws JsonConversionException {
+        Message originalMessage = TestUtils.createSimpleRequestMessage(TOPIC);
+        Consumer consumer = new Consumer(adapterMock, messageHandlerInvokerMock, TOPIC, messageHandlerResolverMock, msbConfMock, clock, validator,
+                new MessageCodecs(new SmileMessageCodec()));
+
+        byte[] body = Utils.toJson(originalMessage, messageMapper).getBytes(StandardCharsets.UTF_8);
+        consumer.handleRawMessage(body, "text/plain", StandardCharsets.UTF_8, acknowledgementHandlerMock);
+
+        verifyMessageHandled();
+    }
+
+    @Test
+    public void testValidMessageFromBytesInNonUtf8CharsetProcessedBySubscriber() throws JsonConversionException {
+        Message originalMessage = TestUtils.createSimpleRequestMessage(TOPIC);
+        Consumer consumer = new Consumer(adapterMock, messageHandlerInvokerMock, TOPIC, messageHandlerResolverMock, msbConfMock, clock, validator, messageMapper);
+
+        Charset charset = Charset.forName("UTF-32");
+        byte[] body = Utils.toJson(originalMessage, messageMapper).getBytes(charset);
+        consumer.handleRawMessage(body, charset, acknowledgementHandlerMock);
+
+        verify(messageHandlerInvokerMock, times(1)).execute(eq(messageHandlerMock),
+                argThat(new ArgumentMatcher<Message>() {
+                    @Override
+                    public boolean matches(Object argument) {
+                        return originalMessage.getId().equals(((Message) argument).getId());
+                    }
+                }),
+                eq(acknowledgementHandlerMock));
+    }
+
+    @Test
+    public void testExceptionWhileMessageFromBytesConverting() throws JsonConversionException {
+        Consumer consumer = new Consumer(adapterMock, messageHandlerInvokerMock, TOPIC, messageHandlerResolverMock, msbConfMock, clock, validator, messageMapper);
+
+        consumer.handleRawMessage("{\"body\":\"fake message\"}".getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8, acknowledgementHandlerMock);
+
+        verifyMessageNotHandled();
+        verify(acknowledgementHandlerMock, times(1)).autoReject();
+    }
+
+    @Test
+    public void testSubscribedHandlerAcceptsBytes() throws JsonConversionException {
+        Message originalMessage = TestUtils.createSimpleRequestMessage(TOPIC);
+        Consumer consumer = new Consumer(adapterMock, messageHandlerInvokerMock, TOPIC, messageHandlerResolverMock, msbConfMock, clock, validator, messageMapper);
+        ArgumentCaptor<ConsumerAdapter.RawMessageHandler> handlerCaptor = ArgumentCaptor.forClass(ConsumerAdapter.RawMessageHandler.class);
+
+        consumer.subscribe();
+        verify(adapterMock).subscribe(handlerCaptor.capture());
+
+        byte[] body = Utils.toJson(originalMessage, messageMapper).getBytes(StandardCharsets.UTF_8);
+        handlerCaptor.getValue().onMessage(body, StandardCharsets.UTF_8, acknowledgementHandlerMock);
+
+        verifyMessageHandled();
+    }
+
     @Test
     public void testConsumedMessagesAwareMessageHandlerNotifiedWhenMessageHandled() throws JsonConversionException {
         Message originalMessage = TestUtils.createSimpleRequestMessage(TOPIC);
@@ -252,6 +363,34 @@ public class ConsumerTest {
         verifyMessageNotHandled();
     }
 
+    @Test
+    public void testHandleRawMessageConsumeFromTopicValidatedOnParsedTree() throws Exception {
+        MsbConfig msbConf = TestUtils.createMsbConfigurations();
+        JsonValidator.JsonReader jsonReaderSpy = spy(JsonValidator.JsonReader.class);
+        JsonValidator validatorSpy = spy(new JsonValidator(jsonReaderSpy));
+        Message originalMessage = TestUtils.createSimpleRequestMessage(TOPIC);
+        Consumer consumer = new Consumer(adapterMock, messageHandlerInvokerMock, TOPIC, messageHandlerResolverMock, msbConf, clock, validatorSpy, messageMapper);
+
+        byte[] body = Utils.toJson(originalMessage, messageMapper).getBytes(StandardCharsets.UTF_8);
+        consumer.handleRawMessage(body, StandardCharsets.UTF_8, acknowledgementHandlerMock);
+
+        verifyMessageHandled();
+        verify(validatorSpy, times(1)).validate(any(JsonNode.class), eq(msbConf.getSchema()));
+        // only the schema itself is read by the validator, the message is not parsed again
+        verify(jsonReaderSpy, times(1)).read(msbConf.getSchema());
+    }
+
+    @Test
+    public void testHandleRawMessageFromBytesValidateThrowException() {
+        MsbConfig msbConf = TestUtils.createMsbConfigurations();
+        Consumer consumer = new Consumer(adapterMock, messageHandlerInvokerMock, TOPIC, messageHandlerResolverMock, msbConf, clock, validator, messageMapper);
+
+        consumer.handleRawMessage("{\"body\":\"fake message\"}".getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8, acknowledgementHandlerMock);
+
+        verifyMessageNotHandled();
+        verify(acknowledgementHandlerMock, times(1)).autoReject();
+    }
+
     @Test
     public void testHandleRawMessageConsumeFromServiceTopicValidateThrowException() {
         String service_topic = "_service:topic";
@@ -271,6 +410,33 @@ public class ConsumerTest {
         verifyMessageNotHandled();
     }
 
+    @Test
+    public void testHandleRawMessageFromBytesExpiredMessageRejectedBeforeParsing() {
+        Message expiredMessage = createExpiredMsbRequestMessageWithTopicTo(TOPIC);
+        Consumer consumer = new Consumer(adapterMock, messageHandlerInvokerMock, TOPIC, messageHandlerResolverMock, msbConfMock, clock, validator, messageMapper);
+
+        consumer.handleRawMessage(Utils.toJson(expiredMessage, messageMapper).getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8,
+                acknowledgementHandlerMock);
+
+        verify(messageHandlerResolverMock, never()).resolveMessageHandler(any());
+        verify(acknowledgementHandlerMock).autoReject();
+        verifyMessageNotHandled();
+    }
+
+    @Test
+    public void testHandleRawMessageUnresolvableMessageRejectedBeforeParsing() {
+        Message originalMessage = TestUtils.createMsbRequestMessage(TOPIC, null, CORRELATION_ID, TestUtils.createSimpleRequestPayload());
+        when(messageHandlerResolverMock.isUnresolvable(CORRELATION_ID)).thenReturn(true);
+        Consumer consumer = new Consumer(adapterMock, messageHandlerInvokerMock, TOPIC, messageHandlerResolverMock, msbConfMock, clock, validator, messageMapper);
+
+        consumer.handleRawMessage(Utils.toJson(originalMessage, messageMapper).getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8,
+                acknowledgementHandlerMock);
+
+        verify(messageHandlerResolverMock, never()).resolveMessageHandler(any());
+        verify(acknowledgementHandlerMock).autoReject();
+        verifyMessageNotHandled();
+    }
+
     @Test
     public void testSaveMdcSuccessWithTagsSplit() throws JsonConversionException {
         verifyMdc(true, true);
@@ -291,6 +457,42 @@ public class ConsumerTest {
         verifyMdc(false, false);
     }
 
+    @Test
+    public void testDiagnosticContextCarriedByAwareInvoker() throws JsonConversionException {
+        Message originalMessage = TestUtils.createMsbRequestMessage(
+                TOPIC, null, CORRELATION_ID, TestUtils.createSimpleRequestPayload(), "tag1", MDC_SPLIT_KEY + MDC_SPLIT_BY + "value");
+        List<Map<String, String>> installedEntries = new ArrayList<>();
+
+        MessageHandlerInvoker awareInvoker = new MessageHandlerInvoker() {
+            @Override
+            public void execute(MessageHandler messageHandler, Message message, AcknowledgementHandlerInternal acknowledgeHandler) {
+                assertNull("MDC is not expected to be installed by consumer", MDC.get(MDC_KEY_CORR_ID));
+                MessageDiagnosticContext.current().install();
+                installedEntries.add(MDC.getCopyOfContextMap());
+            }
+
+            @Override
+            public boolean isDiagnosticContextAware() {
+                return true;
+            }
+
+            @Override
+            public void shutdown() {
+            }
+        };
+
+        Consumer consumer = new Consumer(adapterMock, awareInvoker, TOPIC, messageHandlerResolverMock, msbConfMock, clock, validator, messageMapper);
+        consumer.handleRawMessage(Utils.toJson(originalMessage, messageMapper), acknowledgementHandlerMock);
+
+        assertEquals(1, installedEntries.size());
+        assertEquals(CORRELATION_ID, installedEntries.get(0).get(MDC_KEY_CORR_ID));
+        assertEquals("tag1," + MDC_SPLIT_KEY + MDC_SPLIT_BY + "value", installedEntries.get(0).get(MDC_KEY_TAGS));
+        assertEquals("value", installedEntries.get(0).get(MDC_SPLIT_KEY));
+        assertNull(MessageDiagnosticContext.current());
+        Map<String, String> map = MDC.getCopyOfContextMap();
+        assertTrue("MDC cleanup was expected but was not performed", map == null || map.isEmpty());
+    }
+
     private void verifyMdc(boolean isMdcExpected, boolean isSplitExpected) {
         String splitTagVal = "tag2" + MDC_SPLIT_BY + "tag2!$#.$#$$#&&**";
         String splitTag = MDC_SPLIT_KEY + MDC_SPLIT_BY + splitTagVal;
@@ -0,0 +1,107 @@
+package io.github.tcdl.msb;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class HashedWheelTimerTest {
+
+    // Methods that invoke shutdown may hang forever in case of some bug in shutdown. This value allows to prevent endless builds.
+    private static final int SHUTDOWN_TIMEOUT = 20000;
+
+    private static final int TIME_FAR_FUTURE = Integer.MAX_VALUE;
+
+    private HashedWheelTimer timer;
+
+    @Before
+    public void setUp() {
+        timer = new HashedWheelTimer("name", 1, TimeUnit.MILLISECONDS, 8, 1, new BasicThreadFactory.Builder().build());
+    }
+
+    @After
+    public void tearDown() {
+        timer.shutdown();
+    }
+
+    @Test(timeout = SHUTDOWN_TIMEOUT)
+    public void testTaskExecutedAfterDelay() throws Exception {
+        Runnable mockRunnable = mock(Runnable.class);
+
+        // the delay spans several turns of the wheel
+        ScheduledFuture<?> future = timer.schedule(mockRunnable, 30, TimeUnit.MILLISECONDS);
+
+        verify(mockRunnable, never()).run();
+        assertNull(future.get());
+        verify(mockRunnable, times(1)).run();
+        assertTrue(future.isDone());
+        assertFalse(future.isCancelled());
+    }
+
+    @Test(timeout = SHUTDOWN_TIMEOUT)
+    public void testCancelledTaskNotExecuted() throws Exception {
+        Runnable mockCancelledRunnable = mock(Runnable.class);
+        ScheduledFuture<?> cancelledFuture = timer.schedule(mockCancelledRunnable, 20, TimeUnit.MILLISECONDS);
+        Runnable mockRunnable = mock(Runnable.class);
+        ScheduledFuture<?> future = timer.schedule(mockRunnable, 40, TimeUnit.MILLISECONDS);
+
+        assertTrue(cancelledFuture.cancel(false));
+        future.get();
+
+        verify(mockCancelledRunnable, never()).run();
+        assertTrue(cancelledFuture.isCancelled());
+        assertFalse(cancelledFuture.cancel(false));
+    }
+
+    @Test(expected = CancellationException.class, timeout = SHUTDOWN_TIMEOUT)
+    public void testGetCancelledTask() throws Exception {
+        ScheduledFuture<?> future = timer.schedule(mock(Runnable.class), TIME_FAR_FUTURE, TimeUnit.SECONDS);
+        future.cancel(false);
+
+        future.get();
+    }
+
+    @Test(timeout = SHUTDOWN_TIMEOUT)
+    public void testShutdownWithOutstandingTask() {
+        Runnable mockRunnable = mock(Runnable.class);
+        Runnable mockCancelledRunnable = mock(Runnable.class);
+        timer.schedule(mockRunnable, TIME_FAR_FUTURE, TimeUnit.SECONDS);
+        timer.schedule(mockCancelledRunnable, TIME_FAR_FUTURE, TimeUnit.SECONDS).cancel(false);
+
+        timer.shutdown();
+
+        verify(mockRunnable, times(1)).run();
+        verify(mockCancelledRunnable, never()).run();
+    }
+
+    @Test(timeout = SHUTDOWN_TIMEOUT)
+    public void testShutdownWithCompletedTask() throws Exception {
+        Runnable mockCompletedRunnable = mock(Runnable.class);
+        timer.schedule(mockCompletedRunnable, 0, TimeUnit.SECONDS).get();
+
+        timer.shutdown();
+
+        verify(mockCompletedRunnable, timeout(1000).times(1)).run();
+    }
+
+    @Test(expected = RejectedExecutionException.class, timeout = SHUTDOWN_TIMEOUT)
+    public void testScheduleAfterShutdownRejected() {
+        timer.shutdown();
+
+        timer.schedule(mock(Runnable.class), 0, TimeUnit.SECONDS);
+    }
+}
@@ -4,6 +4,8 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.typesafe.config.ConfigFactory;
 import io.github.tcdl.msb.adapters.ProducerAdapter;
+import io.github.tcdl.msb.adapters.PublishOptions;
+import io.github.tcdl.msb.api.DeliveryMode;
 import io.github.tcdl.msb.api.Callback;
 import io.github.tcdl.msb.api.exception.ChannelException;
 import io.github.tcdl.msb.api.exception.JsonConversionException;
@@ -11,6 +13,8 @@ import io.github.tcdl.msb.api.message.Message;
 import io.github.tcdl.msb.api.message.MetaMessage;
 import io.github.tcdl.msb.api.message.Topics;
 import io.github.tcdl.msb.api.message.payload.RestPayload;
+import io.github.tcdl.msb.codec.JsonMessageCodec;
+import io.github.tcdl.msb.codec.SmileMessageCodec;
 import io.github.tcdl.msb.config.MsbConfig;
 import io.github.tcdl.msb.support.TestUtils;
 import io.github.tcdl.msb.support.Utils;
@@ -18,19 +22,30 @@ import org.apache.commons.lang3.StringUtils;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * Created by rdro on 4/28/2015.
@@ -60,7 +75,7 @@ public class ProducerTest {
 
     @Test(expected = NullPointerException.class)
     public void testCreateProducerNullMapper() {
-        new Producer(adapterMock, "testTopic", null);
+        new Producer(adapterMock, "testTopic", (ObjectMapper) null);
     }
 
     @Test
@@ -68,7 +83,116 @@ public class ProducerTest {
         Message originaMessage = TestUtils.createSimpleRequestMessage(TOPIC);
         Producer producer = new Producer(adapterMock, TOPIC,  messageMapper);
         producer.publish(originaMessage);
-        verify(adapterMock).publish(anyString(), eq(StringUtils.EMPTY));
+        verify(adapterMock).publishConfirmed(any(ByteBuffer.class), eq(JsonMessageCodec.CONTENT_TYPE), eq(StringUtils.EMPTY), any(PublishOptions.class));
+    }
+
+    @Test
+    public void testPublishWithCodec() throws Exception {
+        Message originalMessage = TestUtils.createSimpleRequestMessage(TOPIC);
+        SmileMessageCodec codec = new SmileMessageCodec();
+        Producer producer = new Producer(adapterMock, TOPIC, codec);
+        producer.publish(originalMessage);
+
+        ArgumentCaptor<ByteBuffer> messageCaptor = ArgumentCaptor.forClass(ByteBuffer.class);
+        verify(adapterMock).publishConfirmed(messageCaptor.capture(), eq(SmileMessageCodec.CONTENT_TYPE), eq(StringUtils.EMPTY), any(PublishOptions.class));
+        ByteBuffer buffer = messageCaptor.getValue();
+        Message publishedMessage = codec.getMessageMapper().readValue(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(), Message.class);
+        assertEquals(originalMessage.getId(), publishedMessage.getId());
+        assertEquals(originalMessage.getRawPayload(), publishedMessage.getRawPayload());
+    }
+
+    @Test
+    public void testPublishFromWithinPublishDoesNotCorruptBuffer() throws Exception {
+        Message outerMessage = TestUtils.createSimpleRequestMessage(TOPIC);
+        Message innerMessage = TestUtils.createSimpleRequestMessage(TOPIC);
+        Producer producer = new Producer(adapterMock, TOPIC, messageMapper);
+        List<Message> publishedMessages = new ArrayList<>();
+
+        Mockito.doAnswer(invocation -> {
+            ByteBuffer buffer = (ByteBuffer) invocation.getArguments()[0];
+            if (publishedMessages.isEmpty()) {
+                publishedMessages.add(null);
+                producer.publish(innerMessage);
+            }
+            publishedMessages.add(messageMapper.readValue(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(), Message.class));
+            return null;
+        }).when(adapterMock).publishConfirmed(any(ByteBuffer.class), anyString(), anyString(), any(PublishOptions.class));
+
+        producer.publish(outerMessage);
+
+        assertEquals(innerMessage.getId(), publishedMessages.get(1).getId());
+        assertEquals(outerMessage.getId(), publishedMessages.get(2).getId());
+    }
+
+    @Test
+    public void testPublishReturnsAdapterConfirmation() throws Exception {
+        CompletableFuture<Void> confirmation = new CompletableFuture<>();
+        when(adapterMock.publishConfirmed(any(ByteBuffer.class), anyString(), anyString(), any(PublishOptions.class))).thenReturn(confirmation);
+        Producer producer = new Producer(adapterMock, TOPIC, messageMapper);
+
+        CompletableFuture<Void> result = producer.publish(TestUtils.createSimpleRequestMessage(TOPIC));
+
+        assertSame(confirmation, result);
+    }
+
+    @Test
+    public void testTtlMappedToExpiration() throws Exception {
+        Producer producer = new Producer(adapterMock, TOPIC, messageMapper);
+        MsbConfig msbConf = new MsbConfig(ConfigFactory.load());
+        Clock clock = Clock.systemDefaultZone();
+        Message message = new Message.Builder()
+                .withCorrelationId(Utils.generateId())
+                .withId(Utils.generateId())
+                .withTopics(new Topics(TOPIC, null, null))
+                .withMetaBuilder(new MetaMessage.Builder(3000, clock.instant(), msbConf.getServiceDetails(), clock))
+                .build();
+        PublishOptions options = new PublishOptions.Builder()
+                .withDeliveryMode(DeliveryMode.TRANSIENT)
+                .withPriority(7)
+                .build();
+        ArgumentCaptor<PublishOptions> optionsCaptor = ArgumentCaptor.forClass(PublishOptions.class);
+
+        producer.publish(message, options);
+
+        verify(adapterMock).publishConfirmed(any(ByteBuffer.class), anyString(), anyString(), optionsCaptor.capture());
+        PublishOptions publishedOptions = optionsCaptor.getValue();
+        assertEquals(DeliveryMode.TRANSIENT, publishedOptions.getDeliveryMode());
+        assertEquals(Integer.valueOf(7), publishedOptions.getPriority());
+        assertEquals(Long.valueOf(3000), publishedOptions.getExpirationMs());
+    }
+
+    @Test
+    public void testPublishWithoutTtlDoesNotExpire() throws Exception {
+        Producer producer = new Producer(adapterMock, TOPIC, messageMapper);
+        ArgumentCaptor<PublishOptions> optionsCaptor = ArgumentCaptor.forClass(PublishOptions.class);
+
+        producer.publish(TestUtils.createSimpleRequestMessage(TOPIC));
+
+        verify(adapterMock).publishConfirmed(any(ByteBuffer.class), anyString(), anyString(), optionsCaptor.capture());
+        assertSame(PublishOptions.DEFAULTS, optionsCaptor.getValue());
+    }
+
+    @Test
+    public void testDefaultByteBufferBridge() throws Exception {
+        List<String> publishedMessages = new ArrayList<>();
+        ProducerAdapter adapter = new ProducerAdapter() {
+            @Override
+            public void publish(String jsonMessage) {
+                publish(jsonMessage, StringUtils.EMPTY);
+            }
+
+            @Override
+            public void publish(String jsonMessage, String routingKey) {
+                publishedMessages.add(jsonMessage);
+            }
+        };
+        ByteBuffer buffer = ByteBuffer.wrap("_{\"a\":1}_".getBytes(StandardCharsets.UTF_8), 1, 7);
+
+        CompletableFuture<Void> confirmation = adapter.publishConfirmed(buffer, JsonMessageCodec.CONTENT_TYPE, "routingKey");
+
+        assertTrue(confirmation.isDone());
+        assertEquals(Collections.singletonList("{\"a\":1}"), publishedMessages);
+        assertEquals(1, buffer.position());
     }
 
     @Test(expected = ChannelException.class)
@@ -76,7 +200,7 @@ public class ProducerTest {
     public void testPublishRawAdapterThrowChannelException() throws ChannelException {
         Message originaMessage = TestUtils.createSimpleRequestMessage(TOPIC);
 
-        Mockito.doThrow(ChannelException.class).when(adapterMock).publish(anyString(), anyString());
+        Mockito.doThrow(ChannelException.class).when(adapterMock).publishConfirmed(any(ByteBuffer.class), anyString(), anyString(), any(PublishOptions.class));
 
         Producer producer = new Producer(adapterMock, TOPIC,  messageMapper);
         producer.publish(originaMessage);
@@ -0,0 +1,72 @@
+package io.github.tcdl.msb;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ResponseProducerCacheTest {
+
+    private static final int MAX_SIZE = 2;
+    private static final long IDLE_TIMEOUT_MS = 1000;
+
+    private Clock clock;
+    private Map<String, Producer> createdProducers;
+    private ResponseProducerCache cache;
+
+    @Before
+    public void setUp() {
+        clock = mock(Clock.class);
+        createdProducers = new HashMap<>();
+        cache = new ResponseProducerCache(MAX_SIZE, IDLE_TIMEOUT_MS, clock, topic -> {
+            Producer producer = mock(Producer.class);
+            createdProducers.put(topic, producer);
+            return producer;
+        });
+    }
+
+    @Test
+    public void testProducerCached() {
+        Producer producer = cache.findOrCreate("topic1");
+
+        assertSame(producer, cache.findOrCreate("topic1"));
+        assertEquals(1, createdProducers.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedProducerEvictedWhenFull() {
+        cache.findOrCreate("topic1");
+        cache.findOrCreate("topic2");
+        cache.findOrCreate("topic1");
+
+        cache.findOrCreate("topic3");
+
+        assertEquals(MAX_SIZE, cache.size());
+        verify(createdProducers.get("topic2")).close();
+        verify(createdProducers.get("topic1"), never()).close();
+        assertSame(createdProducers.get("topic1"), cache.findOrCreate("topic1"));
+    }
+
+    @Test
+    public void testIdleProducerEvicted() {
+        when(clock.millis()).thenReturn(0L);
+        Producer idleProducer = cache.findOrCreate("topic1");
+
+        when(clock.millis()).thenReturn(IDLE_TIMEOUT_MS);
+        cache.findOrCreate("topic2");
+
+        assertEquals(1, cache.size());
+        verify(idleProducer).close();
+        assertNotSame(idleProducer, cache.findOrCreate("topic1"));
+    }
+}
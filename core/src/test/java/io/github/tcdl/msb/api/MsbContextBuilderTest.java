@@ -0,0 +1,56 @@
+package io.github.tcdl.msb.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import io.github.tcdl.msb.api.message.Message;
+import io.github.tcdl.msb.impl.MsbContextImpl;
+import io.github.tcdl.msb.impl.ResponderImpl;
+import io.github.tcdl.msb.mock.adapterfactory.TestMsbStorageForAdapterFactory;
+import io.github.tcdl.msb.support.TestUtils;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.time.Instant;
+
+import static org.junit.Assert.assertEquals;
+
+public class MsbContextBuilderTest {
+
+    private MsbContextImpl msbContext;
+
+    @After
+    public void tearDown() {
+        if (msbContext != null) {
+            msbContext.shutdown();
+        }
+    }
+
+    @Test
+    public void testOverriddenMessageEnvelopeMapperIsUsedForMessages() throws Exception {
+        msbContext = (MsbContextImpl) new MsbContextBuilder() {
+            @Override
+            public ObjectMapper createMessageEnvelopeMapper() {
+                return super.createMessageEnvelopeMapper().registerModule(new SimpleModule()
+                        .addSerializer(Instant.class, new JsonSerializer<Instant>() {
+                            @Override
+                            public void serialize(Instant value, JsonGenerator generator, SerializerProvider serializers) throws IOException {
+                                generator.writeString("custom instant");
+                            }
+                        }));
+            }
+        }.build();
+        TestMsbStorageForAdapterFactory storage = TestMsbStorageForAdapterFactory.extract(msbContext);
+        Message originalMessage = TestUtils.createSimpleRequestMessage("test:context-builder");
+
+        new ResponderImpl(TestUtils.createSimpleMessageTemplate(), originalMessage, msbContext).sendAck(1000, 1);
+
+        String ackMessage = storage.getOutgoingMessage(originalMessage.getTopics().getResponse());
+        JsonNode meta = new ObjectMapper().readTree(ackMessage).get("meta");
+        assertEquals("custom instant", meta.get("createdAt").asText());
+    }
+}
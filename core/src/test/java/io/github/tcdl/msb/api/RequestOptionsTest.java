@@ -55,6 +55,7 @@ public class RequestOptionsTest {
         String forwardNamespace = "forward:namespace";
         int waitForResponses = 3;
         String routingKey = "routing.key";
+        ResponseRetention responseRetention = ResponseRetention.last(5);
 
         RequestOptions source = new RequestOptions.Builder()
                 .withAckTimeout(ackTimeout)
@@ -63,6 +64,7 @@ public class RequestOptionsTest {
                 .withWaitForResponses(waitForResponses)
                 .withMessageTemplate(sourceMessageTemplate)
                 .withRoutingKey(routingKey)
+                .withResponseRetention(responseRetention)
                 .build();
 
         RequestOptions.Builder builder = new RequestOptions.Builder().from(source);
@@ -74,5 +76,13 @@ public class RequestOptionsTest {
         assertEquals(forwardNamespace, result.getForwardNamespace());
         assertSame(sourceMessageTemplate, result.getMessageTemplate());
         assertEquals(routingKey, result.getRoutingKey());
+        assertEquals(responseRetention, result.getResponseRetention());
+    }
+
+    @Test
+    public void testResponseRetentionDefault() {
+        RequestOptions requestOptions = new RequestOptions.Builder().build();
+
+        assertSame(ResponseRetention.NONE, requestOptions.getResponseRetention());
     }
 }
\ No newline at end of file
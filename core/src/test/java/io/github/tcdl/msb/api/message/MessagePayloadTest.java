@@ -0,0 +1,129 @@
+package io.github.tcdl.msb.api.message;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.tcdl.msb.api.exception.JsonConversionException;
+import io.github.tcdl.msb.api.message.payload.RestPayload;
+import io.github.tcdl.msb.support.TestUtils;
+import io.github.tcdl.msb.support.Utils;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MessagePayloadTest {
+
+    private static final TypeReference<RestPayload<Object, Object, Object, Map<String, String>>> PAYLOAD_TYPE =
+            new TypeReference<RestPayload<Object, Object, Object, Map<String, String>>>() {};
+
+    private ObjectMapper messageMapper = TestUtils.createMessageMapper();
+    private ObjectMapper payloadMapper = new ObjectMapper();
+
+    @Test
+    public void testPayloadFromBytesKeptAsSpan() {
+        Message message = Utils.fromJson(serializeMessage("{\"body\":{\"text\":\"hi\"}}").getBytes(StandardCharsets.UTF_8),
+                StandardCharsets.UTF_8, Message.class, messageMapper);
+
+        MessagePayload payload = message.getPayload();
+        assertTrue(payload instanceof MessagePayload.ByteSpanPayload);
+        assertEquals("{\"body\":{\"text\":\"hi\"}}", payload.toString());
+        assertEquals("hi", payload.bind(PAYLOAD_TYPE, payloadMapper).getBody().get("text"));
+        assertEquals("hi", message.getRawPayload().get("body").get("text").asText());
+    }
+
+    @Test
+    public void testPayloadFromStringKeptAsTokens() {
+        Message message = Utils.fromJson(serializeMessage("{\"body\":{\"text\":\"hi\"}}"), Message.class, messageMapper);
+
+        MessagePayload payload = message.getPayload();
+        assertTrue(payload instanceof MessagePayload.TokenBufferPayload);
+        assertEquals("hi", payload.bind(PAYLOAD_TYPE, payloadMapper).getBody().get("text"));
+        assertEquals("hi", message.getRawPayload().get("body").get("text").asText());
+    }
+
+    @Test
+    public void testRawPayloadTreeIsCached() {
+        Message message = Utils.fromJson(serializeMessage("{\"body\":{}}").getBytes(StandardCharsets.UTF_8),
+                StandardCharsets.UTF_8, Message.class, messageMapper);
+
+        JsonNode tree = message.getRawPayload();
+        assertSame(tree, message.getRawPayload());
+    }
+
+    @Test
+    public void testScalarPayload() {
+        Message message = Utils.fromJson(serializeMessage("\"text\"").getBytes(StandardCharsets.UTF_8),
+                StandardCharsets.UTF_8, Message.class, messageMapper);
+
+        assertEquals("text", message.getRawPayload().asText());
+        assertEquals("text", message.getPayload().bind(new TypeReference<String>() {}, payloadMapper));
+    }
+
+    @Test
+    public void testNullPayload() {
+        Message message = Utils.fromJson(serializeMessage("null").getBytes(StandardCharsets.UTF_8),
+                StandardCharsets.UTF_8, Message.class, messageMapper);
+
+        assertNull(message.getPayload());
+        assertNull(message.getRawPayload());
+        assertFalse(Utils.isPayloadPresent(message.getPayload()));
+    }
+
+    @Test
+    public void testSpanPayloadSerializedBack() {
+        String json = serializeMessage("{\"body\":{\"text\":\"hi\"},\"statusCode\":200}");
+        Message message = Utils.fromJson(json.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8, Message.class, messageMapper);
+
+        Message copy = Utils.fromJson(Utils.toJson(message, messageMapper), Message.class, messageMapper);
+        assertEquals(message.getRawPayload(), copy.getRawPayload());
+    }
+
+    @Test(expected = JsonConversionException.class)
+    public void testBindToIncompatibleType() {
+        Message message = Utils.fromJson(serializeMessage("{\"body\":{}}").getBytes(StandardCharsets.UTF_8),
+                StandardCharsets.UTF_8, Message.class, messageMapper);
+
+        message.getPayload().bind(new TypeReference<Integer>() {}, payloadMapper);
+    }
+
+    @Test
+    public void testObjectPayloadSerializedWithMessage() {
+        RestPayload<Object, Object, Object, String> restPayload = TestUtils.createPayloadWithTextBody("hi");
+        MessagePayload payload = MessagePayload.ofValue(restPayload, payloadMapper);
+        Message message = TestUtils.createMessageBuilder(Clock.systemDefaultZone())
+                .withMessagePayload(payload)
+                .build();
+
+        assertTrue(payload instanceof MessagePayload.ObjectPayload);
+        assertSame(restPayload, payload.bind(new TypeReference<RestPayload>() {}, payloadMapper));
+
+        Message copy = Utils.fromJson(Utils.toJson(message, messageMapper), Message.class, messageMapper);
+        assertEquals(Utils.convert(restPayload, JsonNode.class, payloadMapper), copy.getRawPayload());
+        assertEquals(copy.getRawPayload(), message.getRawPayload());
+    }
+
+    @Test
+    public void testTreeValueKeptAsTree() {
+        JsonNode tree = Utils.convert(TestUtils.createPayloadWithTextBody("hi"), JsonNode.class, payloadMapper);
+
+        MessagePayload payload = MessagePayload.ofValue(tree, payloadMapper);
+
+        assertTrue(payload instanceof MessagePayload.TreePayload);
+        assertSame(tree, payload.getRawPayload());
+    }
+
+    private String serializeMessage(String payloadJson) {
+        Message message = TestUtils.createMessageBuilder(Clock.systemDefaultZone())
+                .withPayload(Utils.fromJson(payloadJson, JsonNode.class, messageMapper))
+                .build();
+        return Utils.toJson(message, messageMapper);
+    }
+}
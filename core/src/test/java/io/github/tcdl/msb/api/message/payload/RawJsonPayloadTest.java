@@ -0,0 +1,123 @@
+package io.github.tcdl.msb.api.message.payload;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.util.JsonGeneratorDelegate;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.tcdl.msb.api.message.Message;
+import io.github.tcdl.msb.api.message.MessagePayload;
+import io.github.tcdl.msb.codec.SmileMessageCodec;
+import io.github.tcdl.msb.support.TestUtils;
+import io.github.tcdl.msb.support.Utils;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RawJsonPayloadTest {
+
+    private static final String PAYLOAD_JSON = "{ \"body\" :  {\"text\":\"hi\"} }";
+
+    private ObjectMapper messageMapper = TestUtils.createMessageMapper();
+    private ObjectMapper payloadMapper = new ObjectMapper();
+
+    @Test
+    public void testRawPayloadWrittenVerbatim() {
+        Message message = createMessage(MessagePayload.ofValue(RawJsonPayload.of(PAYLOAD_JSON), payloadMapper));
+
+        String json = Utils.toJson(message, messageMapper);
+
+        assertTrue(json.contains("\"payload\":" + PAYLOAD_JSON));
+        assertEquals("hi", Utils.fromJson(json, Message.class, messageMapper).getRawPayload().get("body").get("text").asText());
+    }
+
+    @Test
+    public void testRawPayloadNestedInObject() {
+        RestPayload<Object, Object, Object, RawJsonPayload> restPayload = new RestPayload.Builder<Object, Object, Object, RawJsonPayload>()
+                .withBody(RawJsonPayload.of("[1, 2]"))
+                .build();
+        Message message = createMessage(MessagePayload.ofValue(restPayload, payloadMapper));
+
+        String json = Utils.toJson(message, messageMapper);
+
+        assertTrue(json.contains("\"body\":[1, 2]"));
+        assertEquals(2, message.getRawPayload().get("body").size());
+    }
+
+    @Test
+    public void testRawPayloadWrittenVerbatimThroughDelegatingGenerator() throws Exception {
+        StringWriter out = new StringWriter();
+        try (JsonGenerator generator = new JsonGeneratorDelegate(messageMapper.getFactory().createGenerator(out))) {
+            messageMapper.writeValue(generator, RawJsonPayload.of(PAYLOAD_JSON));
+        }
+
+        assertEquals(PAYLOAD_JSON, out.toString());
+    }
+
+    @Test
+    public void testRawPayloadConvertedToTree() {
+        assertEquals(Utils.readTree(PAYLOAD_JSON, payloadMapper), payloadMapper.valueToTree(RawJsonPayload.of(PAYLOAD_JSON)));
+    }
+
+    @Test
+    public void testQuotedRepresentation() throws Exception {
+        byte[] json = "x[\"a\"]x".getBytes(StandardCharsets.UTF_8);
+        SerializableString value = new RawJsonPayload.Utf8Value(json, 1, json.length - 2);
+        SerializableString expected = new SerializedString("[\"a\"]");
+
+        assertEquals("[\"a\"]", value.getValue());
+        assertArrayEquals(expected.asQuotedUTF8(), value.asQuotedUTF8());
+        assertArrayEquals(expected.asQuotedChars(), value.asQuotedChars());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(expected.asQuotedUTF8().length, value.writeQuotedUTF8(out));
+        assertArrayEquals(expected.asQuotedUTF8(), out.toByteArray());
+    }
+
+    @Test
+    public void testRawPayloadReEncodedForBinaryFormat() throws Exception {
+        ObjectMapper smileMapper = new SmileMessageCodec().getMessageMapper();
+        Message message = createMessage(MessagePayload.ofValue(RawJsonPayload.of(PAYLOAD_JSON), payloadMapper));
+
+        Message copy = smileMapper.readValue(smileMapper.writeValueAsBytes(message), Message.class);
+
+        assertEquals(Utils.readTree(PAYLOAD_JSON, payloadMapper), copy.getRawPayload());
+    }
+
+    @Test
+    public void testIncomingPayloadRelayedVerbatim() {
+        String incomingJson = Utils.toJson(createMessage(MessagePayload.ofValue(RawJsonPayload.of(PAYLOAD_JSON), payloadMapper)), messageMapper);
+        Message incomingMessage = Utils.fromJson(incomingJson.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8, Message.class, messageMapper);
+
+        MessagePayload relayedPayload = MessagePayload.ofValue(incomingMessage.getPayload(), payloadMapper);
+
+        assertSame(incomingMessage.getPayload(), relayedPayload);
+        assertTrue(Utils.toJson(createMessage(relayedPayload), messageMapper).contains("\"payload\":" + PAYLOAD_JSON));
+    }
+
+    @Test
+    public void testBindIncomingPayload() {
+        String incomingJson = Utils.toJson(createMessage(MessagePayload.ofValue(RawJsonPayload.of(PAYLOAD_JSON), payloadMapper)), messageMapper);
+        Message fromBytes = Utils.fromJson(incomingJson.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8, Message.class, messageMapper);
+        Message fromString = Utils.fromJson(incomingJson, Message.class, messageMapper);
+
+        assertEquals(RawJsonPayload.of(PAYLOAD_JSON), fromBytes.getPayload().bind(new TypeReference<RawJsonPayload>() {}, payloadMapper));
+        assertEquals(Utils.readTree(PAYLOAD_JSON, payloadMapper),
+                Utils.readTree(fromString.getPayload().bind(new TypeReference<RawJsonPayload>() {}, payloadMapper).toString(), payloadMapper));
+    }
+
+    private Message createMessage(MessagePayload payload) {
+        return TestUtils.createMessageBuilder(Clock.systemDefaultZone())
+                .withMessagePayload(payload)
+                .build();
+    }
+}
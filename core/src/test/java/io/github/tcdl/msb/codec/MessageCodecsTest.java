@@ -0,0 +1,91 @@
+package io.github.tcdl.msb.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.github.tcdl.msb.api.exception.ConfigurationException;
+import io.github.tcdl.msb.api.message.Message;
+import io.github.tcdl.msb.support.TestUtils;
+import io.github.tcdl.msb.support.Utils;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MessageCodecsTest {
+
+    @Test
+    public void testCreateBuiltInCodecs() {
+        assertTrue(MessageCodecs.createCodec(MessageCodecs.JSON) instanceof JsonMessageCodec);
+        assertTrue(MessageCodecs.createCodec(MessageCodecs.SMILE) instanceof SmileMessageCodec);
+    }
+
+    @Test
+    public void testCreateCustomCodec() {
+        assertTrue(MessageCodecs.createCodec(SmileMessageCodec.class.getName()) instanceof SmileMessageCodec);
+    }
+
+    @Test(expected = ConfigurationException.class)
+    public void testCreateUnknownCodec() {
+        MessageCodecs.createCodec("io.github.tcdl.msb.codec.UnknownCodec");
+    }
+
+    @Test(expected = ConfigurationException.class)
+    public void testCreateCodecOfWrongType() {
+        MessageCodecs.createCodec(String.class.getName());
+    }
+
+    @Test
+    public void testSmileCodecDerivedFromEnvelopeMapper() throws Exception {
+        ObjectMapper envelopeMapper = JacksonMessageCodec.configureEnvelopeMapper(new ObjectMapper())
+                .registerModule(new SimpleModule().addSerializer(Instant.class, new JsonSerializer<Instant>() {
+                    @Override
+                    public void serialize(Instant value, JsonGenerator generator, SerializerProvider serializers) throws IOException {
+                        generator.writeString("custom instant");
+                    }
+                }));
+        MessageCodec codec = MessageCodecs.createCodec(MessageCodecs.SMILE, envelopeMapper);
+        Message message = TestUtils.createSimpleRequestMessage("test:codec");
+
+        byte[] encoded = Utils.toBytes(message, codec.getMessageMapper());
+
+        JsonNode decoded = new ObjectMapper(new SmileFactory()).readTree(encoded);
+        assertEquals("custom instant", decoded.get("meta").get("createdAt").asText());
+        assertSame(envelopeMapper, MessageCodecs.createCodec(MessageCodecs.JSON, envelopeMapper).getMessageMapper());
+    }
+
+    @Test
+    public void testFindCodec() {
+        MessageCodec defaultCodec = new SmileMessageCodec();
+        MessageCodecs codecs = new MessageCodecs(defaultCodec);
+
+        assertSame(defaultCodec, codecs.getDefaultCodec());
+        assertSame(defaultCodec, codecs.findCodec(SmileMessageCodec.CONTENT_TYPE));
+        assertTrue(codecs.findCodec(JsonMessageCodec.CONTENT_TYPE) instanceof JsonMessageCodec);
+        assertTrue(codecs.findCodec("Application/JSON; charset=utf-8") instanceof JsonMessageCodec);
+        assertTrue(codecs.findCodec(null) instanceof JsonMessageCodec);
+        assertTrue(codecs.findCodec("text/plain") instanceof JsonMessageCodec);
+    }
+
+    @Test
+    public void testSmileRoundTrip() {
+        Message message = TestUtils.createSimpleRequestMessage("test:codec");
+        MessageCodec codec = new SmileMessageCodec();
+
+        byte[] encoded = Utils.toBytes(message, codec.getMessageMapper());
+        Message decoded = Utils.fromJson(encoded, StandardCharsets.UTF_16, Message.class, codec.getMessageMapper());
+
+        assertEquals(message.getId(), decoded.getId());
+        assertEquals(message.getMeta().getCreatedAt(), decoded.getMeta().getCreatedAt());
+        assertEquals(message.getRawPayload(), decoded.getRawPayload());
+    }
+}
@@ -3,7 +3,11 @@ package io.github.tcdl.msb.collector;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
 import io.github.tcdl.msb.ChannelManager;
+import io.github.tcdl.msb.support.TestUtils;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
@@ -37,4 +41,18 @@ public class CollectorManagerFactoryTest {
 
         assertNotEquals(collectorManager1, collectorManager2);
     }
+
+    @Test
+    public void testInFlightCountPerTopic() {
+        String topic1 = "topic:test-in-flight-topic1";
+        String topic2 = "topic:test-in-flight-topic2";
+        CollectorManagerFactory factory = new CollectorManagerFactory(channelManagerMock, 4);
+        Collector collectorMock = mock(Collector.class);
+        when(collectorMock.getRequestMessage()).thenReturn(TestUtils.createSimpleRequestMessage(topic1));
+
+        factory.findOrCreateCollectorManager(topic1).registerCollector(collectorMock);
+
+        assertEquals(1, factory.getInFlightCount(topic1));
+        assertEquals(0, factory.getInFlightCount(topic2));
+    }
 }
@@ -2,6 +2,7 @@ package io.github.tcdl.msb.collector;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
@@ -58,6 +59,28 @@ public class CollectorManagerTest {
         assertFalse(resolved.isPresent());
     }
 
+    @Test
+    public void testSubscribedOnce() {
+        CollectorManager collectorManager = new CollectorManager(TOPIC, channelManagerMock);
+        collectorManager.subscribe();
+        collectorManager.registerCollector(collectorMock);
+
+        verify(channelManagerMock, times(1)).subscribeForResponses(TOPIC, collectorManager);
+    }
+
+    @Test
+    public void testIsUnresolvable() {
+        Message requestMessage = collectorMock.getRequestMessage();
+        CollectorManager collectorManager = new CollectorManager(TOPIC, channelManagerMock);
+        collectorManager.registerCollector(collectorMock);
+
+        assertFalse(collectorManager.isUnresolvable(requestMessage.getCorrelationId()));
+        assertTrue(collectorManager.isUnresolvable("unexpected-correlation-id"));
+
+        collectorManager.unregisterCollector(collectorMock);
+        assertTrue(collectorManager.isUnresolvable(requestMessage.getCorrelationId()));
+    }
+
     @Test
     public void testHandleMessageUnregisteredProperCollectorForTopic() {
         String topic = "test-handle-message-collector-not";
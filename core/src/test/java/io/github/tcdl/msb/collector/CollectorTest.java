@@ -14,6 +14,8 @@ import io.github.tcdl.msb.api.AcknowledgementHandler;
 import io.github.tcdl.msb.api.Callback;
 import io.github.tcdl.msb.api.MessageContext;
 import io.github.tcdl.msb.api.RequestOptions;
+import io.github.tcdl.msb.api.ResponseRetention;
+import io.github.tcdl.msb.api.exception.ChannelException;
 import io.github.tcdl.msb.api.message.Acknowledge;
 import io.github.tcdl.msb.api.message.Message;
 import io.github.tcdl.msb.api.message.payload.RestPayload;
@@ -41,6 +43,7 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.googlecode.junittoolbox.MultithreadingTester;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -158,6 +161,7 @@ public class CollectorTest {
         BiConsumer<Message, MessageContext> onRawResponse = mock(BiConsumer.class);
         when(eventHandlers.onResponse()).thenReturn(onResponse);
         when(eventHandlers.onRawResponse()).thenReturn(onRawResponse);
+        when(requestOptionsMock.getResponseRetention()).thenReturn(ResponseRetention.ALL);
         
         AcknowledgementHandler acknowledgeHandler = mock(AcknowledgementHandler.class);
         MessageContext messageContext = mock(MessageContext.class);
@@ -186,6 +190,29 @@ public class CollectorTest {
         assertFalse(collector.getAckMessages().contains(responseMessage));
     }
 
+    @Test
+    public void testOnEndInvokedOnceForConcurrentResponses() {
+        int numberOfThreads = 10;
+        int responsesPerThread = 20;
+        when(requestOptionsMock.getWaitForResponses()).thenReturn(numberOfThreads * responsesPerThread);
+        @SuppressWarnings("unchecked")
+        Callback<Void> onEnd = mock(Callback.class);
+        when(eventHandlers.onEnd()).thenReturn(onEnd);
+        Collector<RestPayload> collector = createCollector();
+        collector.listenForResponses();
+
+        new MultithreadingTester().numThreads(numberOfThreads).numRoundsPerThread(responsesPerThread).add(() -> {
+            collector.notifyMessageConsumed();
+            collector.handleMessage(TestUtils.createMsbRequestMessage(TOPIC, "body"), mock(AcknowledgementHandler.class));
+            // the response timeout may expire concurrently
+            collector.end();
+        }).run();
+
+        verify(onEnd, times(1)).call(null);
+        verify(collectorManagerMock, times(1)).unregisterCollector(collector);
+        assertEquals(0, collector.getResponsesRemaining());
+    }
+
     @Test
     public void testHandleResponseConversionFailed() {
         String bodyText = "some body";
@@ -225,6 +252,7 @@ public class CollectorTest {
     public void testHandleResponseReceivedAck() {
         BiConsumer<Acknowledge, MessageContext> onAck = mock(BiConsumer.class);
         when(eventHandlers.onAcknowledge()).thenReturn(onAck);
+        when(requestOptionsMock.getResponseRetention()).thenReturn(ResponseRetention.ALL);
         Collector<RestPayload> collector = createCollector();
         
         AcknowledgementHandler ackHandler = mock(AcknowledgementHandler.class);
@@ -235,6 +263,62 @@ public class CollectorTest {
         assertFalse(collector.getPayloadMessages().contains(responseMessageWithAck));
     }
 
+    @Test
+    public void testHandleResponseRetainsNothingByDefault() {
+        Collector<RestPayload> collector = createCollector();
+
+        collector.handleMessage(TestUtils.createMsbRequestMessage(TOPIC, "body"), mock(AcknowledgementHandler.class));
+        collector.handleMessage(responseMessageWithAck, mock(AcknowledgementHandler.class));
+
+        assertTrue(collector.getPayloadMessages().isEmpty());
+        assertTrue(collector.getAckMessages().isEmpty());
+    }
+
+    @Test
+    public void testHandleResponseRetainsLastResponses() {
+        when(requestOptionsMock.getResponseRetention()).thenReturn(ResponseRetention.last(2));
+        Collector<RestPayload> collector = createCollector();
+        Message response1 = TestUtils.createMsbRequestMessage(TOPIC, "body1");
+        Message response2 = TestUtils.createMsbRequestMessage(TOPIC, "body2");
+        Message response3 = TestUtils.createMsbRequestMessage(TOPIC, "body3");
+
+        collector.handleMessage(response1, mock(AcknowledgementHandler.class));
+        collector.handleMessage(response2, mock(AcknowledgementHandler.class));
+        collector.handleMessage(response3, mock(AcknowledgementHandler.class));
+
+        assertThat(collector.getPayloadMessages()).containsExactly(response2, response3);
+    }
+
+    @Test
+    public void testHandleResponseRetainsIdsOnly() {
+        when(requestOptionsMock.getResponseRetention()).thenReturn(ResponseRetention.IDS_ONLY);
+        Collector<RestPayload> collector = createCollector();
+        Message response = TestUtils.createMsbRequestMessage(TOPIC, "body");
+
+        collector.handleMessage(response, mock(AcknowledgementHandler.class));
+
+        assertTrue(collector.getPayloadMessages().isEmpty());
+        assertThat(collector.getPayloadMessageIds()).containsExactly(response.getId());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testHandlePublishFailureInvokesErrorAndEndHandlers() {
+        BiConsumer<Exception, Message> onError = mock(BiConsumer.class);
+        Callback<Void> onEnd = mock(Callback.class);
+        when(eventHandlers.onError()).thenReturn(onError);
+        when(eventHandlers.onEnd()).thenReturn(onEnd);
+        Collector<RestPayload> collector = createCollector();
+        collector.listenForResponses();
+
+        ChannelException cause = new ChannelException("Message was rejected by broker");
+        collector.handlePublishFailure(cause);
+
+        verify(onError).accept(cause, originalMessage);
+        verify(onEnd).call(any());
+        verify(collectorManagerMock).unregisterCollector(collector);
+    }
+
     @Test
     @SuppressWarnings({ "rawtypes", "unchecked" })
     public void testHandleResponseEndEventNoResponsesRemaining() {
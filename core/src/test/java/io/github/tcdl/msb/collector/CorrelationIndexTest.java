@@ -0,0 +1,124 @@
+package io.github.tcdl.msb.collector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+public class CorrelationIndexTest {
+
+    private CorrelationIndex<String> index = new CorrelationIndex<>(4);
+
+    @Test
+    public void testPutGetRemoveUuid() {
+        String correlationId = UUID.randomUUID().toString();
+
+        assertNull(index.putIfAbsent(correlationId, "collector"));
+        assertEquals("collector", index.putIfAbsent(correlationId, "other collector"));
+        assertEquals("collector", index.get(correlationId));
+        assertEquals(1, index.size());
+
+        assertEquals("collector", index.remove(correlationId));
+        assertNull(index.get(correlationId));
+        assertNull(index.remove(correlationId));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void testPutGetRemoveNonUuid() {
+        String correlationId = "custom-correlation-id";
+
+        assertNull(index.putIfAbsent(correlationId, "collector"));
+        assertEquals("collector", index.get(correlationId));
+        assertNull(index.get(UUID.randomUUID().toString()));
+        assertEquals(1, index.size());
+
+        assertEquals("collector", index.remove(correlationId));
+        assertNull(index.get(correlationId));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void testNilUuid() {
+        String correlationId = new UUID(0, 0).toString();
+
+        assertNull(index.putIfAbsent(correlationId, "collector"));
+        assertEquals("collector", index.get(correlationId));
+        assertEquals("collector", index.remove(correlationId));
+    }
+
+    @Test
+    public void testUppercaseUuidIsNotConfusedWithCanonicalOne() {
+        String correlationId = UUID.randomUUID().toString();
+
+        index.putIfAbsent(correlationId, "canonical");
+        index.putIfAbsent(correlationId.toUpperCase(), "uppercase");
+
+        assertEquals("canonical", index.get(correlationId));
+        assertEquals("uppercase", index.get(correlationId.toUpperCase()));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void testGrowAndShrink() {
+        List<String> correlationIds = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            String correlationId = UUID.randomUUID().toString();
+            correlationIds.add(correlationId);
+            index.putIfAbsent(correlationId, correlationId);
+        }
+        assertEquals(correlationIds.size(), index.size());
+
+        // removing every other id moves entries back along their probe sequences
+        for (int i = 0; i < correlationIds.size(); i += 2) {
+            assertEquals(correlationIds.get(i), index.remove(correlationIds.get(i)));
+        }
+        for (int i = 0; i < correlationIds.size(); i++) {
+            assertEquals(i % 2 == 0 ? null : correlationIds.get(i), index.get(correlationIds.get(i)));
+        }
+
+        correlationIds.forEach(index::remove);
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void testGetWhileOtherIdsAreAddedAndRemoved() throws Exception {
+        List<String> stableIds = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            String correlationId = UUID.randomUUID().toString();
+            stableIds.add(correlationId);
+            index.putIfAbsent(correlationId, correlationId);
+        }
+
+        // the writer grows and shrinks the tables and shifts the stable entries back and forth
+        AtomicBoolean stopped = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            while (!stopped.get()) {
+                List<String> transientIds = new ArrayList<>();
+                for (int i = 0; i < 1000; i++) {
+                    String correlationId = UUID.randomUUID().toString();
+                    transientIds.add(correlationId);
+                    index.putIfAbsent(correlationId, correlationId);
+                }
+                transientIds.forEach(index::remove);
+            }
+        });
+        writer.start();
+        try {
+            for (int round = 0; round < 200; round++) {
+                for (String correlationId : stableIds) {
+                    assertEquals(correlationId, index.get(correlationId));
+                }
+            }
+        } finally {
+            stopped.set(true);
+            writer.join();
+        }
+        assertEquals(stableIds.size(), index.size());
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.tcdl.msb.collector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class MessageIdSetTest {
+
+    private MessageIdSet messageIdSet = new MessageIdSet();
+
+    @Test
+    public void testAddUuid() {
+        String id = UUID.randomUUID().toString();
+
+        assertTrue(messageIdSet.add(id));
+        assertFalse(messageIdSet.add(id));
+        assertTrue(messageIdSet.add(UUID.randomUUID().toString()));
+    }
+
+    @Test
+    public void testAddNilUuid() {
+        String nilId = new UUID(0, 0).toString();
+
+        assertTrue(messageIdSet.add(nilId));
+        assertFalse(messageIdSet.add(nilId));
+    }
+
+    @Test
+    public void testAddNonCanonicalId() {
+        String upperCaseId = UUID.randomUUID().toString().toUpperCase();
+
+        assertTrue(messageIdSet.add("custom-id"));
+        assertFalse(messageIdSet.add("custom-id"));
+        assertTrue(messageIdSet.add(upperCaseId));
+        assertFalse(messageIdSet.add(upperCaseId));
+        assertTrue(messageIdSet.add(upperCaseId.toLowerCase()));
+    }
+
+    @Test
+    public void testAddManyUuids() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            ids.add(UUID.randomUUID().toString());
+        }
+
+        ids.forEach(id -> assertTrue(messageIdSet.add(id)));
+        ids.forEach(id -> assertFalse(messageIdSet.add(id)));
+    }
+
+    @Test
+    public void testConcurrentAddsOfSameIds() throws Exception {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            ids.add(UUID.randomUUID().toString());
+        }
+
+        // every id is added by each thread, so the tables are resized while other threads look for the same ids
+        int threadCount = 4;
+        AtomicInteger addedCount = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threadCount; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    ids.forEach(id -> {
+                        if (messageIdSet.add(id)) {
+                            addedCount.incrementAndGet();
+                        }
+                    });
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(ids.size(), addedCount.get());
+        ids.forEach(id -> assertFalse(messageIdSet.add(id)));
+    }
+}
@@ -0,0 +1,188 @@
+package io.github.tcdl.msb.collector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import io.github.tcdl.msb.api.AcknowledgementHandler;
+import io.github.tcdl.msb.api.RequestOptions;
+import io.github.tcdl.msb.api.exception.ChannelException;
+import io.github.tcdl.msb.api.message.Acknowledge;
+import io.github.tcdl.msb.api.message.Message;
+import io.github.tcdl.msb.api.message.payload.RestPayload;
+import io.github.tcdl.msb.impl.MsbContextImpl;
+import io.github.tcdl.msb.support.TestUtils;
+
+import java.time.Clock;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SingleResponseCollectorTest {
+
+    private static final String TOPIC = "test:single-response-collector";
+
+    @Mock
+    private TimeoutManager timeoutManagerMock;
+
+    @Mock
+    private CollectorManagerFactory collectorManagerFactoryMock;
+
+    @Mock
+    private CollectorManager collectorManagerMock;
+
+    @Mock
+    private ScheduledFuture timeoutFutureMock;
+
+    private Message requestMessage = TestUtils.createSimpleRequestMessage(TOPIC);
+    private RequestOptions requestOptions = new RequestOptions.Builder().withWaitForResponses(1).withResponseTimeout(1000).build();
+    private CompletableFuture<RestPayload> future = new CompletableFuture<>();
+    private SingleResponseCollector<RestPayload> collector;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        MsbContextImpl msbContext = TestUtils.createMsbContextBuilder()
+                .withClock(Clock.systemDefaultZone())
+                .withTimeoutManager(timeoutManagerMock)
+                .withCollectorManagerFactory(collectorManagerFactoryMock)
+                .build();
+        when(collectorManagerFactoryMock.findOrCreateCollectorManager(TOPIC)).thenReturn(collectorManagerMock);
+        when(timeoutManagerMock.enableSingleResponseTimeout(anyInt(), any(SingleResponseCollector.class))).thenReturn(timeoutFutureMock);
+
+        collector = new SingleResponseCollector<>(TOPIC, requestMessage, requestOptions, msbContext, future, new TypeReference<RestPayload>() {
+        });
+        collector.listenForResponses();
+        collector.waitForResponses();
+    }
+
+    @Test
+    public void testResponseCompletesFuture() throws Exception {
+        collector.handleMessage(TestUtils.createMsbRequestMessage(TOPIC, "body"), mock(AcknowledgementHandler.class));
+
+        assertTrue(future.isDone());
+        assertFalse(future.isCancelled());
+        assertEquals("body", future.get().getBody());
+        verify(collectorManagerMock).registerCollector(collector);
+        verify(collectorManagerMock).unregisterCollector(collector);
+        verify(timeoutFutureMock).cancel(true);
+    }
+
+    @Test
+    public void testResponseConversionFailedCancelsFuture() {
+        CompletableFuture<Integer> integerFuture = new CompletableFuture<>();
+        SingleResponseCollector<Integer> integerCollector = new SingleResponseCollector<>(TOPIC, requestMessage, requestOptions,
+                TestUtils.createMsbContextBuilder().withCollectorManagerFactory(collectorManagerFactoryMock).build(),
+                integerFuture, new TypeReference<Integer>() {
+                });
+
+        integerCollector.handleMessage(TestUtils.createMsbRequestMessage(TOPIC, "body"), mock(AcknowledgementHandler.class));
+
+        assertTrue(integerFuture.isCancelled());
+    }
+
+    @Test
+    public void testTimeoutCancelsFuture() {
+        collector.end();
+
+        assertTrue(future.isCancelled());
+        verify(collectorManagerMock).unregisterCollector(collector);
+    }
+
+    @Test
+    public void testTimeoutWaitsForConsumedResponse() {
+        collector.notifyMessageConsumed();
+        collector.end();
+        assertFalse(future.isDone());
+
+        collector.handleMessage(TestUtils.createMsbRequestMessage(TOPIC, "body"), mock(AcknowledgementHandler.class));
+
+        assertTrue(future.isDone());
+        assertFalse(future.isCancelled());
+    }
+
+    @Test
+    public void testTimeoutCancelsFutureOnceConsumedAckIsHandled() {
+        collector.notifyMessageConsumed();
+        collector.end();
+
+        collector.handleMessage(createAck(1, null), mock(AcknowledgementHandler.class));
+
+        assertTrue(future.isCancelled());
+    }
+
+    @Test
+    public void testTimeoutCancelsFutureOnceConsumedMessageIsLost() {
+        collector.notifyMessageConsumed();
+        collector.end();
+
+        collector.notifyConsumedMessageIsLost();
+
+        assertTrue(future.isCancelled());
+    }
+
+    @Test
+    public void testPublishFailureCompletesFutureExceptionally() {
+        ChannelException cause = new ChannelException("Message was rejected by broker");
+        collector.handlePublishFailure(cause);
+
+        assertTrue(future.isCompletedExceptionally());
+        assertFalse(future.isCancelled());
+        verify(collectorManagerMock).unregisterCollector(collector);
+        verify(timeoutFutureMock).cancel(true);
+    }
+
+    @Test
+    public void testAckWithNoResponsesCancelsFuture() {
+        collector.handleMessage(createAck(0, null), mock(AcknowledgementHandler.class));
+
+        assertTrue(future.isCancelled());
+        verify(collectorManagerMock).unregisterCollector(collector);
+    }
+
+    @Test
+    public void testAckWithTooManyResponsesCancelsFuture() {
+        collector.handleMessage(createAck(2, null), mock(AcknowledgementHandler.class));
+
+        assertTrue(future.isCancelled());
+    }
+
+    @Test
+    public void testAckWithLongerTimeoutReschedulesTimeout() {
+        collector.handleMessage(createAck(1, 5000), mock(AcknowledgementHandler.class));
+
+        assertFalse(future.isDone());
+        verify(timeoutFutureMock).cancel(true);
+        verify(timeoutManagerMock, times(2)).enableSingleResponseTimeout(anyInt(), any(SingleResponseCollector.class));
+    }
+
+    @Test
+    public void testAckWithShorterTimeoutKeepsTimeout() {
+        collector.handleMessage(createAck(1, 500), mock(AcknowledgementHandler.class));
+
+        assertFalse(future.isDone());
+        verify(timeoutManagerMock, times(1)).enableSingleResponseTimeout(anyInt(), any(SingleResponseCollector.class));
+    }
+
+    private Message createAck(Integer responsesRemaining, Integer timeoutMs) {
+        Acknowledge ack = new Acknowledge.Builder()
+                .withResponderId("responderId")
+                .withResponsesRemaining(responsesRemaining)
+                .withTimeoutMs(timeoutMs)
+                .build();
+        return TestUtils.createMsbResponseMessageWithAckNoPayload(ack, TOPIC, requestMessage.getCorrelationId());
+    }
+}
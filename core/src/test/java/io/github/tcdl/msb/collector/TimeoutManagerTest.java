@@ -29,6 +29,14 @@ public class TimeoutManagerTest {
         verify(mockCollector, timeout(50)).end();
     }
 
+    @Test
+    public void testEnableResponseTimeoutOnTimingWheel() {
+        TimeoutManager timeoutManager = new TimeoutManager(1, 1, 8);
+        timeoutManager.enableResponseTimeout(10, mockCollector);
+        verify(mockCollector, timeout(100)).end();
+        timeoutManager.shutdown();
+    }
+
     @Test
     public void testEnableResponseTimeoutRejected() {
         TimeoutManager timeoutManager = new TimeoutManager(1);
@@ -0,0 +1,53 @@
+package io.github.tcdl.msb.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import io.github.tcdl.msb.api.exception.ConfigurationException;
+
+import org.junit.Test;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigValueFactory;
+
+public class MsbConfigTest {
+
+    @Test
+    public void testCorrelationIndexShards() {
+        MsbConfig msbConfig = new MsbConfig(withCorrelationIndexShards(64));
+
+        assertEquals(64, msbConfig.getCorrelationIndexShards());
+    }
+
+    @Test(expected = ConfigurationException.class)
+    public void testZeroCorrelationIndexShards() {
+        new MsbConfig(withCorrelationIndexShards(0));
+    }
+
+    @Test(expected = ConfigurationException.class)
+    public void testTooManyCorrelationIndexShards() {
+        new MsbConfig(withCorrelationIndexShards((1 << 16) + 1));
+    }
+
+    @Test
+    public void testTimerType() {
+        MsbConfig msbConfig = new MsbConfig(ConfigFactory.load().withValue("msbConfig.timer.type", ConfigValueFactory.fromAnyRef("wheel")));
+
+        assertEquals(TimerType.WHEEL, msbConfig.getTimerType());
+    }
+
+    @Test
+    public void testUnsupportedTimerType() {
+        try {
+            new MsbConfig(ConfigFactory.load().withValue("msbConfig.timer.type", ConfigValueFactory.fromAnyRef("wheeel")));
+            fail("Exception expected");
+        } catch (ConfigurationException e) {
+            assertTrue(e.getMessage().contains("Unsupported timer type: 'wheeel'"));
+        }
+    }
+
+    private Config withCorrelationIndexShards(int correlationIndexShards) {
+        return ConfigFactory.load().withValue("msbConfig.correlationIndexShards", ConfigValueFactory.fromAnyRef(correlationIndexShards));
+    }
+}
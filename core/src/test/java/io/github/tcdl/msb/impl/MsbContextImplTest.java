@@ -2,7 +2,9 @@ package io.github.tcdl.msb.impl;
 
 import io.github.tcdl.msb.ChannelManager;
 import io.github.tcdl.msb.api.ObjectFactory;
+import io.github.tcdl.msb.api.RequestOptions;
 import io.github.tcdl.msb.callback.MutableCallbackHandler;
+import io.github.tcdl.msb.collector.CollectorManager;
 import io.github.tcdl.msb.collector.CollectorManagerFactory;
 import io.github.tcdl.msb.collector.TimeoutManager;
 import io.github.tcdl.msb.config.MsbConfig;
@@ -13,9 +15,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.util.Arrays;
+
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
 public class MsbContextImplTest {
@@ -70,6 +76,19 @@ public class MsbContextImplTest {
         verify(shutdownCallbackHandlerMock).add(callbackMock);
     }
 
+    @Test
+    public void testWarmUp() {
+        CollectorManager collectorManagerMock = mock(CollectorManager.class);
+        when(messageFactoryMock.createResponseTopic("test:namespace")).thenReturn("test:namespace:response:instance");
+        when(collectorManagerFactoryMock.findOrCreateCollectorManager("test:namespace:response:instance")).thenReturn(collectorManagerMock);
+
+        msbContext.warmUp("test:namespace");
+
+        verify(channelManagerMock).warmUp(Arrays.asList("test:namespace", "test:namespace:response:instance"));
+        verify(channelManagerMock).findOrCreateProducer("test:namespace", RequestOptions.DEFAULTS);
+        verify(collectorManagerMock).subscribe();
+    }
+
     @Test
     public void testSetObjectFactory() {
         msbContext.setObjectFactory(objectFactoryMock);
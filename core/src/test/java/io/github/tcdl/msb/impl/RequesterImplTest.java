@@ -2,14 +2,19 @@ package io.github.tcdl.msb.impl;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import io.github.tcdl.msb.ChannelManager;
+import io.github.tcdl.msb.adapters.PublishOptions;
 import io.github.tcdl.msb.Consumer;
 import io.github.tcdl.msb.Producer;
 import io.github.tcdl.msb.api.*;
+import io.github.tcdl.msb.api.exception.ChannelException;
 import io.github.tcdl.msb.api.message.Acknowledge;
 import io.github.tcdl.msb.api.message.Message;
 import io.github.tcdl.msb.api.message.payload.RestPayload;
 import io.github.tcdl.msb.collector.Collector;
+import io.github.tcdl.msb.collector.CollectorManager;
+import io.github.tcdl.msb.collector.SingleResponseCollector;
 import io.github.tcdl.msb.support.TestUtils;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
@@ -17,7 +22,10 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.time.Clock;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 
 import static io.github.tcdl.msb.support.TestUtils.createPayloadWithTextBody;
@@ -51,6 +59,13 @@ public class RequesterImplTest {
     @Mock
     private Collector collectorMock;
 
+    private SingleResponseCollector<RestPayload> singleResponseCollector;
+
+    @Before
+    public void setUp() {
+        when(producerMock.publish(any(Message.class), any(PublishOptions.class))).thenReturn(CompletableFuture.completedFuture(null));
+    }
+
     @Test
     public void testPublishNoWaitForResponses() throws Exception {
         RequesterImpl<RestPayload> requester = initRequesterForResponsesWith(0, 0, 0, null, null, null, null);
@@ -111,7 +126,7 @@ public class RequesterImplTest {
 
         requester.publish(payload);
 
-        verify(producerMock).publish(messageCaptor.capture());
+        verify(producerMock).publish(messageCaptor.capture(), any(PublishOptions.class));
         TestUtils.assertRawPayloadContainsBodyText(bodyText, messageCaptor.getValue());
     }
 
@@ -213,7 +228,7 @@ public class RequesterImplTest {
         BiConsumer<Exception, Message> customOnErrorHandler = mock(BiConsumer.class);
         Callback<Void> customOnEndHandler = mock(Callback.class);
 
-        RequesterImpl requester = initRequesterForResponsesWith(1, 0, 0, customOnResponseHandler, customOnAcknowledgeHandler, customOnErrorHandler, customOnEndHandler);
+        RequesterImpl requester = initRequesterForResponsesWith(RequestOptions.WAIT_FOR_RESPONSES_UNTIL_TIMEOUT, 0, 0, customOnResponseHandler, customOnAcknowledgeHandler, customOnErrorHandler, customOnEndHandler);
 
         requester.onRawResponse(customOnRawResponseHandler);
 
@@ -227,8 +242,68 @@ public class RequesterImplTest {
     }
 
     @Test
-    public void testRequest_responseHandlerCompletesFuture() throws Exception {
-        RequesterImpl requester = initRequesterForResponsesWith(1, 0, 0, null, null, null, null);
+    public void testRequest_responseCompletesFuture() throws Exception {
+        RequesterImpl<RestPayload> requester = initRequesterForResponsesWith(1, 10000, 0, null, null, null, null);
+        CompletableFuture<RestPayload> futureResult = requester.request(TestUtils.createSimpleRequestPayload());
+
+        assertFalse(futureResult.isDone());
+
+        singleResponseCollector.handleMessage(TestUtils.createMsbRequestMessage(TOPIC, "body"), mock(AcknowledgementHandler.class));
+        assertTrue(futureResult.isDone());
+        assertEquals("body", futureResult.get().getBody());
+    }
+
+    @Test(expected = CancellationException.class)
+    public void testRequest_timeoutCancelsFuture() throws Exception {
+        RequesterImpl<RestPayload> requester = initRequesterForResponsesWith(1, 50, 0, null, null, null, null);
+        CompletableFuture<RestPayload> futureResult = requester.request(TestUtils.createSimpleRequestPayload());
+
+        futureResult.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testRequest_acknowledgeCancelsFutureOnNoResponses() throws Exception {
+        RequesterImpl<RestPayload> requester = initRequesterForResponsesWith(1, 10000, 0, null, null, null, null);
+        CompletableFuture<RestPayload> futureResult = requester.request(TestUtils.createSimpleRequestPayload());
+
+        singleResponseCollector.handleMessage(createAckMessage(0), mock(AcknowledgementHandler.class));
+        assertTrue(futureResult.isCancelled());
+    }
+
+    @Test
+    public void testRequest_acknowledgeCancelsFutureOnTooManyResponses() throws Exception {
+        RequesterImpl<RestPayload> requester = initRequesterForResponsesWith(1, 10000, 0, null, null, null, null);
+        CompletableFuture<RestPayload> futureResult = requester.request(TestUtils.createSimpleRequestPayload());
+
+        singleResponseCollector.handleMessage(createAckMessage(2), mock(AcknowledgementHandler.class));
+        assertTrue(futureResult.isCancelled());
+    }
+
+    @Test
+    public void testRequest_acknowledgeWithSingleResponseKeepsFuture() throws Exception {
+        RequesterImpl<RestPayload> requester = initRequesterForResponsesWith(1, 10000, 0, null, null, null, null);
+        CompletableFuture<RestPayload> futureResult = requester.request(TestUtils.createSimpleRequestPayload());
+
+        singleResponseCollector.handleMessage(createAckMessage(1), mock(AcknowledgementHandler.class));
+        assertFalse(futureResult.isDone());
+    }
+
+    @Test
+    public void testRequest_publishFailureCompletesFutureExceptionally() throws Exception {
+        RequesterImpl<RestPayload> requester = initRequesterForResponsesWith(1, 10000, 0, null, null, null, null);
+        CompletableFuture<Void> publishFuture = new CompletableFuture<>();
+        when(producerMock.publish(any(Message.class), any(PublishOptions.class))).thenReturn(publishFuture);
+        CompletableFuture<RestPayload> futureResult = requester.request(TestUtils.createSimpleRequestPayload());
+
+        assertFalse(futureResult.isDone());
+
+        publishFuture.completeExceptionally(new ChannelException("Message was rejected by broker"));
+        assertTrue(futureResult.isCompletedExceptionally());
+    }
+
+    @Test
+    public void testRequestUntilTimeout_responseHandlerCompletesFuture() throws Exception {
+        RequesterImpl requester = initRequesterForResponsesWith(RequestOptions.WAIT_FOR_RESPONSES_UNTIL_TIMEOUT, 0, 0, null, null, null, null);
         CompletableFuture futureResult = requester.request(TestUtils.createSimpleRequestPayload());
 
         assertFalse(futureResult.isDone());
@@ -242,8 +317,22 @@ public class RequesterImplTest {
     }
 
     @Test
-    public void testRequest_rawResponseHandlerDoesNotCompleteFuture() throws Exception {
-        RequesterImpl requester = initRequesterForResponsesWith(1, 0, 0, null, null, null, null);
+    public void testRequestUntilTimeout_publishFailureIsHandledByCollector() throws Exception {
+        RequesterImpl<RestPayload> requester = initRequesterForResponsesWith(RequestOptions.WAIT_FOR_RESPONSES_UNTIL_TIMEOUT, 0, 0, null, null, null, null);
+        CompletableFuture<Void> publishFuture = new CompletableFuture<>();
+        when(producerMock.publish(any(Message.class), any(PublishOptions.class))).thenReturn(publishFuture);
+        requester.request(TestUtils.createSimpleRequestPayload());
+        verify(collectorMock, never()).handlePublishFailure(any());
+
+        ChannelException cause = new ChannelException("Message was rejected by broker");
+        publishFuture.completeExceptionally(cause);
+
+        verify(collectorMock).handlePublishFailure(cause);
+    }
+
+    @Test
+    public void testRequestUntilTimeout_rawResponseHandlerDoesNotCompleteFuture() throws Exception {
+        RequesterImpl requester = initRequesterForResponsesWith(RequestOptions.WAIT_FOR_RESPONSES_UNTIL_TIMEOUT, 0, 0, null, null, null, null);
         CompletableFuture futureResult = requester.request(TestUtils.createSimpleRequestPayload());
 
         assertFalse(futureResult.isDone());
@@ -256,8 +345,8 @@ public class RequesterImplTest {
     }
 
     @Test
-    public void testRequest_errorHandlerCancelsFuture() throws Exception {
-        RequesterImpl requester = initRequesterForResponsesWith(1, 0, 0, null, null, null, null);
+    public void testRequestUntilTimeout_errorHandlerCancelsFuture() throws Exception {
+        RequesterImpl requester = initRequesterForResponsesWith(RequestOptions.WAIT_FOR_RESPONSES_UNTIL_TIMEOUT, 0, 0, null, null, null, null);
         CompletableFuture futureResult = requester.request(TestUtils.createSimpleRequestPayload());
 
         assertFalse(futureResult.isDone());
@@ -270,8 +359,8 @@ public class RequesterImplTest {
     }
 
     @Test
-    public void testRequest_endHandlerCancelsNotCompletedFuture() throws Exception {
-        RequesterImpl requester = initRequesterForResponsesWith(1, 0, 0, null, null, null, null);
+    public void testRequestUntilTimeout_endHandlerCancelsNotCompletedFuture() throws Exception {
+        RequesterImpl requester = initRequesterForResponsesWith(RequestOptions.WAIT_FOR_RESPONSES_UNTIL_TIMEOUT, 0, 0, null, null, null, null);
         CompletableFuture futureResult = requester.request(TestUtils.createSimpleRequestPayload());
 
         assertFalse(futureResult.isDone());
@@ -281,8 +370,8 @@ public class RequesterImplTest {
     }
 
     @Test
-    public void testRequest_endHandlerDoesNothingWithCompletedFuture() throws Exception {
-        RequesterImpl requester = initRequesterForResponsesWith(1, 0, 0, null, null, null, null);
+    public void testRequestUntilTimeout_endHandlerDoesNothingWithCompletedFuture() throws Exception {
+        RequesterImpl requester = initRequesterForResponsesWith(RequestOptions.WAIT_FOR_RESPONSES_UNTIL_TIMEOUT, 0, 0, null, null, null, null);
         CompletableFuture futureResult = requester.request(TestUtils.createSimpleRequestPayload());
 
         RestPayload mockResponsePayload = mock(RestPayload.class);
@@ -294,8 +383,8 @@ public class RequesterImplTest {
     }
 
     @Test
-    public void testRequest_acknowledgeHandlerCancelsFutureOnNoResponses() throws Exception {
-        RequesterImpl requester = initRequesterForResponsesWith(1, 0, 0, null, null, null, null);
+    public void testRequestUntilTimeout_acknowledgeHandlerCancelsFutureOnNoResponses() throws Exception {
+        RequesterImpl requester = initRequesterForResponsesWith(RequestOptions.WAIT_FOR_RESPONSES_UNTIL_TIMEOUT, 0, 0, null, null, null, null);
         CompletableFuture futureResult = requester.request(TestUtils.createSimpleRequestPayload());
 
         MessageContext mockMessageContext = mock(MessageContext.class);
@@ -310,8 +399,8 @@ public class RequesterImplTest {
     }
 
     @Test
-    public void testRequest_acknowledgeHandlerCancelsFutureOnTooManyResponses() throws Exception{
-        RequesterImpl requester = initRequesterForResponsesWith(1, 0, 0, null, null, null, null);
+    public void testRequestUntilTimeout_acknowledgeHandlerCancelsFutureOnTooManyResponses() throws Exception{
+        RequesterImpl requester = initRequesterForResponsesWith(RequestOptions.WAIT_FOR_RESPONSES_UNTIL_TIMEOUT, 0, 0, null, null, null, null);
         CompletableFuture futureResult = requester.request(TestUtils.createSimpleRequestPayload());
 
         MessageContext mockMessageContext = mock(MessageContext.class);
@@ -325,10 +414,22 @@ public class RequesterImplTest {
         assertTrue(futureResult.isCancelled());
     }
 
+    @Test
+    public void testRequest_singleResponseCollectedWithoutEventHandlers() throws Exception {
+        RequesterImpl<RestPayload> requester = initRequesterForResponsesWith(1, 0, 0, null, null, null, null);
+
+        CompletableFuture<RestPayload> futureResult = requester.request(TestUtils.createSimpleRequestPayload());
+
+        verify(requester).createSingleResponseCollector(any(Message.class), any(RequestOptions.class), any(MsbContextImpl.class), same(futureResult));
+        verify(requester, never()).createCollector(any(Message.class), any(RequestOptions.class), any(MsbContextImpl.class), any(), anyBoolean());
+        verify(producerMock).publish(any(Message.class), any(PublishOptions.class));
+        assertFalse(futureResult.isDone());
+    }
+
     @Test
     public void testRequestMessage() throws Exception {
         ChannelManager channelManagerMock = mock(ChannelManager.class);
-        Producer producerMock = mock(Producer.class);
+        Producer producerMock = createProducerMock();
         when(channelManagerMock.findOrCreateProducer(eq(TOPIC), eq(RequestOptions.DEFAULTS))).thenReturn(producerMock);
         ArgumentCaptor<Message> messageArgumentCaptor = ArgumentCaptor.forClass(Message.class);
 
@@ -340,7 +441,7 @@ public class RequesterImplTest {
         RestPayload requestPayload = TestUtils.createSimpleRequestPayload();
         Requester<RestPayload> requester = RequesterImpl.create(TOPIC, RequestOptions.DEFAULTS, msbContext, new TypeReference<RestPayload>(){});
         requester.publish(requestPayload);
-        verify(producerMock).publish(messageArgumentCaptor.capture());
+        verify(producerMock).publish(messageArgumentCaptor.capture(), any(PublishOptions.class));
 
         Message requestMessage = messageArgumentCaptor.getValue();
         assertNotNull(requestMessage);
@@ -348,10 +449,92 @@ public class RequesterImplTest {
         assertNotNull(requestMessage.getRawPayload());
     }
 
+    @Test
+    public void testRequestPublishedWithTemplateDeliveryOptions() throws Exception {
+        ChannelManager channelManagerMock = mock(ChannelManager.class);
+        Producer producerMock = createProducerMock();
+        ArgumentCaptor<PublishOptions> optionsCaptor = ArgumentCaptor.forClass(PublishOptions.class);
+
+        MsbContextImpl msbContext = TestUtils.createMsbContextBuilder()
+                .withChannelManager(channelManagerMock)
+                .withClock(Clock.systemDefaultZone())
+                .build();
+
+        RequestOptions requestOptions = new RequestOptions.Builder()
+                .withMessageTemplate(new MessageTemplate().withDeliveryMode(DeliveryMode.TRANSIENT).withPriority(3))
+                .build();
+        when(channelManagerMock.findOrCreateProducer(eq(TOPIC), eq(requestOptions))).thenReturn(producerMock);
+
+        Requester<RestPayload> requester = RequesterImpl.create(TOPIC, requestOptions, msbContext, new TypeReference<RestPayload>(){});
+        requester.publish(TestUtils.createSimpleRequestPayload());
+        verify(producerMock).publish(any(Message.class), optionsCaptor.capture());
+
+        assertEquals(DeliveryMode.TRANSIENT, optionsCaptor.getValue().getDeliveryMode());
+        assertEquals(Integer.valueOf(3), optionsCaptor.getValue().getPriority());
+    }
+
+    @Test
+    public void testRequestWithDirectReplyTo() throws Exception {
+        ChannelManager channelManagerMock = mock(ChannelManager.class);
+        Producer producerMock = createProducerMock();
+        ArgumentCaptor<Message> messageCaptor = ArgumentCaptor.forClass(Message.class);
+        ArgumentCaptor<PublishOptions> optionsCaptor = ArgumentCaptor.forClass(PublishOptions.class);
+
+        MsbContextImpl msbContext = TestUtils.createMsbContextBuilder()
+                .withChannelManager(channelManagerMock)
+                .withClock(Clock.systemDefaultZone())
+                .build();
+
+        RequestOptions requestOptions = new RequestOptions.Builder()
+                .withWaitForResponses(1)
+                .withResponseTimeout(100)
+                .withDirectReplyTo(true)
+                .build();
+        when(channelManagerMock.getDirectReplyTopic()).thenReturn(Optional.of("direct-reply"));
+        when(channelManagerMock.findOrCreateProducer(eq(TOPIC), eq(requestOptions))).thenReturn(producerMock);
+
+        Requester<RestPayload> requester = RequesterImpl.create(TOPIC, requestOptions, msbContext, new TypeReference<RestPayload>(){});
+        requester.publish(TestUtils.createSimpleRequestPayload());
+
+        verify(channelManagerMock).subscribeForResponses(eq("direct-reply"), any(CollectorManager.class));
+        verify(producerMock).publish(messageCaptor.capture(), optionsCaptor.capture());
+        assertEquals("direct-reply", messageCaptor.getValue().getTopics().getResponse());
+        assertEquals("direct-reply", optionsCaptor.getValue().getReplyTo());
+    }
+
+    @Test
+    public void testRequestWithDirectReplyToNotSupportedUsesResponseTopic() throws Exception {
+        ChannelManager channelManagerMock = mock(ChannelManager.class);
+        Producer producerMock = createProducerMock();
+        ArgumentCaptor<Message> messageCaptor = ArgumentCaptor.forClass(Message.class);
+        ArgumentCaptor<PublishOptions> optionsCaptor = ArgumentCaptor.forClass(PublishOptions.class);
+
+        MsbContextImpl msbContext = TestUtils.createMsbContextBuilder()
+                .withChannelManager(channelManagerMock)
+                .withClock(Clock.systemDefaultZone())
+                .build();
+
+        RequestOptions requestOptions = new RequestOptions.Builder()
+                .withWaitForResponses(1)
+                .withResponseTimeout(100)
+                .withDirectReplyTo(true)
+                .build();
+        when(channelManagerMock.getDirectReplyTopic()).thenReturn(Optional.empty());
+        when(channelManagerMock.findOrCreateProducer(eq(TOPIC), eq(requestOptions))).thenReturn(producerMock);
+
+        Requester<RestPayload> requester = RequesterImpl.create(TOPIC, requestOptions, msbContext, new TypeReference<RestPayload>(){});
+        requester.publish(TestUtils.createSimpleRequestPayload());
+
+        verify(producerMock).publish(messageCaptor.capture(), optionsCaptor.capture());
+        assertEquals(TOPIC + ":response:" + msbContext.getMsbConfig().getServiceDetails().getInstanceId(),
+                messageCaptor.getValue().getTopics().getResponse());
+        assertNull(optionsCaptor.getValue().getReplyTo());
+    }
+
     @Test
     public void testRequestMessageWithTags() throws Exception {
         ChannelManager channelManagerMock = mock(ChannelManager.class);
-        Producer producerMock = mock(Producer.class);
+        Producer producerMock = createProducerMock();
         ArgumentCaptor<Message> messageArgumentCaptor = ArgumentCaptor.forClass(Message.class);
 
         MsbContextImpl msbContext = TestUtils.createMsbContextBuilder()
@@ -370,13 +553,30 @@ public class RequesterImplTest {
 
         Requester<RestPayload> requester = RequesterImpl.create(TOPIC, requestOptions, msbContext, new TypeReference<RestPayload>(){});
         requester.publish(requestPayload, dynamicTag1, dynamicTag2, nullTag);
-        verify(producerMock).publish(messageArgumentCaptor.capture());
+        verify(producerMock).publish(messageArgumentCaptor.capture(), any(PublishOptions.class));
 
         Message requestMessage = messageArgumentCaptor.getValue();
         assertArrayEquals(new String[]{tag, dynamicTag1, dynamicTag2}, requestMessage.getTags().toArray());
     }
 
 
+    private Producer createProducerMock() {
+        Producer producerMock = mock(Producer.class);
+        when(producerMock.publish(any(Message.class), any(PublishOptions.class))).thenReturn(CompletableFuture.completedFuture(null));
+        return producerMock;
+    }
+
+    private Message createAckMessage(int responsesRemaining) {
+        Acknowledge acknowledge = new Acknowledge.Builder()
+                .withResponderId("responderId")
+                .withResponsesRemaining(responsesRemaining)
+                .withTimeoutMs(0)
+                .build();
+        ArgumentCaptor<Message> requestMessageCaptor = ArgumentCaptor.forClass(Message.class);
+        verify(producerMock).publish(requestMessageCaptor.capture(), any(PublishOptions.class));
+        return TestUtils.createMsbResponseMessageWithAckNoPayload(acknowledge, TOPIC, requestMessageCaptor.getValue().getCorrelationId());
+    }
+
     private RequesterImpl<RestPayload> initRequesterForResponsesWith(Integer numberOfResponses, Integer respTimeout, Integer ackTimeout,
                                                                      BiConsumer<RestPayload, MessageContext> onResponse, BiConsumer<Acknowledge, MessageContext> onAcknowledge,
                                                                      BiConsumer<Exception, Message> onError,
@@ -394,6 +594,7 @@ public class RequesterImplTest {
         return setUpRequester(TOPIC, onResponse, onAcknowledge, onError, endHandler, requestOptions);
     }
 
+    @SuppressWarnings("unchecked")
     private RequesterImpl<RestPayload> setUpRequester(String namespace, BiConsumer<RestPayload, MessageContext> onResponse, BiConsumer<Acknowledge, MessageContext> onAcknowledge, BiConsumer<Exception, Message> onError, Callback<Void> endHandler, RequestOptions requestOptions) {
         MsbContextImpl msbContext = TestUtils.createMsbContextBuilder()
                 .withChannelManager(channelManagerMock)
@@ -413,6 +614,10 @@ public class RequesterImplTest {
         doReturn(collectorMock)
                 .when(requester)
                 .createCollector(any(Message.class), any(RequestOptions.class), any(MsbContextImpl.class), any(), anyBoolean());
+        //keep the collector of a single response request to feed it with responses
+        doAnswer(invocation -> singleResponseCollector = (SingleResponseCollector<RestPayload>) invocation.callRealMethod())
+                .when(requester)
+                .createSingleResponseCollector(any(Message.class), any(RequestOptions.class), any(MsbContextImpl.class), any());
         return requester;
     }
 }
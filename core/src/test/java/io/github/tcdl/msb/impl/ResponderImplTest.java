@@ -14,8 +14,9 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import io.github.tcdl.msb.ChannelManager;
 import io.github.tcdl.msb.Producer;
+import io.github.tcdl.msb.adapters.PublishOptions;
+import io.github.tcdl.msb.api.DeliveryMode;
 import io.github.tcdl.msb.api.MessageTemplate;
-import io.github.tcdl.msb.api.RequestOptions;
 import io.github.tcdl.msb.api.Responder;
 import io.github.tcdl.msb.api.message.Message;
 import io.github.tcdl.msb.config.MsbConfig;
@@ -23,6 +24,7 @@ import io.github.tcdl.msb.message.MessageFactory;
 import io.github.tcdl.msb.support.TestUtils;
 
 import java.time.Clock;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -54,11 +56,12 @@ public class ResponderImplTest {
         msbContextSpy = spy(msbContext);
         mockChannelManager = mock(ChannelManager.class);
         mockProducer = mock(Producer.class);
+        when(mockProducer.publish(any(Message.class), any(PublishOptions.class))).thenReturn(CompletableFuture.completedFuture(null));
         originalMessage = TestUtils.createSimpleRequestMessage(TOPIC);
 
         when(msbContextSpy.getChannelManager()).thenReturn(mockChannelManager);
         when(msbContextSpy.getMessageFactory()).thenReturn(spyMessageFactory);
-        when(mockChannelManager.findOrCreateProducer(anyString(), any(RequestOptions.class))).thenReturn(mockProducer);
+        when(mockChannelManager.findOrCreateResponseProducer(anyString())).thenReturn(mockProducer);
 
         responder = new ResponderImpl(messageTemplate, originalMessage, msbContextSpy);
     }
@@ -75,7 +78,7 @@ public class ResponderImplTest {
         ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
         responder.send("");
 
-        verify(mockChannelManager).findOrCreateProducer(argument.capture(), any(RequestOptions.class));
+        verify(mockChannelManager).findOrCreateResponseProducer(argument.capture());
 
         assertEquals(originalMessage.getTopics().getResponse(), argument.getValue());
     }
@@ -84,7 +87,7 @@ public class ResponderImplTest {
     public void testProducerPublishMethodInvoked() {
         responder.send("");
 
-        verify(mockProducer, times(1)).publish(anyObject());
+        verify(mockProducer, times(1)).publish(anyObject(), any(PublishOptions.class));
     }
 
     @Test
@@ -94,7 +97,7 @@ public class ResponderImplTest {
         ArgumentCaptor<Message> argument = ArgumentCaptor.forClass(Message.class);
         responder.send(responsePayload);
 
-        verify(mockProducer).publish(argument.capture());
+        verify(mockProducer).publish(argument.capture(), any(PublishOptions.class));
 
         assertNotNull(argument.getValue().getRawPayload());
         TestUtils.assertRawPayload(responsePayload, argument.getValue());
@@ -108,12 +111,27 @@ public class ResponderImplTest {
         ArgumentCaptor<Message> argument = ArgumentCaptor.forClass(Message.class);
         responder.send(TestUtils.createSimpleRequestPayload());
 
-        verify(mockProducer).publish(argument.capture());
+        verify(mockProducer).publish(argument.capture(), any(PublishOptions.class));
 
         Message responseMessage = argument.getValue();
         assertArrayEquals(tags, responseMessage.getTags().toArray());
     }
 
+    @Test
+    public void testResponsesAndAcksArePublishedTransient() {
+        responder = new ResponderImpl(new MessageTemplate().withPriority(5), originalMessage, msbContextSpy);
+        ArgumentCaptor<PublishOptions> optionsCaptor = ArgumentCaptor.forClass(PublishOptions.class);
+
+        responder.sendAck(1000, 1);
+        responder.send(TestUtils.createSimpleResponsePayload());
+
+        verify(mockProducer, times(2)).publish(any(Message.class), optionsCaptor.capture());
+        for (PublishOptions options : optionsCaptor.getAllValues()) {
+            assertEquals(DeliveryMode.TRANSIENT, options.getDeliveryMode());
+            assertEquals(Integer.valueOf(5), options.getPriority());
+        }
+    }
+
     @Test
     public void testAckBuilderContainsCorrectProperties() {
         Integer timeout = 222;
@@ -121,7 +139,7 @@ public class ResponderImplTest {
         ArgumentCaptor<Message> argument = ArgumentCaptor.forClass(Message.class);
         responder.sendAck(timeout, responsesRemaining);
 
-        verify(mockProducer).publish(argument.capture());
+        verify(mockProducer).publish(argument.capture(), any(PublishOptions.class));
 
         assertEquals(argument.getValue().getAck().getTimeoutMs(), timeout);
         assertEquals(argument.getValue().getAck().getResponsesRemaining(), responsesRemaining);
@@ -132,12 +150,13 @@ public class ResponderImplTest {
         ArgumentCaptor<Message> messageCaptor = ArgumentCaptor.forClass(Message.class);
         responder.sendAck(1000, 1);
 
-        verify(mockProducer).publish(messageCaptor.capture());
+        verify(mockProducer).publish(messageCaptor.capture(), any(PublishOptions.class));
         String responderIdInAck = messageCaptor.getValue().getAck().getResponderId();
 
         reset(mockProducer);
+        when(mockProducer.publish(any(Message.class), any(PublishOptions.class))).thenReturn(CompletableFuture.completedFuture(null));
         responder.send(TestUtils.createSimpleResponsePayload());
-        verify(mockProducer).publish(messageCaptor.capture());
+        verify(mockProducer).publish(messageCaptor.capture(), any(PublishOptions.class));
 
         String responderIdInAckPayload = messageCaptor.getValue().getAck().getResponderId();
         assertEquals(responderIdInAck, responderIdInAckPayload);
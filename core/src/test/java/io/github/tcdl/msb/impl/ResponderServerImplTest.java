@@ -3,6 +3,7 @@ package io.github.tcdl.msb.impl;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.google.common.collect.Sets;
 import io.github.tcdl.msb.ChannelManager;
+import io.github.tcdl.msb.adapters.PublishOptions;
 import io.github.tcdl.msb.MessageHandler;
 import io.github.tcdl.msb.Producer;
 import io.github.tcdl.msb.api.*;
@@ -19,6 +20,7 @@ import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.Assert.*;
 import static org.mockito.Matchers.any;
@@ -92,6 +94,7 @@ public class ResponderServerImplTest {
         when(spyMsbContext.getChannelManager()).thenReturn(spyChannelManager);
         when(spyChannelManager.getAvailableMessageCount(anyString())).thenReturn(Optional.of(666L));
         when(spyChannelManager.isConnected(anyString())).thenReturn(Optional.of(true));
+        when(spyChannelManager.getPrefetchCount(anyString())).thenReturn(Optional.of(25));
 
         ResponderServer responderServer =
                 ResponderServerImpl.create(TOPIC,responderOptions, spyMsbContext, handler, null,
@@ -102,13 +105,16 @@ public class ResponderServerImplTest {
         MetricSet metricSet = responderServer.getMetrics();
         Gauge<Long> availableMessageCount = (Gauge<Long>) metricSet.getMetric("availableMessageCount");
         Gauge<Boolean> isConsumerConnected = (Gauge<Boolean>) metricSet.getMetric("consumerConnected");
+        Gauge<Integer> prefetchCount = (Gauge<Integer>) metricSet.getMetric("prefetchCount");
 
         assertEquals(666L, availableMessageCount.getValue().longValue());
         assertTrue(isConsumerConnected.getValue());
+        assertEquals(25, prefetchCount.getValue().intValue());
 
         verify(spyChannelManager, times(1)).subscribe(eq(TOPIC), any(ResponderOptions.class), any(MessageHandler.class));
         verify(spyChannelManager, times(1)).getAvailableMessageCount(TOPIC);
         verify(spyChannelManager, times(1)).isConnected(TOPIC);
+        verify(spyChannelManager, times(1)).getPrefetchCount(TOPIC);
     }
 
     @Test(expected = NullPointerException.class)
@@ -196,7 +202,8 @@ public class ResponderServerImplTest {
 
         ChannelManager mockChannelManager = mock(ChannelManager.class);
         Producer mockProducer = mock(Producer.class);
-        when(mockChannelManager.findOrCreateProducer(anyString(), any(RequestOptions.class))).thenReturn(mockProducer);
+        when(mockProducer.publish(any(Message.class), any(PublishOptions.class))).thenReturn(CompletableFuture.completedFuture(null));
+        when(mockChannelManager.findOrCreateResponseProducer(anyString())).thenReturn(mockProducer);
         MsbContextImpl msbContext1 = new TestUtils.TestMsbContextBuilder()
                 .withChannelManager(mockChannelManager)
                 .build();
@@ -214,7 +221,7 @@ public class ResponderServerImplTest {
         responder.send("response");
 
         // Verify that 2 messages were published
-        verify(mockProducer, times(2)).publish(any(Message.class));
+        verify(mockProducer, times(2)).publish(any(Message.class), any(PublishOptions.class));
     }
 
     @Test
@@ -1,5 +1,6 @@
 package io.github.tcdl.msb.support;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.tcdl.msb.api.exception.JsonSchemaValidationException;
 import org.junit.After;
@@ -61,9 +62,26 @@ public class JsonValidatorTest {
         verify(jsonReaderMock, only()).read(any());
     }
 
+    @Test
+    public void testValidateParsedTreeSuccess() throws Exception {
+        String namespace = TestUtils.getSimpleNamespace();
+        JsonNode jsonNode = mapper.valueToTree(TestUtils.createMsbRequestMessageNoPayload(namespace));
+
+        validator.validate(jsonNode, schema);
+
+        // only schema is read
+        verify(jsonReaderMock, only()).read(schema);
+    }
+
+    @Test(expected = JsonSchemaValidationException.class)
+    public void testValidateParsedTreeNotMatchingSchemaFail() throws Exception {
+        JsonNode jsonNode = mapper.readTree("{\"param\":\"value\"}");
+        validator.validate(jsonNode, schema);
+    }
+
     @Test(expected = NullPointerException.class)
     public void testValidateNullJsonFail() throws Exception {
-        validator.validate(null, schema);
+        validator.validate((String) null, schema);
     }
 
     @Test(expected = NullPointerException.class)
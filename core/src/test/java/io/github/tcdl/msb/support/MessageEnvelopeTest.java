@@ -0,0 +1,81 @@
+package io.github.tcdl.msb.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.tcdl.msb.api.exception.JsonConversionException;
+import io.github.tcdl.msb.api.message.Message;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MessageEnvelopeTest {
+
+    private ObjectMapper messageMapper = TestUtils.createMessageMapper();
+
+    @Test
+    public void testPeekSerializedMessage() {
+        Message message = TestUtils.createMsbRequestMessage("test:envelope", null, "correlation-id", TestUtils.createSimpleRequestPayload());
+        byte[] body = Utils.toJson(message, messageMapper).getBytes(StandardCharsets.UTF_8);
+
+        MessageEnvelope envelope = MessageEnvelope.peek(body, StandardCharsets.UTF_8, messageMapper);
+
+        assertEquals(message.getId(), envelope.getId());
+        assertEquals("correlation-id", envelope.getCorrelationId());
+        assertEquals(message.getMeta().getTtl(), envelope.getTtl());
+        assertEquals(message.getMeta().getCreatedAt(), envelope.getCreatedAt());
+    }
+
+    @Test
+    public void testPeekStopsBeforePayload() {
+        // the payload is malformed but it is never reached
+        String json = "{\"id\":\"1\",\"correlationId\":\"2\",\"meta\":{\"ttl\":100,\"createdAt\":\"2015-06-02T15:50:08.039Z\"},\"payload\":{,}";
+
+        MessageEnvelope envelope = MessageEnvelope.peek(json, messageMapper);
+
+        assertEquals("1", envelope.getId());
+        assertEquals("2", envelope.getCorrelationId());
+        assertEquals(Integer.valueOf(100), envelope.getTtl());
+        assertEquals(Instant.parse("2015-06-02T15:50:08.039Z"), envelope.getCreatedAt());
+    }
+
+    @Test
+    public void testPeekFieldsInAnyOrder() {
+        String json = "{\"payload\":{\"body\":[1,2,3]},\"meta\":{\"serviceDetails\":{},\"ttl\":5},\"tags\":[],\"correlationId\":\"2\",\"id\":\"1\"}";
+
+        MessageEnvelope envelope = MessageEnvelope.peek(json.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8, messageMapper);
+
+        assertEquals("1", envelope.getId());
+        assertEquals("2", envelope.getCorrelationId());
+        assertEquals(Integer.valueOf(5), envelope.getTtl());
+        assertNull(envelope.getCreatedAt());
+    }
+
+    @Test
+    public void testPeekUnexpectedStructure() {
+        MessageEnvelope envelope = MessageEnvelope.peek("[\"id\"]", messageMapper);
+
+        assertNull(envelope.getId());
+        assertNull(envelope.getCorrelationId());
+        assertFalse(envelope.isExpired(Instant.now()));
+    }
+
+    @Test(expected = JsonConversionException.class)
+    public void testPeekMalformedEnvelope() {
+        MessageEnvelope.peek("{\"id\":", messageMapper);
+    }
+
+    @Test
+    public void testIsExpired() {
+        Instant createdAt = Instant.parse("2015-06-02T15:50:08.039Z");
+
+        assertTrue(MessageEnvelope.isExpired(100, createdAt, createdAt.plusMillis(101)));
+        assertFalse(MessageEnvelope.isExpired(100, createdAt, createdAt.plusMillis(100)));
+        assertFalse(MessageEnvelope.isExpired(null, createdAt, createdAt.plusMillis(101)));
+        assertFalse(MessageEnvelope.isExpired(100, null, createdAt.plusMillis(101)));
+    }
+}
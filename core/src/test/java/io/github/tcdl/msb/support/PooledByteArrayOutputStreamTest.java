@@ -0,0 +1,67 @@
+package io.github.tcdl.msb.support;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class PooledByteArrayOutputStreamTest {
+
+    @Test
+    public void testStreamReusedAfterClose() {
+        PooledByteArrayOutputStream first = PooledByteArrayOutputStream.acquire();
+        first.write(1);
+        first.close();
+
+        PooledByteArrayOutputStream second = PooledByteArrayOutputStream.acquire();
+        try {
+            assertSame(first, second);
+            assertEquals(0, second.size());
+        } finally {
+            second.close();
+        }
+    }
+
+    @Test
+    public void testNewStreamReturnedWhileInUse() {
+        try (PooledByteArrayOutputStream outer = PooledByteArrayOutputStream.acquire();
+             PooledByteArrayOutputStream inner = PooledByteArrayOutputStream.acquire()) {
+            assertNotSame(outer, inner);
+        }
+    }
+
+    @Test
+    public void testGrowAndWrap() {
+        byte[] data = new byte[PooledByteArrayOutputStream.INITIAL_CAPACITY * 3 + 1];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+
+        try (PooledByteArrayOutputStream out = PooledByteArrayOutputStream.acquire()) {
+            out.write(data, 0, 10);
+            out.write(data, 10, data.length - 10);
+
+            ByteBuffer buffer = out.toByteBuffer();
+            byte[] written = new byte[buffer.remaining()];
+            buffer.get(written);
+            assertArrayEquals(data, written);
+            assertArrayEquals(data, out.toByteArray());
+        }
+    }
+
+    @Test
+    public void testWriteTo() throws Exception {
+        Object payload = TestUtils.createSimpleRequestPayload();
+        try (PooledByteArrayOutputStream out = PooledByteArrayOutputStream.acquire()) {
+            Utils.writeTo(payload, out, TestUtils.createMessageMapper());
+
+            assertEquals(Utils.toJson(payload, TestUtils.createMessageMapper()),
+                    new String(out.toByteArray(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.junit.Test;
 
 import java.time.Instant;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
@@ -17,6 +18,25 @@ import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
 public class UtilsTest {
+    @Test
+    public void testUuidBits() {
+        UUID uuid = UUID.randomUUID();
+        String id = uuid.toString();
+
+        assertTrue(Utils.isCanonicalUuid(id));
+        assertEquals(uuid.getMostSignificantBits(), Utils.uuidMostSignificantBits(id));
+        assertEquals(uuid.getLeastSignificantBits(), Utils.uuidLeastSignificantBits(id));
+    }
+
+    @Test
+    public void testIsCanonicalUuid() {
+        assertTrue(Utils.isCanonicalUuid("00000000-0000-0000-0000-000000000000"));
+        assertFalse(Utils.isCanonicalUuid("6F9619FF-8B86-D011-B42D-00C04FC964FF"));
+        assertFalse(Utils.isCanonicalUuid("1-1-1-1-1"));
+        assertFalse(Utils.isCanonicalUuid("6f9619ff8b86d011b42d00c04fc964ff"));
+        assertFalse(Utils.isCanonicalUuid(null));
+    }
+
     @Test
     public void testIsServiceTopic() {
         assertTrue(isServiceTopic(TOPIC_ANNOUNCE));
@@ -50,6 +50,12 @@ public class MsbConfigAutoConfiguration {
         // Thread pool used for scheduling ack and response timeout tasks
         Integer timerThreadPoolSize = msbProperties.timerThreadPoolSize != null ? msbProperties.timerThreadPoolSize : DEFAULT_TIMER_THREAD_POOL_SIZE;
         config = config.withValue("msbConfig.timerThreadPoolSize", ConfigValueFactory.fromAnyRef(timerThreadPoolSize));
+        if (StringUtils.isNotBlank(msbProperties.timer.type))
+            config = config.withValue("msbConfig.timer.type", ConfigValueFactory.fromAnyRef(msbProperties.timer.type));
+        if (msbProperties.timer.tickDuration != null)
+            config = config.withValue("msbConfig.timer.tickDuration", ConfigValueFactory.fromAnyRef(msbProperties.timer.tickDuration));
+        if (msbProperties.timer.ticksPerWheel != null)
+            config = config.withValue("msbConfig.timer.ticksPerWheel", ConfigValueFactory.fromAnyRef(msbProperties.timer.ticksPerWheel));
 
         // Threading Config for Clients
         if (msbProperties.threadingConfig.consumerThreadPoolSize != null)
@@ -61,6 +67,10 @@ public class MsbConfigAutoConfiguration {
         if (msbProperties.validateMessage != null)
             config = config.withValue("msbConfig.validateMessage", ConfigValueFactory.fromAnyRef(msbProperties.validateMessage));
 
+        // Codec of message envelopes on the wire
+        if (StringUtils.isNotBlank(msbProperties.messageCodec))
+            config = config.withValue("msbConfig.messageCodec", ConfigValueFactory.fromAnyRef(msbProperties.messageCodec));
+
         //MDC logging
         if (msbProperties.mdcLogging.enabled != null)
             config = config.withValue("msbConfig.mdcLogging.enabled", ConfigValueFactory.fromAnyRef(msbProperties.mdcLogging.enabled));
@@ -75,6 +85,16 @@ public class MsbConfigAutoConfiguration {
         if (msbProperties.requestOptions.responseTimeout != null)
             config = config.withValue("msbConfig.requestOptions.responseTimeout", ConfigValueFactory.fromAnyRef(msbProperties.requestOptions.responseTimeout));
 
+        //responseProducers
+        if (msbProperties.responseProducers.maxSize != null)
+            config = config.withValue("msbConfig.responseProducers.maxSize", ConfigValueFactory.fromAnyRef(msbProperties.responseProducers.maxSize));
+        if (msbProperties.responseProducers.idleTimeout != null)
+            config = config.withValue("msbConfig.responseProducers.idleTimeout", ConfigValueFactory.fromAnyRef(msbProperties.responseProducers.idleTimeout));
+
+        // Shards of the index of requests waiting for responses
+        if (msbProperties.correlationIndexShards != null)
+            config = config.withValue("msbConfig.correlationIndexShards", ConfigValueFactory.fromAnyRef(msbProperties.correlationIndexShards));
+
         //Broker Adapter Defaults
         if (StringUtils.isNotBlank(msbProperties.brokerConfig.host))
             config = config.withValue("msbConfig.brokerConfig.host", ConfigValueFactory.fromAnyRef(msbProperties.brokerConfig.host));
@@ -102,6 +122,40 @@ public class MsbConfigAutoConfiguration {
             config = config.withValue("msbConfig.brokerConfig.defaultExchangeType", ConfigValueFactory.fromAnyRef(msbProperties.brokerConfig.defaultExchangeType));
         if (msbProperties.brokerConfig.prefetchCount != null)
             config = config.withValue("msbConfig.brokerConfig.prefetchCount", ConfigValueFactory.fromAnyRef(msbProperties.brokerConfig.prefetchCount));
+        if (StringUtils.isNotBlank(msbProperties.brokerConfig.compression))
+            config = config.withValue("msbConfig.brokerConfig.compression", ConfigValueFactory.fromAnyRef(msbProperties.brokerConfig.compression));
+        if (msbProperties.brokerConfig.compressionThresholdBytes != null)
+            config = config.withValue("msbConfig.brokerConfig.compressionThresholdBytes", ConfigValueFactory.fromAnyRef(msbProperties.brokerConfig.compressionThresholdBytes));
+        if (msbProperties.brokerConfig.publisherConfirms != null)
+            config = config.withValue("msbConfig.brokerConfig.publisherConfirms", ConfigValueFactory.fromAnyRef(msbProperties.brokerConfig.publisherConfirms));
+        if (msbProperties.brokerConfig.maxUnconfirmedMessages != null)
+            config = config.withValue("msbConfig.brokerConfig.maxUnconfirmedMessages", ConfigValueFactory.fromAnyRef(msbProperties.brokerConfig.maxUnconfirmedMessages));
+        if (msbProperties.brokerConfig.producerChannelPoolSize != null)
+            config = config.withValue("msbConfig.brokerConfig.producerChannelPoolSize", ConfigValueFactory.fromAnyRef(msbProperties.brokerConfig.producerChannelPoolSize));
+        if (StringUtils.isNotBlank(msbProperties.brokerConfig.producerChannelSelection))
+            config = config.withValue("msbConfig.brokerConfig.producerChannelSelection", ConfigValueFactory.fromAnyRef(msbProperties.brokerConfig.producerChannelSelection));
+        if (msbProperties.brokerConfig.publishConnections != null)
+            config = config.withValue("msbConfig.brokerConfig.publishConnections", ConfigValueFactory.fromAnyRef(msbProperties.brokerConfig.publishConnections));
+        if (msbProperties.brokerConfig.consumeConnections != null)
+            config = config.withValue("msbConfig.brokerConfig.consumeConnections", ConfigValueFactory.fromAnyRef(msbProperties.brokerConfig.consumeConnections));
+        if (msbProperties.brokerConfig.consumerThreadPoolSize != null)
+            config = config.withValue("msbConfig.brokerConfig.consumerThreadPoolSize", ConfigValueFactory.fromAnyRef(msbProperties.brokerConfig.consumerThreadPoolSize));
+        if (msbProperties.brokerConfig.ackBatchSize != null)
+            config = config.withValue("msbConfig.brokerConfig.ackBatchSize", ConfigValueFactory.fromAnyRef(msbProperties.brokerConfig.ackBatchSize));
+        if (msbProperties.brokerConfig.ackFlushIntervalMs != null)
+            config = config.withValue("msbConfig.brokerConfig.ackFlushIntervalMs", ConfigValueFactory.fromAnyRef(msbProperties.brokerConfig.ackFlushIntervalMs));
+        if (msbProperties.brokerConfig.adaptivePrefetch != null)
+            config = config.withValue("msbConfig.brokerConfig.adaptivePrefetch", ConfigValueFactory.fromAnyRef(msbProperties.brokerConfig.adaptivePrefetch));
+        if (msbProperties.brokerConfig.minPrefetchCount != null)
+            config = config.withValue("msbConfig.brokerConfig.minPrefetchCount", ConfigValueFactory.fromAnyRef(msbProperties.brokerConfig.minPrefetchCount));
+        if (msbProperties.brokerConfig.maxPrefetchCount != null)
+            config = config.withValue("msbConfig.brokerConfig.maxPrefetchCount", ConfigValueFactory.fromAnyRef(msbProperties.brokerConfig.maxPrefetchCount));
+        if (msbProperties.brokerConfig.prefetchAdjustmentIntervalMs != null)
+            config = config.withValue("msbConfig.brokerConfig.prefetchAdjustmentIntervalMs", ConfigValueFactory.fromAnyRef(msbProperties.brokerConfig.prefetchAdjustmentIntervalMs));
+        if (msbProperties.brokerConfig.maxPriority != null)
+            config = config.withValue("msbConfig.brokerConfig.maxPriority", ConfigValueFactory.fromAnyRef(msbProperties.brokerConfig.maxPriority));
+        if (msbProperties.brokerConfig.consumerCount != null)
+            config = config.withValue("msbConfig.brokerConfig.consumerCount", ConfigValueFactory.fromAnyRef(msbProperties.brokerConfig.consumerCount));
 
         return new MsbConfig(config);
     }
@@ -10,11 +10,15 @@ public class MsbProperties {
     ServiceDetails serviceDetails = new ServiceDetails();
     String brokerAdapterFactory;
     Integer timerThreadPoolSize;
+    Timer timer = new Timer();
     Boolean validateMessage;
+    String messageCodec;
+    Integer correlationIndexShards;
     ThreadingConfig threadingConfig = new ThreadingConfig();
     BrokerConfig brokerConfig = new BrokerConfig();
     MdcLogging mdcLogging = new MdcLogging();
     RequestOptions requestOptions = new RequestOptions();
+    ResponseProducers responseProducers = new ResponseProducers();
 
     public ServiceDetails getServiceDetails() {
         return serviceDetails;
@@ -40,6 +44,14 @@ public class MsbProperties {
         this.timerThreadPoolSize = timerThreadPoolSize;
     }
 
+    public Timer getTimer() {
+        return timer;
+    }
+
+    public void setTimer(Timer timer) {
+        this.timer = timer;
+    }
+
     public Boolean getValidateMessage() {
         return validateMessage;
     }
@@ -48,6 +60,22 @@ public class MsbProperties {
         this.validateMessage = validateMessage;
     }
 
+    public String getMessageCodec() {
+        return messageCodec;
+    }
+
+    public void setMessageCodec(String messageCodec) {
+        this.messageCodec = messageCodec;
+    }
+
+    public Integer getCorrelationIndexShards() {
+        return correlationIndexShards;
+    }
+
+    public void setCorrelationIndexShards(Integer correlationIndexShards) {
+        this.correlationIndexShards = correlationIndexShards;
+    }
+
     public BrokerConfig getBrokerConfig() {
         return brokerConfig;
     }
@@ -80,6 +108,44 @@ public class MsbProperties {
         this.requestOptions = requestOptions;
     }
 
+    public ResponseProducers getResponseProducers() {
+        return responseProducers;
+    }
+
+    public void setResponseProducers(ResponseProducers responseProducers) {
+        this.responseProducers = responseProducers;
+    }
+
+    public class Timer {
+        String type;
+        Long tickDuration;
+        Integer ticksPerWheel;
+
+        public String getType() {
+            return type;
+        }
+
+        public void setType(String type) {
+            this.type = type;
+        }
+
+        public Long getTickDuration() {
+            return tickDuration;
+        }
+
+        public void setTickDuration(Long tickDuration) {
+            this.tickDuration = tickDuration;
+        }
+
+        public Integer getTicksPerWheel() {
+            return ticksPerWheel;
+        }
+
+        public void setTicksPerWheel(Integer ticksPerWheel) {
+            this.ticksPerWheel = ticksPerWheel;
+        }
+    }
+
     public class ThreadingConfig {
         Integer consumerThreadPoolSize;
         Integer consumerThreadPoolQueueCapacity;
@@ -221,6 +287,27 @@ public class MsbProperties {
         }
     }
 
+    public class ResponseProducers {
+        Integer maxSize;
+        Long idleTimeout;
+
+        public Integer getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(Integer maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Long getIdleTimeout() {
+            return idleTimeout;
+        }
+
+        public void setIdleTimeout(Long idleTimeout) {
+            this.idleTimeout = idleTimeout;
+        }
+    }
+
     public class BrokerConfig {
         Charset charset;
         String host;
@@ -235,6 +322,23 @@ public class MsbProperties {
         Integer heartbeatIntervalSec;
         Long networkRecoveryIntervalMs;
         Integer prefetchCount;
+        String compression;
+        Integer compressionThresholdBytes;
+        Boolean publisherConfirms;
+        Integer maxUnconfirmedMessages;
+        Integer producerChannelPoolSize;
+        String producerChannelSelection;
+        Integer publishConnections;
+        Integer consumeConnections;
+        Integer consumerThreadPoolSize;
+        Integer ackBatchSize;
+        Long ackFlushIntervalMs;
+        Boolean adaptivePrefetch;
+        Integer minPrefetchCount;
+        Integer maxPrefetchCount;
+        Long prefetchAdjustmentIntervalMs;
+        Integer maxPriority;
+        Integer consumerCount;
 
         public Charset getCharset() {
             return charset;
@@ -339,6 +443,142 @@ public class MsbProperties {
         public void setPrefetchCount(Integer prefetchCount) {
             this.prefetchCount = prefetchCount;
         }
+
+        public String getCompression() {
+            return compression;
+        }
+
+        public void setCompression(String compression) {
+            this.compression = compression;
+        }
+
+        public Integer getCompressionThresholdBytes() {
+            return compressionThresholdBytes;
+        }
+
+        public void setCompressionThresholdBytes(Integer compressionThresholdBytes) {
+            this.compressionThresholdBytes = compressionThresholdBytes;
+        }
+
+        public Boolean getPublisherConfirms() {
+            return publisherConfirms;
+        }
+
+        public void setPublisherConfirms(Boolean publisherConfirms) {
+            this.publisherConfirms = publisherConfirms;
+        }
+
+        public Integer getMaxUnconfirmedMessages() {
+            return maxUnconfirmedMessages;
+        }
+
+        public void setMaxUnconfirmedMessages(Integer maxUnconfirmedMessages) {
+            this.maxUnconfirmedMessages = maxUnconfirmedMessages;
+        }
+
+        public Integer getProducerChannelPoolSize() {
+            return producerChannelPoolSize;
+        }
+
+        public void setProducerChannelPoolSize(Integer producerChannelPoolSize) {
+            this.producerChannelPoolSize = producerChannelPoolSize;
+        }
+
+        public String getProducerChannelSelection() {
+            return producerChannelSelection;
+        }
+
+        public void setProducerChannelSelection(String producerChannelSelection) {
+            this.producerChannelSelection = producerChannelSelection;
+        }
+
+        public Integer getPublishConnections() {
+            return publishConnections;
+        }
+
+        public void setPublishConnections(Integer publishConnections) {
+            this.publishConnections = publishConnections;
+        }
+
+        public Integer getConsumeConnections() {
+            return consumeConnections;
+        }
+
+        public void setConsumeConnections(Integer consumeConnections) {
+            this.consumeConnections = consumeConnections;
+        }
+
+        public Integer getConsumerThreadPoolSize() {
+            return consumerThreadPoolSize;
+        }
+
+        public void setConsumerThreadPoolSize(Integer consumerThreadPoolSize) {
+            this.consumerThreadPoolSize = consumerThreadPoolSize;
+        }
+
+        public Integer getAckBatchSize() {
+            return ackBatchSize;
+        }
+
+        public void setAckBatchSize(Integer ackBatchSize) {
+            this.ackBatchSize = ackBatchSize;
+        }
+
+        public Long getAckFlushIntervalMs() {
+            return ackFlushIntervalMs;
+        }
+
+        public void setAckFlushIntervalMs(Long ackFlushIntervalMs) {
+            this.ackFlushIntervalMs = ackFlushIntervalMs;
+        }
+
+        public Boolean getAdaptivePrefetch() {
+            return adaptivePrefetch;
+        }
+
+        public void setAdaptivePrefetch(Boolean adaptivePrefetch) {
+            this.adaptivePrefetch = adaptivePrefetch;
+        }
+
+        public Integer getMinPrefetchCount() {
+            return minPrefetchCount;
+        }
+
+        public void setMinPrefetchCount(Integer minPrefetchCount) {
+            this.minPrefetchCount = minPrefetchCount;
+        }
+
+        public Integer getMaxPrefetchCount() {
+            return maxPrefetchCount;
+        }
+
+        public void setMaxPrefetchCount(Integer maxPrefetchCount) {
+            this.maxPrefetchCount = maxPrefetchCount;
+        }
+
+        public Long getPrefetchAdjustmentIntervalMs() {
+            return prefetchAdjustmentIntervalMs;
+        }
+
+        public void setPrefetchAdjustmentIntervalMs(Long prefetchAdjustmentIntervalMs) {
+            this.prefetchAdjustmentIntervalMs = prefetchAdjustmentIntervalMs;
+        }
+
+        public Integer getMaxPriority() {
+            return maxPriority;
+        }
+
+        public void setMaxPriority(Integer maxPriority) {
+            this.maxPriority = maxPriority;
+        }
+
+        public Integer getConsumerCount() {
+            return consumerCount;
+        }
+
+        public void setConsumerCount(Integer consumerCount) {
+            this.consumerCount = consumerCount;
+        }
     }
 
 }
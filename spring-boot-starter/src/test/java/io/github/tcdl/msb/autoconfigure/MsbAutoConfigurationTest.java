@@ -5,6 +5,7 @@ import com.typesafe.config.ConfigFactory;
 import io.github.tcdl.msb.api.MessageTemplate;
 import io.github.tcdl.msb.api.MsbContext;
 import io.github.tcdl.msb.config.MsbConfig;
+import io.github.tcdl.msb.config.TimerType;
 import org.junit.After;
 import org.junit.Test;
 import org.mockito.Mockito;
@@ -53,6 +54,41 @@ public class MsbAutoConfigurationTest {
         assertEquals("192.168.0.1", msbConfig.getBrokerConfig().getString("host"));
     }
 
+    @Test
+    public void testOverrideTimer() {
+        load(EmptyConfiguration.class, "msbConfig.timer.type=wheel", "msbConfig.timer.tickDuration=20", "msbConfig.timer.ticksPerWheel=256");
+        MsbConfig msbConfig = this.context.getBean(MsbConfig.class);
+
+        assertEquals(TimerType.WHEEL, msbConfig.getTimerType());
+        assertEquals(20, msbConfig.getTimerTickDuration());
+        assertEquals(256, msbConfig.getTimerTicksPerWheel());
+    }
+
+    @Test
+    public void testOverrideMessageCodec() {
+        load(EmptyConfiguration.class, "msbConfig.messageCodec=smile");
+        MsbConfig msbConfig = this.context.getBean(MsbConfig.class);
+
+        assertEquals("smile", msbConfig.getMessageCodec());
+    }
+
+    @Test
+    public void testOverrideResponseProducers() {
+        load(EmptyConfiguration.class, "msbConfig.responseProducers.maxSize=10", "msbConfig.responseProducers.idleTimeout=5000");
+        MsbConfig msbConfig = this.context.getBean(MsbConfig.class);
+
+        assertEquals(10, msbConfig.getResponseProducersMaxSize());
+        assertEquals(5000, msbConfig.getResponseProducersIdleTimeout());
+    }
+
+    @Test
+    public void testOverrideCorrelationIndexShards() {
+        load(EmptyConfiguration.class, "msbConfig.correlationIndexShards=64");
+        MsbConfig msbConfig = this.context.getBean(MsbConfig.class);
+
+        assertEquals(64, msbConfig.getCorrelationIndexShards());
+    }
+
     @Test
     public void testDefaultMessageTemplate() {
         load(EmptyConfiguration.class);